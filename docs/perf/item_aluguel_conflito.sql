@@ -0,0 +1,85 @@
+-- =========================================================
+-- Benchmark do índice idx_item_aluguel_conflito (1M itens)
+-- =========================================================
+--
+-- Compara, na checagem de conflito por traje, o índice composto
+-- idx_item_aluguel_conflito (id_traje, status, data_retirada,
+-- data_devolucao, id_aluguel) com o índice que ele substituiu,
+-- idx_item_aluguel_traje (id_traje, id_aluguel).
+--
+-- Uso, num banco descartável do MySQL do docker-compose:
+--   1. suba a aplicação uma vez com DB_NAME=tcc_bench para o ddl-auto criar
+--      as tabelas (a MigracaoIndicesItemAluguel já remove o índice antigo);
+--   2. mysql -uroot -p tcc_bench < docs/perf/item_aluguel_conflito.sql
+--
+-- Gera 1.000.000 de itens em 5.000 trajes (200 por traje, 3 por aluguel),
+-- 20% ATIVOS, com períodos de 3 dias espalhados em 5 anos. As chaves
+-- estrangeiras ficam desligadas na carga: a consulta só lê item_aluguel.
+-- Cada consulta roda com EXPLAIN (plano) e EXPLAIN ANALYZE (tempo real),
+-- forçando um índice de cada vez. No fim o índice antigo é removido de novo.
+
+SET SESSION cte_max_recursion_depth = 1000000;
+SET FOREIGN_KEY_CHECKS = 0;
+
+TRUNCATE TABLE item_aluguel;
+
+INSERT INTO item_aluguel (id_aluguel, id_traje, status, data_retirada, data_devolucao)
+WITH RECURSIVE seq (n) AS (
+    SELECT 1
+    UNION ALL
+    SELECT n + 1 FROM seq WHERE n < 1000000
+)
+SELECT 1 + (n - 1) DIV 3,
+       1 + MOD(n * 7919, 5000),
+       IF(MOD(n, 5) = 0, 'ATIVO', IF(MOD(n, 5) = 1, 'CANCELADO', 'CONCLUIDO')),
+       DATE_ADD('2022-01-01', INTERVAL MOD(n * 31, 1825) DAY),
+       DATE_ADD('2022-01-01', INTERVAL MOD(n * 31, 1825) + 3 DAY)
+FROM seq;
+
+SET FOREIGN_KEY_CHECKS = 1;
+
+CREATE INDEX idx_item_aluguel_traje ON item_aluguel (id_traje, id_aluguel);
+ANALYZE TABLE item_aluguel;
+
+-- ---------------------------------------------------------
+-- ItemAluguelRepository.trajeIndisponivelNoPeriodo (criação)
+-- ---------------------------------------------------------
+EXPLAIN
+SELECT COUNT(*) FROM item_aluguel i FORCE INDEX (idx_item_aluguel_conflito)
+WHERE i.id_traje = 1234 AND i.status = 'ATIVO'
+  AND '2024-06-10' <= i.data_devolucao AND '2024-06-13' >= i.data_retirada;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM item_aluguel i FORCE INDEX (idx_item_aluguel_conflito)
+WHERE i.id_traje = 1234 AND i.status = 'ATIVO'
+  AND '2024-06-10' <= i.data_devolucao AND '2024-06-13' >= i.data_retirada;
+
+EXPLAIN
+SELECT COUNT(*) FROM item_aluguel i FORCE INDEX (idx_item_aluguel_traje)
+WHERE i.id_traje = 1234 AND i.status = 'ATIVO'
+  AND '2024-06-10' <= i.data_devolucao AND '2024-06-13' >= i.data_retirada;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM item_aluguel i FORCE INDEX (idx_item_aluguel_traje)
+WHERE i.id_traje = 1234 AND i.status = 'ATIVO'
+  AND '2024-06-10' <= i.data_devolucao AND '2024-06-13' >= i.data_retirada;
+
+-- ---------------------------------------------------------
+-- ItemAluguelRepository.findTrajesIndisponiveisNoPeriodo (20 trajes,
+-- atualização: desconsidera o próprio aluguel)
+-- ---------------------------------------------------------
+EXPLAIN ANALYZE
+SELECT DISTINCT i.id_traje FROM item_aluguel i FORCE INDEX (idx_item_aluguel_conflito)
+WHERE i.id_traje IN (11, 57, 103, 149, 195, 241, 287, 333, 379, 425,
+                     471, 517, 563, 609, 655, 701, 747, 793, 839, 885)
+  AND i.status = 'ATIVO' AND i.id_aluguel <> 4242
+  AND '2024-06-10' <= i.data_devolucao AND '2024-06-13' >= i.data_retirada;
+
+EXPLAIN ANALYZE
+SELECT DISTINCT i.id_traje FROM item_aluguel i FORCE INDEX (idx_item_aluguel_traje)
+WHERE i.id_traje IN (11, 57, 103, 149, 195, 241, 287, 333, 379, 425,
+                     471, 517, 563, 609, 655, 701, 747, 793, 839, 885)
+  AND i.status = 'ATIVO' AND i.id_aluguel <> 4242
+  AND '2024-06-10' <= i.data_devolucao AND '2024-06-13' >= i.data_retirada;
+
+DROP INDEX idx_item_aluguel_traje ON item_aluguel;
@@ -0,0 +1,142 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.domain.ItemAluguel;
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.enums.CorTraje;
+import br.edu.fateczl.tcc.enums.SexoEnum;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.enums.TamanhoTraje;
+import br.edu.fateczl.tcc.enums.TipoTraje;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de renderizar um contrato, com e sem o {@link ModeloContrato}.
+ *
+ * Numa thread só e sem E/S, o tempo médio por operação é tempo de CPU por
+ * contrato; o profiler {@code gc} configurado no build acrescenta os bytes
+ * alocados por contrato ({@code gc.alloc.rate.norm}).
+ *
+ * <ul>
+ *   <li>{@code contrato}: contrato completo pelo caminho de produção
+ *       ({@link ContratoPdfService#gerarContrato(Aluguel)}), com o modelo.</li>
+ *   <li>{@code partesFixasEstampadas} / {@code partesFixasDiagramadas}: só
+ *       cabeçalho e termos, estampados do modelo ou diagramados a cada
+ *       contrato como antes dele. O restante do contrato é igual nos dois
+ *       casos, então o contrato sem modelo custa
+ *       {@code contrato - partesFixasEstampadas + partesFixasDiagramadas}.</li>
+ * </ul>
+ *
+ * Execução: {@code ./gradlew jmh}; resultado em {@code build/results/jmh/results.json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContratoPdfBenchmark {
+
+    private ContratoPdfService service;
+    private ModeloContrato modelo;
+    private Aluguel aluguel;
+
+    @Setup
+    public void setup() {
+        service = new ContratoPdfService(null, null);
+        modelo = ModeloContrato.preRenderizar(ContratoPdfBenchmark::documentoA4,
+                ContratoPdfService::escreverCabecalho,
+                ContratoPdfService::escreverTermos);
+        aluguel = aluguelComItens(3);
+    }
+
+    @Benchmark
+    public byte[] contrato() {
+        return service.gerarContrato(aluguel);
+    }
+
+    @Benchmark
+    public byte[] partesFixasEstampadas() throws DocumentException {
+        Document doc = documentoA4();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfReader leitor = modelo.emprestarLeitor();
+        PdfWriter writer = PdfWriter.getInstance(doc, baos);
+        modelo.reservarEspaco(doc, ModeloContrato.PAGINA_CABECALHO);
+        doc.open();
+        modelo.estampar(writer, leitor, doc, ModeloContrato.PAGINA_CABECALHO);
+        modelo.reservarEspaco(doc, ModeloContrato.PAGINA_TERMOS);
+        doc.newPage();
+        modelo.estampar(writer, leitor, doc, ModeloContrato.PAGINA_TERMOS);
+        doc.close();
+        modelo.devolverLeitor(leitor);
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] partesFixasDiagramadas() throws DocumentException {
+        Document doc = documentoA4();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter.getInstance(doc, baos);
+        doc.open();
+        ContratoPdfService.escreverCabecalho(doc);
+        doc.newPage();
+        ContratoPdfService.escreverTermos(doc);
+        doc.close();
+        return baos.toByteArray();
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private static Document documentoA4() {
+        return new Document(PageSize.A4, 60, 60, 60, 60);
+    }
+
+    private static Aluguel aluguelComItens(int quantidade) {
+        Cliente cliente = new Cliente("Maria da Silva", "12345678901", "maria@exemplo.com", "11987654321",
+                SexoEnum.FEMININO, null);
+        Aluguel aluguel = Aluguel.builder()
+                .id(1L)
+                .dataAluguel(LocalDate.of(2026, 5, 1))
+                .dataRetirada(LocalDate.of(2026, 5, 10))
+                .dataDevolucao(LocalDate.of(2026, 5, 13))
+                .valorTotal(new BigDecimal("450.00"))
+                .observacoes("Ajuste na barra")
+                .status(StatusAluguel.ATIVO)
+                .cliente(cliente)
+                .build();
+
+        List<ItemAluguel> itens = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            Traje traje = Traje.builder()
+                    .id((long) i)
+                    .nome("Vestido longo " + i)
+                    .tipo(TipoTraje.VESTIDO)
+                    .tamanho(TamanhoTraje.PP)
+                    .cor(CorTraje.BRANCO)
+                    .genero(SexoEnum.FEMININO)
+                    .valorItem(new BigDecimal("150.00"))
+                    .build();
+            itens.add(ItemAluguel.builder().id((long) i).aluguel(aluguel).traje(traje).build());
+        }
+        aluguel.setItens(itens);
+        return aluguel;
+    }
+}
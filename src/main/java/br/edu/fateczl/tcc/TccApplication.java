@@ -39,6 +39,7 @@ public class TccApplication {
             setarSePresente("DB_PASSWORD", dotenv.get("DB_PASSWORD", ""));
 
             setarSePresente("SEEDER_ENABLED", dotenv.get("SEEDER_ENABLED", "false"));
+            setarSePresente("IMAGENS_DIR", dotenv.get("IMAGENS_DIR", "./data/imagens"));
             
             log.info("✅ Variáveis de ambiente carregadas do .env");
         } catch (Exception e) {
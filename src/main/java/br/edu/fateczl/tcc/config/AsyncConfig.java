@@ -0,0 +1,83 @@
+package br.edu.fateczl.tcc.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String IMAGEM_EXECUTOR = "imagemExecutor";
+    public static final String CONTRATO_EXECUTOR = "contratoExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Pool dedicado à geração de variantes. Decodificar uma foto grande ocupa
+     * dezenas de MB, por isso o número de threads e a fila são limitados;
+     * tarefas excedentes são descartadas (o GET cai no original) e geradas
+     * depois pela varredura de {@code ImagemVarianteService.gerarPendentes}.
+     */
+    @Bean(name = IMAGEM_EXECUTOR)
+    public ThreadPoolTaskExecutor imagemExecutor(
+            @Value("${app.imagens.variantes.threads:2}") int threads,
+            @Value("${app.imagens.variantes.fila:100}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("imagem-");
+        executor.setRejectedExecutionHandler((tarefa, pool) ->
+                log.warn("Fila de variantes de imagem cheia ({} tarefas); tarefa fica para a varredura", pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Pool dedicado à renderização de contratos pedida em segundo plano.
+     * Poucas threads, para que PDFs não disputem CPU com as requisições de
+     * aluguel; com a fila cheia o pedido é recusado (TaskRejectedException,
+     * respondida como 503) em vez de crescer sem limite.
+     */
+    @Bean(name = CONTRATO_EXECUTOR)
+    public ThreadPoolTaskExecutor contratoExecutor(
+            @Value("${app.contratos.jobs.threads:2}") int threads,
+            @Value("${app.contratos.jobs.fila:50}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("contrato-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Pool das respostas escritas em streaming (StreamingResponseBody), ligado
+     * ao Spring MVC em {@link WebAsyncConfig}. Com os pools acima declarados, o
+     * Boot não cria o applicationTaskExecutor e o MVC cairia num executor que
+     * abre uma thread por download; aqui o número de threads é limitado e, com
+     * a fila cheia, o download é recusado com 503.
+     */
+    @Bean(name = STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor(
+            @Value("${app.streaming.threads:8}") int threads,
+            @Value("${app.streaming.fila:32}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("streaming-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package br.edu.fateczl.tcc.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Respostas em streaming rodam no pool limitado de {@link AsyncConfig}. Em
+ * testes de fatia (@WebMvcTest) o AsyncConfig não é carregado e o MVC fica
+ * com o executor padrão.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AsyncTaskExecutor> streamingExecutor;
+
+    public WebAsyncConfig(@Qualifier(AsyncConfig.STREAMING_EXECUTOR) ObjectProvider<AsyncTaskExecutor> streamingExecutor) {
+        this.streamingExecutor = streamingExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        streamingExecutor.ifAvailable(configurer::setTaskExecutor);
+    }
+}
@@ -1,19 +1,29 @@
 package br.edu.fateczl.tcc.controller;
 
+import br.edu.fateczl.tcc.dto.aluguel.AluguelAtrasadoResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelFiltroRequest;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelPaginaResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelRequest;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelUpdateRequest;
+import br.edu.fateczl.tcc.dto.aluguel.AtrasosNovosResponse;
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
 import br.edu.fateczl.tcc.dto.devolucao.DevolucaoRequest;
 import br.edu.fateczl.tcc.dto.devolucao.DevolucaoResponse;
 import br.edu.fateczl.tcc.enums.StatusAluguel;
 import br.edu.fateczl.tcc.enums.TipoOcasiao;
 import br.edu.fateczl.tcc.service.AluguelService;
+import br.edu.fateczl.tcc.service.AtrasoAluguelService;
+import br.edu.fateczl.tcc.service.ContratoJobService;
+import br.edu.fateczl.tcc.service.ContratoLoteService;
 import br.edu.fateczl.tcc.service.ContratoPdfService;
+import br.edu.fateczl.tcc.storage.ContratoPdf;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -27,9 +37,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.time.LocalDate;
-import java.util.List;
 
 @RestController
 @RequestMapping("/alugueis")
@@ -38,10 +50,20 @@ public class AluguelController {
 
     private final AluguelService aluguelService;
     private final ContratoPdfService contratoPdfService;
+    private final ContratoLoteService contratoLoteService;
+    private final ContratoJobService contratoJobService;
+    private final AtrasoAluguelService atrasoAluguelService;
 
-    public AluguelController(AluguelService aluguelService, ContratoPdfService contratoPdfService) {
+    public AluguelController(AluguelService aluguelService,
+                             ContratoPdfService contratoPdfService,
+                             ContratoLoteService contratoLoteService,
+                             ContratoJobService contratoJobService,
+                             AtrasoAluguelService atrasoAluguelService) {
         this.aluguelService = aluguelService;
         this.contratoPdfService = contratoPdfService;
+        this.contratoLoteService = contratoLoteService;
+        this.contratoJobService = contratoJobService;
+        this.atrasoAluguelService = atrasoAluguelService;
     }
 
 
@@ -75,18 +97,23 @@ public class AluguelController {
     // ===============================
     // READ - com filtros
     // ===============================
-    @Operation(summary = "Listar aluguéis com filtros opcionais")
+    @Operation(summary = "Listar aluguéis com filtros opcionais, por data de retirada, em páginas por cursor")
     @ApiResponse(responseCode = "200", description = "Aluguéis recuperados com sucesso")
+    @ApiResponse(responseCode = "400", description = "Cursor inválido ou limite fora do intervalo permitido")
     @GetMapping
-    public ResponseEntity<List<AluguelResponse>> listarComFiltros(
+    public ResponseEntity<AluguelPaginaResponse> listarComFiltros(
             @RequestParam(name = "status", required = false) StatusAluguel status,
             @RequestParam(name = "nomeCliente", required = false) String nomeCliente,
             @RequestParam(name = "dataRetiradaInicio", required = false) LocalDate dataRetiradaInicio,
             @RequestParam(name = "dataRetiradaFim", required = false) LocalDate dataRetiradaFim,
-            @RequestParam(name = "ocasiao", required = false) TipoOcasiao ocasiao) {
+            @RequestParam(name = "ocasiao", required = false) TipoOcasiao ocasiao,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limite", defaultValue = "20") int limite,
+            @RequestParam(name = "contarTotal", defaultValue = "false") boolean contarTotal) {
 
-        return ResponseEntity.ok(aluguelService.listarComFiltros(
-                new AluguelFiltroRequest(status, nomeCliente, dataRetiradaInicio, dataRetiradaFim, ocasiao)));
+        return ResponseEntity.ok(aluguelService.listarPagina(
+                new AluguelFiltroRequest(status, nomeCliente, dataRetiradaInicio, dataRetiradaFim, ocasiao),
+                cursor, limite, contarTotal));
     }
 
 
@@ -102,6 +129,31 @@ public class AluguelController {
     }
 
 
+    // ===============================
+    // READ - atrasados
+    // ===============================
+    @Operation(summary = "Listar aluguéis atrasados, do mais atrasado para o menos")
+    @ApiResponse(responseCode = "200", description = "Atrasos do último cálculo diário")
+    @GetMapping("/atrasados")
+    public Page<AluguelAtrasadoResponse> listarAtrasados(
+            @RequestParam(value = "pagina", defaultValue = "0") int pagina,
+            @RequestParam(value = "tamanhoPagina", defaultValue = "10") int tamanhoPagina) {
+
+        return atrasoAluguelService.listar(pagina, tamanhoPagina);
+    }
+
+    @Operation(summary = "Atrasos detectados depois do cursor informado")
+    @ApiResponse(responseCode = "200", description = "Novos atrasos e o cursor para a próxima consulta")
+    @ApiResponse(responseCode = "400", description = "Limite fora do intervalo permitido")
+    @GetMapping("/atrasados/novos")
+    public ResponseEntity<AtrasosNovosResponse> buscarNovosAtrasos(
+            @RequestParam(value = "desde", defaultValue = "0") Long desde,
+            @RequestParam(value = "limite", defaultValue = "100") int limite) {
+
+        return ResponseEntity.ok(atrasoAluguelService.novos(desde, limite));
+    }
+
+
     // ===============================
     // UPDATE
     // ===============================
@@ -136,15 +188,61 @@ public class AluguelController {
     // ===============================
     @Operation(summary = "Gerar contrato de aluguel em PDF")
     @ApiResponse(responseCode = "200", description = "PDF gerado com sucesso")
+    @ApiResponse(responseCode = "304", description = "Contrato não mudou desde a última impressão")
     @ApiResponse(responseCode = "404", description = "Aluguel não encontrado")
     @GetMapping(value = "/{id}/contrato", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> gerarContrato(@PathVariable("id") Long id) {
-        byte[] pdf = contratoPdfService.gerarContrato(id);
+    public ResponseEntity<StreamingResponseBody> gerarContrato(@PathVariable("id") Long id, WebRequest request) {
+        return responderContrato(contratoPdfService.buscarContrato(id), request);
+    }
+
+    @Operation(summary = "Pedir a geração do contrato em segundo plano")
+    @ApiResponse(responseCode = "202", description = "Geração enfileirada; acompanhe pelo id do job")
+    @ApiResponse(responseCode = "404", description = "Aluguel não encontrado")
+    @ApiResponse(responseCode = "503", description = "Fila de geração cheia")
+    @PostMapping("/{id}/contrato/jobs")
+    public ResponseEntity<ContratoJobResponse> enfileirarContrato(@PathVariable("id") Long id) {
+        ContratoJobResponse job = contratoJobService.enfileirar(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/alugueis/contratos/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @Operation(summary = "Consultar o andamento de uma geração de contrato")
+    @ApiResponse(responseCode = "200", description = "Status do job")
+    @ApiResponse(responseCode = "404", description = "Job não encontrado ou expirado")
+    @GetMapping("/contratos/jobs/{jobId}")
+    public ResponseEntity<ContratoJobResponse> consultarJobContrato(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(contratoJobService.consultar(jobId));
+    }
+
+    @Operation(summary = "Baixar o contrato gerado em segundo plano")
+    @ApiResponse(responseCode = "200", description = "PDF gerado pelo job")
+    @ApiResponse(responseCode = "304", description = "Contrato não mudou desde a última impressão")
+    @ApiResponse(responseCode = "409", description = "Job ainda em andamento; o corpo traz o status")
+    @ApiResponse(responseCode = "410", description = "Job terminou com falha; peça uma nova geração")
+    @ApiResponse(responseCode = "404", description = "Job não encontrado ou contrato fora do cache")
+    @GetMapping(value = "/contratos/jobs/{jobId}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<StreamingResponseBody> baixarJobContrato(@PathVariable("jobId") String jobId,
+                                                                   WebRequest request) {
+        return responderContrato(contratoJobService.baixar(jobId), request);
+    }
+
+    @Operation(summary = "Exportar em ZIP os contratos dos aluguéis que atendem aos filtros")
+    @ApiResponse(responseCode = "200", description = "ZIP com um PDF por aluguel, enviado à medida que os contratos ficam prontos")
+    @GetMapping(value = "/contratos", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> exportarContratos(
+            @RequestParam(name = "status", required = false) StatusAluguel status,
+            @RequestParam(name = "nomeCliente", required = false) String nomeCliente,
+            @RequestParam(name = "dataRetiradaInicio", required = false) LocalDate dataRetiradaInicio,
+            @RequestParam(name = "dataRetiradaFim", required = false) LocalDate dataRetiradaFim,
+            @RequestParam(name = "ocasiao", required = false) TipoOcasiao ocasiao) {
+
+        AluguelFiltroRequest filtro =
+                new AluguelFiltroRequest(status, nomeCliente, dataRetiradaInicio, dataRetiradaFim, ocasiao);
         return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"Contrato_Aluguel_" + id + ".pdf\"")
-                .body(pdf);
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"Contratos.zip\"")
+                .body(saida -> contratoLoteService.exportar(filtro, saida));
     }
 
 
@@ -163,4 +261,23 @@ public class AluguelController {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(aluguelService.registrarDevolucao(id, dto));
     }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private ResponseEntity<StreamingResponseBody> responderContrato(ContratoPdf contrato, WebRequest request) {
+        // checkNotModified já grava o ETag na resposta (inclusive no 200);
+        // repeti-lo no ResponseEntity duplicaria o cabeçalho.
+        if (request.checkNotModified(contrato.etag())) {
+            return null;
+        }
+
+        // O PDF é escrito direto na resposta, sem montar o documento inteiro em memória antes.
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"Contrato_Aluguel_" + contrato.aluguelId() + ".pdf\"")
+                .body(contrato::escreverEm);
+    }
 }
@@ -0,0 +1,67 @@
+package br.edu.fateczl.tcc.controller;
+
+import br.edu.fateczl.tcc.enums.FormatoExportacao;
+import br.edu.fateczl.tcc.service.ExportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/exportacoes")
+@Tag(name = "Exportacao Controller", description = "Exportações em CSV/NDJSON para a contabilidade")
+public class ExportacaoController {
+
+    private final ExportacaoService exportacaoService;
+
+    public ExportacaoController(ExportacaoService exportacaoService) {
+        this.exportacaoService = exportacaoService;
+    }
+
+
+    // ===============================
+    // ALUGUÉIS
+    // ===============================
+    @Operation(summary = "Exportar todos os aluguéis em CSV ou NDJSON")
+    @ApiResponse(responseCode = "200", description = "Arquivo enviado à medida que as linhas são lidas")
+    @GetMapping("/alugueis")
+    public ResponseEntity<StreamingResponseBody> exportarAlugueis(
+            @RequestParam(name = "formato", defaultValue = "CSV") FormatoExportacao formato) {
+
+        return responderArquivo("Alugueis", formato, saida -> exportacaoService.escreverAlugueis(formato, saida));
+    }
+
+
+    // ===============================
+    // DEVOLUÇÕES
+    // ===============================
+    @Operation(summary = "Exportar todas as devoluções em CSV ou NDJSON")
+    @ApiResponse(responseCode = "200", description = "Arquivo enviado à medida que as linhas são lidas")
+    @GetMapping("/devolucoes")
+    public ResponseEntity<StreamingResponseBody> exportarDevolucoes(
+            @RequestParam(name = "formato", defaultValue = "CSV") FormatoExportacao formato) {
+
+        return responderArquivo("Devolucoes", formato, saida -> exportacaoService.escreverDevolucoes(formato, saida));
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private static ResponseEntity<StreamingResponseBody> responderArquivo(String nome, FormatoExportacao formato,
+                                                                          StreamingResponseBody corpo) {
+        String arquivo = nome + "_" + LocalDate.now() + "." + formato.getExtensao();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .body(corpo);
+    }
+}
@@ -1,87 +1,149 @@
 package br.edu.fateczl.tcc.controller;
 
-import br.edu.fateczl.tcc.domain.Traje;
-import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
-import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.enums.VarianteImagem;
 import br.edu.fateczl.tcc.service.ImagemService;
+import br.edu.fateczl.tcc.service.TrajeImagemService;
+import br.edu.fateczl.tcc.storage.ImagemConteudo;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Base64;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/trajes/imagem")
 public class ImagemController {
 
-    private final TrajeRepository trajeRepository;
+    private static final String TIPO_PADRAO = "image/png";
+    private static final String ERRO_IMAGEM_INVALIDA = "Imagem inválida ou muito grande (máximo 5MB)";
+
+    private static final CacheControl CACHE_IMUTAVEL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable();
+    private static final CacheControl CACHE_REVALIDAR = CacheControl.noCache();
+
+    private final TrajeImagemService trajeImagemService;
     private final ImagemService imagemService;
 
-    public ImagemController(TrajeRepository trajeRepository, ImagemService imagemService) {
-        this.trajeRepository = trajeRepository;
+    public ImagemController(TrajeImagemService trajeImagemService, ImagemService imagemService) {
+        this.trajeImagemService = trajeImagemService;
         this.imagemService = imagemService;
     }
 
+    /**
+     * Imagem atual do traje. O conteúdo por trás desta URL muda a cada
+     * upload, então o cliente precisa revalidar; com If-None-Match igual ao
+     * ETag o Spring responde 304 sem corpo.
+     */
     @GetMapping
-    public ResponseEntity<Map<String, String>> buscarImagem(@RequestParam("trajeId") Long trajeId) {
-        Traje traje = trajeRepository.findById(trajeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Traje", trajeId));
-        
-        if (traje.getImagemUrl() == null || traje.getImagemUrl().isBlank()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Resource> buscarImagem(
+            @RequestParam("trajeId") Long trajeId,
+            @RequestParam(value = "variante", required = false) VarianteImagem variante) {
+        return trajeImagemService.buscarImagem(trajeId, variante)
+                .map(imagem -> responderImagem(imagem, CACHE_REVALIDAR))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endereço imutável da imagem (link usado em TrajeResponse): o hash no
+     * caminho identifica os bytes, então a resposta pode ficar em cache
+     * indefinidamente. Revalidações com o ETag respondem 304 sem tocar no
+     * disco nem no banco. Requisições com Range recebem 206.
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> buscarImagemPorHash(
+            @PathVariable("hash") String hash,
+            @RequestParam(value = "variante", required = false) VarianteImagem variante,
+            WebRequest request) {
+
+        if (request.checkNotModified(ImagemConteudo.etag(hash, variante))) {
+            return null;
         }
-        
-        return ResponseEntity.ok(Map.of("imagemUrl", traje.getImagemUrl()));
+
+        VarianteImagem solicitada = variante != null ? variante : VarianteImagem.ORIGINAL;
+        return trajeImagemService.buscarImagemPorHash(hash, variante)
+                .map(imagem -> responderImagem(imagem,
+                        // Variante ainda não gerada: o original vem no lugar e não pode ficar cacheado para sempre.
+                        imagem.variante() == solicitada ? CACHE_IMUTAVEL : CACHE_REVALIDAR))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @PostMapping
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, String>> adicionarImagem(
             @RequestParam("trajeId") Long trajeId,
             @RequestParam("imagem") MultipartFile file) throws IOException {
-        
-        Traje traje = trajeRepository.findById(trajeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Traje", trajeId));
-        
-        String imagemBase64 = converterParaBase64(file);
-        
-        if (!imagemService.validarImagem(imagemBase64)) {
-            return ResponseEntity.badRequest().body(Map.of("erro", "Imagem inválida ou muito grande (máximo 5MB)"));
+
+        String tipoMime = file.getContentType() != null ? file.getContentType() : TIPO_PADRAO;
+
+        if (!imagemService.validarArquivo(tipoMime, file.getSize())) {
+            return ResponseEntity.badRequest().body(Map.of("erro", ERRO_IMAGEM_INVALIDA));
+        }
+
+        try (InputStream conteudo = file.getInputStream()) {
+            return responderUpload(trajeImagemService.salvarImagem(trajeId, conteudo));
+        }
+    }
+
+    /**
+     * Upload com a imagem no próprio corpo da requisição (Content-Type image/*).
+     * O corpo é repassado ao serviço sem passar por buffer intermediário.
+     */
+    @PostMapping(consumes = "image/*")
+    public ResponseEntity<Map<String, String>> adicionarImagemBinaria(
+            @RequestParam("trajeId") Long trajeId,
+            HttpServletRequest request) throws IOException {
+
+        if (request.getContentLengthLong() > imagemService.getTamanhoMaximo()) {
+            return ResponseEntity.badRequest().body(Map.of("erro", ERRO_IMAGEM_INVALIDA));
+        }
+
+        try (InputStream conteudo = request.getInputStream()) {
+            return responderUpload(trajeImagemService.salvarImagem(trajeId, conteudo));
         }
-        
-        traje.setImagemUrl(imagemBase64);
-        trajeRepository.save(traje);
-        
-        return ResponseEntity.ok(Map.of("imagemUrl", traje.getImagemUrl()));
     }
 
-    @PutMapping
+    @PutMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, String>> atualizarImagem(
             @RequestParam("trajeId") Long trajeId,
             @RequestParam("imagem") MultipartFile file) throws IOException {
-        
+
         return adicionarImagem(trajeId, file);
     }
 
+    @PutMapping(consumes = "image/*")
+    public ResponseEntity<Map<String, String>> atualizarImagemBinaria(
+            @RequestParam("trajeId") Long trajeId,
+            HttpServletRequest request) throws IOException {
+
+        return adicionarImagemBinaria(trajeId, request);
+    }
+
     @DeleteMapping
     public ResponseEntity<Void> removerImagem(@RequestParam("trajeId") Long trajeId) {
-        Traje traje = trajeRepository.findById(trajeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Traje", trajeId));
-        
-        traje.setImagemUrl(null);
-        trajeRepository.save(traje);
-        
+        trajeImagemService.removerImagem(trajeId);
         return ResponseEntity.noContent().build();
     }
 
-    private String converterParaBase64(MultipartFile file) throws IOException {
-        byte[] bytes = file.getBytes();
-        String base64 = Base64.getEncoder().encodeToString(bytes);
-        String mimeType = file.getContentType();
-        if (mimeType == null) {
-            mimeType = "image/png";
-        }
-        return "data:" + mimeType + ";base64," + base64;
+    private ResponseEntity<Map<String, String>> responderUpload(String imagemUrl) {
+        return ResponseEntity.ok(Map.of("imagemUrl", imagemUrl));
+    }
+
+    private ResponseEntity<Resource> responderImagem(ImagemConteudo imagem, CacheControl cache) {
+        MediaType tipo = imagem.tipoMime() != null
+                ? MediaType.parseMediaType(imagem.tipoMime())
+                : MediaType.APPLICATION_OCTET_STREAM;
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .eTag(imagem.etag())
+                .cacheControl(cache)
+                .body(imagem.recurso());
     }
 }
@@ -0,0 +1,66 @@
+package br.edu.fateczl.tcc.controller;
+
+import br.edu.fateczl.tcc.service.RelatorioPdfService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/relatorios")
+@Tag(name = "Relatorio Controller", description = "Relatórios impressos em PDF")
+public class RelatorioController {
+
+    private final RelatorioPdfService relatorioPdfService;
+
+    public RelatorioController(RelatorioPdfService relatorioPdfService) {
+        this.relatorioPdfService = relatorioPdfService;
+    }
+
+
+    // ===============================
+    // TRAJES
+    // ===============================
+    @Operation(summary = "Relatório em PDF de todo o acervo de trajes")
+    @ApiResponse(responseCode = "200", description = "PDF enviado à medida que as páginas ficam prontas")
+    @GetMapping(value = "/trajes", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<StreamingResponseBody> relatorioTrajes() {
+        return responderPdf("Relatorio_Trajes.pdf", relatorioPdfService::escreverRelatorioTrajes);
+    }
+
+
+    // ===============================
+    // ALUGUÉIS
+    // ===============================
+    @Operation(summary = "Relatório em PDF dos aluguéis com retirada no período")
+    @ApiResponse(responseCode = "200", description = "PDF enviado à medida que as páginas ficam prontas")
+    @ApiResponse(responseCode = "400", description = "Período inválido")
+    @GetMapping(value = "/alugueis", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<StreamingResponseBody> relatorioAlugueis(
+            @RequestParam("inicio") LocalDate inicio,
+            @RequestParam("fim") LocalDate fim) {
+
+        relatorioPdfService.validarPeriodo(inicio, fim);
+        return responderPdf("Relatorio_Alugueis_" + inicio + "_" + fim + ".pdf",
+                saida -> relatorioPdfService.escreverRelatorioAlugueis(inicio, fim, saida));
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private static ResponseEntity<StreamingResponseBody> responderPdf(String arquivo, StreamingResponseBody corpo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .body(corpo);
+    }
+}
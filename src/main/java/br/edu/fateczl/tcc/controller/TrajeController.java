@@ -1,5 +1,6 @@
 package br.edu.fateczl.tcc.controller;
 
+import br.edu.fateczl.tcc.dto.traje.CalendarioOcupacaoResponse;
 import br.edu.fateczl.tcc.dto.traje.PeriodoAlugadoResponse;
 import br.edu.fateczl.tcc.dto.traje.TrajeRequest;
 import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
@@ -7,6 +8,7 @@ import br.edu.fateczl.tcc.enums.SexoEnum;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import br.edu.fateczl.tcc.service.SimilaridadeVisualService;
 import br.edu.fateczl.tcc.service.TrajeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -28,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -36,9 +39,11 @@ import java.util.List;
 public class TrajeController {
 
     private final TrajeService trajeService;
+    private final SimilaridadeVisualService similaridadeVisualService;
 
-    public TrajeController(TrajeService trajeService) {
+    public TrajeController(TrajeService trajeService, SimilaridadeVisualService similaridadeVisualService) {
         this.trajeService = trajeService;
+        this.similaridadeVisualService = similaridadeVisualService;
     }
 
 
@@ -81,10 +86,17 @@ public class TrajeController {
             @RequestParam(value = "status", required = false) StatusTraje status,
             @RequestParam(value = "genero", required = false) SexoEnum genero,
             @RequestParam(value = "tipo", required = false) TipoTraje tipo,
-            @RequestParam(value = "tamanho", required = false) TamanhoTraje tamanhoTraje) {
+            @RequestParam(value = "tamanho", required = false) TamanhoTraje tamanhoTraje,
+            @RequestParam(value = "dataRetirada", required = false) LocalDate dataRetirada,
+            @RequestParam(value = "dataDevolucao", required = false) LocalDate dataDevolucao) {
 
         Pageable pageable = PageRequest.of(pagina, tamanhoPagina);
         
+        if (dataRetirada != null || dataDevolucao != null) {
+            return trajeService.buscar(status, genero, tipo, tamanhoTraje,
+                    busca, dataRetirada, dataDevolucao, pageable);
+        }
+
         if (busca != null && !busca.isEmpty()) {
             return trajeService.buscar(status, genero, tipo, tamanhoTraje, busca, pageable);
         }
@@ -131,6 +143,36 @@ public class TrajeController {
         return ResponseEntity.ok(trajeService.buscarPeriodosAlugados(id));
     }
 
+    // ===============================
+    // READ - calendário de ocupação
+    // ===============================
+    @Operation(summary = "Buscar a ocupação diária dos trajes num intervalo de datas")
+    @ApiResponse(responseCode = "200", description = "Ocupação recuperada com sucesso")
+    @ApiResponse(responseCode = "400", description = "Intervalo ou filtros inválidos")
+    @GetMapping("/ocupacao")
+    public ResponseEntity<CalendarioOcupacaoResponse> buscarOcupacao(
+            @RequestParam("inicio") LocalDate inicio,
+            @RequestParam("fim") LocalDate fim,
+            @RequestParam(value = "genero", required = false) SexoEnum genero,
+            @RequestParam(value = "tipo", required = false) TipoTraje tipo,
+            @RequestParam(value = "tamanho", required = false) TamanhoTraje tamanho) {
+        return ResponseEntity.ok(trajeService.buscarOcupacao(inicio, fim, genero, tipo, tamanho));
+    }
+
+    // ===============================
+    // READ - similares visuais
+    // ===============================
+    @Operation(summary = "Buscar trajes com imagem parecida")
+    @ApiResponse(responseCode = "200", description = "Trajes recuperados com sucesso")
+    @ApiResponse(responseCode = "400", description = "Limite inválido")
+    @ApiResponse(responseCode = "404", description = "Traje não encontrado")
+    @GetMapping("/{id}/similares-visual")
+    public ResponseEntity<List<TrajeResponse>> buscarSimilaresVisuais(
+            @PathVariable(value = "id") Long id,
+            @RequestParam(value = "limite", defaultValue = "10") int limite) {
+        return ResponseEntity.ok(similaridadeVisualService.buscarSimilares(id, limite));
+    }
+
     // ===============================
     // UPDATE
     // ===============================
@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -23,7 +24,11 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity(name = "aluguel")
-@Table(name = "aluguel")
+@Table(name = "aluguel", indexes = {
+        @Index(name = "idx_aluguel_status_periodo", columnList = "status, dataRetirada, dataDevolucao"),
+        @Index(name = "idx_aluguel_status_devolucao", columnList = "status, dataDevolucao"),
+        @Index(name = "idx_aluguel_retirada_id", columnList = "dataRetirada, id")
+})
 public class Aluguel {
 
     @Id
@@ -0,0 +1,108 @@
+package br.edu.fateczl.tcc.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Aluguel ATIVO com a devolução vencida, como calculado na última passada do
+ * {@code AtrasoAluguelService}. Guarda só o que os painéis mostram, sem
+ * chave estrangeira: o aluguel pode ser removido sem esperar o próximo
+ * cálculo. O id é crescente e serve de cursor para o feed de novos atrasos.
+ */
+@Entity(name = "aluguel_atrasado")
+@Table(name = "aluguel_atrasado",
+        uniqueConstraints = @UniqueConstraint(name = "uk_aluguel_atrasado_aluguel", columnNames = "id_aluguel"))
+public class AluguelAtrasado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_aluguel", nullable = false)
+    private Long aluguelId;
+
+    @Column(name = "id_cliente", nullable = false)
+    private Long clienteId;
+
+    @Column(nullable = false)
+    private String nomeCliente;
+
+    @Column(nullable = false)
+    private LocalDate dataDevolucao;
+
+    @Column(nullable = false)
+    private int diasAtraso;
+
+    @Column(nullable = false)
+    private LocalDateTime detectadoEm;
+
+    public AluguelAtrasado() {
+    }
+
+    public AluguelAtrasado(Long aluguelId, Long clienteId, String nomeCliente, LocalDate dataDevolucao,
+                           int diasAtraso, LocalDateTime detectadoEm) {
+        this.aluguelId = aluguelId;
+        this.clienteId = clienteId;
+        this.nomeCliente = nomeCliente;
+        this.dataDevolucao = dataDevolucao;
+        this.diasAtraso = diasAtraso;
+        this.detectadoEm = detectadoEm;
+    }
+
+    /** Recalcula os dados de um atraso que continua em aberto; detectadoEm não muda. */
+    public void atualizar(String nomeCliente, LocalDate dataDevolucao, int diasAtraso) {
+        this.nomeCliente = nomeCliente;
+        this.dataDevolucao = dataDevolucao;
+        this.diasAtraso = diasAtraso;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAluguelId() {
+        return aluguelId;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public String getNomeCliente() {
+        return nomeCliente;
+    }
+
+    public LocalDate getDataDevolucao() {
+        return dataDevolucao;
+    }
+
+    public int getDiasAtraso() {
+        return diasAtraso;
+    }
+
+    public LocalDateTime getDetectadoEm() {
+        return detectadoEm;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AluguelAtrasado that = (AluguelAtrasado) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -1,18 +1,30 @@
 package br.edu.fateczl.tcc.domain;
 
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
+import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity(name = "item_aluguel")
-@Table(name = "item_aluguel")
+@Table(name = "item_aluguel", indexes = {
+        // Substitui idx_item_aluguel_traje, removido na subida pela MigracaoIndicesItemAluguel.
+        // Plano e tempos com 1M itens: docs/perf/item_aluguel_conflito.sql.
+        @Index(name = "idx_item_aluguel_conflito",
+                columnList = "id_traje, status, dataRetirada, dataDevolucao, id_aluguel")
+})
 public class ItemAluguel {
 
     @Id
@@ -27,6 +39,16 @@ public class ItemAluguel {
     @JoinColumn(name = "id_traje", nullable = false)
     private Traje traje;
 
+    // Cópia do status e do período do aluguel: a checagem de conflito por
+    // traje se resolve só no índice idx_item_aluguel_conflito, sem ler aluguel.
+    @Column(length = 9)
+    @Enumerated(EnumType.STRING)
+    private StatusAluguel status;
+
+    private LocalDate dataRetirada;
+
+    private LocalDate dataDevolucao;
+
 
     public ItemAluguel() {
     }
@@ -61,6 +83,28 @@ public class ItemAluguel {
         this.traje = traje;
     }
 
+    public StatusAluguel getStatus() {
+        return status;
+    }
+
+    public LocalDate getDataRetirada() {
+        return dataRetirada;
+    }
+
+    public LocalDate getDataDevolucao() {
+        return dataDevolucao;
+    }
+
+    /** Copia status e período do aluguel; chamar sempre que eles mudarem. */
+    @PrePersist
+    public void espelharAluguel() {
+        if (aluguel != null) {
+            this.status = aluguel.getStatus();
+            this.dataRetirada = aluguel.getDataRetirada();
+            this.dataDevolucao = aluguel.getDataDevolucao();
+        }
+    }
+
     public void atualizar(Aluguel aluguel, Traje traje) {
         this.aluguel = aluguel;
         this.traje = traje;
@@ -0,0 +1,81 @@
+package br.edu.fateczl.tcc.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Um dia de um traje reservado por um aluguel ATIVO. A chave única
+ * (traje, dia) é o que impede duas transações concorrentes de alugarem o
+ * mesmo traje no mesmo dia: a segunda falha no insert, sem lock no traje.
+ */
+@Entity(name = "reserva_traje")
+@Table(name = "reserva_traje",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reserva_traje_dia", columnNames = {"id_traje", "dia"}),
+        indexes = @Index(name = "idx_reserva_traje_aluguel", columnList = "id_aluguel"))
+public class ReservaTraje {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_traje", nullable = false)
+    private Traje traje;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_aluguel", nullable = false)
+    private Aluguel aluguel;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    public ReservaTraje() {
+    }
+
+    public ReservaTraje(Traje traje, Aluguel aluguel, LocalDate dia) {
+        this.traje = traje;
+        this.aluguel = aluguel;
+        this.dia = dia;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Traje getTraje() {
+        return traje;
+    }
+
+    public Aluguel getAluguel() {
+        return aluguel;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReservaTraje that = (ReservaTraje) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
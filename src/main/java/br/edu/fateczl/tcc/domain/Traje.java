@@ -76,9 +76,21 @@ public class Traje {
     @Enumerated(EnumType.STRING)
     private CondicaoTraje condicao;
 
-    @Column(columnDefinition = "LONGTEXT")
+    @Column(length = 500)
     private String imagemUrl;
 
+    @Column(length = 64)
+    private String imagemHash;
+
+    @Column(length = 50)
+    private String imagemTipo;
+
+    /** Hash perceptual da imagem (dHash), usado na busca por similaridade visual. */
+    private Long imagemDhash;
+
+    /** Varreduras que não conseguiram gerar variantes e dHash (original ausente ou ilegível). */
+    private Integer imagemFalhasVariante;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime dataCadastro;
 
@@ -331,6 +343,38 @@ public class Traje {
         this.imagemUrl = imagemUrl;
     }
 
+    public String getImagemHash() {
+        return imagemHash;
+    }
+
+    public void setImagemHash(String imagemHash) {
+        this.imagemHash = imagemHash;
+    }
+
+    public String getImagemTipo() {
+        return imagemTipo;
+    }
+
+    public void setImagemTipo(String imagemTipo) {
+        this.imagemTipo = imagemTipo;
+    }
+
+    public Long getImagemDhash() {
+        return imagemDhash;
+    }
+
+    public void setImagemDhash(Long imagemDhash) {
+        this.imagemDhash = imagemDhash;
+    }
+
+    public Integer getImagemFalhasVariante() {
+        return imagemFalhasVariante;
+    }
+
+    public void setImagemFalhasVariante(Integer imagemFalhasVariante) {
+        this.imagemFalhasVariante = imagemFalhasVariante;
+    }
+
     public LocalDateTime getDataCadastro() {
         return dataCadastro;
     }
@@ -382,6 +426,7 @@ public class Traje {
                 ", tipo=" + tipo +
                 ", genero=" + genero +
                 ", imagemUrl=" + (imagemUrl != null ? "present" : "null") +
+                ", imagemHash=" + imagemHash +
                 ", valorItem=" + valorItem +
                 ", status=" + status +
                 ", nome='" + nome + '\'' +
@@ -0,0 +1,14 @@
+package br.edu.fateczl.tcc.dto.aluguel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record AluguelAtrasadoResponse(
+        Long id,
+        Long aluguelId,
+        Long clienteId,
+        String nomeCliente,
+        LocalDate dataDevolucao,
+        int diasAtraso,
+        LocalDateTime detectadoEm
+) { }
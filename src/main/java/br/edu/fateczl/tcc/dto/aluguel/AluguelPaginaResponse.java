@@ -0,0 +1,14 @@
+package br.edu.fateczl.tcc.dto.aluguel;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem de aluguéis. {@code proximoCursor} vai em
+ * {@code cursor} na próxima chamada e é nulo na última página; {@code total}
+ * só vem preenchido quando pedido com {@code contarTotal=true}.
+ */
+public record AluguelPaginaResponse(
+        List<AluguelResponse> itens,
+        String proximoCursor,
+        Long total
+) { }
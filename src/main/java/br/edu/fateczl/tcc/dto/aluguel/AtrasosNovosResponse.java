@@ -0,0 +1,13 @@
+package br.edu.fateczl.tcc.dto.aluguel;
+
+import java.util.List;
+
+/**
+ * Atrasos detectados depois do cursor pedido. {@code cursor} é o valor a
+ * mandar em {@code desde} na próxima consulta (igual ao pedido quando não
+ * há novidades).
+ */
+public record AtrasosNovosResponse(
+        List<AluguelAtrasadoResponse> itens,
+        Long cursor
+) { }
@@ -0,0 +1,14 @@
+package br.edu.fateczl.tcc.dto.aluguel;
+
+import br.edu.fateczl.tcc.enums.StatusJobContrato;
+
+import java.time.LocalDateTime;
+
+public record ContratoJobResponse(
+        String id,
+        Long aluguelId,
+        StatusJobContrato status,
+        String erro,
+        LocalDateTime criadoEm,
+        LocalDateTime finalizadoEm
+) { }
@@ -0,0 +1,25 @@
+package br.edu.fateczl.tcc.dto.imagem;
+
+/**
+ * Resultado da análise de uma imagem em base64 (data URL), obtido numa única
+ * passada sobre a string e sem decodificar o conteúdo inteiro.
+ *
+ * @param tipoDeclarado    tipo MIME informado no prefixo da data URL
+ * @param formatoPermitido se o tipo declarado está entre os formatos aceitos
+ * @param tipoDetectado    tipo reconhecido pelos magic bytes, ou null se não reconhecido
+ * @param base64Valido     se o conteúdo seria aceito por {@link java.util.Base64#getDecoder()}
+ * @param tamanho          quantidade de bytes decodificados (0 quando o base64 é inválido)
+ */
+public record AnaliseImagem(
+        String tipoDeclarado,
+        boolean formatoPermitido,
+        String tipoDetectado,
+        boolean base64Valido,
+        long tamanho
+) {
+
+    /** Os magic bytes apontam um formato conhecido diferente do declarado. */
+    public boolean tipoConflitante() {
+        return tipoDetectado != null && !tipoDetectado.equalsIgnoreCase(tipoDeclarado);
+    }
+}
@@ -0,0 +1,11 @@
+package br.edu.fateczl.tcc.dto.traje;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record CalendarioOcupacaoResponse(
+        LocalDate inicio,
+        LocalDate fim,
+        int dias,
+        List<OcupacaoTrajeResponse> trajes
+) { }
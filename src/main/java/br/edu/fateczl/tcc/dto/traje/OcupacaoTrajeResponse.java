@@ -0,0 +1,13 @@
+package br.edu.fateczl.tcc.dto.traje;
+
+/**
+ * Ocupação de um traje no período do calendário, em base64: o bit {@code j}
+ * (menos significativo primeiro) do byte {@code k} indica se o dia
+ * {@code inicio + 8k + j} está alugado. Bytes finais zerados são omitidos,
+ * então um traje livre no período inteiro vem com texto vazio.
+ */
+public record OcupacaoTrajeResponse(
+        Long trajeId,
+        String nome,
+        String ocupacao
+) { }
@@ -43,7 +43,7 @@ public record TrajeRequest(
 
         @NotNull(message = "A condição é obrigatória") CondicaoTraje condicao,
 
-        String imagemUrl
+        @Size(max = 500, message = "A URL da imagem deve ter no máximo 500 caracteres") String imagemUrl
 
 ) {
 }
@@ -29,6 +29,8 @@ public record TrajeResponse(
                 TexturaTraje textura,
                 CondicaoTraje condicao,
                 String imagemUrl,
+                String imagemMiniaturaUrl,
+                boolean possuiImagem,
                 LocalDateTime dataCadastro
 
 ) {
@@ -0,0 +1,38 @@
+package br.edu.fateczl.tcc.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum FormatoExportacao implements DisplayEnum {
+    CSV("CSV", "text/csv;charset=UTF-8", "csv"),
+    NDJSON("NDJSON", "application/x-ndjson", "ndjson");
+
+    private final String nomeExibicao;
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String nomeExibicao, String contentType, String extensao) {
+        this.nomeExibicao = nomeExibicao;
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    @Override
+    @JsonValue
+    public String getNomeExibicao() {
+        return nomeExibicao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    @JsonCreator
+    public static FormatoExportacao fromValue(String value) {
+        return EnumUtils.fromValue(FormatoExportacao.class, value);
+    }
+}
@@ -0,0 +1,32 @@
+package br.edu.fateczl.tcc.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum StatusJobContrato implements DisplayEnum {
+    PENDENTE("Pendente"),
+    PROCESSANDO("Processando"),
+    CONCLUIDO("Concluído"),
+    FALHOU("Falhou");
+
+    private final String nomeExibicao;
+
+    StatusJobContrato(String nomeExibicao) {
+        this.nomeExibicao = nomeExibicao;
+    }
+
+    @Override
+    @JsonValue
+    public String getNomeExibicao() {
+        return nomeExibicao;
+    }
+
+    public boolean isFinalizado() {
+        return this == CONCLUIDO || this == FALHOU;
+    }
+
+    @JsonCreator
+    public static StatusJobContrato fromValue(String value) {
+        return EnumUtils.fromValue(StatusJobContrato.class, value);
+    }
+}
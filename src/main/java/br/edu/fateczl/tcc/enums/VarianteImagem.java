@@ -0,0 +1,39 @@
+package br.edu.fateczl.tcc.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum VarianteImagem implements DisplayEnum {
+    PEQUENA("Pequena", 160),
+    MEDIA("Média", 480),
+    GRANDE("Grande", 1024),
+    ORIGINAL("Original", 0);
+
+    private final String nomeExibicao;
+    private final int larguraMaxima;
+
+    VarianteImagem(String nomeExibicao, int larguraMaxima) {
+        this.nomeExibicao = nomeExibicao;
+        this.larguraMaxima = larguraMaxima;
+    }
+
+    @Override
+    @JsonValue
+    public String getNomeExibicao() {
+        return nomeExibicao;
+    }
+
+    public int getLarguraMaxima() {
+        return larguraMaxima;
+    }
+
+    /** Variantes derivadas são geradas a partir do original; ORIGINAL é o próprio upload. */
+    public boolean isDerivada() {
+        return larguraMaxima > 0;
+    }
+
+    @JsonCreator
+    public static VarianteImagem fromValue(String value) {
+        return EnumUtils.fromValue(VarianteImagem.class, value);
+    }
+}
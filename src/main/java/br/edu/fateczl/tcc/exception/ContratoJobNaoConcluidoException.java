@@ -0,0 +1,22 @@
+package br.edu.fateczl.tcc.exception;
+
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
+
+/**
+ * Download pedido para um job de contrato que não terminou com sucesso.
+ * Leva o status do job para a resposta: em andamento o cliente deve tentar
+ * de novo depois; com falha, pedir outra geração.
+ */
+public class ContratoJobNaoConcluidoException extends RuntimeException {
+
+    private final transient ContratoJobResponse job;
+
+    public ContratoJobNaoConcluidoException(String mensagem, ContratoJobResponse job) {
+        super(mensagem);
+        this.job = job;
+    }
+
+    public ContratoJobResponse getJob() {
+        return job;
+    }
+}
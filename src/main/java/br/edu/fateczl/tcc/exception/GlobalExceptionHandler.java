@@ -1,13 +1,19 @@
 package br.edu.fateczl.tcc.exception;
 
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
+import br.edu.fateczl.tcc.enums.StatusJobContrato;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.Map;
 
@@ -46,6 +52,20 @@ public class GlobalExceptionHandler {
                 .body(Map.of(MESSAGE_KEY, ex.getMessage()));
     }
 
+    /**
+     * Job em andamento responde 409 com o status, para o cliente voltar a
+     * consultar; job com falha responde 410, porque aquele job nunca vai ter
+     * contrato e só uma nova geração resolve.
+     */
+    @ExceptionHandler(ContratoJobNaoConcluidoException.class)
+    public ResponseEntity<ContratoJobResponse> handleContratoJobNaoConcluido(ContratoJobNaoConcluidoException ex) {
+        HttpStatus status = ex.getJob().status() == StatusJobContrato.FALHOU ? HttpStatus.GONE : HttpStatus.CONFLICT;
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ex.getJob());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
         log.warn("Argumento inválido: {}", ex.getMessage());
@@ -54,6 +74,23 @@ public class GlobalExceptionHandler {
                 .body(Map.of(MESSAGE_KEY, ex.getMessage()));
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> handleUploadExcedido(MaxUploadSizeExceededException ex) {
+        log.warn("Upload acima do limite: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(Map.of(MESSAGE_KEY, "Arquivo excede o tamanho máximo permitido"));
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleFilaCheia(TaskRejectedException ex) {
+        log.warn("Tarefa recusada por fila cheia: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of(MESSAGE_KEY, "Servidor ocupado, tente novamente em instantes"));
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Map<String, String>> handleDataIntegrity(DataIntegrityViolationException ex) {
         log.error("Violação de integridade de dados: ", ex);
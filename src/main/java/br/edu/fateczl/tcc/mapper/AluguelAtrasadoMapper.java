@@ -0,0 +1,21 @@
+package br.edu.fateczl.tcc.mapper;
+
+import br.edu.fateczl.tcc.domain.AluguelAtrasado;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelAtrasadoResponse;
+
+public class AluguelAtrasadoMapper {
+
+    private AluguelAtrasadoMapper() {}
+
+    public static AluguelAtrasadoResponse toResponse(AluguelAtrasado entity) {
+        return new AluguelAtrasadoResponse(
+                entity.getId(),
+                entity.getAluguelId(),
+                entity.getClienteId(),
+                entity.getNomeCliente(),
+                entity.getDataDevolucao(),
+                entity.getDiasAtraso(),
+                entity.getDetectadoEm()
+        );
+    }
+}
@@ -3,6 +3,8 @@ package br.edu.fateczl.tcc.mapper;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.dto.traje.TrajeRequest;
 import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import br.edu.fateczl.tcc.repository.TrajeResumo;
 
 public class TrajeMapper {
 
@@ -59,7 +61,61 @@ public class TrajeMapper {
                 entity.getEstampa(),
                 entity.getTextura(),
                 entity.getCondicao(),
-                entity.getImagemUrl(),
+                resolverImagemUrl(entity),
+                resolverImagemUrl(entity, VarianteImagem.PEQUENA),
+                possuiImagem(entity.getImagemHash(), entity.getImagemUrl()),
                 entity.getDataCadastro());
     }
+
+    public static TrajeResponse toResponse(TrajeResumo resumo) {
+        return new TrajeResponse(
+                resumo.id(),
+                resumo.descricao(),
+                resumo.tamanho(),
+                resumo.cor(),
+                resumo.tipo(),
+                resumo.genero(),
+                resumo.valorItem(),
+                resumo.status(),
+                resumo.nome(),
+                resumo.tecido(),
+                resumo.estampa(),
+                resumo.textura(),
+                resumo.condicao(),
+                resolverImagemUrl(resumo.imagemHash(), resumo.imagemUrl(), VarianteImagem.ORIGINAL),
+                resolverImagemUrl(resumo.imagemHash(), resumo.imagemUrl(), VarianteImagem.PEQUENA),
+                possuiImagem(resumo.imagemHash(), resumo.imagemUrl()),
+                resumo.dataCadastro());
+    }
+
+    /**
+     * Imagens enviadas por upload ficam no storage e são servidas pelo
+     * {@code ImagemController}; a resposta expõe apenas o link. O link leva
+     * o hash do conteúdo, então muda sempre que a imagem muda e pode ser
+     * cacheado como imutável. Trajes sem upload mantêm a URL externa
+     * informada no cadastro.
+     */
+    public static String resolverImagemUrl(Traje entity) {
+        return resolverImagemUrl(entity, VarianteImagem.ORIGINAL);
+    }
+
+    /**
+     * Link para uma variante redimensionada, usado nas listagens para não
+     * baixar o original em cada card.
+     */
+    public static String resolverImagemUrl(Traje entity, VarianteImagem variante) {
+        return resolverImagemUrl(entity.getImagemHash(), entity.getImagemUrl(), variante);
+    }
+
+    private static String resolverImagemUrl(String imagemHash, String imagemUrl, VarianteImagem variante) {
+        if (imagemHash == null) {
+            return imagemUrl;
+        }
+        String url = "/trajes/imagem/" + imagemHash;
+        return variante.isDerivada() ? url + "?variante=" + variante.name() : url;
+    }
+
+    private static boolean possuiImagem(String imagemHash, String imagemUrl) {
+        return imagemHash != null || imagemUrl != null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.AluguelAtrasado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AluguelAtrasadoRepository extends JpaRepository<AluguelAtrasado, Long> {
+
+    /** Atrasos detectados depois do cursor {@code id}, em ordem de detecção. */
+    List<AluguelAtrasado> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM aluguel_atrasado a WHERE a.aluguelId = :aluguelId")
+    void deleteByAluguelId(@Param("aluguelId") Long aluguelId);
+}
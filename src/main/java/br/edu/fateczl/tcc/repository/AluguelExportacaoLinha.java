@@ -0,0 +1,28 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.enums.TipoOcasiao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Linha da exportação de aluguéis para a contabilidade. Projeção escalar,
+ * como {@link AluguelRelatorioLinha}: nada fica no contexto de persistência
+ * enquanto o cursor avança.
+ */
+public record AluguelExportacaoLinha(
+
+        Long id,
+        Long clienteId,
+        String nomeCliente,
+        LocalDate dataAluguel,
+        LocalDate dataRetirada,
+        LocalDate dataDevolucao,
+        StatusAluguel status,
+        TipoOcasiao ocasiao,
+        BigDecimal valorTotal,
+        BigDecimal valorDesconto
+
+) {
+}
@@ -0,0 +1,25 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Percorre aluguéis em lotes sem OFFSET: cada chamada devolve os próximos
+ * registros depois da chave do último do lote anterior, então a página 1000
+ * custa o mesmo que a primeira. Aceita as mesmas {@link Specification}s
+ * usadas no {@link AluguelRepository}.
+ */
+public interface AluguelLoteRepository {
+
+    /** Ids em ordem crescente, depois de {@code ultimoId}. */
+    List<Long> buscarIdsApos(Specification<Aluguel> spec, Long ultimoId, int limite);
+
+    /**
+     * Ids em ordem de (dataRetirada, id), depois da chave informada. Sem
+     * chave ({@code dataRetirada} ou {@code id} nulos), começa do início.
+     */
+    List<Long> buscarIdsPaginaApos(Specification<Aluguel> spec, LocalDate dataRetirada, Long id, int limite);
+}
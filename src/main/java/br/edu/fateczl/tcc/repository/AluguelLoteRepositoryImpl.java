@@ -0,0 +1,78 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AluguelLoteRepositoryImpl implements AluguelLoteRepository {
+
+    private static final String ID = "id";
+    private static final String DATA_RETIRADA = "dataRetirada";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> buscarIdsApos(Specification<Aluguel> spec, Long ultimoId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Aluguel> root = query.from(Aluguel.class);
+        query.select(root.get(ID));
+
+        List<Predicate> predicates = new ArrayList<>(2);
+        if (spec != null) {
+            Predicate filtro = spec.toPredicate(root, query, cb);
+            if (filtro != null) {
+                predicates.add(filtro);
+            }
+        }
+        if (ultimoId != null) {
+            predicates.add(cb.greaterThan(root.get(ID), ultimoId));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get(ID)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> buscarIdsPaginaApos(Specification<Aluguel> spec, LocalDate dataRetirada, Long id, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Aluguel> root = query.from(Aluguel.class);
+        query.select(root.get(ID));
+
+        List<Predicate> predicates = new ArrayList<>(2);
+        if (spec != null) {
+            Predicate filtro = spec.toPredicate(root, query, cb);
+            if (filtro != null) {
+                predicates.add(filtro);
+            }
+        }
+        if (dataRetirada != null && id != null) {
+            // (dataRetirada, id) > (:dataRetirada, :id), escrito sem comparação de tupla
+            predicates.add(cb.or(
+                    cb.greaterThan(root.get(DATA_RETIRADA), dataRetirada),
+                    cb.and(
+                            cb.equal(root.get(DATA_RETIRADA), dataRetirada),
+                            cb.greaterThan(root.get(ID), id))));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get(DATA_RETIRADA)), cb.asc(root.get(ID)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
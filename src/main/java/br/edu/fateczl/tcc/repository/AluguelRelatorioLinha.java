@@ -0,0 +1,23 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Linha do relatório de aluguéis por período. Projeção escalar, como
+ * {@link TrajeRelatorioLinha}: o nome do cliente vem do join, sem carregar
+ * a entidade.
+ */
+public record AluguelRelatorioLinha(
+
+        Long id,
+        String nomeCliente,
+        LocalDate dataRetirada,
+        LocalDate dataDevolucao,
+        StatusAluguel status,
+        BigDecimal valorTotal
+
+) {
+}
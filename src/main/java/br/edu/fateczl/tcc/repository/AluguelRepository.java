@@ -8,11 +8,15 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AluguelRepository extends JpaRepository<Aluguel, Long>,
-                                           JpaSpecificationExecutor<Aluguel> {
+                                           JpaSpecificationExecutor<Aluguel>,
+                                           AluguelLoteRepository,
+                                           AluguelStreamingRepository {
 
     List<Aluguel> findByClienteId(Long clienteId);
 
@@ -26,9 +30,30 @@ public interface AluguelRepository extends JpaRepository<Aluguel, Long>,
     @Query("SELECT a FROM aluguel a WHERE a.dataDevolucao < CURRENT_DATE AND a.status = :status")
     List<Aluguel> findAlugueisAtrasados(@Param("status") StatusAluguel status);
 
+    /** Mesma regra de {@link #findAlugueisAtrasados}, numa passada pelo índice (status, dataDevolucao). */
+    @Query("""
+        SELECT new br.edu.fateczl.tcc.repository.AtrasoAluguel(a.id, c.id, c.nome, a.dataDevolucao)
+        FROM aluguel a JOIN a.cliente c
+        WHERE a.status = 'ATIVO'
+          AND a.dataDevolucao < :hoje
+    """)
+    List<AtrasoAluguel> findAtrasosEm(@Param("hoje") LocalDate hoje);
+
+    /** Aluguéis ATIVOS sem nenhuma linha no livro de reservas — gravados antes de ele existir. */
+    @Query("""
+        SELECT a.id FROM aluguel a
+        WHERE a.status = 'ATIVO'
+          AND NOT EXISTS (SELECT r.id FROM reserva_traje r WHERE r.aluguel = a)
+        ORDER BY a.id
+    """)
+    List<Long> findIdsAtivosSemReserva();
+
     @Query("SELECT a FROM aluguel a JOIN FETCH a.cliente WHERE a.id = :id")
     Optional<Aluguel> findByIdWithCliente(@Param("id") Long id);
 
     @EntityGraph(attributePaths = {"cliente", "itens", "itens.traje"})
     Optional<Aluguel> findWithRelacionamentosById(Long id);
+
+    @EntityGraph(attributePaths = {"cliente", "itens", "itens.traje"})
+    List<Aluguel> findWithRelacionamentosByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package br.edu.fateczl.tcc.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de aluguel lidas em streaming ({@link ConsultaStreaming}).
+ * Precisam de transação aberta e o stream deve ser fechado.
+ */
+public interface AluguelStreamingRepository {
+
+    /** Aluguéis com retirada no período, em ordem de (dataRetirada, id). */
+    Stream<AluguelRelatorioLinha> streamRelatorio(LocalDate inicio, LocalDate fim);
+
+    /** Todos os aluguéis, em ordem de id, para a exportação contábil. */
+    Stream<AluguelExportacaoLinha> streamExportacao();
+}
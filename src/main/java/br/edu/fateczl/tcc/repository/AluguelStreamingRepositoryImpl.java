@@ -0,0 +1,40 @@
+package br.edu.fateczl.tcc.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+public class AluguelStreamingRepositoryImpl implements AluguelStreamingRepository {
+
+    private final ConsultaStreaming consultaStreaming;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AluguelStreamingRepositoryImpl(ConsultaStreaming consultaStreaming) {
+        this.consultaStreaming = consultaStreaming;
+    }
+
+    @Override
+    public Stream<AluguelRelatorioLinha> streamRelatorio(LocalDate inicio, LocalDate fim) {
+        return consultaStreaming.abrir(entityManager.createQuery(
+                        "SELECT new br.edu.fateczl.tcc.repository.AluguelRelatorioLinha(" +
+                        "a.id, c.nome, a.dataRetirada, a.dataDevolucao, a.status, a.valorTotal) " +
+                        "FROM aluguel a JOIN a.cliente c " +
+                        "WHERE a.dataRetirada BETWEEN :inicio AND :fim ORDER BY a.dataRetirada, a.id",
+                        AluguelRelatorioLinha.class)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fim));
+    }
+
+    @Override
+    public Stream<AluguelExportacaoLinha> streamExportacao() {
+        return consultaStreaming.abrir(entityManager.createQuery(
+                "SELECT new br.edu.fateczl.tcc.repository.AluguelExportacaoLinha(" +
+                "a.id, c.id, c.nome, a.dataAluguel, a.dataRetirada, a.dataDevolucao, a.status, a.ocasiao, " +
+                "a.valorTotal, a.valorDesconto) " +
+                "FROM aluguel a JOIN a.cliente c ORDER BY a.id", AluguelExportacaoLinha.class));
+    }
+}
@@ -0,0 +1,6 @@
+package br.edu.fateczl.tcc.repository;
+
+import java.time.LocalDate;
+
+/** Aluguel ATIVO com devolução vencida, lido para materializar {@code aluguel_atrasado}. */
+public record AtrasoAluguel(Long aluguelId, Long clienteId, String nomeCliente, LocalDate dataDevolucao) { }
@@ -0,0 +1,32 @@
+package br.edu.fateczl.tcc.repository;
+
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Abre consultas lidas em streaming (relatórios e exportações) com o fetch
+ * size de {@code app.streaming.fetch-size}. O padrão, {@code Integer.MIN_VALUE},
+ * faz o MySQL Connector/J ler só essa consulta linha a linha, sem trazer o
+ * resultado inteiro para a memória e sem mudar as demais; enquanto o stream
+ * está aberto a conexão não executa outro comando. Outros bancos (o H2 dos
+ * testes) recusam fetch size negativo e usam um valor positivo no perfil.
+ *
+ * O stream precisa de transação aberta e deve ser fechado.
+ */
+@Component
+public class ConsultaStreaming {
+
+    private final int fetchSize;
+
+    public ConsultaStreaming(@Value("${app.streaming.fetch-size:-2147483648}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public <T> Stream<T> abrir(TypedQuery<T> query) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+}
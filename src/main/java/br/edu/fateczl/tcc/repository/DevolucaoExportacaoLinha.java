@@ -0,0 +1,17 @@
+package br.edu.fateczl.tcc.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Linha da exportação de devoluções, no mesmo molde de {@link AluguelExportacaoLinha}. */
+public record DevolucaoExportacaoLinha(
+
+        Long id,
+        Long aluguelId,
+        String nomeCliente,
+        LocalDate dataDevolucao,
+        BigDecimal valorMulta,
+        String observacoes
+
+) {
+}
@@ -9,7 +9,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-public interface DevolucaoRepository extends JpaRepository<Devolucao, Long> {
+public interface DevolucaoRepository extends JpaRepository<Devolucao, Long>, DevolucaoStreamingRepository {
 
     Optional<Devolucao> findByAluguelId(Long aluguelId);
 
@@ -0,0 +1,13 @@
+package br.edu.fateczl.tcc.repository;
+
+import java.util.stream.Stream;
+
+/** Consultas de devolução lidas em streaming ({@link ConsultaStreaming}). */
+public interface DevolucaoStreamingRepository {
+
+    /**
+     * Todas as devoluções, em ordem de id, para a exportação contábil.
+     * Precisa de transação aberta e o stream deve ser fechado.
+     */
+    Stream<DevolucaoExportacaoLinha> streamExportacao();
+}
@@ -0,0 +1,26 @@
+package br.edu.fateczl.tcc.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.stream.Stream;
+
+public class DevolucaoStreamingRepositoryImpl implements DevolucaoStreamingRepository {
+
+    private final ConsultaStreaming consultaStreaming;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DevolucaoStreamingRepositoryImpl(ConsultaStreaming consultaStreaming) {
+        this.consultaStreaming = consultaStreaming;
+    }
+
+    @Override
+    public Stream<DevolucaoExportacaoLinha> streamExportacao() {
+        return consultaStreaming.abrir(entityManager.createQuery(
+                "SELECT new br.edu.fateczl.tcc.repository.DevolucaoExportacaoLinha(" +
+                "d.id, a.id, c.nome, d.dataDevolucao, d.valorMulta, d.observacoes) " +
+                "FROM devolucao d JOIN d.aluguel a JOIN a.cliente c ORDER BY d.id", DevolucaoExportacaoLinha.class));
+    }
+}
@@ -0,0 +1,9 @@
+package br.edu.fateczl.tcc.repository;
+
+/**
+ * Hash perceptual (dHash) de uma imagem, identificada pelo SHA-256 do conteúdo.
+ */
+public record ImagemDhash(
+        String hash,
+        Long dhash
+) { }
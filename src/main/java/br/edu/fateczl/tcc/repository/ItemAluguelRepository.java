@@ -1,11 +1,15 @@
 package br.edu.fateczl.tcc.repository;
 
 import br.edu.fateczl.tcc.domain.ItemAluguel;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemAluguelRepository extends JpaRepository<ItemAluguel, Long> {
@@ -14,7 +18,8 @@ public interface ItemAluguelRepository extends JpaRepository<ItemAluguel, Long>
 
     List<ItemAluguel> findByTrajeId(Long trajeId);
 
-    @Query("SELECT ia FROM item_aluguel ia WHERE ia.traje.id = :trajeId AND ia.aluguel.status = 'ATIVO'")
+    @EntityGraph(attributePaths = {"aluguel", "aluguel.cliente", "aluguel.itens", "aluguel.itens.traje"})
+    @Query("SELECT ia FROM item_aluguel ia WHERE ia.traje.id = :trajeId AND ia.status = 'ATIVO'")
     java.util.Optional<ItemAluguel> findAtivoByTrajeId(@Param("trajeId") Long trajeId);
 
     @Query("SELECT ia FROM item_aluguel ia JOIN FETCH ia.traje WHERE ia.aluguel.id = :aluguelId")
@@ -26,16 +31,18 @@ public interface ItemAluguelRepository extends JpaRepository<ItemAluguel, Long>
      * - Quando aluguelId é NULL: usado na criação, verifica qualquer conflito.
      * - Quando aluguelId NÃO é NULL: usado na atualização,
      *   desconsidera o próprio aluguel para não gerar falso conflito.
+     * Lê status e período espelhados no item: a busca fica toda no índice
+     * idx_item_aluguel_conflito, sem acessar a tabela aluguel.
      */
     @Query("""
         SELECT CASE WHEN COUNT(i) > 0 THEN true ELSE false END
         FROM item_aluguel i
         WHERE i.traje.id = :trajeId
-          AND i.aluguel.status = 'ATIVO'
+          AND i.status = 'ATIVO'
           AND (:aluguelId IS NULL OR i.aluguel.id <> :aluguelId)
           AND (
-               :dataRetirada <= i.aluguel.dataDevolucao
-           AND :dataDevolucao >= i.aluguel.dataRetirada
+               :dataRetirada <= i.dataDevolucao
+           AND :dataDevolucao >= i.dataRetirada
           )
     """)
     boolean trajeIndisponivelNoPeriodo(
@@ -45,16 +52,73 @@ public interface ItemAluguelRepository extends JpaRepository<ItemAluguel, Long>
             @Param("aluguelId") Long aluguelId
     );
 
+    /**
+     * Mesma regra de {@link #trajeIndisponivelNoPeriodo} para vários trajes de
+     * uma vez: devolve os ids dos que têm conflito no período.
+     */
+    @Query("""
+        SELECT DISTINCT i.traje.id
+        FROM item_aluguel i
+        WHERE i.traje.id IN :trajeIds
+          AND i.status = 'ATIVO'
+          AND (:aluguelId IS NULL OR i.aluguel.id <> :aluguelId)
+          AND (
+               :dataRetirada <= i.dataDevolucao
+           AND :dataDevolucao >= i.dataRetirada
+          )
+    """)
+    List<Long> findTrajesIndisponiveisNoPeriodo(
+            @Param("trajeIds") Collection<Long> trajeIds,
+            @Param("dataRetirada") LocalDate dataRetirada,
+            @Param("dataDevolucao") LocalDate dataDevolucao,
+            @Param("aluguelId") Long aluguelId
+    );
+
     /**
      * Retorna todos os períodos (dataRetirada, dataDevolucao) de aluguéis
      * ATIVOS que contêm o traje informado.
      */
     @Query("""
-        SELECT i.aluguel.dataRetirada, i.aluguel.dataDevolucao
+        SELECT i.dataRetirada, i.dataDevolucao
         FROM item_aluguel i
         WHERE i.traje.id = :trajeId
-          AND i.aluguel.status = 'ATIVO'
-        ORDER BY i.aluguel.dataRetirada
+          AND i.status = 'ATIVO'
+        ORDER BY i.dataRetirada
     """)
     List<Object[]> findPeriodosAlugadosByTrajeId(@Param("trajeId") Long trajeId);
+
+    /** Períodos de todos os itens de aluguéis ATIVOS, para carregar o índice de disponibilidade. */
+    @Query("""
+        SELECT new br.edu.fateczl.tcc.repository.PeriodoAtivo(
+               i.aluguel.id, i.traje.id, i.dataRetirada, i.dataDevolucao)
+        FROM item_aluguel i
+        WHERE i.status = 'ATIVO'
+    """)
+    List<PeriodoAtivo> findPeriodosAtivos();
+
+    /** Períodos de aluguéis ATIVOS com algum dia entre {@code inicio} e {@code fim}. */
+    @Query("""
+        SELECT new br.edu.fateczl.tcc.repository.PeriodoAtivo(
+               i.aluguel.id, i.traje.id, i.dataRetirada, i.dataDevolucao)
+        FROM item_aluguel i
+        WHERE i.status = 'ATIVO'
+          AND i.dataRetirada <= :fim
+          AND i.dataDevolucao >= :inicio
+    """)
+    List<PeriodoAtivo> findPeriodosAtivosEntre(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Preenche status e período espelhados nos itens gravados antes das
+     * colunas existirem. Itens novos já nascem preenchidos.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE item_aluguel i
+        SET i.status = (SELECT a.status FROM aluguel a WHERE a.id = i.aluguel.id),
+            i.dataRetirada = (SELECT a.dataRetirada FROM aluguel a WHERE a.id = i.aluguel.id),
+            i.dataDevolucao = (SELECT a.dataDevolucao FROM aluguel a WHERE a.id = i.aluguel.id)
+        WHERE i.status IS NULL
+    """)
+    int preencherPeriodoDoAluguel();
 }
@@ -0,0 +1,7 @@
+package br.edu.fateczl.tcc.repository;
+
+import java.time.LocalDate;
+
+/** Período de um traje num aluguel ATIVO (um por item). */
+public record PeriodoAtivo(Long aluguelId, Long trajeId, LocalDate dataRetirada, LocalDate dataDevolucao) {
+}
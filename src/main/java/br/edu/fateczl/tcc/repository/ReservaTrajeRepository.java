@@ -0,0 +1,19 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.ReservaTraje;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ReservaTrajeRepository extends JpaRepository<ReservaTraje, Long> {
+
+    /**
+     * DELETE direto no banco, e não o deleteBy derivado: no flush o Hibernate
+     * faz os inserts antes dos deletes, e as reservas novas do mesmo aluguel
+     * bateriam na chave única com as antigas.
+     */
+    @Modifying
+    @Query("DELETE FROM reserva_traje r WHERE r.aluguel.id = :aluguelId")
+    void deleteByAluguelId(@Param("aluguelId") Long aluguelId);
+}
@@ -0,0 +1,27 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.enums.CorTraje;
+import br.edu.fateczl.tcc.enums.SexoEnum;
+import br.edu.fateczl.tcc.enums.StatusTraje;
+import br.edu.fateczl.tcc.enums.TamanhoTraje;
+import br.edu.fateczl.tcc.enums.TipoTraje;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha do relatório de acervo. Projeção escalar: as linhas lidas do cursor
+ * não entram no contexto de persistência, então não se acumulam na sessão.
+ */
+public record TrajeRelatorioLinha(
+
+        Long id,
+        String nome,
+        TipoTraje tipo,
+        TamanhoTraje tamanho,
+        CorTraje cor,
+        SexoEnum genero,
+        StatusTraje status,
+        BigDecimal valorItem
+
+) {
+}
@@ -5,16 +5,20 @@ import br.edu.fateczl.tcc.enums.SexoEnum;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 public interface TrajeRepository extends JpaRepository<Traje, Long>,
-                                         JpaSpecificationExecutor<Traje> {
+                                         JpaSpecificationExecutor<Traje>,
+                                         TrajeResumoRepository,
+                                         TrajeStreamingRepository {
 
     List<Traje> findByStatus(StatusTraje status);
 
@@ -24,15 +28,39 @@ public interface TrajeRepository extends JpaRepository<Traje, Long>,
 
     List<Traje> findByTamanho(TamanhoTraje tamanho);
 
-    @Query("SELECT t FROM traje t WHERE " +
-           "t.nome LIKE LOWER(CONCAT('%', :busca, '%')) OR " +
-           "LOWER(t.descricao) LIKE LOWER(CONCAT('%', :busca, '%'))")
-    List<Traje> buscarPorNomeOuDescricao(@Param("busca") String termo);
+    boolean existsByImagemHash(String imagemHash);
 
-    @Query("SELECT t FROM traje t WHERE t.valorItem BETWEEN :min AND :max")
-    List<Traje> findByFaixaDePreco(
-            @Param("min") BigDecimal min,
-            @Param("max") BigDecimal max);
+    @Query("SELECT t.id FROM traje t WHERE t.imagemUrl LIKE 'data:%'")
+    List<Long> findIdsComImagemLegada();
+
+    @Query("SELECT DISTINCT new br.edu.fateczl.tcc.repository.ImagemDhash(t.imagemHash, t.imagemDhash) " +
+           "FROM traje t WHERE t.imagemDhash IS NOT NULL")
+    List<ImagemDhash> findImagemDhashes();
+
+    /**
+     * Imagens cujas variantes nunca foram geradas: o dHash é gravado no fim da
+     * geração. WEBP fica de fora, já que sem leitor ImageIO nunca terá dHash,
+     * assim como as que já falharam {@code maxFalhas} vezes. Em ordem de hash,
+     * depois de {@code apos}, para a varredura andar em lotes.
+     */
+    @Query("SELECT DISTINCT t.imagemHash FROM traje t " +
+           "WHERE t.imagemHash IS NOT NULL AND t.imagemDhash IS NULL " +
+           "AND (t.imagemTipo IS NULL OR t.imagemTipo <> 'image/webp') " +
+           "AND COALESCE(t.imagemFalhasVariante, 0) < :maxFalhas " +
+           "AND t.imagemHash > :apos ORDER BY t.imagemHash")
+    List<String> findImagemHashesSemDhash(@Param("maxFalhas") int maxFalhas, @Param("apos") String apos,
+                                          Pageable lote);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE traje t SET t.imagemFalhasVariante = COALESCE(t.imagemFalhasVariante, 0) + 1 " +
+           "WHERE t.imagemHash = :hash")
+    int registrarFalhaVariante(@Param("hash") String hash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE traje t SET t.imagemDhash = :dhash WHERE t.imagemHash = :hash")
+    int atualizarImagemDhash(@Param("hash") String hash, @Param("dhash") Long dhash);
 
     @Query("SELECT COUNT(t) FROM traje t WHERE t.status = :status")
     long countByStatus(@Param("status") StatusTraje status);
@@ -0,0 +1,19 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.Traje;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Consultas de listagem que devolvem {@link TrajeResumo} em vez de entidades.
+ * Aceita as mesmas {@link Specification}s usadas no {@link TrajeRepository}.
+ */
+public interface TrajeResumoRepository {
+
+    List<TrajeResumo> buscarResumos(Specification<Traje> spec);
+
+    Page<TrajeResumo> buscarResumos(Specification<Traje> spec, Pageable pageable);
+}
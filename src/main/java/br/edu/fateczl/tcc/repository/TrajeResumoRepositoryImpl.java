@@ -0,0 +1,101 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.Traje;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class TrajeResumoRepositoryImpl implements TrajeResumoRepository {
+
+    private static final String IMAGEM_URL = "imagemUrl";
+    private static final String PREFIXO_DATA_URL = "data:%";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TrajeResumo> buscarResumos(Specification<Traje> spec) {
+        return criarConsulta(spec, Sort.unsorted()).getResultList();
+    }
+
+    @Override
+    public Page<TrajeResumo> buscarResumos(Specification<Traje> spec, Pageable pageable) {
+        TypedQuery<TrajeResumo> query = criarConsulta(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> contar(spec));
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private TypedQuery<TrajeResumo> criarConsulta(Specification<Traje> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TrajeResumo> query = cb.createQuery(TrajeResumo.class);
+        Root<Traje> root = query.from(Traje.class);
+
+        // Data URLs ainda não migradas para o storage não vão para as listagens.
+        Expression<String> imagemUrl = cb.<String>selectCase()
+                .when(cb.like(root.<String>get(IMAGEM_URL), PREFIXO_DATA_URL), cb.nullLiteral(String.class))
+                .otherwise(root.<String>get(IMAGEM_URL));
+
+        query.select(cb.construct(TrajeResumo.class,
+                root.get("id"),
+                root.get("descricao"),
+                root.get("tamanho"),
+                root.get("cor"),
+                root.get("tipo"),
+                root.get("genero"),
+                root.get("valorItem"),
+                root.get("status"),
+                root.get("nome"),
+                root.get("tecido"),
+                root.get("estampa"),
+                root.get("textura"),
+                root.get("condicao"),
+                imagemUrl,
+                root.get("imagemHash"),
+                root.get("dataCadastro")));
+
+        aplicarFiltro(spec, root, query, cb);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long contar(Specification<Traje> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Traje> root = query.from(Traje.class);
+        query.select(cb.count(root));
+        aplicarFiltro(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void aplicarFiltro(Specification<Traje> spec, Root<Traje> root,
+                                      CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.edu.fateczl.tcc.repository;
+
+import java.util.stream.Stream;
+
+/** Consultas de traje lidas em streaming ({@link ConsultaStreaming}). */
+public interface TrajeStreamingRepository {
+
+    /** Acervo inteiro em ordem de id. Precisa de transação aberta e o stream deve ser fechado. */
+    Stream<TrajeRelatorioLinha> streamRelatorio();
+}
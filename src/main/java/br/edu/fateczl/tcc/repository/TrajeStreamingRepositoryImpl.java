@@ -0,0 +1,26 @@
+package br.edu.fateczl.tcc.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.stream.Stream;
+
+public class TrajeStreamingRepositoryImpl implements TrajeStreamingRepository {
+
+    private final ConsultaStreaming consultaStreaming;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TrajeStreamingRepositoryImpl(ConsultaStreaming consultaStreaming) {
+        this.consultaStreaming = consultaStreaming;
+    }
+
+    @Override
+    public Stream<TrajeRelatorioLinha> streamRelatorio() {
+        return consultaStreaming.abrir(entityManager.createQuery(
+                "SELECT new br.edu.fateczl.tcc.repository.TrajeRelatorioLinha(" +
+                "t.id, t.nome, t.tipo, t.tamanho, t.cor, t.genero, t.status, t.valorItem) " +
+                "FROM traje t ORDER BY t.id", TrajeRelatorioLinha.class));
+    }
+}
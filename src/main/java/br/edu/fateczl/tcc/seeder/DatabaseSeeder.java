@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
@@ -32,8 +33,12 @@ import java.util.List;
 
 @Component
 @ConditionalOnProperty(name = "app.seeder.enabled", havingValue = "true")
+@Order(DatabaseSeeder.ORDEM)
 public class DatabaseSeeder implements CommandLineRunner {
 
+    /** Roda antes das migrações de dados, que completam o que ele grava direto nos repositórios. */
+    public static final int ORDEM = 0;
+
     private static final Logger log = LoggerFactory.getLogger(DatabaseSeeder.class);
 
     private final ClienteService clienteService;
@@ -0,0 +1,64 @@
+package br.edu.fateczl.tcc.seeder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Na subida da aplicação, remove de {@code item_aluguel} os índices que o
+ * {@code idx_item_aluguel_conflito} substituiu. O ddl-auto {@code update} só
+ * cria índices, nunca apaga, e o índice antigo continuaria custando espaço e
+ * escrita em cada item gravado. A chave estrangeira de {@code id_traje} segue
+ * coberta, porque o índice novo começa por essa coluna. Não faz nada quando
+ * os índices já não existem.
+ */
+@Component
+@Order(DatabaseSeeder.ORDEM + 3)
+public class MigracaoIndicesItemAluguel implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoIndicesItemAluguel.class);
+
+    static final String TABELA = "item_aluguel";
+    static final List<String> SUBSTITUIDOS = List.of("idx_item_aluguel_traje");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MigracaoIndicesItemAluguel(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (String indice : SUBSTITUIDOS) {
+            if (existe(indice)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABELA + " DROP INDEX " + indice);
+                log.info("Índice {} removido de {}: substituído por idx_item_aluguel_conflito", indice, TABELA);
+            }
+        }
+    }
+
+    boolean existe(String indice) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao -> {
+            DatabaseMetaData meta = conexao.getMetaData();
+            String tabela = meta.storesUpperCaseIdentifiers() ? TABELA.toUpperCase(Locale.ROOT) : TABELA;
+            try (ResultSet indices = meta.getIndexInfo(conexao.getCatalog(), conexao.getSchema(),
+                    tabela, false, true)) {
+                while (indices.next()) {
+                    if (indice.equalsIgnoreCase(indices.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
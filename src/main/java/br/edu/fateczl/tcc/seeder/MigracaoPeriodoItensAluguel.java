@@ -0,0 +1,36 @@
+package br.edu.fateczl.tcc.seeder;
+
+import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Na subida da aplicação, copia status e período do aluguel para os itens
+ * gravados antes de {@code item_aluguel} ter essas colunas. Roda depois do
+ * {@link DatabaseSeeder}, antes do índice de disponibilidade ser carregado
+ * (ApplicationReadyEvent), e não faz nada quando todos os itens já estão
+ * preenchidos.
+ */
+@Component
+@Order(DatabaseSeeder.ORDEM + 1)
+public class MigracaoPeriodoItensAluguel implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoPeriodoItensAluguel.class);
+
+    private final ItemAluguelRepository itemAluguelRepository;
+
+    public MigracaoPeriodoItensAluguel(ItemAluguelRepository itemAluguelRepository) {
+        this.itemAluguelRepository = itemAluguelRepository;
+    }
+
+    @Override
+    public void run(String... args) {
+        int preenchidos = itemAluguelRepository.preencherPeriodoDoAluguel();
+        if (preenchidos > 0) {
+            log.info("Status e período do aluguel copiados para {} item(ns)", preenchidos);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.edu.fateczl.tcc.seeder;
+
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.service.ReservaTrajeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Na subida da aplicação, grava no livro de reservas ({@code reserva_traje})
+ * os aluguéis ATIVOS criados antes dele existir; sem isso, a chave única não
+ * protegeria os períodos já alugados. Não faz nada quando todo aluguel ATIVO
+ * já tem reservas. Dois aluguéis antigos que se sobrepõem no mesmo traje não
+ * cabem juntos no livro: o segundo fica de fora e é avisado no log.
+ *
+ * Roda depois do {@link DatabaseSeeder}, que grava aluguéis ATIVOS direto no
+ * repositório, e da cópia do período para os itens; tudo antes do índice de
+ * disponibilidade ser carregado (ApplicationReadyEvent).
+ */
+@Component
+@Order(DatabaseSeeder.ORDEM + 2)
+public class MigracaoReservasTraje implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoReservasTraje.class);
+
+    private final ReservaTrajeService reservaTrajeService;
+
+    public MigracaoReservasTraje(ReservaTrajeService reservaTrajeService) {
+        this.reservaTrajeService = reservaTrajeService;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<Long> pendentes = reservaTrajeService.pendentes();
+        int reservados = 0;
+        for (Long aluguelId : pendentes) {
+            try {
+                reservaTrajeService.reconstruir(aluguelId);
+                reservados++;
+            } catch (BusinessException e) {
+                log.warn("Aluguel {} não entrou no livro de reservas: {}", aluguelId, e.getMessage());
+            }
+        }
+        if (reservados > 0) {
+            log.info("Livro de reservas preenchido para {} aluguel(éis) ativo(s)", reservados);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import br.edu.fateczl.tcc.domain.Cliente;
 import br.edu.fateczl.tcc.domain.ItemAluguel;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelFiltroRequest;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelPaginaResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelRequest;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelUpdateRequest;
@@ -23,12 +24,19 @@ import br.edu.fateczl.tcc.repository.AluguelRepository;
 import br.edu.fateczl.tcc.repository.ClienteRepository;
 import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
 import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.storage.CacheContratos;
+import br.edu.fateczl.tcc.util.TransacaoUtil;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class AluguelService {
@@ -38,21 +46,35 @@ public class AluguelService {
     private final TrajeRepository trajeRepository;
     private final ItemAluguelRepository itemAluguelRepository;
     private final DevolucaoService devolucaoService;
+    private final CacheContratos cacheContratos;
+    private final DisponibilidadeTrajeService disponibilidade;
+    private final ReservaTrajeService reservas;
+    private final AtrasoAluguelService atrasos;
 
     private static final String RESOURCE_ALUGUEL = "Aluguel";
     private static final String RESOURCE_CLIENTE = "Cliente";
     private static final String RESOURCE_TRAJE = "Traje";
 
+    public static final int MAX_LIMITE_PAGINA = 100;
+
     public AluguelService(AluguelRepository aluguelRepository,
                           ClienteRepository clienteRepository,
                           TrajeRepository trajeRepository,
                           ItemAluguelRepository itemAluguelRepository,
-                          DevolucaoService devolucaoService) {
+                          DevolucaoService devolucaoService,
+                          CacheContratos cacheContratos,
+                          DisponibilidadeTrajeService disponibilidade,
+                          ReservaTrajeService reservas,
+                          AtrasoAluguelService atrasos) {
         this.aluguelRepository = aluguelRepository;
         this.clienteRepository = clienteRepository;
         this.trajeRepository = trajeRepository;
         this.itemAluguelRepository = itemAluguelRepository;
         this.devolucaoService = devolucaoService;
+        this.cacheContratos = cacheContratos;
+        this.disponibilidade = disponibilidade;
+        this.reservas = reservas;
+        this.atrasos = atrasos;
     }
 
 
@@ -83,7 +105,10 @@ public class AluguelService {
         // Verificar se o valor com desconto é negativo
         validarValorComDesconto(valorComDesconto);
 
+        espelharNosItens(aluguel);
         aluguelRepository.save(aluguel);
+        reservas.reservar(aluguel);
+        disponibilidade.registrar(aluguel);
         return AluguelMapper.toResponse(aluguel);
     }
 
@@ -102,20 +127,10 @@ public class AluguelService {
 
         validarDatas(dto.dataRetirada(), dto.dataDevolucao());
 
-        // Validar conflito com os NOVOS itens do DTO
-        for (ItemAluguelRequest itemDto : dto.itens()) {
-            validarDisponibilidadePeriodo(
-                    itemDto.trajeId(),
-                    dto.dataRetirada(),
-                    dto.dataDevolucao(),
-                    aluguel.getId()
-            );
-        }
-
         // Atualizar dados do aluguel (sem itens, para evitar quebra do orphan removal)
         AluguelMapper.updateEntity(aluguel, dto);
 
-        // Criar novos itens e recalcular o valor total
+        // Criar novos itens (validando conflito com as novas datas) e recalcular o valor total
         List<ItemAluguel> itensAtualizados = criarItens(dto.itens(), aluguel, aluguel.getId());
 
         // Atualizar a lista de itens no aluguel, removendo os órfãos
@@ -135,7 +150,14 @@ public class AluguelService {
         // Atualizar o valor total do aluguel
         aluguel.setValorTotal(valorComDesconto);
 
+        espelharNosItens(aluguel);
         aluguelRepository.save(aluguel);
+        reservas.liberar(id);
+        reservas.reservar(aluguel);
+        disponibilidade.registrar(aluguel);
+        // A nova devolução não fica no passado; o aluguel deixa de estar atrasado.
+        atrasos.remover(id);
+        invalidarContrato(id);
         return AluguelMapper.toResponse(aluguel);
     }
 
@@ -145,35 +167,41 @@ public class AluguelService {
     // ===============================
     @Transactional(readOnly = true)
     public AluguelResponse buscarPorId(Long id) {
-        return AluguelMapper.toResponse(buscarAluguelOuFalhar(id));
-    }
-
-
-    // ===============================
-    // READ - todos
-    // ===============================
-    @Transactional(readOnly = true)
-    public List<AluguelResponse> listarTodos() {
-        return aluguelRepository.findAll().stream()
+        return aluguelRepository.findWithRelacionamentosById(id)
                 .map(AluguelMapper::toResponse)
-                .toList();
+                .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_ALUGUEL, id));
     }
 
 
     // ===============================
     // READ - com filtros
     // ===============================
+    /**
+     * Página por chave (dataRetirada, id): busca um registro além do limite
+     * só para saber se há próxima página, sem OFFSET nem COUNT. Primeiro só
+     * os ids, depois cliente, itens e trajes desses ids numa consulta só:
+     * com LIMIT junto do fetch da coleção o Hibernate paginaria em memória.
+     */
     @Transactional(readOnly = true)
-    public List<AluguelResponse> listarComFiltros(AluguelFiltroRequest filtro) {
-        Specification<Aluguel> specification = Specification
-                .where(AluguelSpecification.comStatus(filtro.status()))
-                .and(AluguelSpecification.comNomeCliente(filtro.nomeCliente()))
-                .and(AluguelSpecification.comDataRetiradaEntre(filtro.dataRetiradaInicio(), filtro.dataRetiradaFim()))
-                .and(AluguelSpecification.comOcasiao(filtro.ocasiao()));
-
-        return aluguelRepository.findAll(specification).stream()
-                .map(AluguelMapper::toResponse)
-                .toList();
+    public AluguelPaginaResponse listarPagina(AluguelFiltroRequest filtro, String cursor,
+                                              int limite, boolean contarTotal) {
+        if (limite < 1 || limite > MAX_LIMITE_PAGINA) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAX_LIMITE_PAGINA);
+        }
+        CursorAluguel apos = cursor == null || cursor.isBlank() ? null : CursorAluguel.decodificar(cursor);
+        Specification<Aluguel> spec = filtros(filtro);
+
+        List<Long> ids = aluguelRepository.buscarIdsPaginaApos(spec,
+                apos != null ? apos.dataRetirada() : null,
+                apos != null ? apos.id() : null,
+                limite + 1);
+        boolean haMais = ids.size() > limite;
+        List<Aluguel> pagina = carregarNaOrdem(haMais ? ids.subList(0, limite) : ids);
+
+        return new AluguelPaginaResponse(
+                pagina.stream().map(AluguelMapper::toResponse).toList(),
+                haMais ? CursorAluguel.de(pagina.get(limite - 1)).codificar() : null,
+                contarTotal ? aluguelRepository.count(spec) : null);
     }
 
 
@@ -193,7 +221,20 @@ public class AluguelService {
     // ===============================
     @Transactional
     public void deletar(Long id) {
-        aluguelRepository.delete(buscarAluguelOuFalhar(id));
+        Aluguel aluguel = buscarAluguelOuFalhar(id);
+        reservas.liberar(id);
+        aluguelRepository.delete(aluguel);
+        disponibilidade.remover(id);
+        atrasos.remover(id);
+        invalidarContrato(id);
+    }
+
+    /**
+     * O cache já ignora versões cujo conteúdo mudou; descartar aqui só libera
+     * memória e disco sem esperar a próxima impressão.
+     */
+    private void invalidarContrato(Long id) {
+        TransacaoUtil.aposCommit(() -> cacheContratos.invalidar(id));
     }
 
 
@@ -221,7 +262,11 @@ public class AluguelService {
         DevolucaoResponse devolucaoResponse = devolucaoService.criar(dto, aluguel);
 
         aluguel.setStatus(StatusAluguel.CONCLUIDO);
+        espelharNosItens(aluguel);
         aluguelRepository.save(aluguel);
+        reservas.liberar(aluguelId);
+        disponibilidade.registrar(aluguel);
+        atrasos.remover(aluguelId);
 
         return devolucaoResponse;
     }
@@ -230,6 +275,31 @@ public class AluguelService {
     // ===============================
     // HELPERS
     // ===============================
+
+    /** Mesmos filtros da listagem, reaproveitados pela exportação de contratos. */
+    static Specification<Aluguel> filtros(AluguelFiltroRequest filtro) {
+        return Specification
+                .where(AluguelSpecification.comStatus(filtro.status()))
+                .and(AluguelSpecification.comNomeCliente(filtro.nomeCliente()))
+                .and(AluguelSpecification.comDataRetiradaEntre(filtro.dataRetiradaInicio(), filtro.dataRetiradaFim()))
+                .and(AluguelSpecification.comOcasiao(filtro.ocasiao()));
+    }
+
+    /** O IN não garante ordem; devolve os aluguéis na ordem dos ids pedidos. */
+    private List<Aluguel> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Aluguel> porId = aluguelRepository.findWithRelacionamentosByIdIn(ids).stream()
+                .collect(Collectors.toMap(Aluguel::getId, Function.identity()));
+        return ids.stream().map(porId::get).toList();
+    }
+
+    /** Os itens guardam cópia do status e do período para a checagem de conflito. */
+    private static void espelharNosItens(Aluguel aluguel) {
+        aluguel.getItens().forEach(ItemAluguel::espelharAluguel);
+    }
+
     private Aluguel buscarAluguelOuFalhar(Long id) {
         return aluguelRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_ALUGUEL, id));
@@ -245,36 +315,6 @@ public class AluguelService {
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_TRAJE, id));
     }
 
-    private ItemAluguel criarItem(ItemAluguelRequest dto, Aluguel aluguel, Long aluguelIdParaIgnorar) {
-        // Buscar traje
-        Traje traje = buscarTrajeOuFalhar(dto.trajeId());
-
-        // Validações
-        validarTrajeDisponivel(traje);
-
-        // Validação de conflito de período
-        validarDisponibilidadePeriodo(
-                dto.trajeId(),
-                aluguel.getDataRetirada(),
-                aluguel.getDataDevolucao(),
-                aluguelIdParaIgnorar
-        );
-
-        return ItemAluguelMapper.toEntity(traje, aluguel);
-    }
-
-    private void validarDisponibilidadePeriodo(Long trajeId,
-                                               LocalDate retirada,
-                                               LocalDate devolucao,
-                                               Long aluguelId) {
-        boolean indisponivel = itemAluguelRepository
-                .trajeIndisponivelNoPeriodo(trajeId, retirada, devolucao, aluguelId);
-
-        if (indisponivel) {
-            throw new BusinessException("Traje já está alugado nesse período");
-        }
-    }
-
     private void validarDatas(LocalDate retirada, LocalDate devolucao) {
         if (devolucao.isBefore(retirada)) {
             throw new BusinessException("A data de devolução deve ser após a data de retirada");
@@ -285,16 +325,61 @@ public class AluguelService {
         }
     }
 
-    private void validarTrajeDisponivel(Traje traje) {
-        if (!traje.getStatus().equals(StatusTraje.DISPONIVEL)) {
-            throw new BusinessException("Traje não está disponível");
+    /**
+     * Carrega todos os trajes com uma consulta e confere status e conflito de
+     * período de todos de uma vez, reportando juntos os que não puderem ser
+     * alugados.
+     */
+    private List<ItemAluguel> criarItens(List<ItemAluguelRequest> itensDto, Aluguel aluguel, Long aluguelIdParaIgnorar) {
+        List<Long> trajeIds = itensDto.stream()
+                .map(ItemAluguelRequest::trajeId)
+                .distinct()
+                .toList();
+        Map<Long, Traje> trajes = buscarTrajesOuFalhar(trajeIds);
+
+        validarTrajesDisponiveis(trajeIds, trajes, aluguel.getDataRetirada(), aluguel.getDataDevolucao(),
+                aluguelIdParaIgnorar);
+
+        return itensDto.stream()
+                .map(itemDto -> ItemAluguelMapper.toEntity(trajes.get(itemDto.trajeId()), aluguel))
+                .toList();
+    }
+
+    private Map<Long, Traje> buscarTrajesOuFalhar(List<Long> ids) {
+        Map<Long, Traje> trajes = trajeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Traje::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!trajes.containsKey(id)) {
+                throw new ResourceNotFoundException(RESOURCE_TRAJE, id);
+            }
         }
+        return trajes;
     }
 
-    private List<ItemAluguel> criarItens(List<ItemAluguelRequest> itensDto, Aluguel aluguel, Long aluguelIdParaIgnorar) {
-        return itensDto.stream()
-                .map(itemDto -> criarItem(itemDto, aluguel, aluguelIdParaIgnorar))
+    private void validarTrajesDisponiveis(List<Long> trajeIds,
+                                          Map<Long, Traje> trajes,
+                                          LocalDate retirada,
+                                          LocalDate devolucao,
+                                          Long aluguelIdParaIgnorar) {
+        List<Long> disponiveis = trajeIds.stream()
+                .filter(id -> trajes.get(id).getStatus().equals(StatusTraje.DISPONIVEL))
                 .toList();
+        Set<Long> ocupados = disponibilidade.indisponiveis(disponiveis, retirada, devolucao, aluguelIdParaIgnorar);
+
+        List<String> problemas = new ArrayList<>();
+        for (Long id : trajeIds) {
+            // Com vários trajes no pedido, cada problema diz de qual traje é.
+            String traje = trajeIds.size() == 1 ? "Traje" : "Traje " + trajes.get(id).getNome() + " (id " + id + ")";
+            if (!disponiveis.contains(id)) {
+                problemas.add(traje + " não está disponível");
+            } else if (ocupados.contains(id)) {
+                problemas.add(traje + " já está alugado nesse período");
+            }
+        }
+
+        if (!problemas.isEmpty()) {
+            throw new BusinessException(String.join("; ", problemas));
+        }
     }
 
     private BigDecimal calcularValorTotal(List<ItemAluguel> itens) {
@@ -0,0 +1,125 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.AluguelAtrasado;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelAtrasadoResponse;
+import br.edu.fateczl.tcc.dto.aluguel.AtrasosNovosResponse;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.mapper.AluguelAtrasadoMapper;
+import br.edu.fateczl.tcc.repository.AluguelAtrasadoRepository;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.AtrasoAluguel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela {@code aluguel_atrasado} com os aluguéis ATIVOS de
+ * devolução vencida. O cálculo roda na subida e todo dia
+ * ({@code app.alugueis.atrasos.cron}) numa única consulta indexada; os
+ * painéis leem só a tabela pronta. O {@link AluguelService} tira da tabela
+ * o aluguel devolvido, alterado ou removido, sem esperar o próximo cálculo.
+ */
+@Service
+public class AtrasoAluguelService {
+
+    public static final int MAX_LIMITE_NOVOS = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(AtrasoAluguelService.class);
+
+    private final AluguelRepository aluguelRepository;
+    private final AluguelAtrasadoRepository atrasadoRepository;
+
+    public AtrasoAluguelService(AluguelRepository aluguelRepository,
+                                AluguelAtrasadoRepository atrasadoRepository) {
+        this.aluguelRepository = aluguelRepository;
+        this.atrasadoRepository = atrasadoRepository;
+    }
+
+    // ===============================
+    // CÁLCULO
+    // ===============================
+    /**
+     * Atrasos que continuam em aberto só têm os dias recalculados (mantêm id
+     * e detectadoEm); os novos entram no fim do feed; os que deixaram de
+     * estar atrasados saem.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.alugueis.atrasos.cron:0 5 0 * * *}")
+    public void recalcular() {
+        LocalDate hoje = LocalDate.now();
+        LocalDateTime agora = LocalDateTime.now();
+
+        Map<Long, AluguelAtrasado> anteriores = atrasadoRepository.findAll().stream()
+                .collect(Collectors.toMap(AluguelAtrasado::getAluguelId, Function.identity()));
+
+        List<AluguelAtrasado> novos = new ArrayList<>();
+        List<AtrasoAluguel> atrasos = new ArrayList<>(aluguelRepository.findAtrasosEm(hoje));
+        atrasos.sort(Comparator.comparing(AtrasoAluguel::aluguelId));
+        for (AtrasoAluguel atraso : atrasos) {
+            int dias = (int) ChronoUnit.DAYS.between(atraso.dataDevolucao(), hoje);
+            AluguelAtrasado anterior = anteriores.remove(atraso.aluguelId());
+            if (anterior != null) {
+                anterior.atualizar(atraso.nomeCliente(), atraso.dataDevolucao(), dias);
+            } else {
+                novos.add(new AluguelAtrasado(atraso.aluguelId(), atraso.clienteId(), atraso.nomeCliente(),
+                        atraso.dataDevolucao(), dias, agora));
+            }
+        }
+
+        atrasadoRepository.deleteAllInBatch(anteriores.values());
+        atrasadoRepository.saveAll(novos);
+        log.info("Aluguéis atrasados: {} em aberto, {} novos, {} resolvidos",
+                atrasos.size(), novos.size(), anteriores.size());
+    }
+
+    // ===============================
+    // READ
+    // ===============================
+    /** Do mais atrasado para o menos atrasado. */
+    @Transactional(readOnly = true)
+    public Page<AluguelAtrasadoResponse> listar(int pagina, int tamanho) {
+        PageRequest pageable = PageRequest.of(pagina, tamanho,
+                Sort.by(Sort.Order.desc("diasAtraso"), Sort.Order.asc("id")));
+        return atrasadoRepository.findAll(pageable).map(AluguelAtrasadoMapper::toResponse);
+    }
+
+    /** Atrasos detectados depois de {@code desde} (id do último já lido; 0 no início). */
+    @Transactional(readOnly = true)
+    public AtrasosNovosResponse novos(Long desde, int limite) {
+        if (limite < 1 || limite > MAX_LIMITE_NOVOS) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAX_LIMITE_NOVOS);
+        }
+        long cursor = desde != null ? desde : 0L;
+        List<AluguelAtrasadoResponse> itens = atrasadoRepository
+                .findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.ofSize(limite)).stream()
+                .map(AluguelAtrasadoMapper::toResponse)
+                .toList();
+        return new AtrasosNovosResponse(itens, itens.isEmpty() ? cursor : itens.get(itens.size() - 1).id());
+    }
+
+    // ===============================
+    // DELETE
+    // ===============================
+    @Transactional
+    public void remover(Long aluguelId) {
+        atrasadoRepository.deleteByAluguelId(aluguelId);
+    }
+}
@@ -0,0 +1,186 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.config.AsyncConfig;
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
+import br.edu.fateczl.tcc.enums.StatusJobContrato;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ContratoJobNaoConcluidoException;
+import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.storage.CacheContratos;
+import br.edu.fateczl.tcc.storage.ContratoPdf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renderização de contratos em segundo plano.
+ *
+ * O pedido só confere se o aluguel existe e entra na fila do pool
+ * {@link AsyncConfig#CONTRATO_EXECUTOR}; a thread da requisição volta na
+ * hora com o id do job. O PDF é gravado no {@link CacheContratos} e o
+ * download serve de lá, então um job concluído não guarda bytes próprios.
+ *
+ * Um aluguel tem no máximo um job em andamento: pedir de novo devolve o
+ * mesmo job. Jobs finalizados ficam consultáveis por
+ * {@code app.contratos.jobs.retencao} e são descartados no pedido seguinte.
+ */
+@Service
+public class ContratoJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContratoJobService.class);
+
+    private static final String RESOURCE_ALUGUEL = "Aluguel";
+
+    private final AluguelRepository aluguelRepository;
+    private final ContratoPdfService contratoPdfService;
+    private final CacheContratos cacheContratos;
+    private final TaskExecutor executor;
+    private final Duration retencao;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Job> emAndamentoPorAluguel = new ConcurrentHashMap<>();
+
+    public ContratoJobService(AluguelRepository aluguelRepository,
+                              ContratoPdfService contratoPdfService,
+                              CacheContratos cacheContratos,
+                              @Qualifier(AsyncConfig.CONTRATO_EXECUTOR) TaskExecutor executor,
+                              @Value("${app.contratos.jobs.retencao:30m}") Duration retencao) {
+        this.aluguelRepository = aluguelRepository;
+        this.contratoPdfService = contratoPdfService;
+        this.cacheContratos = cacheContratos;
+        this.executor = executor;
+        this.retencao = retencao;
+    }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long aluguelId;
+        private final LocalDateTime criadoEm = LocalDateTime.now();
+        private volatile StatusJobContrato status = StatusJobContrato.PENDENTE;
+        private volatile String versao;
+        private volatile String erro;
+        private volatile LocalDateTime finalizadoEm;
+
+        private Job(Long aluguelId) {
+            this.aluguelId = aluguelId;
+        }
+
+        private ContratoJobResponse resposta() {
+            return new ContratoJobResponse(id, aluguelId, status, erro, criadoEm, finalizadoEm);
+        }
+    }
+
+    // ===============================
+    // ENFILEIRAR
+    // ===============================
+
+    /**
+     * @throws ResourceNotFoundException se o aluguel não existe
+     * @throws TaskRejectedException se a fila de renderização está cheia
+     */
+    public ContratoJobResponse enfileirar(Long aluguelId) {
+        if (!aluguelRepository.existsById(aluguelId)) {
+            throw new ResourceNotFoundException(RESOURCE_ALUGUEL, aluguelId);
+        }
+        removerExpirados();
+
+        Job novo = new Job(aluguelId);
+        Job job = emAndamentoPorAluguel.compute(aluguelId,
+                (id, atual) -> atual != null && !atual.status.isFinalizado() ? atual : novo);
+        if (job != novo) {
+            return job.resposta();
+        }
+
+        jobs.put(novo.id, novo);
+        try {
+            executor.execute(() -> processar(novo));
+        } catch (TaskRejectedException e) {
+            jobs.remove(novo.id);
+            emAndamentoPorAluguel.remove(aluguelId, novo);
+            throw e;
+        }
+        return novo.resposta();
+    }
+
+    // ===============================
+    // CONSULTAR
+    // ===============================
+    public ContratoJobResponse consultar(String jobId) {
+        return buscarJob(jobId).resposta();
+    }
+
+    /**
+     * Contrato gerado pelo job, lido do cache. Se o aluguel foi alterado
+     * depois da geração, o cache foi invalidado e é preciso pedir outro job.
+     * Job em andamento ou com falha não tem contrato: a exceção leva o status
+     * para o cliente decidir entre esperar e pedir de novo.
+     */
+    public ContratoPdf baixar(String jobId) {
+        Job job = buscarJob(jobId);
+        if (job.status == StatusJobContrato.FALHOU) {
+            throw new ContratoJobNaoConcluidoException("Falha ao gerar o contrato do job " + jobId + ": "
+                    + job.erro, job.resposta());
+        }
+        if (job.status != StatusJobContrato.CONCLUIDO) {
+            throw new ContratoJobNaoConcluidoException("Contrato do job " + jobId
+                    + " ainda não está pronto (status: " + job.status.getNomeExibicao() + ")", job.resposta());
+        }
+        byte[] pdf = cacheContratos.buscar(job.aluguelId, job.versao)
+                .orElseThrow(() -> new BusinessException("Contrato do job " + jobId
+                        + " não encontrado no cache; peça uma nova geração"));
+        return new ContratoPdf(job.aluguelId, job.versao, saida -> saida.write(pdf));
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+
+    /** Roda no pool de contratos; falhas ficam registradas no próprio job. */
+    private void processar(Job job) {
+        job.status = StatusJobContrato.PROCESSANDO;
+        try {
+            ContratoPdf contrato = contratoPdfService.buscarContrato(job.aluguelId);
+            // Sem cache, a renderização grava a cópia em disco; a saída em si é descartada.
+            contrato.escreverEm(OutputStream.nullOutputStream());
+            job.versao = contrato.versao();
+            finalizar(job, StatusJobContrato.CONCLUIDO);
+        } catch (Exception e) {
+            log.warn("Falha ao gerar contrato do aluguel {} no job {}", job.aluguelId, job.id, e);
+            job.erro = e.getMessage();
+            finalizar(job, StatusJobContrato.FALHOU);
+        } finally {
+            emAndamentoPorAluguel.remove(job.aluguelId, job);
+        }
+    }
+
+    /** A data vem antes do status para que um job finalizado nunca apareça sem ela. */
+    private static void finalizar(Job job, StatusJobContrato status) {
+        job.finalizadoEm = LocalDateTime.now();
+        job.status = status;
+    }
+
+    private Job buscarJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException("Job de contrato " + jobId + " não encontrado");
+        }
+        return job;
+    }
+
+    private void removerExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        jobs.values().removeIf(job -> job.finalizadoEm != null && !job.finalizadoEm.isAfter(limite));
+    }
+}
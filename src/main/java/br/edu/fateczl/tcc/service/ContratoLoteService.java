@@ -0,0 +1,172 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelFiltroRequest;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exportação dos contratos de vários aluguéis num único ZIP.
+ *
+ * Os aluguéis são lidos em lotes (ids por keyset e depois o grafo do lote
+ * numa única consulta) e renderizados em threads virtuais. No máximo
+ * {@code concorrencia} contratos ficam em andamento ou prontos aguardando
+ * escrita, e cada um vai para o ZIP assim que termina. O consumo de memória
+ * não depende de quantos contratos são exportados: o lote seguinte só é
+ * lido quando o anterior já foi todo entregue às threads.
+ *
+ * A exportação não passa pelo {@link br.edu.fateczl.tcc.storage.CacheContratos}:
+ * centenas de contratos lidos uma única vez tirariam da memória os que estão
+ * sendo reimpressos no balcão.
+ */
+@Service
+public class ContratoLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContratoLoteService.class);
+
+    static final String ARQUIVO_ERROS = "erros.txt";
+
+    private final AluguelRepository aluguelRepository;
+    private final ContratoPdfService contratoPdfService;
+    private final int tamanhoLote;
+    private final int concorrencia;
+
+    public ContratoLoteService(AluguelRepository aluguelRepository,
+                               ContratoPdfService contratoPdfService,
+                               @Value("${app.contratos.exportacao.lote:50}") int tamanhoLote,
+                               @Value("${app.contratos.exportacao.concorrencia:4}") int concorrencia) {
+        if (tamanhoLote < 1 || concorrencia < 1) {
+            throw new IllegalArgumentException("Lote e concorrência da exportação devem ser positivos");
+        }
+        this.aluguelRepository = aluguelRepository;
+        this.contratoPdfService = contratoPdfService;
+        this.tamanhoLote = tamanhoLote;
+        this.concorrencia = concorrencia;
+    }
+
+    private record Resultado(Long aluguelId, byte[] pdf, String erro) { }
+
+    /**
+     * Escreve em {@code saida} um ZIP com um PDF por aluguel que atende ao
+     * filtro, na ordem em que ficam prontos. Aluguéis cujo contrato não pode
+     * ser gerado (dados incompletos) não interrompem a exportação: são
+     * listados em {@value #ARQUIVO_ERROS} no fim do arquivo.
+     *
+     * @return quantidade de contratos escritos no ZIP
+     */
+    public int exportar(AluguelFiltroRequest filtro, OutputStream saida) throws IOException {
+        Specification<Aluguel> spec = AluguelService.filtros(filtro);
+        List<String> erros = new ArrayList<>();
+        int escritos = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(saida);
+        // Se o cliente desconectar, a escrita falha e o fechamento do executor
+        // espera apenas os contratos que já estavam em andamento.
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("contrato-lote-", 0).factory())) {
+            CompletionService<Resultado> concluidos = new ExecutorCompletionService<>(executor);
+            int pendentes = 0;
+
+            Long ultimoId = null;
+            List<Long> ids;
+            do {
+                ids = aluguelRepository.buscarIdsApos(spec, ultimoId, tamanhoLote);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                ultimoId = ids.get(ids.size() - 1);
+
+                for (Aluguel aluguel : aluguelRepository.findWithRelacionamentosByIdIn(ids)) {
+                    if (pendentes == concorrencia) {
+                        escritos += escrever(zip, proximo(concluidos, executor), erros);
+                        pendentes--;
+                    }
+                    concluidos.submit(() -> renderizar(aluguel));
+                    pendentes++;
+                }
+            } while (ids.size() == tamanhoLote);
+
+            while (pendentes > 0) {
+                escritos += escrever(zip, proximo(concluidos, executor), erros);
+                pendentes--;
+            }
+        }
+
+        if (!erros.isEmpty()) {
+            zip.putNextEntry(new ZipEntry(ARQUIVO_ERROS));
+            zip.write(String.join(System.lineSeparator(), erros).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        // finish, e não close: a saída (resposta HTTP) pertence a quem chamou.
+        zip.finish();
+        zip.flush();
+        return escritos;
+    }
+
+    private Resultado renderizar(Aluguel aluguel) {
+        try {
+            return new Resultado(aluguel.getId(), contratoPdfService.gerarContrato(aluguel), null);
+        } catch (RuntimeException e) {
+            log.warn("Contrato do aluguel {} não incluído na exportação", aluguel.getId(), e);
+            return new Resultado(aluguel.getId(), null, e.getMessage());
+        }
+    }
+
+    /** Aguarda o próximo contrato pronto, seja qual for a ordem de envio. */
+    private static Resultado proximo(CompletionService<Resultado> concluidos, ExecutorService executor)
+            throws IOException {
+        try {
+            return concluidos.take().get();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação de contratos interrompida");
+        } catch (ExecutionException e) {
+            // renderizar já trata as falhas esperadas; aqui só chega erro grave (ex.: OutOfMemoryError).
+            throw new IllegalStateException("Falha ao gerar contrato na exportação", e.getCause());
+        }
+    }
+
+    /**
+     * Os PDFs já saem comprimidos do OpenPDF; gravá-los como STORED evita
+     * gastar CPU com uma segunda compressão que quase não reduz o tamanho.
+     */
+    private static int escrever(ZipOutputStream zip, Resultado resultado, List<String> erros) throws IOException {
+        if (resultado.pdf() == null) {
+            erros.add("Aluguel " + resultado.aluguelId() + ": " + resultado.erro());
+            return 0;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(resultado.pdf());
+        ZipEntry entrada = new ZipEntry("Contrato_Aluguel_" + resultado.aluguelId() + ".pdf");
+        entrada.setMethod(ZipEntry.STORED);
+        entrada.setSize(resultado.pdf().length);
+        entrada.setCompressedSize(resultado.pdf().length);
+        entrada.setCrc(crc.getValue());
+
+        zip.putNextEntry(entrada);
+        zip.write(resultado.pdf());
+        zip.closeEntry();
+        return 1;
+    }
+}
@@ -7,6 +7,9 @@ import br.edu.fateczl.tcc.domain.ItemAluguel;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
 import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.storage.CacheContratos;
+import br.edu.fateczl.tcc.storage.ContratoPdf;
+import br.edu.fateczl.tcc.util.FormatacaoBr;
 import com.lowagie.text.Chunk;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
@@ -18,29 +21,30 @@ import com.lowagie.text.Paragraph;
 import com.lowagie.text.Phrase;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfReader;
 import com.lowagie.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.Locale;
+import java.util.Optional;
 
 @Service
 public class ContratoPdfService {
 
     private static final String RESOURCE_ALUGUEL = "Aluguel";
 
-    private static final Locale LOCALE_BR = Locale.of("pt", "BR");
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final DecimalFormat MONEY_FMT =
-            new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(LOCALE_BR));
 
     private static final Font FONT_TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
     private static final Font FONT_SUBTITULO = FontFactory.getFont(FontFactory.HELVETICA, 11);
@@ -58,27 +62,102 @@ public class ContratoPdfService {
             "6. Este contrato é regido pelas leis brasileiras vigentes.",
     };
 
+    /**
+     * Entra na impressão digital do contrato. Incrementar sempre que o
+     * layout ou os textos fixos mudarem, para que as cópias já renderizadas
+     * deixem de ser servidas.
+     */
+    private static final int VERSAO_LAYOUT = 1;
+    private static final int TAMANHO_VERSAO = 16;
+
     private final AluguelRepository aluguelRepository;
+    private final CacheContratos cacheContratos;
+    private final ModeloContrato modelo;
 
-    public ContratoPdfService(AluguelRepository aluguelRepository) {
+    public ContratoPdfService(AluguelRepository aluguelRepository, CacheContratos cacheContratos) {
         this.aluguelRepository = aluguelRepository;
+        this.cacheContratos = cacheContratos;
+        this.modelo = ModeloContrato.preRenderizar(
+                ContratoPdfService::documentoA4,
+                ContratoPdfService::escreverCabecalho,
+                ContratoPdfService::escreverTermos);
     }
 
     @Transactional(readOnly = true)
     public byte[] gerarContrato(Long aluguelId) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        renderizar(buscarAluguelValido(aluguelId), baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Gera o contrato de um aluguel já carregado com cliente, itens e trajes
+     * (ex.: exportação em lote). Não consulta o banco nem o cache.
+     */
+    public byte[] gerarContrato(Aluguel aluguel) {
+        validarAluguel(aluguel);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        renderizar(aluguel, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Contrato pronto para impressão. O aluguel é carregado e validado aqui,
+     * dentro da transação, então erros viram 404/500 antes de qualquer byte
+     * ir para a resposta; o PDF em si só é produzido em
+     * {@link ContratoPdf#escreverEm}, fora da transação.
+     *
+     * A versão é calculada a partir dos dados carregados (aluguel, itens,
+     * trajes e cliente), então edições feitas por qualquer
+     * caminho, inclusive no cadastro do cliente, geram uma versão nova. Se a
+     * versão estiver em cache, os bytes guardados são enviados sem
+     * renderizar; senão o PDF é escrito direto na saída enquanto uma cópia
+     * vai para o disco.
+     */
+    @Transactional(readOnly = true)
+    public ContratoPdf buscarContrato(Long aluguelId) {
+        Aluguel aluguel = buscarAluguelValido(aluguelId);
+        String versao = calcularVersao(aluguel);
+        return new ContratoPdf(aluguelId, versao, saida -> escreverContrato(aluguel, versao, saida));
+    }
+
+    private void escreverContrato(Aluguel aluguel, String versao, OutputStream saida)
+            throws IOException {
+        Optional<byte[]> emCache = cacheContratos.buscar(aluguel.getId(), versao);
+        if (emCache.isPresent()) {
+            saida.write(emCache.get());
+            return;
+        }
+        try (CacheContratos.Gravacao gravacao = cacheContratos.gravar(aluguel.getId(), versao)) {
+            renderizar(aluguel, gravacao.espelhando(saida));
+            gravacao.concluir();
+        }
+    }
+
+    private Aluguel buscarAluguelValido(Long aluguelId) {
         Aluguel aluguel = aluguelRepository.findWithRelacionamentosById(aluguelId)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_ALUGUEL, aluguelId));
 
         validarAluguel(aluguel);
+        return aluguel;
+    }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    /**
+     * Escreve o contrato em {@code saida} à medida que as páginas são
+     * montadas, sem fechá-la (ela pode ser a resposta HTTP). Cabeçalho e
+     * termos vêm prontos do {@link ModeloContrato}; só o restante é diagramado.
+     */
+    private void renderizar(Aluguel aluguel, OutputStream saida) {
         Document doc = novoDocumento();
+        PdfReader leitor = modelo.emprestarLeitor();
 
         try {
-            PdfWriter.getInstance(doc, baos);
+            PdfWriter writer = PdfWriter.getInstance(doc, saida);
+            writer.setCloseStream(false);
+            modelo.reservarEspaco(doc, ModeloContrato.PAGINA_CABECALHO);
             doc.open();
 
-            escreverCabecalho(doc);
+            modelo.estampar(writer, leitor, doc, ModeloContrato.PAGINA_CABECALHO);
             escreverIdentificacao(doc, aluguel);
             escreverDadosLocatario(doc, aluguel.getCliente());
             escreverDadosLocacao(doc, aluguel);
@@ -86,20 +165,73 @@ public class ContratoPdfService {
             escreverValorTotal(doc, aluguel.getValorTotal());
             escreverObservacoes(doc, aluguel.getObservacoes());
 
+            modelo.reservarEspaco(doc, ModeloContrato.PAGINA_TERMOS);
             doc.newPage();
 
-            escreverTermos(doc);
+            modelo.estampar(writer, leitor, doc, ModeloContrato.PAGINA_TERMOS);
             escreverAssinaturas(doc, aluguel.getCliente());
 
             doc.close();
+            modelo.devolverLeitor(leitor);
         } catch (DocumentException e) {
             throw new IllegalStateException("Falha ao gerar PDF do contrato", e);
         }
+    }
 
-        return baos.toByteArray();
+    /**
+     * Impressão digital (SHA-256 truncado) de todos os campos impressos no
+     * contrato. Os valores são separados por um caractere de controle para
+     * que campos vizinhos não se confundam ("ab" + "c" ≠ "a" + "bc"). A data
+     * de emissão impressa é a do aluguel, e não a do dia da impressão, para
+     * que a versão não mude a cada dia.
+     */
+    String calcularVersao(Aluguel aluguel) {
+        StringBuilder sb = new StringBuilder();
+        campo(sb, VERSAO_LAYOUT);
+        campo(sb, aluguel.getId());
+        campo(sb, aluguel.getDataAluguel());
+        campo(sb, aluguel.getDataRetirada());
+        campo(sb, aluguel.getDataDevolucao());
+        campo(sb, aluguel.getValorTotal() != null ? aluguel.getValorTotal().toPlainString() : null);
+        campo(sb, aluguel.getObservacoes());
+
+        Cliente cliente = aluguel.getCliente();
+        campo(sb, cliente.getNome());
+        campo(sb, cliente.getCpfCnpj());
+        campo(sb, cliente.getCelular());
+        campo(sb, cliente.getEmail());
+        Endereco end = cliente.getEndereco();
+        if (end != null) {
+            campo(sb, montarLinhaEnderecoLogradouro(end));
+            campo(sb, montarLinhaEnderecoCidade(end));
+        }
+
+        for (ItemAluguel item : aluguel.getItens()) {
+            Traje traje = item.getTraje();
+            campo(sb, traje.getId());
+            campo(sb, traje.getNome());
+            campo(sb, traje.getTamanho());
+            campo(sb, traje.getCor());
+            campo(sb, formatarValor(traje.getValorItem()));
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, TAMANHO_VERSAO);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static void campo(StringBuilder sb, Object valor) {
+        sb.append(valor).append('\u001F');
     }
 
     Document novoDocumento() {
+        return documentoA4();
+    }
+
+    private static Document documentoA4() {
         return new Document(PageSize.A4, 60, 60, 60, 60);
     }
 
@@ -128,7 +260,7 @@ public class ContratoPdfService {
         }
     }
 
-    private void escreverCabecalho(Document doc) throws DocumentException {
+    static void escreverCabecalho(Document doc) throws DocumentException {
         Paragraph titulo = new Paragraph("SISTEMA INTERNO", FONT_TITULO);
         titulo.setAlignment(Element.ALIGN_CENTER);
         doc.add(titulo);
@@ -148,7 +280,9 @@ public class ContratoPdfService {
 
     private void escreverIdentificacao(Document doc, Aluguel aluguel) throws DocumentException {
         doc.add(new Paragraph("Contrato Nº: " + aluguel.getId(), FONT_TEXTO));
-        doc.add(new Paragraph("Data de Emissão: " + DATE_FMT.format(LocalDate.now()), FONT_TEXTO));
+        if (aluguel.getDataAluguel() != null) {
+            doc.add(new Paragraph("Data de Emissão: " + DATE_FMT.format(aluguel.getDataAluguel()), FONT_TEXTO));
+        }
         doc.add(Chunk.NEWLINE);
     }
 
@@ -159,10 +293,10 @@ public class ContratoPdfService {
             doc.add(new Paragraph("Nome: " + cliente.getNome(), FONT_TEXTO));
         }
         if (cliente.getCpfCnpj() != null) {
-            doc.add(new Paragraph("CPF: " + formatarCpfCnpj(cliente.getCpfCnpj()), FONT_TEXTO));
+            doc.add(new Paragraph("CPF: " + FormatacaoBr.cpfCnpj(cliente.getCpfCnpj()), FONT_TEXTO));
         }
         if (cliente.getCelular() != null) {
-            doc.add(new Paragraph("Telefone: " + formatarCelular(cliente.getCelular()), FONT_TEXTO));
+            doc.add(new Paragraph("Telefone: " + FormatacaoBr.telefone(cliente.getCelular()), FONT_TEXTO));
         }
         if (cliente.getEmail() != null) {
             doc.add(new Paragraph("E-mail: " + cliente.getEmail(), FONT_TEXTO));
@@ -230,7 +364,8 @@ public class ContratoPdfService {
         doc.add(new Paragraph(observacoes, FONT_TEXTO));
     }
 
-    private void escreverTermos(Document doc) throws DocumentException {
+    /** Inclui o espaço em branco acima das assinaturas, que também é fixo. */
+    static void escreverTermos(Document doc) throws DocumentException {
         doc.add(new Paragraph("TERMOS E CONDIÇÕES", FONT_SECAO));
         doc.add(Chunk.NEWLINE);
         for (String termo : TERMOS) {
@@ -238,13 +373,13 @@ public class ContratoPdfService {
             p.setSpacingAfter(8);
             doc.add(p);
         }
-    }
 
-    private void escreverAssinaturas(Document doc, Cliente cliente) throws DocumentException {
         doc.add(Chunk.NEWLINE);
         doc.add(Chunk.NEWLINE);
         doc.add(Chunk.NEWLINE);
+    }
 
+    private void escreverAssinaturas(Document doc, Cliente cliente) throws DocumentException {
         PdfPTable tabela = new PdfPTable(2);
         tabela.setWidthPercentage(100);
 
@@ -290,44 +425,13 @@ public class ContratoPdfService {
         }
         if (end.getCep() != null) {
             if (sb.length() > 0) sb.append(", ");
-            sb.append("CEP: ").append(formatarCep(end.getCep()));
+            sb.append("CEP: ").append(FormatacaoBr.cep(end.getCep()));
         }
         return sb.toString();
     }
 
-    private String formatarCpfCnpj(String valor) {
-        String d = valor.replaceAll("\\D", "");
-        if (d.length() == 11) {
-            return "%s.%s.%s-%s".formatted(d.substring(0, 3), d.substring(3, 6), d.substring(6, 9), d.substring(9));
-        }
-        if (d.length() == 14) {
-            return "%s.%s.%s/%s-%s".formatted(d.substring(0, 2), d.substring(2, 5), d.substring(5, 8),
-                    d.substring(8, 12), d.substring(12));
-        }
-        return valor;
-    }
-
-    private String formatarCelular(String valor) {
-        String d = valor.replaceAll("\\D", "");
-        if (d.length() == 11) {
-            return "(%s) %s-%s".formatted(d.substring(0, 2), d.substring(2, 7), d.substring(7));
-        }
-        if (d.length() == 10) {
-            return "(%s) %s-%s".formatted(d.substring(0, 2), d.substring(2, 6), d.substring(6));
-        }
-        return valor;
-    }
-
-    private String formatarCep(String cep) {
-        String d = cep.replaceAll("\\D", "");
-        if (d.length() == 8) {
-            return d.substring(0, 5) + "-" + d.substring(5);
-        }
-        return cep;
-    }
-
     private String formatarValor(BigDecimal valor) {
         if (valor == null) return "0.00";
-        return MONEY_FMT.format(valor);
+        return FormatacaoBr.moeda(valor);
     }
 }
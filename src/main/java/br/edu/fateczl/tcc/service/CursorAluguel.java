@@ -0,0 +1,42 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Chave (dataRetirada, id) do último aluguel de uma página, levada ao
+ * cliente como texto opaco em Base64 URL-safe. O formato interno pode mudar
+ * sem quebrar quem só repassa o valor recebido.
+ */
+record CursorAluguel(LocalDate dataRetirada, Long id) {
+
+    private static final String SEPARADOR = ":";
+    private static final String MENSAGEM_INVALIDO = "Cursor de paginação inválido";
+
+    static CursorAluguel de(Aluguel aluguel) {
+        return new CursorAluguel(aluguel.getDataRetirada(), aluguel.getId());
+    }
+
+    String codificar() {
+        String chave = dataRetirada + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CursorAluguel decodificar(String cursor) {
+        try {
+            String chave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = chave.split(SEPARADOR, -1);
+            if (partes.length != 2) {
+                throw new BusinessException(MENSAGEM_INVALIDO);
+            }
+            return new CursorAluguel(LocalDate.parse(partes[0]), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(MENSAGEM_INVALIDO);
+        }
+    }
+}
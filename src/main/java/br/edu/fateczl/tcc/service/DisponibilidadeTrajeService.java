@@ -0,0 +1,210 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.ItemAluguel;
+import br.edu.fateczl.tcc.dto.traje.PeriodoAlugadoResponse;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import br.edu.fateczl.tcc.repository.PeriodoAtivo;
+import br.edu.fateczl.tcc.util.IndicePeriodos;
+import br.edu.fateczl.tcc.util.IndicePeriodos.Reserva;
+import br.edu.fateczl.tcc.util.TransacaoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Disponibilidade de trajes por período, respondida por um
+ * {@link IndicePeriodos} em memória com os itens dos aluguéis ATIVOS.
+ *
+ * O índice é carregado quando a aplicação sobe e recebe as alterações
+ * feitas pelo {@link AluguelService} só depois do commit, sob o lock de
+ * escrita: o que ele mostra é sempre estado confirmado, e uma recarga não
+ * se intercala com a aplicação de um commit. Até o commit, a transação que
+ * alterou aluguéis consulta o banco, onde enxerga as próprias mudanças.
+ * Enquanto o índice não está carregado as consultas também vão ao banco.
+ *
+ * Com {@code app.alugueis.disponibilidade.conferir-banco} (ligado por
+ * padrão) o banco confirma cada período que o índice considera livre. O
+ * índice é recarregado periodicamente para trazer o que outras instâncias
+ * da aplicação gravaram; a reserva dupla é barrada de qualquer forma pela
+ * chave única do livro de reservas ({@link ReservaTrajeService}).
+ */
+@Service
+public class DisponibilidadeTrajeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadeTrajeService.class);
+
+    private final ItemAluguelRepository itemAluguelRepository;
+    private final boolean conferirBanco;
+
+    private final IndicePeriodos indice = new IndicePeriodos();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean carregado;
+
+    /** Marca, na transação corrente, que ela alterou aluguéis ainda não aplicados ao índice. */
+    private final Object alteracaoPendente = new Object();
+
+    public DisponibilidadeTrajeService(ItemAluguelRepository itemAluguelRepository,
+                                       @Value("${app.alugueis.disponibilidade.conferir-banco:true}")
+                                       boolean conferirBanco) {
+        this.itemAluguelRepository = itemAluguelRepository;
+        this.conferirBanco = conferirBanco;
+    }
+
+    /**
+     * A consulta roda com o lock de escrita: alterações de aluguéis feitas
+     * durante a carga esperam e entram no índice depois dela, sem se perder.
+     * Um commit que a consulta já enxergou é reaplicado em seguida, sem efeito.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.alugueis.disponibilidade.reconciliar:PT10M}",
+               fixedDelayString = "${app.alugueis.disponibilidade.reconciliar:PT10M}")
+    public void carregarIndice() {
+        lock.writeLock().lock();
+        try {
+            List<PeriodoAtivo> periodos = itemAluguelRepository.findPeriodosAtivos();
+            indice.limpar();
+            periodos.forEach(periodo -> indice.adicionar(new Reserva(periodo.trajeId(), periodo.aluguelId(),
+                    dia(periodo.dataRetirada()), dia(periodo.dataDevolucao()))));
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de disponibilidade carregado com {} períodos", indice.tamanho());
+    }
+
+    // ===============================
+    // READ
+    // ===============================
+    /**
+     * Mesma regra de {@link ItemAluguelRepository#findTrajesIndisponiveisNoPeriodo}:
+     * dos {@code trajeIds}, os que algum aluguel ATIVO, exceto
+     * {@code aluguelIgnorado} (pode ser null), ocupa em algum dia entre
+     * {@code retirada} e {@code devolucao}.
+     */
+    public Set<Long> indisponiveis(Collection<Long> trajeIds, LocalDate retirada, LocalDate devolucao,
+                                   Long aluguelIgnorado) {
+        if (trajeIds.isEmpty()) {
+            return Set.of();
+        }
+        if (!carregado || alteradoNaTransacao()) {
+            return new HashSet<>(itemAluguelRepository
+                    .findTrajesIndisponiveisNoPeriodo(trajeIds, retirada, devolucao, aluguelIgnorado));
+        }
+
+        Set<Long> ocupados = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Long trajeId : trajeIds) {
+                if (indice.conflita(trajeId, dia(retirada), dia(devolucao), aluguelIgnorado)) {
+                    ocupados.add(trajeId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!conferirBanco || ocupados.size() == trajeIds.size()) {
+            return ocupados;
+        }
+
+        for (Long trajeId : itemAluguelRepository
+                .findTrajesIndisponiveisNoPeriodo(trajeIds, retirada, devolucao, aluguelIgnorado)) {
+            if (ocupados.add(trajeId)) {
+                log.warn("Índice de disponibilidade não tinha o conflito do traje {} entre {} e {}",
+                        trajeId, retirada, devolucao);
+            }
+        }
+        return ocupados;
+    }
+
+    /** Períodos dos aluguéis ATIVOS do traje, em ordem de retirada. */
+    public List<PeriodoAlugadoResponse> periodosAlugados(Long trajeId) {
+        if (!carregado || alteradoNaTransacao()) {
+            return itemAluguelRepository.findPeriodosAlugadosByTrajeId(trajeId).stream()
+                    .map(row -> new PeriodoAlugadoResponse((LocalDate) row[0], (LocalDate) row[1]))
+                    .toList();
+        }
+
+        List<Reserva> reservas;
+        lock.readLock().lock();
+        try {
+            reservas = indice.reservas(trajeId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return reservas.stream()
+                .map(reserva -> new PeriodoAlugadoResponse(
+                        LocalDate.ofEpochDay(reserva.inicio()), LocalDate.ofEpochDay(reserva.fim())))
+                .toList();
+    }
+
+    // ===============================
+    // UPDATE
+    // ===============================
+    /**
+     * Substitui no índice os períodos do aluguel pelos itens atuais dele, ou
+     * só remove se ele não estiver mais ATIVO, quando a transação fizer
+     * commit. Chamar depois de salvar, com o id já atribuído.
+     */
+    public void registrar(Aluguel aluguel) {
+        List<Reserva> novas = aluguel.getStatus() == StatusAluguel.ATIVO
+                ? aluguel.getItens().stream().map(item -> reserva(aluguel, item)).toList()
+                : List.of();
+        substituir(aluguel.getId(), novas);
+    }
+
+    public void remover(Long aluguelId) {
+        substituir(aluguelId, List.of());
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private void substituir(Long aluguelId, List<Reserva> novas) {
+        marcarAlteracaoNaTransacao();
+        TransacaoUtil.aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                indice.removerAluguel(aluguelId);
+                novas.forEach(indice::adicionar);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void marcarAlteracaoNaTransacao() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || alteradoNaTransacao()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(alteracaoPendente, Boolean.TRUE);
+        TransacaoUtil.aoConcluir(confirmada -> TransactionSynchronizationManager.unbindResourceIfPossible(alteracaoPendente));
+    }
+
+    private boolean alteradoNaTransacao() {
+        return TransactionSynchronizationManager.hasResource(alteracaoPendente);
+    }
+
+    private static Reserva reserva(Aluguel aluguel, ItemAluguel item) {
+        return new Reserva(item.getTraje().getId(), aluguel.getId(),
+                dia(aluguel.getDataRetirada()), dia(aluguel.getDataDevolucao()));
+    }
+
+    private static int dia(LocalDate data) {
+        return Math.toIntExact(data.toEpochDay());
+    }
+}
@@ -0,0 +1,191 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.enums.DisplayEnum;
+import br.edu.fateczl.tcc.enums.FormatoExportacao;
+import br.edu.fateczl.tcc.repository.AluguelExportacaoLinha;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.DevolucaoExportacaoLinha;
+import br.edu.fateczl.tcc.repository.DevolucaoRepository;
+import br.edu.fateczl.tcc.util.FormatacaoBr;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de aluguéis e devoluções em CSV ou NDJSON para a contabilidade.
+ *
+ * Mesmo esquema do {@link RelatorioPdfService}: as linhas vêm de um cursor
+ * do banco como projeções escalares (nenhuma entidade fica no contexto de
+ * persistência) e cada uma é escrita na saída assim que chega. A cada
+ * {@code app.exportacoes.linhas-por-bloco} linhas a saída recebe um flush,
+ * então o download começa logo e a memória não cresce com o tamanho da
+ * exportação.
+ *
+ * O CSV segue o que o Excel em pt-BR abre direto: BOM UTF-8, separador ";",
+ * datas dd/MM/yyyy e valores com vírgula decimal. O NDJSON traz um objeto
+ * JSON por linha, com datas ISO e valores numéricos.
+ */
+@Service
+public class ExportacaoService {
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String BOM = "\uFEFF";
+    private static final char SEPARADOR = ';';
+    private static final String FIM_LINHA_CSV = "\r\n";
+    private static final char FIM_LINHA_NDJSON = '\n';
+
+    private static final List<Coluna<AluguelExportacaoLinha>> COLUNAS_ALUGUEIS = List.of(
+            new Coluna<>("Nº", linha -> String.valueOf(linha.id())),
+            new Coluna<>("Código do cliente", linha -> String.valueOf(linha.clienteId())),
+            new Coluna<>("Cliente", AluguelExportacaoLinha::nomeCliente),
+            new Coluna<>("Data do aluguel", linha -> data(linha.dataAluguel())),
+            new Coluna<>("Retirada", linha -> data(linha.dataRetirada())),
+            new Coluna<>("Devolução", linha -> data(linha.dataDevolucao())),
+            new Coluna<>("Status", linha -> exibicao(linha.status())),
+            new Coluna<>("Ocasião", linha -> exibicao(linha.ocasiao())),
+            new Coluna<>("Valor total (R$)", linha -> FormatacaoBr.moeda(linha.valorTotal())),
+            new Coluna<>("Desconto (R$)", linha -> FormatacaoBr.moeda(linha.valorDesconto())));
+
+    private static final List<Coluna<DevolucaoExportacaoLinha>> COLUNAS_DEVOLUCOES = List.of(
+            new Coluna<>("Nº", linha -> String.valueOf(linha.id())),
+            new Coluna<>("Aluguel", linha -> String.valueOf(linha.aluguelId())),
+            new Coluna<>("Cliente", DevolucaoExportacaoLinha::nomeCliente),
+            new Coluna<>("Data da devolução", linha -> data(linha.dataDevolucao())),
+            new Coluna<>("Multa (R$)", linha -> FormatacaoBr.moeda(linha.valorMulta())),
+            new Coluna<>("Observações", DevolucaoExportacaoLinha::observacoes));
+
+    private final AluguelRepository aluguelRepository;
+    private final DevolucaoRepository devolucaoRepository;
+    private final ObjectMapper objectMapper;
+    private final int linhasPorBloco;
+
+    public ExportacaoService(AluguelRepository aluguelRepository,
+                             DevolucaoRepository devolucaoRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${app.exportacoes.linhas-por-bloco:1000}") int linhasPorBloco) {
+        if (linhasPorBloco < 1) {
+            throw new IllegalArgumentException("Linhas por bloco da exportação devem ser positivas");
+        }
+        this.aluguelRepository = aluguelRepository;
+        this.devolucaoRepository = devolucaoRepository;
+        this.objectMapper = objectMapper;
+        this.linhasPorBloco = linhasPorBloco;
+    }
+
+    // ===============================
+    // ALUGUÉIS
+    // ===============================
+
+    /** @return quantidade de aluguéis exportados */
+    @Transactional(readOnly = true)
+    public int escreverAlugueis(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<AluguelExportacaoLinha> linhas = aluguelRepository.streamExportacao()) {
+            return escrever(formato, COLUNAS_ALUGUEIS, linhas.iterator(), saida);
+        }
+    }
+
+    // ===============================
+    // DEVOLUÇÕES
+    // ===============================
+
+    /** @return quantidade de devoluções exportadas */
+    @Transactional(readOnly = true)
+    public int escreverDevolucoes(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<DevolucaoExportacaoLinha> linhas = devolucaoRepository.streamExportacao()) {
+            return escrever(formato, COLUNAS_DEVOLUCOES, linhas.iterator(), saida);
+        }
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+
+    /** Não fecha {@code saida}: quem abriu a resposta é quem fecha. */
+    private <T> int escrever(FormatoExportacao formato, List<Coluna<T>> colunas,
+                             Iterator<T> linhas, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        boolean csv = formato == FormatoExportacao.CSV;
+        if (csv) {
+            writer.write(BOM);
+            escreverCsv(writer, colunas, Coluna::titulo);
+        }
+
+        int total = 0;
+        while (linhas.hasNext()) {
+            T linha = linhas.next();
+            if (csv) {
+                escreverCsv(writer, colunas, coluna -> coluna.valor().apply(linha));
+            } else {
+                writer.write(objectMapper.writeValueAsString(linha));
+                writer.write(FIM_LINHA_NDJSON);
+            }
+            if (++total % linhasPorBloco == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return total;
+    }
+
+    private static <T> void escreverCsv(Writer writer, List<Coluna<T>> colunas,
+                                        Function<Coluna<T>, String> celula) throws IOException {
+        for (int i = 0; i < colunas.size(); i++) {
+            if (i > 0) {
+                writer.write(SEPARADOR);
+            }
+            escreverCampo(writer, celula.apply(colunas.get(i)));
+        }
+        writer.write(FIM_LINHA_CSV);
+    }
+
+    /**
+     * Aspas só quando o campo tem separador, aspas ou quebra de linha (RFC 4180).
+     * Campo começando com =, +, -, @, tabulação ou CR seria lido pelo Excel
+     * como fórmula (CSV injection a partir de nome ou observações digitados);
+     * o apóstrofo na frente faz a célula ser tratada como texto.
+     */
+    private static void escreverCampo(Writer writer, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (!valor.isEmpty() && "=+-@\t\r".indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == SEPARADOR || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String exibicao(DisplayEnum valor) {
+        return valor != null ? valor.getNomeExibicao() : null;
+    }
+
+    private static String data(LocalDate data) {
+        return data != null ? DATE_FMT.format(data) : null;
+    }
+
+    private record Coluna<T>(String titulo, Function<T, String> valor) { }
+}
@@ -1,8 +1,9 @@
 package br.edu.fateczl.tcc.service;
 
+import br.edu.fateczl.tcc.dto.imagem.AnaliseImagem;
 import org.springframework.stereotype.Service;
 
-import java.util.Base64;
+import java.util.Arrays;
 
 /**
  * Serviço para gerenciar imagens de trajes.
@@ -11,21 +12,131 @@ import java.util.Base64;
 @Service
 public class ImagemService {
 
+    /** Bytes iniciais necessários para reconhecer todos os formatos aceitos (WEBP usa 12). */
+    public static final int TAMANHO_ASSINATURA = 12;
+
     private static final int MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
     private static final String[] ALLOWED_FORMATS = { "image/jpeg", "image/png", "image/webp", "image/gif" };
 
-    public boolean validarImagem(String imagemBase64) {
-        if (imagemBase64 == null || imagemBase64.isBlank()) {
-            return true;
+    private static final byte[] ASSINATURA_JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+    private static final byte[] ASSINATURA_PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] ASSINATURA_GIF = { 'G', 'I', 'F', '8' };
+    private static final byte[] ASSINATURA_RIFF = { 'R', 'I', 'F', 'F' };
+    private static final byte[] ASSINATURA_WEBP = { 'W', 'E', 'B', 'P' };
+
+    private static final int[] VALORES_BASE64 = new int[128];
+
+    static {
+        Arrays.fill(VALORES_BASE64, -1);
+        String alfabeto = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alfabeto.length(); i++) {
+            VALORES_BASE64[alfabeto.charAt(i)] = i;
         }
+    }
 
-        String tipoMime = extrairTipoMime(imagemBase64);
-        if (!isFormatoPermitido(tipoMime)) {
-            return false;
+    /**
+     * Confere o resultado de {@link #analisar(String)}: além de formato e
+     * tamanho, recusa imagens cujos magic bytes indicam um formato diferente
+     * do declarado. Conteúdo sem assinatura reconhecível continua aceito.
+     */
+    public boolean validarImagem(AnaliseImagem analise) {
+        return analise.formatoPermitido()
+                && analise.base64Valido()
+                && analise.tamanho() <= MAX_IMAGE_SIZE
+                && !analise.tipoConflitante();
+    }
+
+    /**
+     * Analisa uma imagem em base64 (com ou sem prefixo data URL) numa única
+     * passada: valida os caracteres com as mesmas regras de
+     * {@link java.util.Base64#getDecoder()}, calcula o tamanho decodificado a
+     * partir da quantidade de caracteres e do padding e decodifica apenas os
+     * primeiros bytes, suficientes para conferir a assinatura do formato.
+     * Nenhuma cópia do conteúdo é alocada.
+     */
+    public AnaliseImagem analisar(String imagemBase64) {
+        String tipoDeclarado = extrairTipoMime(imagemBase64);
+        boolean formatoPermitido = isFormatoPermitido(tipoDeclarado);
+        if (imagemBase64 == null) {
+            return new AnaliseImagem(tipoDeclarado, formatoPermitido, null, false, 0);
+        }
+
+        byte[] cabecalho = new byte[TAMANHO_ASSINATURA];
+        int lidos = 0;
+        long tamanho = 0;
+        int acumulado = 0;
+        int caracteres = 0;
+
+        int fim = imagemBase64.length();
+        int i = inicioDoConteudo(imagemBase64);
+        for (; i < fim; i++) {
+            char c = imagemBase64.charAt(i);
+            if (c == '=') {
+                break;
+            }
+            int valor = c < VALORES_BASE64.length ? VALORES_BASE64[c] : -1;
+            if (valor < 0) {
+                return new AnaliseImagem(tipoDeclarado, formatoPermitido, null, false, 0);
+            }
+            acumulado = (acumulado << 6) | valor;
+            if (++caracteres == 4) {
+                lidos = guardar(cabecalho, lidos, acumulado >> 16);
+                lidos = guardar(cabecalho, lidos, acumulado >> 8);
+                lidos = guardar(cabecalho, lidos, acumulado);
+                tamanho += 3;
+                acumulado = 0;
+                caracteres = 0;
+            }
         }
 
-        byte[] decodedBytes = decodificarBase64(imagemBase64);
-        return decodedBytes != null && decodedBytes.length <= MAX_IMAGE_SIZE;
+        if (!finalValido(imagemBase64, i, caracteres)) {
+            return new AnaliseImagem(tipoDeclarado, formatoPermitido, null, false, 0);
+        }
+        if (caracteres == 2) {
+            lidos = guardar(cabecalho, lidos, acumulado >> 4);
+            tamanho += 1;
+        } else if (caracteres == 3) {
+            lidos = guardar(cabecalho, lidos, acumulado >> 10);
+            lidos = guardar(cabecalho, lidos, acumulado >> 2);
+            tamanho += 2;
+        }
+
+        return new AnaliseImagem(tipoDeclarado, formatoPermitido, detectarFormato(cabecalho, lidos), true, tamanho);
+    }
+
+    public boolean validarArquivo(String tipoMime, long tamanho) {
+        return isFormatoPermitido(tipoMime) && tamanho > 0 && tamanho <= MAX_IMAGE_SIZE;
+    }
+
+    public long getTamanhoMaximo() {
+        return MAX_IMAGE_SIZE;
+    }
+
+    /**
+     * Identifica o formato pelos primeiros bytes do arquivo (magic bytes),
+     * sem confiar no Content-Type informado pelo cliente.
+     *
+     * @param cabecalho início do arquivo
+     * @param lidos     quantidade de bytes válidos em {@code cabecalho}
+     * @return tipo MIME reconhecido ou null se não for um formato aceito
+     */
+    public String detectarFormato(byte[] cabecalho, int lidos) {
+        if (cabecalho == null) {
+            return null;
+        }
+        if (comecaCom(cabecalho, lidos, 0, ASSINATURA_JPEG)) {
+            return "image/jpeg";
+        }
+        if (comecaCom(cabecalho, lidos, 0, ASSINATURA_PNG)) {
+            return "image/png";
+        }
+        if (comecaCom(cabecalho, lidos, 0, ASSINATURA_GIF)) {
+            return "image/gif";
+        }
+        if (comecaCom(cabecalho, lidos, 0, ASSINATURA_RIFF) && comecaCom(cabecalho, lidos, 8, ASSINATURA_WEBP)) {
+            return "image/webp";
+        }
+        return null;
     }
 
     public String removerPrefixoDataUrl(String imagemBase64) {
@@ -50,39 +161,57 @@ public class ImagemService {
         return "application/octet-stream";
     }
 
-    public boolean validarTamanho(String imagemBase64) {
-        if (imagemBase64 == null || imagemBase64.isBlank()) {
-            return true;
+    private boolean isFormatoPermitido(String mimeType) {
+        for (String formatoPermitido : ALLOWED_FORMATS) {
+            if (formatoPermitido.equalsIgnoreCase(mimeType)) {
+                return true;
+            }
         }
-
-        byte[] decodedBytes = decodificarBase64(imagemBase64);
-        return decodedBytes != null && decodedBytes.length <= MAX_IMAGE_SIZE;
+        return false;
     }
 
-    public long obterTamanho(String imagemBase64) {
-        if (imagemBase64 == null) {
-            return 0;
+    private static boolean comecaCom(byte[] dados, int lidos, int inicio, byte[] assinatura) {
+        if (lidos < inicio + assinatura.length) {
+            return false;
         }
+        for (int i = 0; i < assinatura.length; i++) {
+            if (dados[inicio + i] != assinatura[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        byte[] decodedBytes = decodificarBase64(imagemBase64);
-        return decodedBytes != null ? decodedBytes.length : 0;
+    /** Mesma regra de {@link #removerPrefixoDataUrl(String)}, sem criar a substring. */
+    private static int inicioDoConteudo(String imagemBase64) {
+        if (imagemBase64.startsWith("data:")) {
+            return imagemBase64.indexOf(',') + 1;
+        }
+        return 0;
     }
 
-    private boolean isFormatoPermitido(String mimeType) {
-        for (String formatoPermitido : ALLOWED_FORMATS) {
-            if (formatoPermitido.equalsIgnoreCase(mimeType)) {
-                return true;
-            }
+    /**
+     * Confere o último bloco como o decoder básico do JDK: 2 caracteres
+     * aceitam "==", 3 aceitam "=", padding é opcional e nada pode vir depois dele.
+     */
+    private static boolean finalValido(String base64, int posicao, int caracteres) {
+        if (caracteres == 1) {
+            return false;
         }
-        return false;
+        if (posicao == base64.length()) {
+            return true;
+        }
+        int padding = caracteres == 2 ? 2 : caracteres == 3 ? 1 : 0;
+        if (padding == 0 || posicao + padding != base64.length()) {
+            return false;
+        }
+        return base64.charAt(posicao + padding - 1) == '=';
     }
 
-    private byte[] decodificarBase64(String imagemBase64) {
-        try {
-            String base64 = removerPrefixoDataUrl(imagemBase64);
-            return Base64.getDecoder().decode(base64);
-        } catch (IllegalArgumentException e) {
-            return null;
+    private static int guardar(byte[] cabecalho, int lidos, int valor) {
+        if (lidos < cabecalho.length) {
+            cabecalho[lidos++] = (byte) valor;
         }
+        return lidos;
     }
 }
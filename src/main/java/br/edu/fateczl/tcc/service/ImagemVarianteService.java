@@ -0,0 +1,236 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.config.AsyncConfig;
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.storage.ImagemArmazenadaEvent;
+import br.edu.fateczl.tcc.storage.ImagemStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Gera as variantes redimensionadas (PEQUENA, MEDIA, GRANDE) de uma imagem
+ * de traje, em JPEG, usando apenas ImageIO/Java2D. Aproveita a imagem já
+ * decodificada para indexá-la na busca por similaridade visual.
+ *
+ * Roda no pool {@link AsyncConfig#IMAGEM_EXECUTOR} depois do commit do
+ * upload; enquanto uma variante não existe, o GET devolve o original. O
+ * pool descarta tarefas com a fila cheia, e uma varredura periódica gera o
+ * que ficou para trás. Imagem que a varredura não consegue processar
+ * (original ausente ou ilegível) tem a falha contada e deixa de ser tentada
+ * depois de {@code app.imagens.variantes.tentativas} vezes.
+ */
+@Service
+public class ImagemVarianteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagemVarianteService.class);
+
+    private static final float QUALIDADE_JPEG = 0.8f;
+
+    private final ImagemStorage imagemStorage;
+    private final SimilaridadeVisualService similaridadeVisualService;
+    private final TrajeRepository trajeRepository;
+    private final int maxFalhas;
+    private final int tamanhoLote;
+
+    public ImagemVarianteService(ImagemStorage imagemStorage,
+                                 SimilaridadeVisualService similaridadeVisualService,
+                                 TrajeRepository trajeRepository,
+                                 @Value("${app.imagens.variantes.tentativas:3}") int maxFalhas,
+                                 @Value("${app.imagens.variantes.lote:100}") int tamanhoLote) {
+        this.imagemStorage = imagemStorage;
+        this.similaridadeVisualService = similaridadeVisualService;
+        this.trajeRepository = trajeRepository;
+        this.maxFalhas = maxFalhas;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Async(AsyncConfig.IMAGEM_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoArmazenarImagem(ImagemArmazenadaEvent evento) {
+        try {
+            gerarVariantes(evento.hash());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gerar variantes da imagem {}: {}", evento.hash(), e.getMessage());
+        }
+    }
+
+    /**
+     * Gera variantes e dHash das imagens que ficaram sem eles: tarefa
+     * descartada com a fila cheia (a migração de imagens legadas publica
+     * uma por traje de uma vez) ou aplicação parada no meio. Roda na thread
+     * do agendador, uma imagem por vez, sem disputar a fila do pool, e lê as
+     * pendentes em lotes por ordem de hash.
+     */
+    @Scheduled(initialDelayString = "${app.imagens.variantes.varredura-inicial:PT1M}",
+               fixedDelayString = "${app.imagens.variantes.varredura:PT15M}")
+    public void gerarPendentes() {
+        int processadas = 0;
+        int falhas = 0;
+        String ultimo = "";
+        List<String> lote;
+        do {
+            lote = trajeRepository.findImagemHashesSemDhash(maxFalhas, ultimo, PageRequest.of(0, tamanhoLote));
+            for (String hash : lote) {
+                if (gerarPendente(hash)) {
+                    processadas++;
+                } else {
+                    falhas++;
+                }
+            }
+            if (!lote.isEmpty()) {
+                ultimo = lote.get(lote.size() - 1);
+            }
+        } while (lote.size() == tamanhoLote);
+
+        if (processadas + falhas > 0) {
+            log.info("Varredura de variantes concluída: {} imagem(ns) processada(s), {} com falha",
+                    processadas, falhas);
+        }
+    }
+
+    /**
+     * Gera as variantes ausentes. Formatos sem leitor no ImageIO padrão
+     * (WEBP) ficam só com o original.
+     *
+     * @return quantidade de variantes gravadas
+     */
+    public int gerarVariantes(String hash) {
+        return gerar(hash).orElse(0);
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    /** Conta a falha quando a imagem não pôde ser processada. */
+    private boolean gerarPendente(String hash) {
+        try {
+            if (gerar(hash).isPresent()) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gerar variantes pendentes da imagem {}: {}", hash, e.getMessage());
+        }
+        trajeRepository.registrarFalhaVariante(hash);
+        return false;
+    }
+
+    /** Vazio quando o original não existe no storage ou não tem leitor ImageIO. */
+    private OptionalInt gerar(String hash) {
+        Optional<Resource> original = imagemStorage.carregar(hash);
+        if (original.isEmpty()) {
+            log.info("Imagem {} ausente no storage; variantes não geradas", hash);
+            return OptionalInt.empty();
+        }
+
+        BufferedImage imagem = decodificar(original.get());
+        if (imagem == null) {
+            log.info("Imagem {} sem leitor ImageIO disponível; variantes não geradas", hash);
+            return OptionalInt.empty();
+        }
+
+        int geradas = 0;
+        for (VarianteImagem variante : VarianteImagem.values()) {
+            if (!variante.isDerivada() || imagemStorage.existeVariante(hash, variante)) {
+                continue;
+            }
+            byte[] jpeg = codificarJpeg(redimensionar(imagem, variante.getLarguraMaxima()));
+            imagemStorage.salvarVariante(hash, variante, new ByteArrayInputStream(jpeg));
+            geradas++;
+        }
+        similaridadeVisualService.indexar(hash, imagem);
+        return OptionalInt.of(geradas);
+    }
+
+    private static BufferedImage decodificar(Resource recurso) {
+        try (InputStream in = recurso.getInputStream()) {
+            return ImageIO.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler imagem original", e);
+        }
+    }
+
+    /**
+     * Reduz pela metade enquanto a largura passar do dobro do alvo e faz o
+     * passo final bilinear: qualidade próxima do bicúbico a uma fração do
+     * custo. Nunca amplia; o fundo branco substitui a transparência (JPEG).
+     */
+    static BufferedImage redimensionar(BufferedImage origem, int larguraMaxima) {
+        BufferedImage atual = paraRgb(origem, origem.getWidth(), origem.getHeight());
+        int larguraAlvo = Math.min(larguraMaxima, origem.getWidth());
+
+        while (atual.getWidth() / 2 >= larguraAlvo) {
+            atual = desenhar(atual, atual.getWidth() / 2, Math.max(1, atual.getHeight() / 2));
+        }
+        if (atual.getWidth() != larguraAlvo) {
+            int alturaAlvo = Math.max(1, (int) Math.round((double) origem.getHeight() * larguraAlvo / origem.getWidth()));
+            atual = desenhar(atual, larguraAlvo, alturaAlvo);
+        }
+        return atual;
+    }
+
+    private static BufferedImage paraRgb(BufferedImage origem, int largura, int altura) {
+        if (origem.getType() == BufferedImage.TYPE_INT_RGB) {
+            return origem;
+        }
+        return desenhar(origem, largura, altura);
+    }
+
+    private static BufferedImage desenhar(BufferedImage origem, int largura, int altura) {
+        BufferedImage destino = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = destino.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, largura, altura);
+            g.drawImage(origem, 0, 0, largura, altura, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    private static byte[] codificarJpeg(BufferedImage imagem) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(saida)) {
+            ImageWriteParam parametros = writer.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(QUALIDADE_JPEG);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(imagem, null, null), parametros);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao codificar variante JPEG", e);
+        } finally {
+            writer.dispose();
+        }
+        return saida.toByteArray();
+    }
+}
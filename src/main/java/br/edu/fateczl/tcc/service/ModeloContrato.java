@@ -0,0 +1,121 @@
+package br.edu.fateczl.tcc.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Partes fixas do contrato (cabeçalho da 1ª página e termos da 2ª),
+ * renderizadas uma única vez num PDF modelo.
+ *
+ * Cada contrato importa a página do modelo como XObject, desenhada por baixo
+ * do texto, e reserva a altura que ela ocupa na margem superior. O conteúdo
+ * variável continua fluindo a partir do mesmo ponto em que ficaria se os
+ * parágrafos fixos tivessem sido diagramados de novo.
+ *
+ * O conteúdo importado só é copiado para o documento no fechamento do
+ * PdfWriter, então cada renderização usa um PdfReader exclusivo do início ao
+ * fim. Os leitores são reaproveitados para não reabrir o modelo a cada contrato.
+ */
+final class ModeloContrato {
+
+    static final int PAGINA_CABECALHO = 1;
+    static final int PAGINA_TERMOS = 2;
+
+    @FunctionalInterface
+    interface Secao {
+        void escrever(Document doc) throws DocumentException;
+    }
+
+    private final byte[] pdf;
+    private final float alturaCabecalho;
+    private final float alturaTermos;
+    private final Queue<PdfReader> leitores = new ConcurrentLinkedQueue<>();
+
+    private ModeloContrato(byte[] pdf, float alturaCabecalho, float alturaTermos) {
+        this.pdf = pdf;
+        this.alturaCabecalho = alturaCabecalho;
+        this.alturaTermos = alturaTermos;
+    }
+
+    /**
+     * Renderiza o cabeçalho e os termos, cada um numa página, e mede quanto
+     * da página cada um consumiu. Nos termos a medida força a quebra de linha
+     * pendente, como faz a tabela de assinaturas que vem logo depois; no
+     * cabeçalho, não, porque o que vem depois é um parágrafo.
+     */
+    static ModeloContrato preRenderizar(Supplier<Document> novoDocumento, Secao cabecalho, Secao termos) {
+        Document doc = novoDocumento.get();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        try {
+            PdfWriter writer = PdfWriter.getInstance(doc, baos);
+            doc.open();
+
+            cabecalho.escrever(doc);
+            float alturaCabecalho = doc.top() - writer.getVerticalPosition(false);
+
+            doc.newPage();
+
+            termos.escrever(doc);
+            float alturaTermos = doc.top() - writer.getVerticalPosition(true);
+
+            doc.close();
+            return new ModeloContrato(baos.toByteArray(), alturaCabecalho, alturaTermos);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Falha ao pré-renderizar o modelo do contrato", e);
+        }
+    }
+
+    /** Leitor exclusivo do modelo; deve ser devolvido só depois de {@code doc.close()}. */
+    PdfReader emprestarLeitor() {
+        PdfReader leitor = leitores.poll();
+        if (leitor != null) {
+            return leitor;
+        }
+        try {
+            return new PdfReader(pdf);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao abrir o modelo do contrato", e);
+        }
+    }
+
+    /**
+     * Só é chamado quando o documento foi fechado sem erro: um leitor
+     * interrompido no meio da cópia é descartado.
+     */
+    void devolverLeitor(PdfReader leitor) {
+        leitores.offer(leitor);
+    }
+
+    /**
+     * Aumenta a margem superior da próxima página (aberta por
+     * {@code doc.open()} ou {@code doc.newPage()}) pela altura da página do
+     * modelo que será estampada nela.
+     */
+    void reservarEspaco(Document doc, int pagina) {
+        doc.setMargins(doc.leftMargin(), doc.rightMargin(),
+                doc.topMargin() + altura(pagina), doc.bottomMargin());
+    }
+
+    /**
+     * Desenha a página do modelo na página atual e devolve a margem original
+     * para as páginas seguintes (ex.: itens que transbordam da 1ª página).
+     */
+    void estampar(PdfWriter writer, PdfReader leitor, Document doc, int pagina) {
+        writer.getDirectContentUnder().addTemplate(writer.getImportedPage(leitor, pagina), 0, 0);
+        doc.setMargins(doc.leftMargin(), doc.rightMargin(),
+                doc.topMargin() - altura(pagina), doc.bottomMargin());
+    }
+
+    private float altura(int pagina) {
+        return pagina == PAGINA_CABECALHO ? alturaCabecalho : alturaTermos;
+    }
+}
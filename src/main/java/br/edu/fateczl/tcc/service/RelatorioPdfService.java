@@ -0,0 +1,116 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.enums.DisplayEnum;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.repository.AluguelRelatorioLinha;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.TrajeRelatorioLinha;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.service.TabelaRelatorioPdf.Coluna;
+import br.edu.fateczl.tcc.util.FormatacaoBr;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Relatórios impressos do acervo e dos aluguéis de um período.
+ *
+ * As linhas vêm de um cursor do banco ({@code Stream} do repositório) e vão
+ * direto para a {@link TabelaRelatorioPdf}, que escreve as páginas na saída
+ * à medida que enchem: nem o resultado da consulta nem o documento ficam
+ * inteiros em memória. A transação (e a conexão) fica aberta enquanto o
+ * relatório é escrito.
+ */
+@Service
+public class RelatorioPdfService {
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final TrajeRepository trajeRepository;
+    private final AluguelRepository aluguelRepository;
+    private final TabelaRelatorioPdf<TrajeRelatorioLinha> tabelaTrajes;
+    private final TabelaRelatorioPdf<AluguelRelatorioLinha> tabelaAlugueis;
+
+    public RelatorioPdfService(TrajeRepository trajeRepository,
+                               AluguelRepository aluguelRepository,
+                               @Value("${app.relatorios.linhas-por-bloco:100}") int linhasPorBloco) {
+        this.trajeRepository = trajeRepository;
+        this.aluguelRepository = aluguelRepository;
+
+        this.tabelaTrajes = new TabelaRelatorioPdf<>("RELATÓRIO DE TRAJES", List.of(
+                Coluna.numero("Código", 1f, linha -> String.valueOf(linha.id())),
+                Coluna.texto("Nome", 4f, TrajeRelatorioLinha::nome),
+                Coluna.texto("Tipo", 2f, linha -> exibicao(linha.tipo())),
+                Coluna.texto("Tamanho", 1.2f, linha -> exibicao(linha.tamanho())),
+                Coluna.texto("Cor", 1.5f, linha -> exibicao(linha.cor())),
+                Coluna.texto("Gênero", 1.5f, linha -> exibicao(linha.genero())),
+                Coluna.texto("Status", 1.5f, linha -> exibicao(linha.status())),
+                Coluna.numero("Valor (R$)", 1.5f, linha -> FormatacaoBr.moeda(linha.valorItem()))),
+                linhasPorBloco);
+
+        this.tabelaAlugueis = new TabelaRelatorioPdf<>("RELATÓRIO DE ALUGUÉIS", List.of(
+                Coluna.numero("Nº", 1f, linha -> String.valueOf(linha.id())),
+                Coluna.texto("Cliente", 4f, AluguelRelatorioLinha::nomeCliente),
+                Coluna.texto("Retirada", 1.5f, linha -> data(linha.dataRetirada())),
+                Coluna.texto("Devolução", 1.5f, linha -> data(linha.dataDevolucao())),
+                Coluna.texto("Status", 1.5f, linha -> exibicao(linha.status())),
+                Coluna.numero("Valor (R$)", 1.5f, linha -> FormatacaoBr.moeda(linha.valorTotal()))),
+                linhasPorBloco);
+    }
+
+    // ===============================
+    // TRAJES
+    // ===============================
+
+    /** @return quantidade de trajes listados */
+    @Transactional(readOnly = true)
+    public int escreverRelatorioTrajes(OutputStream saida) {
+        String subtitulo = "Acervo completo - emitido em " + DATE_FMT.format(LocalDate.now());
+        try (Stream<TrajeRelatorioLinha> linhas = trajeRepository.streamRelatorio()) {
+            return tabelaTrajes.escrever(subtitulo, linhas.iterator(), saida);
+        }
+    }
+
+    // ===============================
+    // ALUGUÉIS
+    // ===============================
+
+    /**
+     * Chamado também pelo controller antes de começar a resposta, para que
+     * um período inválido vire 400 e não um PDF interrompido.
+     */
+    public void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio.isAfter(fim)) {
+            throw new BusinessException("A data inicial do relatório deve ser anterior ou igual à data final");
+        }
+    }
+
+    /** @return quantidade de aluguéis com retirada entre {@code inicio} e {@code fim}, inclusive */
+    @Transactional(readOnly = true)
+    public int escreverRelatorioAlugueis(LocalDate inicio, LocalDate fim, OutputStream saida) {
+        validarPeriodo(inicio, fim);
+        String subtitulo = "Retiradas de %s a %s - emitido em %s".formatted(
+                DATE_FMT.format(inicio), DATE_FMT.format(fim), DATE_FMT.format(LocalDate.now()));
+        try (Stream<AluguelRelatorioLinha> linhas = aluguelRepository.streamRelatorio(inicio, fim)) {
+            return tabelaAlugueis.escrever(subtitulo, linhas.iterator(), saida);
+        }
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+
+    private static String exibicao(DisplayEnum valor) {
+        return valor != null ? valor.getNomeExibicao() : null;
+    }
+
+    private static String data(LocalDate data) {
+        return data != null ? DATE_FMT.format(data) : null;
+    }
+}
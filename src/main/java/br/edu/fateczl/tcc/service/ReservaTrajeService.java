@@ -0,0 +1,95 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.ItemAluguel;
+import br.edu.fateczl.tcc.domain.ReservaTraje;
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.ReservaTrajeRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Livro de reservas por dia ({@link ReservaTraje}), gravado na mesma
+ * transação do aluguel. A consulta de disponibilidade continua barrando os
+ * conflitos comuns com mensagem por traje; a chave única do livro pega o
+ * que passa entre a consulta e o commit quando dois pedidos concorrem pelo
+ * mesmo traje, inclusive em instâncias diferentes da aplicação. Aluguéis
+ * gravados antes do livro entram nele na subida, por
+ * {@link br.edu.fateczl.tcc.seeder.MigracaoReservasTraje}.
+ */
+@Service
+public class ReservaTrajeService {
+
+    private final ReservaTrajeRepository repository;
+    private final AluguelRepository aluguelRepository;
+
+    public ReservaTrajeService(ReservaTrajeRepository repository, AluguelRepository aluguelRepository) {
+        this.repository = repository;
+        this.aluguelRepository = aluguelRepository;
+    }
+
+    /**
+     * Grava um dia de cada traje entre a retirada e a devolução, se o aluguel
+     * estiver ATIVO. Chamar depois de salvar, com o id já atribuído; numa
+     * alteração, chamar {@link #liberar} antes. Aqui não há DELETE: num
+     * aluguel novo ele não acharia nada e, no MySQL em REPEATABLE READ, ainda
+     * travaria o intervalo acima do maior id, o mesmo em que caem os ids dos
+     * aluguéis criados em paralelo, e dois pedidos sem traje em comum
+     * entrariam em deadlock.
+     */
+    public void reservar(Aluguel aluguel) {
+        if (aluguel.getStatus() != StatusAluguel.ATIVO) {
+            return;
+        }
+
+        // O mesmo traje pode vir em mais de um item; reserva os dias uma vez só.
+        // Em ordem de (traje, dia), para que pedidos com trajes em comum
+        // travem as linhas sempre na mesma sequência, qualquer que seja a
+        // ordem dos itens no pedido.
+        Map<Long, Traje> trajes = new TreeMap<>();
+        for (ItemAluguel item : aluguel.getItens()) {
+            trajes.putIfAbsent(item.getTraje().getId(), item.getTraje());
+        }
+        List<ReservaTraje> reservas = new ArrayList<>();
+        for (Traje traje : trajes.values()) {
+            aluguel.getDataRetirada().datesUntil(aluguel.getDataDevolucao().plusDays(1))
+                    .forEach(dia -> reservas.add(new ReservaTraje(traje, aluguel, dia)));
+        }
+
+        try {
+            repository.saveAllAndFlush(reservas);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Espera de trava vencida ou deadlock só acontece disputando as mesmas
+            // linhas com outro pedido: para quem pediu, é o mesmo conflito.
+            throw new BusinessException("Traje já está alugado nesse período");
+        }
+    }
+
+    public void liberar(Long aluguelId) {
+        repository.deleteByAluguelId(aluguelId);
+    }
+
+    public List<Long> pendentes() {
+        return aluguelRepository.findIdsAtivosSemReserva();
+    }
+
+    /**
+     * Reserva um aluguel que ficou fora do livro, numa transação só dele: um
+     * conflito herdado de antes do livro existir derruba esse aluguel, não
+     * os outros da migração.
+     */
+    @Transactional
+    public void reconstruir(Long aluguelId) {
+        aluguelRepository.findWithRelacionamentosById(aluguelId).ifPresent(this::reservar);
+    }
+}
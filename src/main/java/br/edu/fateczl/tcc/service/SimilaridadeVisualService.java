@@ -0,0 +1,190 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.mapper.TrajeMapper;
+import br.edu.fateczl.tcc.repository.ImagemDhash;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.repository.TrajeResumo;
+import br.edu.fateczl.tcc.specification.TrajeSpecification;
+import br.edu.fateczl.tcc.util.IndiceHamming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Busca de trajes com imagem parecida ("parecidos com este").
+ *
+ * Cada imagem recebe um dHash de 64 bits quando as variantes são geradas; o
+ * valor fica na tabela {@code traje} e num {@link IndiceHamming} em memória,
+ * chaveado pelo hash do conteúdo. A consulta percorre só o índice e depois carrega os
+ * trajes encontrados numa única query, sem comparar pixels na requisição.
+ */
+@Service
+public class SimilaridadeVisualService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilaridadeVisualService.class);
+
+    private static final String RESOURCE = "Traje";
+
+    /** Até 10 de 64 bits diferentes ainda é a "mesma" foto com ajustes leves. */
+    static final int DISTANCIA_MAXIMA = 10;
+    private static final int LIMITE_MAXIMO = 50;
+
+    private static final int LARGURA_DHASH = 9;
+    private static final int ALTURA_DHASH = 8;
+
+    private final TrajeRepository trajeRepository;
+
+    private final IndiceHamming<String> indice = new IndiceHamming<>(DISTANCIA_MAXIMA);
+    private final Map<String, Long> dhashPorImagem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SimilaridadeVisualService(TrajeRepository trajeRepository) {
+        this.trajeRepository = trajeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndice() {
+        List<ImagemDhash> imagens = trajeRepository.findImagemDhashes();
+        lock.writeLock().lock();
+        try {
+            imagens.forEach(imagem -> adicionar(imagem.hash(), imagem.dhash()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de similaridade visual carregado com {} imagens", imagens.size());
+    }
+
+    // ===============================
+    // READ
+    // ===============================
+    /**
+     * Trajes cuja imagem difere da imagem do traje {@code id} em no máximo
+     * {@link #DISTANCIA_MAXIMA} bits, do mais parecido para o menos parecido.
+     * Trajes com a mesma imagem (distância 0) entram no resultado.
+     */
+    public List<TrajeResponse> buscarSimilares(Long id, int limite) {
+        if (limite < 1) {
+            throw new BusinessException("O limite deve ser maior que zero");
+        }
+        Traje traje = trajeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(RESOURCE, id));
+
+        Map<String, Integer> distancias = vizinhos(traje.getImagemHash());
+        if (distancias.isEmpty()) {
+            return List.of();
+        }
+
+        List<TrajeResumo> resumos = trajeRepository.buscarResumos(
+                TrajeSpecification.comImagemHashEm(distancias.keySet()));
+        return resumos.stream()
+                .filter(resumo -> !resumo.id().equals(id))
+                .sorted(Comparator.comparingInt((TrajeResumo resumo) -> distancias.get(resumo.imagemHash()))
+                        .thenComparing(TrajeResumo::id))
+                .limit(Math.min(limite, LIMITE_MAXIMO))
+                .map(TrajeMapper::toResponse)
+                .toList();
+    }
+
+    // ===============================
+    // CREATE
+    // ===============================
+    /**
+     * Calcula o dHash da imagem já decodificada, grava nos trajes que usam o
+     * conteúdo {@code hash} e inclui no índice.
+     */
+    public long indexar(String hash, BufferedImage imagem) {
+        Long existente = dhashIndexado(hash);
+        long dhash = existente != null ? existente : calcularDhash(imagem);
+
+        trajeRepository.atualizarImagemDhash(hash, dhash);
+        if (existente == null) {
+            lock.writeLock().lock();
+            try {
+                adicionar(hash, dhash);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return dhash;
+    }
+
+    /**
+     * dHash: reduz a imagem para 9x8 em tons de cinza e marca, em cada linha,
+     * se cada pixel é mais escuro que o vizinho da direita. Resiste a
+     * recompressão, redimensionamento e pequenos ajustes de brilho.
+     */
+    static long calcularDhash(BufferedImage imagem) {
+        BufferedImage reduzida = ImagemVarianteService.redimensionar(imagem, LARGURA_DHASH * 8);
+        BufferedImage cinza = new BufferedImage(LARGURA_DHASH, ALTURA_DHASH, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = cinza.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(reduzida, 0, 0, LARGURA_DHASH, ALTURA_DHASH, null);
+        } finally {
+            g.dispose();
+        }
+
+        Raster pixels = cinza.getRaster();
+        long dhash = 0;
+        for (int y = 0; y < ALTURA_DHASH; y++) {
+            for (int x = 0; x < LARGURA_DHASH - 1; x++) {
+                boolean maisEscuro = pixels.getSample(x, y, 0) < pixels.getSample(x + 1, y, 0);
+                dhash = (dhash << 1) | (maisEscuro ? 1 : 0);
+            }
+        }
+        return dhash;
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private Map<String, Integer> vizinhos(String hash) {
+        Map<String, Integer> distancias = new HashMap<>();
+        if (hash == null) {
+            return distancias;
+        }
+        lock.readLock().lock();
+        try {
+            Long dhash = dhashPorImagem.get(hash);
+            if (dhash != null) {
+                indice.buscar(dhash, DISTANCIA_MAXIMA)
+                        .forEach(vizinho -> distancias.put(vizinho.item(), vizinho.distancia()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return distancias;
+    }
+
+    private Long dhashIndexado(String hash) {
+        lock.readLock().lock();
+        try {
+            return dhashPorImagem.get(hash);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adicionar(String hash, long dhash) {
+        if (dhashPorImagem.putIfAbsent(hash, dhash) == null) {
+            indice.adicionar(dhash, hash);
+        }
+    }
+}
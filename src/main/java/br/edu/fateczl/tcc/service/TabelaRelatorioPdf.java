@@ -0,0 +1,151 @@
+package br.edu.fateczl.tcc.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.HeaderFooter;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Relatório em PDF com uma única tabela, que pode ter dezenas de milhares
+ * de linhas.
+ *
+ * A tabela fica marcada como incompleta e é entregue ao documento a cada
+ * {@code linhasPorBloco} linhas: o OpenPDF diagrama o bloco, descarta as
+ * linhas da tabela e escreve na saída cada página que enche. Em memória
+ * fica só o bloco atual, seja qual for o total; o cabeçalho da tabela se
+ * repete no alto de cada página.
+ */
+final class TabelaRelatorioPdf<T> {
+
+    private static final Font FONT_TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font FONT_SUBTITULO = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font FONT_CABECALHO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
+    private static final Font FONT_CELULA = FontFactory.getFont(FontFactory.HELVETICA, 9);
+    private static final Font FONT_RODAPE = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    private static final Color FUNDO_CABECALHO = new Color(230, 230, 230);
+
+    record Coluna<T>(String titulo, float largura, int alinhamento, Function<T, String> valor) {
+
+        static <T> Coluna<T> texto(String titulo, float largura, Function<T, String> valor) {
+            return new Coluna<>(titulo, largura, Element.ALIGN_LEFT, valor);
+        }
+
+        static <T> Coluna<T> numero(String titulo, float largura, Function<T, String> valor) {
+            return new Coluna<>(titulo, largura, Element.ALIGN_RIGHT, valor);
+        }
+    }
+
+    private final String titulo;
+    private final List<Coluna<T>> colunas;
+    private final int linhasPorBloco;
+
+    TabelaRelatorioPdf(String titulo, List<Coluna<T>> colunas, int linhasPorBloco) {
+        if (linhasPorBloco < 1) {
+            throw new IllegalArgumentException("Linhas por bloco do relatório devem ser positivas");
+        }
+        this.titulo = titulo;
+        this.colunas = List.copyOf(colunas);
+        this.linhasPorBloco = linhasPorBloco;
+    }
+
+    /**
+     * Consome {@code linhas} na ordem e escreve o relatório em {@code saida},
+     * sem fechá-la (ela pode ser a resposta HTTP).
+     *
+     * @return quantidade de linhas escritas
+     */
+    int escrever(String subtitulo, Iterator<T> linhas, OutputStream saida) {
+        Document doc = new Document(PageSize.A4.rotate(), 36, 36, 36, 36);
+
+        try {
+            PdfWriter writer = PdfWriter.getInstance(doc, saida);
+            writer.setCloseStream(false);
+            doc.setFooter(rodape());
+            doc.open();
+
+            Paragraph cabecalho = new Paragraph(titulo, FONT_TITULO);
+            cabecalho.setAlignment(Element.ALIGN_CENTER);
+            doc.add(cabecalho);
+            Paragraph sub = new Paragraph(subtitulo, FONT_SUBTITULO);
+            sub.setAlignment(Element.ALIGN_CENTER);
+            sub.setSpacingAfter(12);
+            doc.add(sub);
+
+            PdfPTable tabela = novaTabela();
+            int total = 0;
+            while (linhas.hasNext()) {
+                T linha = linhas.next();
+                for (Coluna<T> coluna : colunas) {
+                    tabela.addCell(celula(coluna.valor().apply(linha), FONT_CELULA, coluna.alinhamento()));
+                }
+                // Document.add esvazia a tabela incompleta e marca o cabeçalho
+                // para só voltar no alto das próximas páginas.
+                if (++total % linhasPorBloco == 0) {
+                    doc.add(tabela);
+                }
+            }
+            tabela.setComplete(true);
+            doc.add(tabela);
+
+            doc.add(new Paragraph(total == 0
+                    ? "Nenhum registro encontrado."
+                    : "Total: " + total + " registro(s)", FONT_SUBTITULO));
+            doc.close();
+            return total;
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Falha ao gerar PDF do relatório", e);
+        }
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+
+    private PdfPTable novaTabela() throws DocumentException {
+        float[] larguras = new float[colunas.size()];
+        for (int i = 0; i < larguras.length; i++) {
+            larguras[i] = colunas.get(i).largura();
+        }
+
+        PdfPTable tabela = new PdfPTable(larguras);
+        tabela.setWidthPercentage(100);
+        tabela.setHeaderRows(1);
+        tabela.setComplete(false);
+        for (Coluna<T> coluna : colunas) {
+            PdfPCell cell = celula(coluna.titulo(), FONT_CABECALHO, coluna.alinhamento());
+            cell.setBackgroundColor(FUNDO_CABECALHO);
+            tabela.addCell(cell);
+        }
+        return tabela;
+    }
+
+    private static PdfPCell celula(String texto, Font font, int alinhamento) {
+        PdfPCell cell = new PdfPCell(new Phrase(texto != null ? texto : "", font));
+        cell.setHorizontalAlignment(alinhamento);
+        cell.setPadding(3);
+        return cell;
+    }
+
+    private static HeaderFooter rodape() {
+        HeaderFooter rodape = new HeaderFooter(new Phrase("Página ", FONT_RODAPE), true);
+        rodape.setAlignment(Element.ALIGN_RIGHT);
+        rodape.setBorder(Rectangle.NO_BORDER);
+        return rodape;
+    }
+}
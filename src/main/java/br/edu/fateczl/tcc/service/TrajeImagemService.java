@@ -0,0 +1,304 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.dto.imagem.AnaliseImagem;
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.mapper.TrajeMapper;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.storage.CacheImagens;
+import br.edu.fateczl.tcc.storage.ImagemArmazenada;
+import br.edu.fateczl.tcc.storage.ImagemArmazenadaEvent;
+import br.edu.fateczl.tcc.storage.ImagemConteudo;
+import br.edu.fateczl.tcc.storage.ImagemStorage;
+import br.edu.fateczl.tcc.storage.LimiteTamanhoInputStream;
+import br.edu.fateczl.tcc.util.TransacaoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Orquestra a imagem de um traje: o arquivo vai para o {@link ImagemStorage}
+ * e a tabela {@code traje} guarda só o hash e o tipo MIME. Leituras passam
+ * pelo {@link CacheImagens}; toda alteração da imagem de um traje o invalida.
+ */
+@Service
+public class TrajeImagemService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrajeImagemService.class);
+
+    private static final String RESOURCE = "Traje";
+    private static final String PREFIXO_DATA_URL = "data:";
+    private static final String TIPO_VARIANTE = "image/jpeg";
+    private static final String FORMATO_NAO_SUPORTADO =
+            "Formato de imagem não suportado. Envie um arquivo JPEG, PNG, WEBP ou GIF";
+
+    private final TrajeRepository trajeRepository;
+    private final ImagemStorage imagemStorage;
+    private final ImagemService imagemService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheImagens cacheImagens;
+
+    /** Gravações de imagem ainda sem commit, por hash, com a quantidade de cada. */
+    private final Map<String, Integer> gravacoesPendentes = new ConcurrentHashMap<>();
+
+    public TrajeImagemService(TrajeRepository trajeRepository,
+                              ImagemStorage imagemStorage,
+                              ImagemService imagemService,
+                              ApplicationEventPublisher eventPublisher,
+                              CacheImagens cacheImagens) {
+        this.trajeRepository = trajeRepository;
+        this.imagemStorage = imagemStorage;
+        this.imagemService = imagemService;
+        this.eventPublisher = eventPublisher;
+        this.cacheImagens = cacheImagens;
+    }
+
+    // ===============================
+    // READ
+    // ===============================
+    public Optional<ImagemConteudo> buscarImagem(Long trajeId) {
+        return buscarImagem(trajeId, VarianteImagem.ORIGINAL);
+    }
+
+    /**
+     * Devolve a variante pedida; se ela ainda não foi gerada (ou o formato
+     * não permite gerar), devolve o original. Com o traje e a imagem em
+     * cache, nem o banco nem o disco são consultados.
+     */
+    public Optional<ImagemConteudo> buscarImagem(Long trajeId, VarianteImagem variante) {
+        long geracao = cacheImagens.geracao();
+        Optional<String> hashEmCache = cacheImagens.hashDoTraje(trajeId);
+        if (hashEmCache.isPresent()) {
+            return carregar(hashEmCache.get(), variante, this::detectarTipo, geracao);
+        }
+
+        Traje traje = buscarOuFalhar(trajeId);
+        String hash = traje.getImagemHash();
+        if (hash == null) {
+            return Optional.empty();
+        }
+        cacheImagens.associar(trajeId, hash, geracao);
+        return carregar(hash, variante, recurso -> traje.getImagemTipo(), geracao);
+    }
+
+    /**
+     * Busca direto no storage, sem consultar o banco: o tipo do original é
+     * identificado pelos primeiros bytes do arquivo.
+     */
+    public Optional<ImagemConteudo> buscarImagemPorHash(String hash, VarianteImagem variante) {
+        return carregar(hash, variante, this::detectarTipo, cacheImagens.geracao());
+    }
+
+    // ===============================
+    // CREATE / UPDATE
+    // ===============================
+    /**
+     * Grava a imagem lendo o corpo do upload uma única vez: o formato é
+     * reconhecido pelos primeiros bytes, o limite de tamanho é verificado
+     * conforme os bytes chegam e o storage calcula o hash na mesma cópia.
+     * O consumo de memória não depende do tamanho do arquivo.
+     */
+    @Transactional
+    public String salvarImagem(Long trajeId, InputStream conteudo) {
+        Traje traje = buscarOuFalhar(trajeId);
+        String hashAnterior = traje.getImagemHash();
+
+        PushbackInputStream entrada = new PushbackInputStream(conteudo, ImagemService.TAMANHO_ASSINATURA);
+        String tipoMime = identificarFormato(entrada);
+        ImagemArmazenada imagem = imagemStorage.salvar(
+                new LimiteTamanhoInputStream(entrada, imagemService.getTamanhoMaximo()));
+        registrarGravacao(imagem);
+
+        if (!imagem.hash().equals(hashAnterior)) {
+            // Recalculado junto com as variantes, após o commit.
+            traje.setImagemDhash(null);
+            traje.setImagemFalhasVariante(null);
+        }
+        traje.setImagemHash(imagem.hash());
+        traje.setImagemTipo(tipoMime);
+        traje.setImagemUrl(null);
+        trajeRepository.save(traje);
+
+        if (hashAnterior != null && !hashAnterior.equals(imagem.hash())) {
+            descartarSeOrfa(hashAnterior);
+        }
+        invalidarCache(trajeId);
+        eventPublisher.publishEvent(new ImagemArmazenadaEvent(imagem.hash()));
+        return TrajeMapper.resolverImagemUrl(traje);
+    }
+
+    // ===============================
+    // DELETE
+    // ===============================
+    @Transactional
+    public void removerImagem(Long trajeId) {
+        Traje traje = buscarOuFalhar(trajeId);
+        String hashAnterior = traje.getImagemHash();
+
+        traje.setImagemHash(null);
+        traje.setImagemTipo(null);
+        traje.setImagemDhash(null);
+        traje.setImagemFalhasVariante(null);
+        traje.setImagemUrl(null);
+        trajeRepository.save(traje);
+
+        descartarSeOrfa(hashAnterior);
+        invalidarCache(trajeId);
+    }
+
+    /**
+     * Remove o arquivo após o commit caso nenhum outro traje aponte para o
+     * mesmo conteúdo (o storage deduplica uploads idênticos). A referência é
+     * conferida de novo na hora de apagar: entre esta consulta e o commit,
+     * outro upload pode ter passado a usar o mesmo arquivo.
+     */
+    @Transactional
+    public void descartarSeOrfa(String hash) {
+        if (hash == null || trajeRepository.existsByImagemHash(hash)) {
+            return;
+        }
+        TransacaoUtil.aposCommit(() -> removerSeOrfa(hash));
+    }
+
+    /**
+     * Esquece qual imagem o traje usa. Invalida já e de novo após o commit,
+     * para que uma leitura concorrente feita antes do commit não deixe o
+     * hash antigo no cache.
+     */
+    public void invalidarCache(Long trajeId) {
+        cacheImagens.invalidarTraje(trajeId);
+        TransacaoUtil.aposCommit(() -> cacheImagens.invalidarTraje(trajeId));
+    }
+
+    // ===============================
+    // MIGRAÇÃO - data URLs legadas
+    // ===============================
+    /**
+     * Move para o storage uma imagem gravada no formato antigo
+     * ({@code data:<mime>;base64,...} dentro de {@code traje.imagemUrl}).
+     * Tamanho, formato e assinatura são conferidos antes de decodificar; a
+     * imagem recusada fica como está.
+     *
+     * @return true se o traje tinha imagem legada e ela foi migrada
+     */
+    @Transactional
+    public boolean migrarImagemLegada(Long trajeId) {
+        Traje traje = buscarOuFalhar(trajeId);
+        String dataUrl = traje.getImagemUrl();
+        if (dataUrl == null || !dataUrl.startsWith(PREFIXO_DATA_URL)) {
+            return false;
+        }
+
+        AnaliseImagem analise = imagemService.analisar(dataUrl);
+        if (!imagemService.validarImagem(analise)) {
+            log.warn("Imagem legada do traje {} recusada (tipo {}, detectado {}, {} bytes, base64 válido: {}); mantida como está",
+                    trajeId, analise.tipoDeclarado(), analise.tipoDetectado(), analise.tamanho(), analise.base64Valido());
+            return false;
+        }
+
+        byte[] bytes = Base64.getDecoder().decode(imagemService.removerPrefixoDataUrl(dataUrl));
+        ImagemArmazenada imagem = imagemStorage.salvar(new ByteArrayInputStream(bytes));
+        registrarGravacao(imagem);
+        traje.setImagemHash(imagem.hash());
+        traje.setImagemFalhasVariante(null);
+        traje.setImagemTipo(analise.tipoDetectado() != null ? analise.tipoDetectado() : analise.tipoDeclarado());
+        traje.setImagemUrl(null);
+        trajeRepository.save(traje);
+        eventPublisher.publishEvent(new ImagemArmazenadaEvent(imagem.hash()));
+        return true;
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    /**
+     * Protege o hash de remoções de órfã até a transação terminar. Se ela for
+     * revertida e o arquivo tiver sido criado por esta gravação, ele não tem
+     * dono e é descartado.
+     */
+    private void registrarGravacao(ImagemArmazenada imagem) {
+        String hash = imagem.hash();
+        gravacoesPendentes.merge(hash, 1, Integer::sum);
+        TransacaoUtil.aoConcluir(confirmada -> {
+            gravacoesPendentes.computeIfPresent(hash, (chave, quantidade) -> quantidade > 1 ? quantidade - 1 : null);
+            if (!confirmada && imagem.nova()) {
+                removerSeOrfa(hash);
+            }
+        });
+    }
+
+    /** Apaga o arquivo se nenhum traje o usa e nenhum upload dele está em andamento. */
+    private void removerSeOrfa(String hash) {
+        if (gravacoesPendentes.containsKey(hash) || trajeRepository.existsByImagemHash(hash)) {
+            return;
+        }
+        imagemStorage.remover(hash);
+        cacheImagens.invalidarHash(hash);
+    }
+
+    private Optional<ImagemConteudo> carregar(String hash, VarianteImagem variante,
+                                              Function<Resource, String> tipoOriginal, long geracao) {
+        if (variante != null && variante.isDerivada()) {
+            Optional<ImagemConteudo> derivada = cacheImagens.buscar(hash, variante)
+                    .or(() -> imagemStorage.carregarVariante(hash, variante)
+                            .map(recurso -> guardarEmCache(
+                                    new ImagemConteudo(hash, variante, TIPO_VARIANTE, recurso), geracao)));
+            if (derivada.isPresent()) {
+                return derivada;
+            }
+        }
+        return cacheImagens.buscar(hash, VarianteImagem.ORIGINAL)
+                .or(() -> imagemStorage.carregar(hash)
+                        .map(recurso -> guardarEmCache(new ImagemConteudo(
+                                hash, VarianteImagem.ORIGINAL, tipoOriginal.apply(recurso), recurso), geracao)));
+    }
+
+    private ImagemConteudo guardarEmCache(ImagemConteudo conteudo, long geracao) {
+        return cacheImagens.guardar(conteudo, geracao).orElse(conteudo);
+    }
+
+    private String detectarTipo(Resource recurso) {
+        try (InputStream in = recurso.getInputStream()) {
+            byte[] cabecalho = in.readNBytes(ImagemService.TAMANHO_ASSINATURA);
+            return imagemService.detectarFormato(cabecalho, cabecalho.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler imagem " + recurso.getDescription(), e);
+        }
+    }
+
+    private String identificarFormato(PushbackInputStream entrada) {
+        byte[] cabecalho = new byte[ImagemService.TAMANHO_ASSINATURA];
+        try {
+            int lidos = entrada.readNBytes(cabecalho, 0, cabecalho.length);
+            String tipoMime = imagemService.detectarFormato(cabecalho, lidos);
+            if (tipoMime == null) {
+                throw new BusinessException(FORMATO_NAO_SUPORTADO);
+            }
+            entrada.unread(cabecalho, 0, lidos);
+            return tipoMime;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o upload da imagem", e);
+        }
+    }
+
+    private Traje buscarOuFalhar(Long id) {
+        return trajeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(RESOURCE, id));
+    }
+}
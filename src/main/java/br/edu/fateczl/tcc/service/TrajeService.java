@@ -1,6 +1,8 @@
 package br.edu.fateczl.tcc.service;
 
 import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.dto.traje.CalendarioOcupacaoResponse;
+import br.edu.fateczl.tcc.dto.traje.OcupacaoTrajeResponse;
 import br.edu.fateczl.tcc.dto.traje.PeriodoAlugadoResponse;
 import br.edu.fateczl.tcc.dto.traje.TrajeRequest;
 import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
@@ -8,31 +10,45 @@ import br.edu.fateczl.tcc.enums.SexoEnum;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import br.edu.fateczl.tcc.exception.BusinessException;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
 import br.edu.fateczl.tcc.mapper.TrajeMapper;
 import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import br.edu.fateczl.tcc.repository.PeriodoAtivo;
 import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.repository.TrajeResumo;
+import br.edu.fateczl.tcc.specification.TrajeSpecification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class TrajeService {
 
     private final TrajeRepository trajeRepository;
-    private final ImagemService imagemService;
+    private final TrajeImagemService trajeImagemService;
+    private final DisponibilidadeTrajeService disponibilidade;
     private final ItemAluguelRepository itemAluguelRepository;
     private static final String RESOURCE = "Traje";
+    private static final int MAX_DIAS_CALENDARIO = 366;
 
-    public TrajeService(TrajeRepository trajeRepository, ImagemService imagemService,
+    public TrajeService(TrajeRepository trajeRepository, TrajeImagemService trajeImagemService,
+                        DisponibilidadeTrajeService disponibilidade,
                         ItemAluguelRepository itemAluguelRepository) {
         this.trajeRepository = trajeRepository;
-        this.imagemService = imagemService;
+        this.trajeImagemService = trajeImagemService;
+        this.disponibilidade = disponibilidade;
         this.itemAluguelRepository = itemAluguelRepository;
     }
 
@@ -57,43 +73,24 @@ public class TrajeService {
     // ===============================
     public Page<TrajeResponse> listarPaginado(int pagina, int tamanho) {
         Pageable pageable = Pageable.ofSize(tamanho).withPage(pagina);
-        return trajeRepository.findAll(pageable).map(TrajeMapper::toResponse);
+        return trajeRepository.buscarResumos(null, pageable).map(TrajeMapper::toResponse);
     }
 
     // ===============================
     // READ - filtros
     // ===============================
+    // Listagens usam a projeção TrajeResumo: só colunas escalares, sem
+    // hidratar entidades; a imagem completa sai apenas no ImagemController.
     public List<TrajeResponse> buscarPorNomeOuDescricao(String termo) {
-        return trajeRepository.buscarPorNomeOuDescricao(termo).stream()
-                .map(TrajeMapper::toResponse)
-                .toList();
+        return paraResponse(trajeRepository.buscarResumos(TrajeSpecification.comNomeOuDescricao(termo)));
     }
 
     public List<TrajeResponse> buscarPorFaixaPreco(BigDecimal min, BigDecimal max) {
-        return trajeRepository.findByFaixaDePreco(min, max).stream()
-                .map(TrajeMapper::toResponse)
-                .toList();
+        return paraResponse(trajeRepository.buscarResumos(TrajeSpecification.comValorEntre(min, max)));
     }
 
     public List<TrajeResponse> buscar(StatusTraje status, SexoEnum genero, TipoTraje tipo, TamanhoTraje tamanho) {
-        Specification<Traje> spec = Specification.where(null);
-        
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
-        }
-        if (genero != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("genero"), genero));
-        }
-        if (tipo != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tipo"), tipo));
-        }
-        if (tamanho != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tamanho"), tamanho));
-        }
-        
-        return trajeRepository.findAll(spec).stream()
-                .map(TrajeMapper::toResponse)
-                .toList();
+        return paraResponse(trajeRepository.buscarResumos(filtros(status, genero, tipo, tamanho)));
     }
 
     public Page<TrajeResponse> buscar(
@@ -102,23 +99,9 @@ public class TrajeService {
             TipoTraje tipo,
             TamanhoTraje tamanho,
             Pageable pageable) {
-        
-        Specification<Traje> spec = Specification.where(null);
-        
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
-        }
-        if (genero != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("genero"), genero));
-        }
-        if (tipo != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tipo"), tipo));
-        }
-        if (tamanho != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tamanho"), tamanho));
-        }
-        
-        return trajeRepository.findAll(spec, pageable).map(TrajeMapper::toResponse);
+
+        return trajeRepository.buscarResumos(filtros(status, genero, tipo, tamanho), pageable)
+                .map(TrajeMapper::toResponse);
     }
 
     public Page<TrajeResponse> buscar(
@@ -128,41 +111,92 @@ public class TrajeService {
             TamanhoTraje tamanho,
             String busca,
             Pageable pageable) {
-        
-        Specification<Traje> spec = Specification.where(null);
-        
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
-        }
-        if (genero != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("genero"), genero));
-        }
-        if (tipo != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tipo"), tipo));
-        }
-        if (tamanho != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tamanho"), tamanho));
+
+        return buscar(status, genero, tipo, tamanho, busca, null, null, pageable);
+    }
+
+    /**
+     * Catálogo filtrado e, quando as duas datas vêm, só com os trajes sem
+     * aluguel ATIVO no período. A disponibilidade entra na mesma consulta
+     * paginada (NOT EXISTS), então a página e o total já saem corretos.
+     */
+    public Page<TrajeResponse> buscar(
+            StatusTraje status,
+            SexoEnum genero,
+            TipoTraje tipo,
+            TamanhoTraje tamanho,
+            String busca,
+            LocalDate dataRetirada,
+            LocalDate dataDevolucao,
+            Pageable pageable) {
+
+        if ((dataRetirada == null) != (dataDevolucao == null)) {
+            throw new BusinessException("Informe a data de retirada e a data de devolução para buscar por período");
         }
-        if (busca != null && !busca.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.or(
-                    cb.like(cb.lower(root.get("nome")), "%" + busca.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("descricao")), "%" + busca.toLowerCase() + "%"),
-                    cb.like(cb.lower(root.get("cor")), "%" + busca.toLowerCase() + "%")
-                ));
+        if (dataRetirada != null && dataDevolucao.isBefore(dataRetirada)) {
+            throw new BusinessException("A data de retirada deve ser anterior ou igual à data de devolução");
         }
-        
-        return trajeRepository.findAll(spec, pageable).map(TrajeMapper::toResponse);
+
+        Specification<Traje> spec = filtros(status, genero, tipo, tamanho)
+                .and(TrajeSpecification.comBusca(busca))
+                .and(TrajeSpecification.livreNoPeriodo(dataRetirada, dataDevolucao));
+
+        return trajeRepository.buscarResumos(spec, pageable).map(TrajeMapper::toResponse);
     }
 
     // ===============================
     // READ - períodos alugados
     // ===============================
     public List<PeriodoAlugadoResponse> buscarPeriodosAlugados(Long trajeId) {
-        buscarOuFalhar(trajeId); // garante que o traje existe
-        return itemAluguelRepository.findPeriodosAlugadosByTrajeId(trajeId).stream()
-                .map(row -> new PeriodoAlugadoResponse((LocalDate) row[0], (LocalDate) row[1]))
+        if (!trajeRepository.existsById(trajeId)) {
+            throw new ResourceNotFoundException(RESOURCE, trajeId);
+        }
+        return disponibilidade.periodosAlugados(trajeId);
+    }
+
+    // ===============================
+    // READ - calendário de ocupação
+    // ===============================
+    /**
+     * Ocupação dia a dia de todos os trajes do filtro entre {@code inicio} e
+     * {@code fim}, com uma consulta para os trajes e outra para os períodos
+     * ativos do intervalo, no lugar de uma chamada de períodos por traje.
+     */
+    @Transactional(readOnly = true)
+    public CalendarioOcupacaoResponse buscarOcupacao(
+            LocalDate inicio,
+            LocalDate fim,
+            SexoEnum genero,
+            TipoTraje tipo,
+            TamanhoTraje tamanho) {
+
+        if (fim.isBefore(inicio)) {
+            throw new BusinessException("A data inicial do calendário deve ser anterior ou igual à data final");
+        }
+        long dias = ChronoUnit.DAYS.between(inicio, fim) + 1;
+        if (dias > MAX_DIAS_CALENDARIO) {
+            throw new BusinessException("O calendário pode ter no máximo " + MAX_DIAS_CALENDARIO + " dias");
+        }
+
+        List<TrajeResumo> trajes = trajeRepository.buscarResumos(filtros(null, genero, tipo, tamanho));
+        Map<Long, BitSet> ocupacao = new HashMap<>(trajes.size() * 2);
+        trajes.forEach(traje -> ocupacao.put(traje.id(), new BitSet((int) dias)));
+
+        for (PeriodoAtivo periodo : itemAluguelRepository.findPeriodosAtivosEntre(inicio, fim)) {
+            BitSet bits = ocupacao.get(periodo.trajeId());
+            if (bits != null) {
+                LocalDate de = periodo.dataRetirada().isBefore(inicio) ? inicio : periodo.dataRetirada();
+                LocalDate ate = periodo.dataDevolucao().isAfter(fim) ? fim : periodo.dataDevolucao();
+                bits.set((int) ChronoUnit.DAYS.between(inicio, de), (int) ChronoUnit.DAYS.between(inicio, ate) + 1);
+            }
+        }
+
+        Base64.Encoder base64 = Base64.getEncoder();
+        List<OcupacaoTrajeResponse> resposta = trajes.stream()
+                .map(traje -> new OcupacaoTrajeResponse(traje.id(), traje.nome(),
+                        base64.encodeToString(ocupacao.get(traje.id()).toByteArray())))
                 .toList();
+        return new CalendarioOcupacaoResponse(inicio, fim, (int) dias, resposta);
     }
 
     // ===============================
@@ -178,13 +212,31 @@ public class TrajeService {
     // ===============================
     // DELETE
     // ===============================
+    @Transactional
     public void deletar(Long id) {
-        trajeRepository.delete(buscarOuFalhar(id));
+        Traje traje = buscarOuFalhar(id);
+        trajeRepository.delete(traje);
+        trajeImagemService.descartarSeOrfa(traje.getImagemHash());
+        trajeImagemService.invalidarCache(id);
     }
 
     // ===============================
     // HELPERS
     // ===============================
+    private static Specification<Traje> filtros(
+            StatusTraje status, SexoEnum genero, TipoTraje tipo, TamanhoTraje tamanho) {
+        return Specification.where(TrajeSpecification.comStatus(status))
+                .and(TrajeSpecification.comGenero(genero))
+                .and(TrajeSpecification.comTipo(tipo))
+                .and(TrajeSpecification.comTamanho(tamanho));
+    }
+
+    private static List<TrajeResponse> paraResponse(List<TrajeResumo> resumos) {
+        return resumos.stream()
+                .map(TrajeMapper::toResponse)
+                .toList();
+    }
+
     private Traje buscarOuFalhar(Long id) {
         return trajeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE, id));
@@ -1,18 +1,36 @@
 package br.edu.fateczl.tcc.specification;
 
+import br.edu.fateczl.tcc.domain.ItemAluguel;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.enums.SexoEnum;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
 public class TrajeSpecification {
 
     private static final String STATUS = "status";
     private static final String GENERO = "genero";
     private static final String TIPO = "tipo";
     private static final String TAMANHO = "tamanho";
+    private static final String NOME = "nome";
+    private static final String DESCRICAO = "descricao";
+    private static final String COR = "cor";
+    private static final String VALOR_ITEM = "valorItem";
+    private static final String IMAGEM_HASH = "imagemHash";
+    private static final String ID = "id";
+    private static final String TRAJE = "traje";
+    private static final String DATA_RETIRADA = "dataRetirada";
+    private static final String DATA_DEVOLUCAO = "dataDevolucao";
 
     private TrajeSpecification () { }
 
@@ -35,4 +53,63 @@ public class TrajeSpecification {
         return (root, query, cb) ->
                 tamanho == null ? null : cb.equal(root.get(TAMANHO), tamanho);
     }
-}
\ No newline at end of file
+
+    /** Busca livre em nome, descrição e cor (sem diferenciar maiúsculas). */
+    public static Specification<Traje> comBusca(String busca) {
+        return (root, query, cb) -> {
+            if (busca == null || busca.isEmpty()) {
+                return null;
+            }
+            String padrao = "%" + busca.toLowerCase(Locale.ROOT) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get(NOME)), padrao),
+                    cb.like(cb.lower(root.get(DESCRICAO)), padrao),
+                    cb.like(cb.lower(root.get(COR)), padrao));
+        };
+    }
+
+    public static Specification<Traje> comNomeOuDescricao(String termo) {
+        return (root, query, cb) -> {
+            if (termo == null || termo.isEmpty()) {
+                return null;
+            }
+            String padrao = "%" + termo.toLowerCase(Locale.ROOT) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get(NOME)), padrao),
+                    cb.like(cb.lower(root.get(DESCRICAO)), padrao));
+        };
+    }
+
+    public static Specification<Traje> comImagemHashEm(Collection<String> hashes) {
+        return (root, query, cb) ->
+                hashes == null || hashes.isEmpty() ? null : root.get(IMAGEM_HASH).in(hashes);
+    }
+
+    public static Specification<Traje> comValorEntre(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) ->
+                min == null || max == null ? null : cb.between(root.get(VALOR_ITEM), min, max);
+    }
+
+    /**
+     * Trajes sem item de aluguel ATIVO que ocupe algum dia entre
+     * {@code retirada} e {@code devolucao} (mesma regra de
+     * {@code ItemAluguelRepository.trajeIndisponivelNoPeriodo}), resolvido
+     * como NOT EXISTS na própria consulta do catálogo sobre o status e o
+     * período espelhados no item.
+     */
+    public static Specification<Traje> livreNoPeriodo(LocalDate retirada, LocalDate devolucao) {
+        return (root, query, cb) -> {
+            if (retirada == null || devolucao == null) {
+                return null;
+            }
+            Subquery<Long> ocupado = query.subquery(Long.class);
+            Root<ItemAluguel> item = ocupado.from(ItemAluguel.class);
+            ocupado.select(item.get(ID)).where(
+                    cb.equal(item.get(TRAJE).get(ID), root.get(ID)),
+                    cb.equal(item.get(STATUS), StatusAluguel.ATIVO),
+                    cb.lessThanOrEqualTo(item.get(DATA_RETIRADA), devolucao),
+                    cb.greaterThanOrEqualTo(item.get(DATA_DEVOLUCAO), retirada));
+            return cb.not(cb.exists(ocupado));
+        };
+    }
+}
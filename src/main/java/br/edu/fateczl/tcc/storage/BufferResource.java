@@ -0,0 +1,83 @@
+package br.edu.fateczl.tcc.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Expõe como {@link org.springframework.core.io.Resource} uma imagem guardada
+ * fora do heap. Cada leitura trabalha sobre uma visão própria do buffer, então
+ * o mesmo recurso pode ser lido várias vezes e por várias requisições.
+ */
+class BufferResource extends AbstractResource {
+
+    private final ByteBuffer buffer;
+    private final String descricao;
+
+    BufferResource(ByteBuffer buffer, String descricao) {
+        this.buffer = buffer.asReadOnlyBuffer();
+        this.descricao = descricao;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        ByteBuffer visao = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return visao.hasRemaining() ? visao.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] destino, int inicio, int tamanho) {
+                if (tamanho == 0) {
+                    return 0;
+                }
+                if (!visao.hasRemaining()) {
+                    return -1;
+                }
+                int lidos = Math.min(tamanho, visao.remaining());
+                visao.get(destino, inicio, lidos);
+                return lidos;
+            }
+
+            @Override
+            public long skip(long quantidade) {
+                int pulados = (int) Math.max(0, Math.min(quantidade, visao.remaining()));
+                visao.position(visao.position() + pulados);
+                return pulados;
+            }
+
+            @Override
+            public int available() {
+                return visao.remaining();
+            }
+        };
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Imagem em cache [" + descricao + "]";
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return this == outro;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
@@ -0,0 +1,361 @@
+package br.edu.fateczl.tcc.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Cache em dois níveis dos contratos já renderizados: um LRU em memória,
+ * limitado em bytes, na frente de um diretório em disco que sobrevive a
+ * reinícios.
+ *
+ * A chave é o id do aluguel mais a versão do conteúdo (impressão digital
+ * calculada por quem renderiza), então uma entrada nunca fica desatualizada:
+ * se algo impresso no contrato mudar, a versão muda e a entrada antiga
+ * simplesmente deixa de ser pedida. Só a versão mais recente de cada aluguel
+ * é mantida; {@link #invalidar(Long)} descarta tudo do aluguel.
+ *
+ * Layout em disco: {@code <raiz>/<aluguelId>/<versao>.pdf}, gravado em
+ * arquivo temporário e movido para o destino, então um arquivo visível está
+ * sempre completo.
+ *
+ * Métricas (actuator): {@code cache.gets{result=hit|miss}} com a tag
+ * {@code cache=contratos} e {@code contratos.cache.disco} para os acertos
+ * que vieram do disco.
+ */
+@Component
+public class CacheContratos {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheContratos.class);
+
+    private static final String NOME = "contratos";
+    private static final String EXTENSAO = ".pdf";
+    private static final Pattern VERSAO_VALIDA = Pattern.compile("[0-9a-f]{16,64}");
+
+    private record Chave(Long aluguelId, String versao) { }
+
+    private final Path raiz;
+    private final Path temporarios;
+    private final long capacidade;
+
+    private final LinkedHashMap<Chave, byte[]> memoria = new LinkedHashMap<>(16, 0.75f, true);
+    private long ocupado;
+
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter acertosDisco;
+
+    public CacheContratos(@Value("${app.contratos.diretorio:./data/contratos}") String diretorio,
+                          @Value("${app.contratos.cache.memoria:16MB}") DataSize capacidade,
+                          MeterRegistry registry) {
+        this.raiz = Path.of(diretorio).toAbsolutePath().normalize();
+        this.temporarios = raiz.resolve("tmp");
+        this.capacidade = capacidade.toBytes();
+        try {
+            Files.createDirectories(temporarios);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de contratos " + raiz, e);
+        }
+
+        this.acertos = Counter.builder("cache.gets").tag("cache", NOME).tag("result", "hit").register(registry);
+        this.falhas = Counter.builder("cache.gets").tag("cache", NOME).tag("result", "miss").register(registry);
+        this.acertosDisco = Counter.builder("contratos.cache.disco").tag("cache", NOME).register(registry);
+    }
+
+    // ===============================
+    // LEITURA
+    // ===============================
+
+    /**
+     * Procura primeiro na memória e depois no disco; o que vier do disco é
+     * promovido para a memória.
+     */
+    public Optional<byte[]> buscar(Long aluguelId, String versao) {
+        Chave chave = new Chave(aluguelId, versao);
+        synchronized (this) {
+            byte[] pdf = memoria.get(chave);
+            if (pdf != null) {
+                acertos.increment();
+                return Optional.of(pdf);
+            }
+        }
+
+        Path arquivo = resolver(aluguelId, versao);
+        if (!Files.isRegularFile(arquivo)) {
+            falhas.increment();
+            return Optional.empty();
+        }
+        try {
+            byte[] pdf = Files.readAllBytes(arquivo);
+            guardarEmMemoria(chave, pdf);
+            acertos.increment();
+            acertosDisco.increment();
+            return Optional.of(pdf);
+        } catch (IOException e) {
+            // Arquivo removido por uma invalidação concorrente: basta renderizar de novo.
+            log.debug("Contrato {} não pôde ser lido do disco", arquivo, e);
+            falhas.increment();
+            return Optional.empty();
+        }
+    }
+
+    // ===============================
+    // ESCRITA
+    // ===============================
+
+    /**
+     * Guarda a versão nos dois níveis e descarta as versões anteriores do
+     * mesmo aluguel. Falha de disco não impede a resposta: o contrato fica
+     * só em memória e é gravado numa próxima renderização.
+     */
+    public void guardar(Long aluguelId, String versao, byte[] pdf) {
+        guardarEmMemoria(new Chave(aluguelId, versao), pdf);
+
+        Path destino = resolver(aluguelId, versao);
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile(temporarios, "contrato-", ".tmp");
+            Files.write(temporario, pdf);
+            publicar(temporario, destino);
+            temporario = null;
+        } catch (IOException e) {
+            log.warn("Falha ao gravar contrato do aluguel {} em disco", aluguelId, e);
+        } finally {
+            apagarTemporario(temporario);
+        }
+    }
+
+    /**
+     * Abre a gravação em disco de uma versão que ainda vai ser renderizada,
+     * para quem escreve o PDF direto na resposta. O arquivo só aparece sob a
+     * chave depois de {@link Gravacao#concluir()}; fechar sem concluir
+     * descarta o que foi escrito. A versão não entra na memória agora: é
+     * promovida na primeira leitura do disco.
+     */
+    public Gravacao gravar(Long aluguelId, String versao) {
+        return new Gravacao(aluguelId, resolver(aluguelId, versao));
+    }
+
+    /** Descarta todas as versões do aluguel, em memória e em disco. */
+    public void invalidar(Long aluguelId) {
+        synchronized (this) {
+            removerDaMemoria(chave -> chave.aluguelId().equals(aluguelId));
+        }
+        try {
+            FileSystemUtils.deleteRecursively(raiz.resolve(aluguelId.toString()));
+        } catch (IOException e) {
+            log.warn("Falha ao remover contratos do aluguel {} do disco", aluguelId, e);
+        }
+    }
+
+    // ===============================
+    // ESTATÍSTICAS
+    // ===============================
+
+    public synchronized int quantidade() {
+        return memoria.size();
+    }
+
+    public synchronized long ocupado() {
+        return ocupado;
+    }
+
+    // ===============================
+    // INTERNOS
+    // ===============================
+
+    private synchronized void guardarEmMemoria(Chave chave, byte[] pdf) {
+        removerDaMemoria(existente -> existente.aluguelId().equals(chave.aluguelId())
+                && !existente.versao().equals(chave.versao()));
+        // Um contrato sozinho não pode esvaziar o cache inteiro.
+        if (pdf.length > capacidade / 4) {
+            return;
+        }
+
+        byte[] anterior = memoria.put(chave, pdf);
+        ocupado += pdf.length - (anterior != null ? anterior.length : 0);
+
+        Iterator<byte[]> maisAntigas = memoria.values().iterator();
+        while (ocupado > capacidade && maisAntigas.hasNext()) {
+            ocupado -= maisAntigas.next().length;
+            maisAntigas.remove();
+        }
+    }
+
+    private void removerDaMemoria(Predicate<Chave> criterio) {
+        Iterator<Map.Entry<Chave, byte[]>> it = memoria.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Chave, byte[]> entrada = it.next();
+            if (criterio.test(entrada.getKey())) {
+                ocupado -= entrada.getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    private void publicar(Path temporario, Path destino) throws IOException {
+        Files.createDirectories(destino.getParent());
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        removerOutrasVersoes(destino);
+    }
+
+    private void removerOutrasVersoes(Path atual) throws IOException {
+        try (DirectoryStream<Path> versoes = Files.newDirectoryStream(atual.getParent(), "*" + EXTENSAO)) {
+            for (Path versao : versoes) {
+                if (!versao.equals(atual)) {
+                    Files.deleteIfExists(versao);
+                }
+            }
+        }
+    }
+
+    private Path resolver(Long aluguelId, String versao) {
+        if (aluguelId == null || versao == null || !VERSAO_VALIDA.matcher(versao).matches()) {
+            throw new IllegalArgumentException("Chave de contrato inválida: " + aluguelId + "/" + versao);
+        }
+        return raiz.resolve(aluguelId.toString()).resolve(versao + EXTENSAO);
+    }
+
+    private void apagarTemporario(Path temporario) {
+        if (temporario == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário {}", temporario, e);
+        }
+    }
+
+    /**
+     * Cópia em disco de um contrato que está sendo escrito em outro destino.
+     * Erros de disco nunca chegam a quem escreve: a cópia é abandonada e o
+     * contrato volta a ser renderizado na próxima impressão.
+     */
+    public final class Gravacao implements Closeable {
+
+        private final Long aluguelId;
+        private final Path destino;
+        private Path temporario;
+        private OutputStream arquivo;
+
+        private Gravacao(Long aluguelId, Path destino) {
+            this.aluguelId = aluguelId;
+            this.destino = destino;
+            try {
+                temporario = Files.createTempFile(temporarios, "contrato-", ".tmp");
+                arquivo = new BufferedOutputStream(Files.newOutputStream(temporario));
+            } catch (IOException e) {
+                abandonar(e);
+            }
+        }
+
+        /**
+         * Saída que escreve em {@code principal} e copia cada byte para o
+         * disco. Fechá-la não fecha {@code principal}.
+         */
+        public OutputStream espelhando(OutputStream principal) {
+            return new FilterOutputStream(principal) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    copiar(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    copiar(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+
+        /** Publica a cópia sob a chave, substituindo as versões anteriores. */
+        public void concluir() {
+            if (arquivo == null) {
+                return;
+            }
+            try {
+                arquivo.close();
+                arquivo = null;
+                publicar(temporario, destino);
+                temporario = null;
+            } catch (IOException e) {
+                abandonar(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            fecharArquivo();
+            apagarTemporario(temporario);
+            temporario = null;
+        }
+
+        private void copiar(int b) {
+            if (arquivo == null) {
+                return;
+            }
+            try {
+                arquivo.write(b);
+            } catch (IOException e) {
+                abandonar(e);
+            }
+        }
+
+        private void copiar(byte[] b, int off, int len) {
+            if (arquivo == null) {
+                return;
+            }
+            try {
+                arquivo.write(b, off, len);
+            } catch (IOException e) {
+                abandonar(e);
+            }
+        }
+
+        private void abandonar(IOException e) {
+            log.warn("Falha ao gravar contrato do aluguel {} em disco", aluguelId, e);
+            fecharArquivo();
+        }
+
+        private void fecharArquivo() {
+            if (arquivo == null) {
+                return;
+            }
+            try {
+                arquivo.close();
+            } catch (IOException e) {
+                log.debug("Falha ao fechar cópia do contrato do aluguel {}", aluguelId, e);
+            }
+            arquivo = null;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache LRU, limitado em bytes, das imagens mais acessadas.
+ *
+ * Os bytes ficam em buffers diretos (fora do heap), então manter as imagens
+ * em destaque na memória não aumenta o trabalho do GC. Além do conteúdo,
+ * guarda qual hash cada traje usa, para que o GET por traje não precise ir
+ * ao banco. O conteúdo é endereçado por hash e nunca fica desatualizado; o
+ * vínculo traje → hash é invalidado quando a imagem do traje muda.
+ *
+ * Métricas (actuator): {@code cache.gets{result=hit|miss}},
+ * {@code cache.evictions}, {@code cache.size} e {@code imagens.cache.bytes},
+ * todas com a tag {@code cache=imagens}.
+ */
+@Component
+public class CacheImagens {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheImagens.class);
+
+    private static final String NOME = "imagens";
+    private static final int MAX_TRAJES = 4096;
+
+    private record Chave(String hash, VarianteImagem variante) { }
+
+    private record Entrada(ByteBuffer bytes, String tipoMime) { }
+
+    private final long capacidade;
+    private final long tamanhoMaximoEntrada;
+
+    private final LinkedHashMap<Chave, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, String> hashPorTraje = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> maisAntiga) {
+            return size() > MAX_TRAJES;
+        }
+    };
+
+    private long ocupado;
+    private long geracao;
+
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter remocoes;
+
+    public CacheImagens(@Value("${app.imagens.cache.capacidade:64MB}") DataSize capacidade,
+                        MeterRegistry registry) {
+        this.capacidade = capacidade.toBytes();
+        // Uma imagem sozinha não pode esvaziar o cache inteiro.
+        this.tamanhoMaximoEntrada = this.capacidade / 4;
+
+        this.acertos = Counter.builder("cache.gets").tag("cache", NOME).tag("result", "hit").register(registry);
+        this.falhas = Counter.builder("cache.gets").tag("cache", NOME).tag("result", "miss").register(registry);
+        this.remocoes = Counter.builder("cache.evictions").tag("cache", NOME).register(registry);
+        Gauge.builder("cache.size", this, CacheImagens::quantidade).tag("cache", NOME).register(registry);
+        Gauge.builder("imagens.cache.bytes", this, CacheImagens::ocupado)
+                .tag("cache", NOME)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    // ===============================
+    // READ
+    // ===============================
+    public Optional<ImagemConteudo> buscar(String hash, VarianteImagem variante) {
+        VarianteImagem chaveVariante = variante != null ? variante : VarianteImagem.ORIGINAL;
+        Entrada entrada;
+        synchronized (this) {
+            entrada = entradas.get(new Chave(hash, chaveVariante));
+        }
+        if (entrada == null) {
+            falhas.increment();
+            return Optional.empty();
+        }
+        acertos.increment();
+        return Optional.of(conteudo(hash, chaveVariante, entrada));
+    }
+
+    public synchronized Optional<String> hashDoTraje(Long trajeId) {
+        return Optional.ofNullable(hashPorTraje.get(trajeId));
+    }
+
+    /**
+     * Marca o estado do cache antes de uma leitura no banco ou no disco.
+     * Se houver invalidação entre a leitura e o {@code guardar}/{@code associar},
+     * o valor lido é descartado em vez de repovoar o cache com dado antigo.
+     */
+    public synchronized long geracao() {
+        return geracao;
+    }
+
+    // ===============================
+    // CREATE
+    // ===============================
+    /**
+     * Copia a imagem para fora do heap e devolve o conteúdo servido a partir
+     * do cache. Devolve vazio (e o chamador usa o recurso original) se a
+     * imagem for grande demais ou se houve invalidação desde {@code geracaoLida}.
+     */
+    public Optional<ImagemConteudo> guardar(ImagemConteudo conteudo, long geracaoLida) {
+        ByteBuffer bytes = copiarParaForaDoHeap(conteudo);
+        if (bytes == null) {
+            return Optional.empty();
+        }
+
+        Chave chave = new Chave(conteudo.hash(), conteudo.variante());
+        Entrada entrada = new Entrada(bytes, conteudo.tipoMime());
+        synchronized (this) {
+            if (geracaoLida != geracao) {
+                return Optional.empty();
+            }
+            Entrada anterior = entradas.put(chave, entrada);
+            if (anterior != null) {
+                ocupado -= anterior.bytes().capacity();
+            }
+            ocupado += bytes.capacity();
+            removerExcedente();
+        }
+        return Optional.of(conteudo(chave.hash(), chave.variante(), entrada));
+    }
+
+    public synchronized void associar(Long trajeId, String hash, long geracaoLida) {
+        if (geracaoLida == geracao) {
+            hashPorTraje.put(trajeId, hash);
+        }
+    }
+
+    // ===============================
+    // DELETE
+    // ===============================
+    public synchronized void invalidarTraje(Long trajeId) {
+        hashPorTraje.remove(trajeId);
+        geracao++;
+    }
+
+    /** Remove o original e as variantes do hash, e os trajes que apontavam para ele. */
+    public synchronized void invalidarHash(String hash) {
+        Iterator<Map.Entry<Chave, Entrada>> iterator = entradas.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Chave, Entrada> entrada = iterator.next();
+            if (entrada.getKey().hash().equals(hash)) {
+                ocupado -= entrada.getValue().bytes().capacity();
+                iterator.remove();
+            }
+        }
+        hashPorTraje.values().removeIf(hash::equals);
+        geracao++;
+    }
+
+    public synchronized int quantidade() {
+        return entradas.size();
+    }
+
+    public synchronized long ocupado() {
+        return ocupado;
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private void removerExcedente() {
+        Iterator<Entrada> iterator = entradas.values().iterator();
+        while (ocupado > capacidade && iterator.hasNext()) {
+            ocupado -= iterator.next().bytes().capacity();
+            iterator.remove();
+            remocoes.increment();
+        }
+    }
+
+    private ByteBuffer copiarParaForaDoHeap(ImagemConteudo conteudo) {
+        try {
+            long tamanho = conteudo.recurso().contentLength();
+            if (tamanho <= 0 || tamanho > tamanhoMaximoEntrada) {
+                return null;
+            }
+            ByteBuffer bytes = ByteBuffer.allocateDirect((int) tamanho);
+            try (ReadableByteChannel canal = conteudo.recurso().readableChannel()) {
+                while (bytes.hasRemaining() && canal.read(bytes) >= 0) {
+                    // lê até preencher o buffer
+                }
+            }
+            if (bytes.hasRemaining()) {
+                return null;
+            }
+            return bytes.flip();
+        } catch (IOException e) {
+            log.debug("Imagem {} não entrou no cache: {}", conteudo.hash(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static ImagemConteudo conteudo(String hash, VarianteImagem variante, Entrada entrada) {
+        return new ImagemConteudo(hash, variante, entrada.tipoMime(),
+                new BufferResource(entrada.bytes(), hash + "/" + variante));
+    }
+}
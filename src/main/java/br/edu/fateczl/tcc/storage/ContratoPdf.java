@@ -0,0 +1,35 @@
+package br.edu.fateczl.tcc.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Contrato pronto para ser enviado. A versão já é conhecida (e com ela o
+ * ETag), mas os bytes só são produzidos quando alguém chama
+ * {@link #escreverEm(OutputStream)}: vêm do cache ou são renderizados
+ * direto na saída, sem passar por um array intermediário.
+ */
+public record ContratoPdf(
+        Long aluguelId,
+        String versao,
+        Escritor escritor
+) {
+
+    @FunctionalInterface
+    public interface Escritor {
+        void escrever(OutputStream saida) throws IOException;
+    }
+
+    /** Escreve o PDF em {@code saida} sem fechá-la. */
+    public void escreverEm(OutputStream saida) throws IOException {
+        escritor.escrever(saida);
+    }
+
+    /**
+     * ETag forte: a versão é a impressão digital de tudo que aparece no
+     * documento, então bytes diferentes sempre têm ETags diferentes.
+     */
+    public String etag() {
+        return "\"contrato-" + aluguelId + "-" + versao + "\"";
+    }
+}
@@ -0,0 +1,11 @@
+package br.edu.fateczl.tcc.storage;
+
+/**
+ * @param nova true se o arquivo foi criado por esta gravação; false se o
+ *             mesmo conteúdo já estava no storage
+ */
+public record ImagemArmazenada(
+        String hash,
+        long tamanho,
+        boolean nova
+) { }
@@ -0,0 +1,8 @@
+package br.edu.fateczl.tcc.storage;
+
+/**
+ * Publicado quando um traje passa a apontar para uma imagem. Os ouvintes
+ * só recebem o evento depois do commit, com o arquivo já no storage.
+ */
+public record ImagemArmazenadaEvent(String hash) {
+}
@@ -0,0 +1,29 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import org.springframework.core.io.Resource;
+
+import java.util.Locale;
+
+public record ImagemConteudo(
+        String hash,
+        VarianteImagem variante,
+        String tipoMime,
+        Resource recurso
+) {
+
+    public String etag() {
+        return etag(hash, variante);
+    }
+
+    /**
+     * ETag forte: para um mesmo hash e variante os bytes nunca mudam, então
+     * o valor pode ser calculado sem ler o arquivo.
+     */
+    public static String etag(String hash, VarianteImagem variante) {
+        if (variante == null || !variante.isDerivada()) {
+            return "\"" + hash + "\"";
+        }
+        return "\"" + hash + "-" + variante.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+}
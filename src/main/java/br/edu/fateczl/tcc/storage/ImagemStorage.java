@@ -0,0 +1,38 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Armazenamento de imagens endereçado por conteúdo.
+ *
+ * A chave de cada imagem é o SHA-256 (hex minúsculo) dos seus bytes: uploads
+ * idênticos resolvem para a mesma chave e ocupam um único arquivo. A tabela
+ * {@code traje} guarda apenas essa chave, nunca os bytes.
+ */
+public interface ImagemStorage {
+
+    /**
+     * Consome o stream inteiro, calcula o hash enquanto grava e devolve a chave.
+     * Se já existir uma imagem com o mesmo conteúdo, nada é regravado e
+     * {@link ImagemArmazenada#nova()} vem false.
+     */
+    ImagemArmazenada salvar(InputStream conteudo);
+
+    Optional<Resource> carregar(String hash);
+
+    boolean existe(String hash);
+
+    /** Remove o original e todas as variantes derivadas dele. */
+    void remover(String hash);
+
+    /** Grava uma variante redimensionada (JPEG) associada ao original {@code hash}. */
+    void salvarVariante(String hash, VarianteImagem variante, InputStream conteudo);
+
+    Optional<Resource> carregarVariante(String hash, VarianteImagem variante);
+
+    boolean existeVariante(String hash, VarianteImagem variante);
+}
@@ -0,0 +1,66 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.exception.BusinessException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Conta os bytes à medida que são lidos e interrompe a leitura assim que o
+ * limite é ultrapassado, sem esperar o fim do upload.
+ */
+public class LimiteTamanhoInputStream extends FilterInputStream {
+
+    private static final long BYTES_POR_MB = 1024L * 1024L;
+
+    private final long limite;
+    private long lidos;
+
+    public LimiteTamanhoInputStream(InputStream in, long limite) {
+        super(in);
+        this.limite = limite;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            contar(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            contar(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long pulados = super.skip(n);
+        contar(pulados);
+        return pulados;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getLidos() {
+        return lidos;
+    }
+
+    private void contar(long n) {
+        lidos += n;
+        if (lidos > limite) {
+            throw new BusinessException(
+                    "Imagem excede o tamanho máximo de " + (limite / BYTES_POR_MB) + "MB");
+        }
+    }
+}
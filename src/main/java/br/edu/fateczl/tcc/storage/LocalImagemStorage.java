@@ -0,0 +1,189 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Implementação de {@link ImagemStorage} em disco local.
+ *
+ * Layout: {@code <raiz>/ab/cd/abcd…} (dois níveis de prefixo para não
+ * acumular milhares de arquivos num único diretório). O upload é gravado
+ * primeiro em {@code <raiz>/tmp} e só depois movido para o destino final,
+ * então um arquivo visível sob a chave está sempre completo. Variantes ficam
+ * ao lado do original como {@code <hash>-<variante>.jpg}.
+ */
+@Component
+public class LocalImagemStorage implements ImagemStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalImagemStorage.class);
+
+    private static final String ALGORITMO = "SHA-256";
+    private static final Pattern HASH_VALIDO = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path raiz;
+    private final Path temporarios;
+
+    public LocalImagemStorage(@Value("${app.imagens.diretorio}") String diretorio) {
+        this.raiz = Path.of(diretorio).toAbsolutePath().normalize();
+        this.temporarios = raiz.resolve("tmp");
+        try {
+            Files.createDirectories(temporarios);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de imagens " + raiz, e);
+        }
+    }
+
+    @Override
+    public ImagemArmazenada salvar(InputStream conteudo) {
+        MessageDigest digest = novoDigest();
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile(temporarios, "upload-", ".tmp");
+
+            long tamanho;
+            try (InputStream in = new DigestInputStream(conteudo, digest)) {
+                tamanho = Files.copy(in, temporario, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path destino = resolver(hash);
+            boolean nova = false;
+            if (!Files.exists(destino)) {
+                Files.createDirectories(destino.getParent());
+                nova = moverParaDestino(temporario, destino);
+            }
+            return new ImagemArmazenada(hash, tamanho, nova);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao armazenar imagem", e);
+        } finally {
+            apagarTemporario(temporario);
+        }
+    }
+
+    @Override
+    public Optional<Resource> carregar(String hash) {
+        Path arquivo = resolver(hash);
+        if (!Files.isRegularFile(arquivo)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(arquivo));
+    }
+
+    @Override
+    public boolean existe(String hash) {
+        return Files.isRegularFile(resolver(hash));
+    }
+
+    @Override
+    public void remover(String hash) {
+        try {
+            Files.deleteIfExists(resolver(hash));
+            for (VarianteImagem variante : VarianteImagem.values()) {
+                if (variante.isDerivada()) {
+                    Files.deleteIfExists(resolverVariante(hash, variante));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao remover imagem " + hash, e);
+        }
+    }
+
+    @Override
+    public void salvarVariante(String hash, VarianteImagem variante, InputStream conteudo) {
+        Path destino = resolverVariante(hash, variante);
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile(temporarios, "variante-", ".tmp");
+            try (InputStream in = conteudo) {
+                Files.copy(in, temporario, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.createDirectories(destino.getParent());
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao armazenar variante " + variante + " de " + hash, e);
+        } finally {
+            apagarTemporario(temporario);
+        }
+    }
+
+    @Override
+    public Optional<Resource> carregarVariante(String hash, VarianteImagem variante) {
+        Path arquivo = resolverVariante(hash, variante);
+        if (!Files.isRegularFile(arquivo)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(arquivo));
+    }
+
+    @Override
+    public boolean existeVariante(String hash, VarianteImagem variante) {
+        return Files.isRegularFile(resolverVariante(hash, variante));
+    }
+
+    private Path resolver(String hash) {
+        if (hash == null || !HASH_VALIDO.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Hash de imagem inválido: " + hash);
+        }
+        return raiz.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    private Path resolverVariante(String hash, VarianteImagem variante) {
+        if (!variante.isDerivada()) {
+            return resolver(hash);
+        }
+        return resolver(hash).resolveSibling(hash + "-" + variante.name().toLowerCase(Locale.ROOT) + ".jpg");
+    }
+
+    /** @return false se um upload concorrente do mesmo conteúdo gravou antes */
+    private boolean moverParaDestino(Path temporario, Path destino) throws IOException {
+        try {
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // Upload concorrente do mesmo conteúdo chegou primeiro: o arquivo é idêntico.
+            log.debug("Imagem {} já gravada por outro upload", destino.getFileName());
+            return false;
+        }
+    }
+
+    private void apagarTemporario(Path temporario) {
+        if (temporario == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo temporário {}: {}", temporario, e.getMessage());
+        }
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITMO);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITMO + " indisponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.service.TrajeImagemService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Na subida da aplicação, move para o {@link ImagemStorage} as imagens que
+ * ainda estão gravadas como data URL base64 em {@code traje.imagemUrl}.
+ * Cada traje é migrado em sua própria transação; falhas são registradas e
+ * não impedem a aplicação de subir.
+ */
+@Component
+@ConditionalOnProperty(name = "app.imagens.migrar-legado", havingValue = "true", matchIfMissing = true)
+public class MigracaoImagensLegadas implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoImagensLegadas.class);
+
+    private final TrajeRepository trajeRepository;
+    private final TrajeImagemService trajeImagemService;
+
+    public MigracaoImagensLegadas(TrajeRepository trajeRepository, TrajeImagemService trajeImagemService) {
+        this.trajeRepository = trajeRepository;
+        this.trajeImagemService = trajeImagemService;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<Long> ids = trajeRepository.findIdsComImagemLegada();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        log.info("Migrando {} imagem(ns) legada(s) para o storage...", ids.size());
+        int migradas = 0;
+        for (Long id : ids) {
+            try {
+                if (trajeImagemService.migrarImagemLegada(id)) {
+                    migradas++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha ao migrar imagem do traje {}: {}", id, e.getMessage(), e);
+            }
+        }
+        log.info("Migração de imagens concluída: {}/{} migradas", migradas, ids.size());
+    }
+}
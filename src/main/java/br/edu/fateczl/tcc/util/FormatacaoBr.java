@@ -0,0 +1,137 @@
+package br.edu.fateczl.tcc.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Formatação no padrão brasileiro (valores, CPF/CNPJ, telefone e CEP) para
+ * documentos e exportações.
+ *
+ * Sem estado, então pode ser chamada por várias threads ao mesmo tempo sem
+ * sincronização, ao contrário de um {@code DecimalFormat} compartilhado. Os
+ * dígitos são lidos direto da entrada, sem regex: cada chamada aloca só o
+ * texto do resultado. Entradas nulas devolvem {@code null}.
+ */
+public final class FormatacaoBr {
+
+    private static final String MASCARA_CPF = "###.###.###-##";
+    private static final String MASCARA_CNPJ = "##.###.###/####-##";
+    private static final String MASCARA_CELULAR = "(##) #####-####";
+    private static final String MASCARA_TELEFONE = "(##) ####-####";
+    private static final String MASCARA_CEP = "#####-###";
+
+    private FormatacaoBr() { }
+
+    /**
+     * Mesmo resultado de {@code new DecimalFormat("#,##0.00")} com símbolos
+     * pt-BR: separador de milhar ".", decimal "," e arredondamento HALF_EVEN.
+     */
+    public static String moeda(BigDecimal valor) {
+        if (valor == null) {
+            return null;
+        }
+        // O sinal vem do valor original: -0,001 sai "-0,00", como no DecimalFormat.
+        boolean negativo = valor.signum() < 0;
+        String plano = valor.setScale(2, RoundingMode.HALF_EVEN).abs().toPlainString();
+        int inteiros = plano.length() - 3;
+
+        StringBuilder sb = new StringBuilder(plano.length() + inteiros / 3 + 1);
+        if (negativo) {
+            sb.append('-');
+        }
+        for (int i = 0; i < inteiros; i++) {
+            if (i > 0 && (inteiros - i) % 3 == 0) {
+                sb.append('.');
+            }
+            sb.append(plano.charAt(i));
+        }
+        return sb.append(',').append(plano, inteiros + 1, plano.length()).toString();
+    }
+
+    /** 11 dígitos viram CPF e 14 viram CNPJ; qualquer outro tamanho volta como veio. */
+    public static String cpfCnpj(String valor) {
+        return switch (contarDigitos(valor)) {
+            case 11 -> aplicarMascara(valor, MASCARA_CPF);
+            case 14 -> aplicarMascara(valor, MASCARA_CNPJ);
+            default -> valor;
+        };
+    }
+
+    /** 11 dígitos viram celular e 10 viram fixo; qualquer outro tamanho volta como veio. */
+    public static String telefone(String valor) {
+        return switch (contarDigitos(valor)) {
+            case 11 -> aplicarMascara(valor, MASCARA_CELULAR);
+            case 10 -> aplicarMascara(valor, MASCARA_TELEFONE);
+            default -> valor;
+        };
+    }
+
+    /** 8 dígitos viram 00000-000; qualquer outro tamanho volta como veio. */
+    public static String cep(String valor) {
+        return contarDigitos(valor) == 8 ? aplicarMascara(valor, MASCARA_CEP) : valor;
+    }
+
+    /**
+     * Equivale a {@code valor.replaceAll("\\D", "")}, mas devolve a própria
+     * string quando ela já só tem dígitos.
+     */
+    public static String somenteDigitos(String valor) {
+        int digitos = contarDigitos(valor);
+        if (valor == null || digitos == valor.length()) {
+            return valor;
+        }
+        char[] saida = new char[digitos];
+        int pos = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (ehDigito(c)) {
+                saida[pos++] = c;
+            }
+        }
+        return new String(saida);
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+
+    private static int contarDigitos(String valor) {
+        if (valor == null) {
+            return -1;
+        }
+        int digitos = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            if (ehDigito(valor.charAt(i))) {
+                digitos++;
+            }
+        }
+        return digitos;
+    }
+
+    /**
+     * Preenche cada '#' da máscara com o próximo dígito de {@code valor},
+     * ignorando o que não for dígito. Quem chama garante que a quantidade de
+     * dígitos é a da máscara.
+     */
+    private static String aplicarMascara(String valor, String mascara) {
+        char[] saida = new char[mascara.length()];
+        int pos = 0;
+        for (int i = 0; i < saida.length; i++) {
+            char m = mascara.charAt(i);
+            if (m == '#') {
+                while (!ehDigito(valor.charAt(pos))) {
+                    pos++;
+                }
+                saida[i] = valor.charAt(pos++);
+            } else {
+                saida[i] = m;
+            }
+        }
+        return new String(saida);
+    }
+
+    /** Só 0-9, como o {@code \d} padrão do java.util.regex. */
+    private static boolean ehDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,124 @@
+package br.edu.fateczl.tcc.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Índice multi-hash para busca de hashes de 64 bits por distância de Hamming.
+ *
+ * O hash é dividido em {@code raioMaximo + 1} fatias e cada fatia indexa uma
+ * tabela própria. Pelo princípio da casa dos pombos, dois hashes a até
+ * {@code raioMaximo} bits de distância têm ao menos uma fatia idêntica, então
+ * a busca só compara os itens que caem no mesmo balde de alguma fatia, em vez
+ * de percorrer o índice inteiro. Não é thread-safe: o chamador sincroniza.
+ *
+ * @param <T> item associado a cada hash (vários itens podem ter o mesmo hash)
+ */
+public class IndiceHamming<T> {
+
+    public record Resultado<T>(T item, int distancia) { }
+
+    private record Entrada<T>(long hash, T item) { }
+
+    private final int raioMaximo;
+    private final int[] inicioFatia;
+    private final int[] larguraFatia;
+    private final List<List<Entrada<T>>>[] tabelas;
+    private final Set<Entrada<T>> entradas = new HashSet<>();
+
+    @SuppressWarnings("unchecked")
+    public IndiceHamming(int raioMaximo) {
+        // Com pelo menos 4 fatias cada uma tem no máximo 16 bits (65536 baldes).
+        if (raioMaximo < 3 || raioMaximo >= Long.SIZE) {
+            throw new IllegalArgumentException("Raio máximo deve estar entre 3 e 63");
+        }
+        this.raioMaximo = raioMaximo;
+        int fatias = raioMaximo + 1;
+        this.inicioFatia = new int[fatias];
+        this.larguraFatia = new int[fatias];
+        this.tabelas = new List[fatias];
+
+        int inicio = 0;
+        for (int i = 0; i < fatias; i++) {
+            // Distribui os 64 bits o mais igualmente possível entre as fatias.
+            larguraFatia[i] = Long.SIZE / fatias + (i < Long.SIZE % fatias ? 1 : 0);
+            inicioFatia[i] = inicio;
+            inicio += larguraFatia[i];
+
+            int baldes = 1 << larguraFatia[i];
+            List<List<Entrada<T>>> tabela = new ArrayList<>(baldes);
+            for (int b = 0; b < baldes; b++) {
+                tabela.add(null);
+            }
+            tabelas[i] = tabela;
+        }
+    }
+
+    public static int distancia(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /** @return false se o item já estava associado a esse hash */
+    public boolean adicionar(long hash, T item) {
+        Entrada<T> entrada = new Entrada<>(hash, item);
+        if (!entradas.add(entrada)) {
+            return false;
+        }
+        for (int i = 0; i < tabelas.length; i++) {
+            int balde = fatia(hash, i);
+            List<Entrada<T>> itens = tabelas[i].get(balde);
+            if (itens == null) {
+                itens = new ArrayList<>(2);
+                tabelas[i].set(balde, itens);
+            }
+            itens.add(entrada);
+        }
+        return true;
+    }
+
+    /**
+     * Itens a no máximo {@code raio} bits de diferença, sem ordem definida.
+     *
+     * @throws IllegalArgumentException se {@code raio} passar do raio do índice
+     */
+    public List<Resultado<T>> buscar(long hash, int raio) {
+        if (raio > raioMaximo) {
+            throw new IllegalArgumentException("Raio " + raio + " maior que o do índice (" + raioMaximo + ")");
+        }
+        List<Resultado<T>> encontrados = new ArrayList<>();
+        for (int i = 0; i < tabelas.length; i++) {
+            List<Entrada<T>> candidatos = tabelas[i].get(fatia(hash, i));
+            if (candidatos == null) {
+                continue;
+            }
+            for (Entrada<T> candidato : candidatos) {
+                int d = distancia(candidato.hash(), hash);
+                // Cada item é informado só pela primeira fatia em que coincide.
+                if (d <= raio && primeiraFatiaIgual(candidato.hash(), hash) == i) {
+                    encontrados.add(new Resultado<>(candidato.item(), d));
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    private int fatia(long hash, int indice) {
+        long mascara = (1L << larguraFatia[indice]) - 1;
+        return (int) ((hash >>> inicioFatia[indice]) & mascara);
+    }
+
+    private int primeiraFatiaIgual(long a, long b) {
+        for (int i = 0; i < tabelas.length; i++) {
+            if (fatia(a, i) == fatia(b, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
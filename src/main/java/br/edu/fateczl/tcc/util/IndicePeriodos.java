@@ -0,0 +1,166 @@
+package br.edu.fateczl.tcc.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de períodos reservados por traje, para checar conflito de datas
+ * sem ir ao banco.
+ *
+ * Cada traje tem uma agenda com os períodos ordenados pelo início (em
+ * epoch-day, inclusivo nas duas pontas) e o maior fim acumulado até cada
+ * posição. A busca localiza por bisseção o último período que começa até o
+ * fim consultado e volta só enquanto algum período anterior ainda alcança o
+ * início consultado, então o custo é logarítmico mais os períodos que de
+ * fato se sobrepõem. Não é thread-safe: o chamador sincroniza.
+ */
+public class IndicePeriodos {
+
+    public record Reserva(long trajeId, long aluguelId, int inicio, int fim) { }
+
+    private final Map<Long, Agenda> agendas = new HashMap<>();
+    private final Map<Long, Set<Long>> trajesPorAluguel = new HashMap<>();
+    private int tamanho;
+
+    public void adicionar(Reserva reserva) {
+        if (reserva.fim() < reserva.inicio()) {
+            throw new IllegalArgumentException("Fim do período antes do início: " + reserva);
+        }
+        agendas.computeIfAbsent(reserva.trajeId(), id -> new Agenda()).inserir(reserva);
+        trajesPorAluguel.computeIfAbsent(reserva.aluguelId(), id -> new LinkedHashSet<>()).add(reserva.trajeId());
+        tamanho++;
+    }
+
+    /** @return as reservas removidas, para quem precisar restaurá-las */
+    public List<Reserva> removerAluguel(long aluguelId) {
+        Set<Long> trajes = trajesPorAluguel.remove(aluguelId);
+        if (trajes == null) {
+            return List.of();
+        }
+        List<Reserva> removidas = new ArrayList<>();
+        for (Long trajeId : trajes) {
+            Agenda agenda = agendas.get(trajeId);
+            agenda.removerAluguel(trajeId, aluguelId, removidas);
+            if (agenda.tamanho == 0) {
+                agendas.remove(trajeId);
+            }
+        }
+        tamanho -= removidas.size();
+        return removidas;
+    }
+
+    /**
+     * Se algum período do traje se sobrepõe a [{@code inicio}, {@code fim}],
+     * desconsiderando os do aluguel {@code aluguelIgnorado} (pode ser null).
+     */
+    public boolean conflita(long trajeId, int inicio, int fim, Long aluguelIgnorado) {
+        Agenda agenda = agendas.get(trajeId);
+        if (agenda == null) {
+            return false;
+        }
+        for (int i = agenda.ultimoQueComecaAte(fim); i >= 0 && agenda.maiorFim[i] >= inicio; i--) {
+            if (agenda.fins[i] >= inicio
+                    && (aluguelIgnorado == null || agenda.alugueis[i] != aluguelIgnorado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Reservas do traje em ordem de início. */
+    public List<Reserva> reservas(long trajeId) {
+        Agenda agenda = agendas.get(trajeId);
+        if (agenda == null) {
+            return List.of();
+        }
+        List<Reserva> reservas = new ArrayList<>(agenda.tamanho);
+        for (int i = 0; i < agenda.tamanho; i++) {
+            reservas.add(new Reserva(trajeId, agenda.alugueis[i], agenda.inicios[i], agenda.fins[i]));
+        }
+        return reservas;
+    }
+
+    public void limpar() {
+        agendas.clear();
+        trajesPorAluguel.clear();
+        tamanho = 0;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /** Períodos de um traje em arrays paralelos, ordenados pelo início. */
+    private static final class Agenda {
+        private int[] inicios = new int[2];
+        private int[] fins = new int[2];
+        private long[] alugueis = new long[2];
+        private int[] maiorFim = new int[2];
+        private int tamanho;
+
+        private void inserir(Reserva reserva) {
+            if (tamanho == inicios.length) {
+                int capacidade = tamanho * 2;
+                inicios = Arrays.copyOf(inicios, capacidade);
+                fins = Arrays.copyOf(fins, capacidade);
+                alugueis = Arrays.copyOf(alugueis, capacidade);
+                maiorFim = Arrays.copyOf(maiorFim, capacidade);
+            }
+            // Depois dos que começam no mesmo dia, para manter a ordem de chegada.
+            int pos = ultimoQueComecaAte(reserva.inicio()) + 1;
+            int mover = tamanho - pos;
+            System.arraycopy(inicios, pos, inicios, pos + 1, mover);
+            System.arraycopy(fins, pos, fins, pos + 1, mover);
+            System.arraycopy(alugueis, pos, alugueis, pos + 1, mover);
+            inicios[pos] = reserva.inicio();
+            fins[pos] = reserva.fim();
+            alugueis[pos] = reserva.aluguelId();
+            tamanho++;
+            recalcularMaiorFim(pos);
+        }
+
+        private void removerAluguel(long trajeId, long aluguelId, List<Reserva> removidas) {
+            int destino = 0;
+            for (int i = 0; i < tamanho; i++) {
+                if (alugueis[i] == aluguelId) {
+                    removidas.add(new Reserva(trajeId, aluguelId, inicios[i], fins[i]));
+                    continue;
+                }
+                inicios[destino] = inicios[i];
+                fins[destino] = fins[i];
+                alugueis[destino] = alugueis[i];
+                destino++;
+            }
+            tamanho = destino;
+            recalcularMaiorFim(0);
+        }
+
+        /** Índice do último período com início ≤ {@code dia}, ou -1. */
+        private int ultimoQueComecaAte(int dia) {
+            int baixo = 0;
+            int alto = tamanho;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (inicios[meio] <= dia) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo - 1;
+        }
+
+        private void recalcularMaiorFim(int desde) {
+            int maior = desde > 0 ? maiorFim[desde - 1] : Integer.MIN_VALUE;
+            for (int i = desde; i < tamanho; i++) {
+                maior = Math.max(maior, fins[i]);
+                maiorFim[i] = maior;
+            }
+        }
+    }
+}
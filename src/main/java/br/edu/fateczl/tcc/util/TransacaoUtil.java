@@ -0,0 +1,64 @@
+package br.edu.fateczl.tcc.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+public final class TransacaoUtil {
+
+    private TransacaoUtil() { }
+
+    /**
+     * Executa a ação somente depois do commit da transação corrente.
+     * Fora de transação (ex.: testes unitários) executa imediatamente.
+     */
+    public static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Executa a ação se a transação corrente terminar sem commit (rollback).
+     * Fora de transação não há o que desfazer e nada é executado.
+     */
+    public static void aoReverter(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    acao.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Executa a ação quando a transação corrente terminar, com commit ou não;
+     * recebe true se houve commit. Fora de transação executa imediatamente,
+     * como confirmada.
+     */
+    public static void aoConcluir(Consumer<Boolean> acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acao.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
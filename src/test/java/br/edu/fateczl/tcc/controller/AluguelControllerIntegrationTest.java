@@ -2,18 +2,26 @@ package br.edu.fateczl.tcc.controller;
 
 import br.edu.fateczl.tcc.domain.Aluguel;
 import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.domain.ReservaTraje;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelRequest;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelUpdateRequest;
 import br.edu.fateczl.tcc.enums.StatusAluguel;
 import br.edu.fateczl.tcc.enums.TipoOcasiao;
+import br.edu.fateczl.tcc.repository.AluguelAtrasadoRepository;
 import br.edu.fateczl.tcc.repository.AluguelRepository;
 import br.edu.fateczl.tcc.repository.ClienteRepository;
 import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import br.edu.fateczl.tcc.repository.ReservaTrajeRepository;
 import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.service.AtrasoAluguelService;
 import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
 import br.edu.fateczl.tcc.util.ClienteDataBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +30,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -59,14 +68,31 @@ class AluguelControllerIntegrationTest {
     @Autowired
     private ItemAluguelRepository itemAluguelRepository;
 
+    @Autowired
+    private ReservaTrajeRepository reservaTrajeRepository;
+
+    @Autowired
+    private AluguelAtrasadoRepository aluguelAtrasadoRepository;
+
+    @Autowired
+    private AtrasoAluguelService atrasoAluguelService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Cliente clientePersistido;
     private Traje trajePersistido;
 
     @BeforeEach
     void setup() {
+        reservaTrajeRepository.deleteAll();
+        aluguelAtrasadoRepository.deleteAll();
         itemAluguelRepository.deleteAll();
         aluguelRepository.deleteAll();
         clienteRepository.deleteAll();
@@ -100,6 +126,62 @@ class AluguelControllerIntegrationTest {
                 "O aluguel deveria ter sido salvo no banco de dados real");
     }
 
+    @Test
+    void deve_reservarCadaDia_quando_aluguelCriadoIntegracao() throws Exception {
+        AluguelRequest request = AlugueisDataBuilder.umAluguel()
+                .comClienteId(clientePersistido.getId())
+                .comDatas(LocalDate.now().plusDays(1), LocalDate.now().plusDays(3))
+                .comItem(trajePersistido.getId())
+                .buildRequest();
+
+        mockMvc.perform(post("/alugueis")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        assertEquals(3, reservaTrajeRepository.count());
+    }
+
+    @Test
+    void deve_recusarAluguel_quando_diaJaReservadoPorOutraTransacaoIntegracao() throws Exception {
+        // Simula um pedido concorrente que gravou a reserva depois da checagem de disponibilidade
+        // deste: não há item ATIVO no período, só a linha no livro de reservas.
+        Aluguel concorrente = aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                .comId(null)
+                .comStatus(StatusAluguel.CONCLUIDO)
+                .buildEntityComItens(clientePersistido, List.of(trajePersistido)));
+        reservaTrajeRepository.save(new ReservaTraje(trajePersistido, concorrente, LocalDate.now().plusDays(3)));
+
+        AluguelRequest request = AlugueisDataBuilder.umAluguel()
+                .comClienteId(clientePersistido.getId())
+                .comItem(trajePersistido.getId())
+                .buildRequest();
+
+        mockMvc.perform(post("/alugueis")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Traje já está alugado nesse período"));
+    }
+
+    @Test
+    void deve_listarAtrasado_quando_devolucaoVencidaIntegracao() throws Exception {
+        Aluguel vencido = aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                .comId(null)
+                .comDatas(LocalDate.now().minusDays(5), LocalDate.now().minusDays(2))
+                .buildEntityComItens(clientePersistido, List.of(trajePersistido)));
+
+        atrasoAluguelService.recalcular();
+
+        mockMvc.perform(get("/alugueis/atrasados"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].aluguelId").value(vencido.getId()))
+                .andExpect(jsonPath("$.content[0].diasAtraso").value(2));
+    }
+
     @Test
     void deve_buscarPorId_quando_aluguelExisteIntegracao() throws Exception {
         Aluguel salvo = aluguelRepository.save(
@@ -128,7 +210,85 @@ class AluguelControllerIntegrationTest {
         mockMvc.perform(get("/alugueis")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.itens.length()").value(2));
+    }
+
+    @Test
+    void deve_percorrerPaginasPorCursor_quando_limiteMenorQueTotalIntegracao() throws Exception {
+        LocalDate retirada = LocalDate.now().plusDays(1);
+        Aluguel primeiro = salvarAluguelComRetirada(retirada);
+        Aluguel segundo = salvarAluguelComRetirada(retirada);
+        Aluguel terceiro = salvarAluguelComRetirada(retirada.minusDays(1));
+
+        String resposta = mockMvc.perform(get("/alugueis").param("limite", "2").param("contarTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(2))
+                .andExpect(jsonPath("$.itens[0].id").value(terceiro.getId()))
+                .andExpect(jsonPath("$.itens[1].id").value(primeiro.getId()))
+                .andExpect(jsonPath("$.total").value(3))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(resposta).get("proximoCursor").asText();
+
+        mockMvc.perform(get("/alugueis").param("limite", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(segundo.getId()))
+                .andExpect(jsonPath("$.proximoCursor").doesNotExist())
+                .andExpect(jsonPath("$.total").doesNotExist());
+    }
+
+    @Test
+    void deve_manterNumeroDeConsultas_quando_listagemCresceIntegracao() throws Exception {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean habilitadas = estatisticas.isStatisticsEnabled();
+        estatisticas.setStatisticsEnabled(true);
+        try {
+            salvarAlugueisComDoisItens(2);
+            long consultasCom2 = contarConsultas(estatisticas, get("/alugueis").param("limite", "50"), 2);
+
+            salvarAlugueisComDoisItens(8);
+            long consultasCom10 = contarConsultas(estatisticas, get("/alugueis").param("limite", "50"), 10);
+
+            // ids da página + cliente/itens/trajes desses ids
+            assertEquals(2, consultasCom2);
+            assertEquals(consultasCom2, consultasCom10);
+        } finally {
+            estatisticas.setStatisticsEnabled(habilitadas);
+        }
+    }
+
+    private long contarConsultas(Statistics estatisticas,
+                                 MockHttpServletRequestBuilder requisicao,
+                                 int esperados) throws Exception {
+        // sem isso os aluguéis recém-salvos viriam do contexto de persistência, sem SQL
+        entityManager.flush();
+        entityManager.clear();
+        estatisticas.clear();
+
+        mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(esperados))
+                .andExpect(jsonPath("$.itens[0].itens.length()").value(2));
+
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    private void salvarAlugueisComDoisItens(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            Traje primeiro = trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null));
+            Traje segundo = trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null));
+            aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                    .comId(null)
+                    .buildEntityComItens(clientePersistido, List.of(primeiro, segundo)));
+        }
+    }
+
+    private Aluguel salvarAluguelComRetirada(LocalDate retirada) {
+        Traje traje = trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null));
+        return aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                .comId(null)
+                .comDatas(retirada, retirada.plusDays(2))
+                .buildEntityComItens(clientePersistido, List.of(traje)));
     }
 
     @Test
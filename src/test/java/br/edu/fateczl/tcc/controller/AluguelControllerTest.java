@@ -1,22 +1,33 @@
 package br.edu.fateczl.tcc.controller;
 
+import br.edu.fateczl.tcc.dto.aluguel.AluguelAtrasadoResponse;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelFiltroRequest;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelPaginaResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelRequest;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelUpdateRequest;
+import br.edu.fateczl.tcc.dto.aluguel.AtrasosNovosResponse;
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
 import br.edu.fateczl.tcc.dto.aluguel.ItemAluguelResponse;
 import br.edu.fateczl.tcc.dto.devolucao.DevolucaoRequest;
 import br.edu.fateczl.tcc.dto.devolucao.DevolucaoResponse;
 import br.edu.fateczl.tcc.dto.devolucao.ItemDevolucaoRequest;
 import br.edu.fateczl.tcc.enums.CondicaoTraje;
 import br.edu.fateczl.tcc.enums.CorTraje;
+import br.edu.fateczl.tcc.enums.StatusJobContrato;
 import br.edu.fateczl.tcc.enums.StatusAluguel;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoOcasiao;
 import br.edu.fateczl.tcc.enums.TipoTraje;
 import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ContratoJobNaoConcluidoException;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
 import br.edu.fateczl.tcc.service.AluguelService;
+import br.edu.fateczl.tcc.service.AtrasoAluguelService;
+import br.edu.fateczl.tcc.service.ContratoJobService;
+import br.edu.fateczl.tcc.service.ContratoLoteService;
 import br.edu.fateczl.tcc.service.ContratoPdfService;
+import br.edu.fateczl.tcc.storage.ContratoPdf;
 import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -25,14 +36,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +59,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -50,6 +67,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AluguelController.class)
@@ -66,6 +84,15 @@ class AluguelControllerTest {
     @MockitoBean
     private ContratoPdfService contratoPdfService;
 
+    @MockitoBean
+    private ContratoLoteService contratoLoteService;
+
+    @MockitoBean
+    private ContratoJobService contratoJobService;
+
+    @MockitoBean
+    private AtrasoAluguelService atrasoAluguelService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -327,26 +354,51 @@ class AluguelControllerTest {
 
         @Test
         void deve_retornar200_quando_listarTodos() throws Exception {
-            when(service.listarComFiltros(any())).thenReturn(List.of(responseValido));
+            when(service.listarPagina(any(), eq(null), eq(20), eq(false)))
+                    .thenReturn(new AluguelPaginaResponse(List.of(responseValido), "cursor-seguinte", null));
 
             mockMvc.perform(get("/alugueis"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.length()").value(1))
-                    .andExpect(jsonPath("$[0].id").value(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
-                    .andExpect(jsonPath("$[0].clienteId").value(AlugueisDataBuilder.CLIENTE_ID_DEFAULT));
+                    .andExpect(jsonPath("$.itens.length()").value(1))
+                    .andExpect(jsonPath("$.itens[0].id").value(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .andExpect(jsonPath("$.itens[0].clienteId").value(AlugueisDataBuilder.CLIENTE_ID_DEFAULT))
+                    .andExpect(jsonPath("$.proximoCursor").value("cursor-seguinte"));
 
-            verify(service).listarComFiltros(any());
+            verify(service).listarPagina(any(), eq(null), eq(20), eq(false));
         }
 
         @Test
         void deve_retornar200_quando_listaVazia() throws Exception {
-            when(service.listarComFiltros(any())).thenReturn(List.of());
+            when(service.listarPagina(any(), any(), eq(20), eq(false)))
+                    .thenReturn(new AluguelPaginaResponse(List.of(), null, null));
 
             mockMvc.perform(get("/alugueis"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.length()").value(0));
+                    .andExpect(jsonPath("$.itens.length()").value(0));
 
-            verify(service).listarComFiltros(any());
+            verify(service).listarPagina(any(), any(), eq(20), eq(false));
+        }
+
+        @Test
+        void deve_repassarCursorLimiteETotal_quando_informados() throws Exception {
+            when(service.listarPagina(any(), eq("abc"), eq(50), eq(true)))
+                    .thenReturn(new AluguelPaginaResponse(List.of(responseValido), null, 51L));
+
+            mockMvc.perform(get("/alugueis")
+                            .param("cursor", "abc")
+                            .param("limite", "50")
+                            .param("contarTotal", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total").value(51));
+        }
+
+        @Test
+        void deve_retornar400_quando_cursorInvalido() throws Exception {
+            when(service.listarPagina(any(), eq("xx"), eq(20), eq(false)))
+                    .thenThrow(new BusinessException("Cursor de paginação inválido"));
+
+            mockMvc.perform(get("/alugueis").param("cursor", "xx"))
+                    .andExpect(status().isBadRequest());
         }
     }
 
@@ -485,25 +537,50 @@ class AluguelControllerTest {
     @DisplayName("Gerar Contrato em PDF")
     class GerarContratoTest {
 
+        private static final String VERSAO_CONTRATO = "0123456789abcdef0123456789abcdef";
+
         @Test
         void deve_retornar200ComPdf_quando_aluguelExiste() throws Exception {
             byte[] pdfBytes = "%PDF-1.4 fake".getBytes();
-            when(contratoPdfService.gerarContrato(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
-                    .thenReturn(pdfBytes);
+            when(contratoPdfService.buscarContrato(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .thenReturn(new ContratoPdf(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT, VERSAO_CONTRATO,
+                            saida -> saida.write(pdfBytes)));
+
+            MvcResult resultado = mockMvc.perform(get("/alugueis/{id}/contrato", AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
 
-            mockMvc.perform(get("/alugueis/{id}/contrato", AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+            mockMvc.perform(asyncDispatch(resultado))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_PDF))
                     .andExpect(header().string("Content-Disposition",
                             "inline; filename=\"Contrato_Aluguel_" + AlugueisDataBuilder.ALUGUEL_ID_DEFAULT + ".pdf\""))
+                    .andExpect(header().stringValues("ETag",
+                            "\"contrato-" + AlugueisDataBuilder.ALUGUEL_ID_DEFAULT + "-" + VERSAO_CONTRATO + "\""))
+                    .andExpect(header().string("Cache-Control", "no-cache"))
                     .andExpect(content().bytes(pdfBytes));
 
-            verify(contratoPdfService).gerarContrato(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT);
+            verify(contratoPdfService).buscarContrato(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT);
+        }
+
+        @Test
+        void deve_retornar304SemRenderizar_quando_ifNoneMatchIgualAoEtag() throws Exception {
+            ContratoPdf contrato = new ContratoPdf(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT, VERSAO_CONTRATO,
+                    saida -> {
+                        throw new AssertionError("não deveria escrever o PDF num 304");
+                    });
+            when(contratoPdfService.buscarContrato(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT)).thenReturn(contrato);
+
+            mockMvc.perform(get("/alugueis/{id}/contrato", AlugueisDataBuilder.ALUGUEL_ID_DEFAULT)
+                            .header("If-None-Match", contrato.etag()))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().bytes(new byte[0]));
         }
 
         @Test
         void deve_retornar404_quando_aluguelNaoEncontradoParaContrato() throws Exception {
-            when(contratoPdfService.gerarContrato(99L))
+            when(contratoPdfService.buscarContrato(99L))
                     .thenThrow(new ResourceNotFoundException("Aluguel", 99L));
 
             mockMvc.perform(get("/alugueis/99/contrato"))
@@ -512,6 +589,133 @@ class AluguelControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Exportar Contratos em ZIP")
+    class ExportarContratosTest {
+
+        @Test
+        void deve_retornarZipComFiltros_quando_exportar() throws Exception {
+            byte[] zip = "PK fake".getBytes();
+            AluguelFiltroRequest filtro = new AluguelFiltroRequest(
+                    StatusAluguel.ATIVO, null, LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 31), null);
+            when(contratoLoteService.exportar(eq(filtro), any())).thenAnswer(invocacao -> {
+                invocacao.<OutputStream>getArgument(1).write(zip);
+                return 1;
+            });
+
+            MvcResult resultado = mockMvc.perform(get("/alugueis/contratos")
+                            .param("status", "ATIVO")
+                            .param("dataRetiradaInicio", "2026-05-01")
+                            .param("dataRetiradaFim", "2026-05-31"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/zip"))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"Contratos.zip\""))
+                    .andExpect(content().bytes(zip));
+
+            verify(contratoLoteService).exportar(eq(filtro), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Geração de contrato em segundo plano")
+    class JobContratoTest {
+
+        private static final String JOB_ID = "6f1c2d8e-3b7a-4c55-9d0e-1a2b3c4d5e6f";
+        private static final String VERSAO_CONTRATO = "0123456789abcdef0123456789abcdef";
+
+        private ContratoJobResponse job(StatusJobContrato status) {
+            return new ContratoJobResponse(JOB_ID, AlugueisDataBuilder.ALUGUEL_ID_DEFAULT, status, null,
+                    LocalDateTime.of(2026, 5, 10, 14, 0), null);
+        }
+
+        @Test
+        void deve_retornar202ComLocation_quando_enfileirarContrato() throws Exception {
+            when(contratoJobService.enfileirar(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .thenReturn(job(StatusJobContrato.PENDENTE));
+
+            mockMvc.perform(post("/alugueis/{id}/contrato/jobs", AlugueisDataBuilder.ALUGUEL_ID_DEFAULT).with(csrf()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/alugueis/contratos/jobs/" + JOB_ID))
+                    .andExpect(jsonPath("$.id").value(JOB_ID))
+                    .andExpect(jsonPath("$.status").value("Pendente"));
+        }
+
+        @Test
+        void deve_retornar503_quando_filaDeContratosCheia() throws Exception {
+            when(contratoJobService.enfileirar(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .thenThrow(new TaskRejectedException("fila cheia"));
+
+            mockMvc.perform(post("/alugueis/{id}/contrato/jobs", AlugueisDataBuilder.ALUGUEL_ID_DEFAULT).with(csrf()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"));
+        }
+
+        @Test
+        void deve_retornar200ComStatus_quando_consultarJob() throws Exception {
+            when(contratoJobService.consultar(JOB_ID)).thenReturn(job(StatusJobContrato.PROCESSANDO));
+
+            mockMvc.perform(get("/alugueis/contratos/jobs/{jobId}", JOB_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.aluguelId").value(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .andExpect(jsonPath("$.status").value("Processando"));
+        }
+
+        @Test
+        void deve_retornar404_quando_jobNaoEncontrado() throws Exception {
+            when(contratoJobService.consultar("inexistente"))
+                    .thenThrow(new BusinessException("Job de contrato inexistente não encontrado"));
+
+            mockMvc.perform(get("/alugueis/contratos/jobs/{jobId}", "inexistente"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void deve_retornarPdf_quando_baixarJobConcluido() throws Exception {
+            byte[] pdfBytes = "%PDF-1.4 fake".getBytes();
+            when(contratoJobService.baixar(JOB_ID))
+                    .thenReturn(new ContratoPdf(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT, VERSAO_CONTRATO,
+                            saida -> saida.write(pdfBytes)));
+
+            MvcResult resultado = mockMvc.perform(get("/alugueis/contratos/jobs/{jobId}/pdf", JOB_ID))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                    .andExpect(header().string("Content-Disposition",
+                            "inline; filename=\"Contrato_Aluguel_" + AlugueisDataBuilder.ALUGUEL_ID_DEFAULT + ".pdf\""))
+                    .andExpect(content().bytes(pdfBytes));
+        }
+
+        @Test
+        void deve_retornar409ComStatus_quando_baixarJobAindaEmAndamento() throws Exception {
+            when(contratoJobService.baixar(JOB_ID))
+                    .thenThrow(new ContratoJobNaoConcluidoException(
+                            "Contrato do job " + JOB_ID + " ainda não está pronto (status: Pendente)",
+                            job(StatusJobContrato.PENDENTE)));
+
+            mockMvc.perform(get("/alugueis/contratos/jobs/{jobId}/pdf", JOB_ID))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status").value("Pendente"));
+        }
+
+        @Test
+        void deve_retornar410_quando_baixarJobComFalha() throws Exception {
+            when(contratoJobService.baixar(JOB_ID))
+                    .thenThrow(new ContratoJobNaoConcluidoException(
+                            "Falha ao gerar o contrato do job " + JOB_ID, job(StatusJobContrato.FALHOU)));
+
+            mockMvc.perform(get("/alugueis/contratos/jobs/{jobId}/pdf", JOB_ID))
+                    .andExpect(status().isGone())
+                    .andExpect(jsonPath("$.status").value("Falhou"));
+        }
+    }
+
     @Nested
     @DisplayName("Registrar Devolução")
     class RegistrarDevolucaoTest {
@@ -576,4 +780,48 @@ class AluguelControllerTest {
                     .andExpect(status().isBadRequest());
         }
     }
+
+    @Nested
+    @DisplayName("Aluguéis atrasados")
+    class AtrasosTest {
+
+        private AluguelAtrasadoResponse atrasado(Long id, int dias) {
+            return new AluguelAtrasadoResponse(id, AlugueisDataBuilder.ALUGUEL_ID_DEFAULT,
+                    AlugueisDataBuilder.CLIENTE_ID_DEFAULT, "Cliente Teste 1",
+                    LocalDate.of(2026, 5, 10), dias, LocalDateTime.of(2026, 5, 11, 0, 5));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 200 com a página de atrasados")
+        void deve_retornar200_quando_listarAtrasados() throws Exception {
+            when(atrasoAluguelService.listar(0, 10)).thenReturn(new PageImpl<>(List.of(atrasado(1L, 3))));
+
+            mockMvc.perform(get("/alugueis/atrasados"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].aluguelId").value(AlugueisDataBuilder.ALUGUEL_ID_DEFAULT))
+                    .andExpect(jsonPath("$.content[0].diasAtraso").value(3));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 200 com os novos atrasos e o cursor seguinte")
+        void deve_retornar200_quando_buscarNovosAtrasos() throws Exception {
+            when(atrasoAluguelService.novos(5L, 2))
+                    .thenReturn(new AtrasosNovosResponse(List.of(atrasado(6L, 1)), 6L));
+
+            mockMvc.perform(get("/alugueis/atrasados/novos").param("desde", "5").param("limite", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens[0].id").value(6))
+                    .andExpect(jsonPath("$.cursor").value(6));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 quando o limite do feed é inválido")
+        void deve_retornar400_quando_limiteInvalido() throws Exception {
+            when(atrasoAluguelService.novos(0L, 0))
+                    .thenThrow(new BusinessException("O limite deve estar entre 1 e 500"));
+
+            mockMvc.perform(get("/alugueis/atrasados/novos").param("limite", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
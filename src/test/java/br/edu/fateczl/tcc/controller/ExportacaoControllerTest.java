@@ -0,0 +1,79 @@
+package br.edu.fateczl.tcc.controller;
+
+import br.edu.fateczl.tcc.enums.FormatoExportacao;
+import br.edu.fateczl.tcc.service.ExportacaoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ExportacaoController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("Testes unitários do ExportacaoController")
+class ExportacaoControllerTest {
+
+    private static final byte[] CSV = "Nº;Cliente\r\n42;Maria\r\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NDJSON = "{\"id\":7}\n".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExportacaoService exportacaoService;
+
+    @Test
+    void deve_retornarCsv_quando_exportarAlugueisSemFormato() throws Exception {
+        when(exportacaoService.escreverAlugueis(eq(FormatoExportacao.CSV), any())).thenAnswer(invocacao -> {
+            invocacao.<OutputStream>getArgument(1).write(CSV);
+            return 1;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/exportacoes/alugueis"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"Alugueis_" + LocalDate.now() + ".csv\""))
+                .andExpect(content().bytes(CSV));
+    }
+
+    @Test
+    void deve_retornarNdjson_quando_exportarDevolucoesEmNdjson() throws Exception {
+        when(exportacaoService.escreverDevolucoes(eq(FormatoExportacao.NDJSON), any())).thenAnswer(invocacao -> {
+            invocacao.<OutputStream>getArgument(1).write(NDJSON);
+            return 1;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/exportacoes/devolucoes").param("formato", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"Devolucoes_" + LocalDate.now() + ".ndjson\""))
+                .andExpect(content().bytes(NDJSON));
+    }
+}
@@ -1,25 +1,34 @@
 package br.edu.fateczl.tcc.controller;
 
-import br.edu.fateczl.tcc.domain.Traje;
-import br.edu.fateczl.tcc.enums.*;
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import br.edu.fateczl.tcc.exception.BusinessException;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
-import br.edu.fateczl.tcc.repository.TrajeRepository;
 import br.edu.fateczl.tcc.service.ImagemService;
+import br.edu.fateczl.tcc.service.TrajeImagemService;
+import br.edu.fateczl.tcc.storage.ImagemConteudo;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,31 +38,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DisplayName("Testes de comportamento do ImagemController")
 class ImagemControllerTest {
 
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final byte[] BYTES_IMAGEM = "conteudo-png".getBytes(StandardCharsets.UTF_8);
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private TrajeRepository trajeRepository;
+    private TrajeImagemService trajeImagemService;
 
     @MockBean
     private ImagemService imagemService;
 
-    private Traje criarTrajeValido() {
-        return Traje.builder()
-                .id(1L)
-                .nome("Terno Classic")
-                .descricao("Terno social azul marinho")
-                .tamanho(TamanhoTraje.M)
-                .cor(CorTraje.AZUL)
-                .tipo(TipoTraje.TERNO)
-                .genero(SexoEnum.MASCULINO)
-                .valorItem(new BigDecimal("250.00"))
-                .status(StatusTraje.DISPONIVEL)
-                .tecido(TecidoTraje.LA)
-                .estampa(EstampaTraje.LISA)
-                .textura(TexturaTraje.LISO)
-                .condicao(CondicaoTraje.NOVO)
-                .build();
+    private ImagemConteudo imagemPng() {
+        return new ImagemConteudo(HASH, VarianteImagem.ORIGINAL, "image/png", new ByteArrayResource(BYTES_IMAGEM));
     }
 
     @Nested
@@ -62,24 +60,38 @@ class ImagemControllerTest {
 
         @Test
         @WithMockUser
-        @DisplayName("Deve retornar 200 com imagem quando traje existir")
+        @DisplayName("Deve retornar 200 com os bytes da imagem quando traje tiver imagem")
         void deve_retornar_200_com_imagem_quando_traje_existir() throws Exception {
-            Traje traje = criarTrajeValido();
-            traje.setImagemUrl("data:image/png;base64,ABC123");
-
-            when(trajeRepository.findById(1L)).thenReturn(Optional.of(traje));
+            when(trajeImagemService.buscarImagem(1L, null)).thenReturn(Optional.of(imagemPng()));
 
             mockMvc.perform(get("/trajes/imagem")
                             .param("trajeId", "1"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.imagemUrl").exists());
+                    .andExpect(content().contentType("image/png"))
+                    .andExpect(content().bytes(BYTES_IMAGEM));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve repassar a variante pedida ao servico")
+        void deve_repassar_variante_quando_informada() throws Exception {
+            ImagemConteudo miniatura = new ImagemConteudo(
+                    HASH, VarianteImagem.PEQUENA, "image/jpeg", new ByteArrayResource(BYTES_IMAGEM));
+            when(trajeImagemService.buscarImagem(1L, VarianteImagem.PEQUENA)).thenReturn(Optional.of(miniatura));
+
+            mockMvc.perform(get("/trajes/imagem")
+                            .param("trajeId", "1")
+                            .param("variante", "pequena"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("image/jpeg"));
         }
 
         @Test
         @WithMockUser
         @DisplayName("Deve retornar 404 quando traje nao existir")
         void deve_retornar_404_quando_traje_nao_existir() throws Exception {
-            when(trajeRepository.findById(999L)).thenReturn(Optional.empty());
+            when(trajeImagemService.buscarImagem(999L, null))
+                    .thenThrow(new ResourceNotFoundException("Traje", 999L));
 
             mockMvc.perform(get("/trajes/imagem")
                             .param("trajeId", "999"))
@@ -90,10 +102,7 @@ class ImagemControllerTest {
         @WithMockUser
         @DisplayName("Deve retornar 404 quando traje nao tem imagem")
         void deve_retornar_404_quando_traje_nao_tem_imagem() throws Exception {
-            Traje traje = criarTrajeValido();
-            traje.setImagemUrl(null);
-
-            when(trajeRepository.findById(1L)).thenReturn(Optional.of(traje));
+            when(trajeImagemService.buscarImagem(1L, null)).thenReturn(Optional.empty());
 
             mockMvc.perform(get("/trajes/imagem")
                             .param("trajeId", "1"))
@@ -101,6 +110,99 @@ class ImagemControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Cache HTTP - GET /trajes/imagem?trajeId")
+    class CacheImagemPorTraje {
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve enviar ETag forte e exigir revalidacao")
+        void deve_enviar_etag_e_no_cache() throws Exception {
+            when(trajeImagemService.buscarImagem(1L, null)).thenReturn(Optional.of(imagemPng()));
+
+            mockMvc.perform(get("/trajes/imagem").param("trajeId", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve retornar 304 sem corpo quando If-None-Match bater com o ETag")
+        void deve_retornar_304_quando_if_none_match_igual() throws Exception {
+            when(trajeImagemService.buscarImagem(1L, null)).thenReturn(Optional.of(imagemPng()));
+
+            mockMvc.perform(get("/trajes/imagem")
+                            .param("trajeId", "1")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().bytes(new byte[0]));
+        }
+    }
+
+    @Nested
+    @DisplayName("URL imutavel - GET /trajes/imagem/{hash}")
+    class BuscarImagemPorHash {
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve marcar a resposta como imutavel")
+        void deve_retornar_200_imutavel() throws Exception {
+            when(trajeImagemService.buscarImagemPorHash(HASH, null)).thenReturn(Optional.of(imagemPng()));
+
+            mockMvc.perform(get("/trajes/imagem/{hash}", HASH))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes(BYTES_IMAGEM))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve responder 304 sem consultar servico quando If-None-Match bater")
+        void deve_retornar_304_sem_consultar_servico() throws Exception {
+            mockMvc.perform(get("/trajes/imagem/{hash}", HASH)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                    .andExpect(status().isNotModified());
+
+            verify(trajeImagemService, never()).buscarImagemPorHash(any(), any());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve atender Range com 206 e apenas os bytes pedidos")
+        void deve_retornar_206_quando_range() throws Exception {
+            when(trajeImagemService.buscarImagemPorHash(HASH, null)).thenReturn(Optional.of(imagemPng()));
+
+            mockMvc.perform(get("/trajes/imagem/{hash}", HASH)
+                            .header(HttpHeaders.RANGE, "bytes=0-3"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(content().bytes(Arrays.copyOfRange(BYTES_IMAGEM, 0, 4)));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Nao deve cachear para sempre o original servido no lugar de variante ausente")
+        void deve_exigir_revalidacao_quando_variante_ausente() throws Exception {
+            when(trajeImagemService.buscarImagemPorHash(HASH, VarianteImagem.GRANDE))
+                    .thenReturn(Optional.of(imagemPng()));
+
+            mockMvc.perform(get("/trajes/imagem/{hash}", HASH).param("variante", "GRANDE"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve retornar 404 quando hash nao existir no storage")
+        void deve_retornar_404_quando_hash_inexistente() throws Exception {
+            when(trajeImagemService.buscarImagemPorHash(HASH, null)).thenReturn(Optional.empty());
+
+            mockMvc.perform(get("/trajes/imagem/{hash}", HASH))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     @DisplayName("Adicionar imagem - POST /trajes/imagem")
     class AdicionarImagem {
@@ -112,8 +214,7 @@ class ImagemControllerTest {
             MockMultipartFile file = new MockMultipartFile(
                     "imagem", "test.png", "image/png", "test".getBytes(StandardCharsets.UTF_8));
 
-            when(trajeRepository.findById(1L)).thenReturn(Optional.of(criarTrajeValido()));
-            when(imagemService.validarImagem(any())).thenReturn(false);
+            when(imagemService.validarArquivo(any(), anyLong())).thenReturn(false);
 
             mockMvc.perform(multipart("/trajes/imagem")
                             .file(file)
@@ -121,27 +222,78 @@ class ImagemControllerTest {
                             .with(csrf()))
                     .andExpect(status().isBadRequest())
                     .andExpect(jsonPath("$.erro").exists());
+
+            verify(trajeImagemService, never()).salvarImagem(any(), any());
         }
 
         @Test
         @WithMockUser
-        @DisplayName("Deve retornar 200 quando imagem for valida")
+        @DisplayName("Deve retornar 200 com o link da imagem quando imagem for valida")
         void deve_retornar_200_quando_imagem_for_valida() throws Exception {
             MockMultipartFile file = new MockMultipartFile(
                     "imagem", "test.png", "image/png", "test".getBytes(StandardCharsets.UTF_8));
 
-            Traje traje = criarTrajeValido();
-
-            when(trajeRepository.findById(1L)).thenReturn(Optional.of(traje));
-            when(imagemService.validarImagem(any())).thenReturn(true);
-            when(trajeRepository.save(any())).thenReturn(traje);
+            when(imagemService.validarArquivo(eq("image/png"), anyLong())).thenReturn(true);
+            when(trajeImagemService.salvarImagem(eq(1L), any()))
+                    .thenReturn("/trajes/imagem?trajeId=1");
 
             mockMvc.perform(multipart("/trajes/imagem")
                             .file(file)
                             .param("trajeId", "1")
                             .with(csrf()))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.imagemUrl").exists());
+                    .andExpect(jsonPath("$.imagemUrl").value("/trajes/imagem?trajeId=1"));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve aceitar a imagem no corpo da requisicao (image/*)")
+        void deve_retornar_200_quando_corpo_binario() throws Exception {
+            when(imagemService.getTamanhoMaximo()).thenReturn(5L * 1024 * 1024);
+            when(trajeImagemService.salvarImagem(eq(1L), any()))
+                    .thenReturn("/trajes/imagem?trajeId=1");
+
+            mockMvc.perform(post("/trajes/imagem")
+                            .param("trajeId", "1")
+                            .contentType("image/png")
+                            .content(BYTES_IMAGEM)
+                            .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imagemUrl").value("/trajes/imagem?trajeId=1"));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve retornar 400 sem ler o corpo quando Content-Length exceder o limite")
+        void deve_retornar_400_quando_content_length_acima_do_limite() throws Exception {
+            when(imagemService.getTamanhoMaximo()).thenReturn(4L);
+
+            mockMvc.perform(post("/trajes/imagem")
+                            .param("trajeId", "1")
+                            .contentType("image/png")
+                            .content(BYTES_IMAGEM)
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.erro").exists());
+
+            verify(trajeImagemService, never()).salvarImagem(any(), any());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Deve retornar 400 quando o conteudo nao for uma imagem aceita")
+        void deve_retornar_400_quando_formato_recusado_pelo_servico() throws Exception {
+            when(imagemService.getTamanhoMaximo()).thenReturn(5L * 1024 * 1024);
+            when(trajeImagemService.salvarImagem(eq(1L), any()))
+                    .thenThrow(new BusinessException("Formato de imagem não suportado"));
+
+            mockMvc.perform(post("/trajes/imagem")
+                            .param("trajeId", "1")
+                            .contentType("image/png")
+                            .content(BYTES_IMAGEM)
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Formato de imagem não suportado"));
         }
     }
 
@@ -153,22 +305,20 @@ class ImagemControllerTest {
         @WithMockUser
         @DisplayName("Deve retornar 204 ao remover imagem")
         void deve_retornar_204_ao_remover_imagem() throws Exception {
-            Traje traje = criarTrajeValido();
-
-            when(trajeRepository.findById(1L)).thenReturn(Optional.of(traje));
-            when(trajeRepository.save(any())).thenReturn(traje);
-
             mockMvc.perform(delete("/trajes/imagem")
                             .param("trajeId", "1")
                             .with(csrf()))
                     .andExpect(status().isNoContent());
+
+            verify(trajeImagemService).removerImagem(1L);
         }
 
         @Test
         @WithMockUser
         @DisplayName("Deve retornar 404 quando traje nao existir")
         void deve_retornar_404_quando_traje_nao_existir() throws Exception {
-            when(trajeRepository.findById(999L)).thenReturn(Optional.empty());
+            doThrow(new ResourceNotFoundException("Traje", 999L))
+                    .when(trajeImagemService).removerImagem(999L);
 
             mockMvc.perform(delete("/trajes/imagem")
                             .param("trajeId", "999")
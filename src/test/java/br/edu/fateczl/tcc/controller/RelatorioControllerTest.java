@@ -0,0 +1,101 @@
+package br.edu.fateczl.tcc.controller;
+
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.service.RelatorioPdfService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(RelatorioController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("Testes unitários do RelatorioController")
+class RelatorioControllerTest {
+
+    private static final byte[] PDF = "%PDF-1.4 relatorio".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RelatorioPdfService relatorioPdfService;
+
+    @Test
+    void deve_retornarPdf_quando_relatorioDeTrajes() throws Exception {
+        when(relatorioPdfService.escreverRelatorioTrajes(any())).thenAnswer(invocacao -> {
+            invocacao.<OutputStream>getArgument(0).write(PDF);
+            return 1;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/relatorios/trajes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"Relatorio_Trajes.pdf\""))
+                .andExpect(content().bytes(PDF));
+    }
+
+    @Test
+    void deve_retornarPdf_quando_relatorioDeAlugueisNoPeriodo() throws Exception {
+        LocalDate inicio = LocalDate.of(2026, 5, 1);
+        LocalDate fim = LocalDate.of(2026, 5, 31);
+        when(relatorioPdfService.escreverRelatorioAlugueis(any(), any(), any())).thenAnswer(invocacao -> {
+            invocacao.<OutputStream>getArgument(2).write(PDF);
+            return 1;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/relatorios/alugueis")
+                        .param("inicio", "2026-05-01")
+                        .param("fim", "2026-05-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"Relatorio_Alugueis_2026-05-01_2026-05-31.pdf\""))
+                .andExpect(content().bytes(PDF));
+
+        verify(relatorioPdfService).validarPeriodo(inicio, fim);
+        verify(relatorioPdfService).escreverRelatorioAlugueis(any(), any(), any());
+    }
+
+    @Test
+    void deve_retornar400_quando_periodoInvertido() throws Exception {
+        LocalDate inicio = LocalDate.of(2026, 5, 31);
+        LocalDate fim = LocalDate.of(2026, 5, 1);
+        doThrow(new BusinessException("A data inicial do relatório deve ser anterior ou igual à data final"))
+                .when(relatorioPdfService).validarPeriodo(inicio, fim);
+
+        mockMvc.perform(get("/relatorios/alugueis")
+                        .param("inicio", "2026-05-31")
+                        .param("fim", "2026-05-01"))
+                .andExpect(status().isBadRequest());
+
+        verify(relatorioPdfService, never()).escreverRelatorioAlugueis(any(), any(), any());
+    }
+}
@@ -1,8 +1,13 @@
 package br.edu.fateczl.tcc.controller;
 
+import br.edu.fateczl.tcc.domain.Cliente;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.dto.traje.TrajeRequest;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.ClienteRepository;
 import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
+import br.edu.fateczl.tcc.util.ClienteDataBuilder;
 import br.edu.fateczl.tcc.util.TrajeDataBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,7 +21,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -40,6 +48,12 @@ class TrajeControllerIntegrationTest {
     @Autowired
     private TrajeRepository trajeRepository;
 
+    @Autowired
+    private AluguelRepository aluguelRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -90,6 +104,57 @@ class TrajeControllerIntegrationTest {
                 .andExpect(jsonPath("$.content.length()").value(2));
     }
 
+    @Test
+    void deve_listarSoTrajesLivres_quando_periodoInformadoIntegracao() throws Exception {
+        Traje alugado = trajeRepository.save(TrajeDataBuilder.umTraje().comId(null).comNome("Alugado").buildEntity());
+        Traje livre = trajeRepository.save(TrajeDataBuilder.umTraje().comId(null).comNome("Livre").buildEntity());
+        Cliente cliente = clienteRepository.save(ClienteDataBuilder.umCliente().comId(null).buildEntity());
+        aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                .comId(null)
+                .comDatas(LocalDate.of(2030, 5, 10), LocalDate.of(2030, 5, 12))
+                .buildEntityComItens(cliente, List.of(alugado)));
+
+        // Sobrepõe só no último dia do aluguel: o traje alugado fica de fora.
+        mockMvc.perform(get("/trajes")
+                        .param("dataRetirada", "2030-05-12")
+                        .param("dataDevolucao", "2030-05-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(livre.getId()));
+
+        mockMvc.perform(get("/trajes")
+                        .param("dataRetirada", "2030-05-13")
+                        .param("dataDevolucao", "2030-05-15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void deve_listarApenasLinkDaImagem_quando_trajesTemImagemIntegracao() throws Exception {
+        Traje comUpload = TrajeDataBuilder.umTraje().comId(null).comNome("Upload").buildEntity();
+        comUpload.setImagemHash("a".repeat(64));
+        comUpload.setImagemTipo("image/png");
+        trajeRepository.save(comUpload);
+        trajeRepository.save(TrajeDataBuilder.umTraje()
+                .comId(null)
+                .comNome("Legado")
+                .comImagemUrl("data:image/png;base64,AAAA")
+                .buildEntity());
+
+        mockMvc.perform(get("/trajes").param("busca", "Upload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].possuiImagem").value(true))
+                .andExpect(jsonPath("$.content[0].imagemUrl").value("/trajes/imagem/" + "a".repeat(64)))
+                .andExpect(jsonPath("$.content[0].imagemMiniaturaUrl")
+                        .value("/trajes/imagem/" + "a".repeat(64) + "?variante=PEQUENA"));
+
+        // Data URL legada (ainda não migrada) não trafega na listagem.
+        mockMvc.perform(get("/trajes").param("busca", "Legado"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].imagemUrl").value(nullValue()))
+                .andExpect(jsonPath("$.content[0].possuiImagem").value(false));
+    }
+
     @Test
     void deve_atualizarTraje_quando_dadosValidosIntegracao() throws Exception {
         Traje salvo = trajeRepository.save(TrajeDataBuilder.umTraje().comId(null).buildEntity());
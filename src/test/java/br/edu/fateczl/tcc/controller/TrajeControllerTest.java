@@ -1,12 +1,16 @@
 package br.edu.fateczl.tcc.controller;
 
+import br.edu.fateczl.tcc.dto.traje.CalendarioOcupacaoResponse;
+import br.edu.fateczl.tcc.dto.traje.OcupacaoTrajeResponse;
 import br.edu.fateczl.tcc.dto.traje.TrajeRequest;
 import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
 import br.edu.fateczl.tcc.enums.SexoEnum;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import br.edu.fateczl.tcc.exception.BusinessException;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.service.SimilaridadeVisualService;
 import br.edu.fateczl.tcc.service.TrajeService;
 import br.edu.fateczl.tcc.util.TrajeDataBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,6 +29,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -54,6 +59,9 @@ class TrajeControllerTest {
     @MockitoBean
     private TrajeService service;
 
+    @MockitoBean
+    private SimilaridadeVisualService similaridadeVisualService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -291,6 +299,33 @@ class TrajeControllerTest {
             verify(service).buscar(eq(StatusTraje.DISPONIVEL), eq(SexoEnum.MASCULINO),
                     eq(TipoTraje.TERNO), eq(TamanhoTraje.M), eq("terno"), any(Pageable.class));
         }
+
+        @Test
+        void deve_retornar200_quando_filtrarPorPeriodo() throws Exception {
+            LocalDate retirada = LocalDate.of(2030, 5, 10);
+            LocalDate devolucao = LocalDate.of(2030, 5, 12);
+            Page<TrajeResponse> page = new PageImpl<>(List.of(responseValido));
+            when(service.buscar(any(), any(), any(), any(), any(), eq(retirada), eq(devolucao), any(Pageable.class)))
+                    .thenReturn(page);
+
+            mockMvc.perform(get("/trajes")
+                            .param("dataRetirada", "2030-05-10")
+                            .param("dataDevolucao", "2030-05-12"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].nome").value(TrajeDataBuilder.NOME_DEFAULT));
+
+            verify(service).buscar(any(), any(), any(), any(), any(), eq(retirada), eq(devolucao), any(Pageable.class));
+            verify(service, never()).buscar(any(), any(), any(), any(), any(Pageable.class));
+        }
+
+        @Test
+        void deve_retornar400_quando_periodoIncompleto() throws Exception {
+            when(service.buscar(any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                    .thenThrow(new BusinessException("Informe a data de retirada e a data de devolução para buscar por período"));
+
+            mockMvc.perform(get("/trajes").param("dataRetirada", "2030-05-10"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -309,6 +344,39 @@ class TrajeControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Buscar similares visuais")
+    class BuscarSimilaresVisuaisTest {
+
+        @Test
+        void deve_retornar200_quando_trajeExiste() throws Exception {
+            when(similaridadeVisualService.buscarSimilares(TrajeDataBuilder.TRAJE_ID_DEFAULT, 5))
+                    .thenReturn(List.of(responseValido));
+
+            mockMvc.perform(get("/trajes/{id}/similares-visual", TrajeDataBuilder.TRAJE_ID_DEFAULT)
+                            .param("limite", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].nome").value(TrajeDataBuilder.NOME_DEFAULT));
+        }
+
+        @Test
+        void deve_usarLimitePadrao_quando_naoInformado() throws Exception {
+            mockMvc.perform(get("/trajes/{id}/similares-visual", TrajeDataBuilder.TRAJE_ID_DEFAULT))
+                    .andExpect(status().isOk());
+
+            verify(similaridadeVisualService).buscarSimilares(TrajeDataBuilder.TRAJE_ID_DEFAULT, 10);
+        }
+
+        @Test
+        void deve_retornar404_quando_trajeNaoEncontrado() throws Exception {
+            when(similaridadeVisualService.buscarSimilares(99L, 10))
+                    .thenThrow(new ResourceNotFoundException("Traje", 99L));
+
+            mockMvc.perform(get("/trajes/99/similares-visual"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     @DisplayName("Buscar por faixa de preço")
     class BuscarPorFaixaPrecoTest {
@@ -401,4 +469,40 @@ class TrajeControllerTest {
                     .andExpect(jsonPath("$.message").value("Traje com id 99 não encontrado(a)"));
         }
     }
+
+    @Nested
+    @DisplayName("Calendário de ocupação")
+    class OcupacaoTest {
+
+        private final LocalDate inicio = LocalDate.of(2030, 5, 1);
+        private final LocalDate fim = LocalDate.of(2030, 5, 31);
+
+        @Test
+        void deve_retornar200_comOcupacaoDeCadaTraje() throws Exception {
+            CalendarioOcupacaoResponse calendario = new CalendarioOcupacaoResponse(inicio, fim, 31, List.of(
+                    new OcupacaoTrajeResponse(1L, "Terno Slim Fit", "AwI=")));
+            when(service.buscarOcupacao(inicio, fim, null, TipoTraje.TERNO, TamanhoTraje.M)).thenReturn(calendario);
+
+            mockMvc.perform(get("/trajes/ocupacao")
+                            .param("inicio", "2030-05-01")
+                            .param("fim", "2030-05-31")
+                            .param("tipo", "TERNO")
+                            .param("tamanho", "M"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.dias").value(31))
+                    .andExpect(jsonPath("$.trajes[0].trajeId").value(1))
+                    .andExpect(jsonPath("$.trajes[0].ocupacao").value("AwI="));
+        }
+
+        @Test
+        void deve_retornar400_quando_intervaloInvalido() throws Exception {
+            when(service.buscarOcupacao(fim, inicio, null, null, null))
+                    .thenThrow(new BusinessException("A data inicial do calendário deve ser anterior ou igual à data final"));
+
+            mockMvc.perform(get("/trajes/ocupacao")
+                            .param("inicio", "2030-05-31")
+                            .param("fim", "2030-05-01"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
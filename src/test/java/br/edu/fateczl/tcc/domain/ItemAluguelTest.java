@@ -1,9 +1,12 @@
 package br.edu.fateczl.tcc.domain;
 
+import br.edu.fateczl.tcc.enums.StatusAluguel;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("Testes de Comportamento do ItemAluguel")
@@ -135,6 +138,42 @@ class ItemAluguelTest {
         }
     }
 
+    @Nested
+    @DisplayName("Espelho do Aluguel")
+    class EspelhoAluguel {
+
+        @Test
+        @DisplayName("Deve copiar status e periodo do aluguel")
+        void deve_copiar_status_e_periodo_do_aluguel() {
+            Aluguel aluguel = new Aluguel();
+            aluguel.setStatus(StatusAluguel.ATIVO);
+            aluguel.setDataRetirada(LocalDate.of(2030, 5, 10));
+            aluguel.setDataDevolucao(LocalDate.of(2030, 5, 12));
+            ItemAluguel itemAluguel = new ItemAluguel(1L, aluguel, new Traje());
+
+            itemAluguel.espelharAluguel();
+            aluguel.setStatus(StatusAluguel.CONCLUIDO);
+
+            assertEquals(StatusAluguel.ATIVO, itemAluguel.getStatus());
+            assertEquals(LocalDate.of(2030, 5, 10), itemAluguel.getDataRetirada());
+            assertEquals(LocalDate.of(2030, 5, 12), itemAluguel.getDataDevolucao());
+
+            itemAluguel.espelharAluguel();
+            assertEquals(StatusAluguel.CONCLUIDO, itemAluguel.getStatus());
+        }
+
+        @Test
+        @DisplayName("Deve ignorar item sem aluguel")
+        void deve_ignorar_item_sem_aluguel() {
+            ItemAluguel itemAluguel = new ItemAluguel();
+
+            itemAluguel.espelharAluguel();
+
+            assertNull(itemAluguel.getStatus());
+            assertNull(itemAluguel.getDataRetirada());
+        }
+    }
+
     @Nested
     @DisplayName("ToString")
     class ToString_ {
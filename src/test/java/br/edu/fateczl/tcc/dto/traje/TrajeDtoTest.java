@@ -98,7 +98,7 @@ class TrajeDtoTest {
                     1L, "Terno preto clássico", TamanhoTraje.M, CorTraje.PRETO,
                     TipoTraje.TERNO, SexoEnum.MASCULINO, new BigDecimal("299.90"),
                     StatusTraje.DISPONIVEL, "Terno Executivo", TecidoTraje.LA,
-                    EstampaTraje.LISA, TexturaTraje.LISO, CondicaoTraje.NOVO, null,
+                    EstampaTraje.LISA, TexturaTraje.LISO, CondicaoTraje.NOVO, null, null, false,
                     LocalDateTime.now());
 
             assertEquals(1L, response.id());
@@ -121,7 +121,7 @@ class TrajeDtoTest {
         void deveCriarTrajeResponseComCamposNulos() {
             TrajeResponse response = new TrajeResponse(
                     null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                    null);
+                    null, false, null);
 
             assertNull(response.id());
             assertNull(response.descricao());
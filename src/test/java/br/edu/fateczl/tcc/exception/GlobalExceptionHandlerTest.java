@@ -1,5 +1,9 @@
 package br.edu.fateczl.tcc.exception;
 
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
+import br.edu.fateczl.tcc.enums.StatusJobContrato;
+
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -11,6 +15,7 @@ import org.mockito.InjectMocks;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -121,4 +126,41 @@ class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody().get("message").contains("Violação de integridade de dados"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deve_retornar503_quando_filaDeTarefasCheia() {
+        TaskRejectedException ex = new TaskRejectedException("fila cheia");
+
+        ResponseEntity<Map<String, String>> response = handler.handleFilaCheia(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst("Retry-After"));
+        assertTrue(response.getBody().get("message").contains("tente novamente"));
+    }
+
+    @Test
+    void deve_retornar409ComStatus_quando_jobDeContratoEmAndamento() {
+        ContratoJobResponse job = jobContrato(StatusJobContrato.PROCESSANDO);
+
+        ResponseEntity<ContratoJobResponse> response = handler.handleContratoJobNaoConcluido(
+                new ContratoJobNaoConcluidoException("ainda não está pronto", job));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    void deve_retornar410_quando_jobDeContratoFalhou() {
+        ContratoJobResponse job = jobContrato(StatusJobContrato.FALHOU);
+
+        ResponseEntity<ContratoJobResponse> response = handler.handleContratoJobNaoConcluido(
+                new ContratoJobNaoConcluidoException("Falha ao gerar o contrato", job));
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals(job, response.getBody());
+    }
+
+    private static ContratoJobResponse jobContrato(StatusJobContrato status) {
+        return new ContratoJobResponse("job-1", 1L, status, null, LocalDateTime.of(2026, 5, 10, 14, 0), null);
+    }
+}
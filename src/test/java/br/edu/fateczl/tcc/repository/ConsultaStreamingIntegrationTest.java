@@ -0,0 +1,102 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.domain.Devolucao;
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
+import br.edu.fateczl.tcc.util.ClienteDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Consultas em streaming abertas de verdade contra o banco do perfil de
+ * teste, com o fetch size configurado para ele (o valor do MySQL é recusado
+ * pelo H2).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ConsultaStreamingIntegrationTest {
+
+    private static final LocalDate RETIRADA = LocalDate.of(2030, 3, 10);
+
+    @Autowired
+    private TrajeRepository trajeRepository;
+
+    @Autowired
+    private AluguelRepository aluguelRepository;
+
+    @Autowired
+    private DevolucaoRepository devolucaoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Traje traje;
+    private Aluguel aluguel;
+    private Devolucao devolucao;
+
+    @BeforeEach
+    void setup() {
+        Cliente cliente = clienteRepository.save(ClienteDataBuilder.umCliente().comId(null).buildEntity());
+        traje = trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null));
+        aluguel = aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                .comId(null)
+                .comDatas(RETIRADA, RETIRADA.plusDays(2))
+                .buildEntityComItens(cliente, List.of(traje)));
+        devolucao = devolucaoRepository.save(Devolucao.builder()
+                .dataDevolucao(RETIRADA.plusDays(2))
+                .valorMulta(BigDecimal.ZERO)
+                .aluguel(aluguel)
+                .build());
+    }
+
+    @Test
+    void deve_lerRelatorioDeTrajes() {
+        try (Stream<TrajeRelatorioLinha> linhas = trajeRepository.streamRelatorio()) {
+            assertTrue(linhas.map(TrajeRelatorioLinha::id).toList().contains(traje.getId()));
+        }
+    }
+
+    @Test
+    void deve_lerRelatorioDeAlugueis_soDoPeriodo() {
+        try (Stream<AluguelRelatorioLinha> linhas = aluguelRepository.streamRelatorio(RETIRADA, RETIRADA)) {
+            assertEquals(List.of(aluguel.getId()), linhas.map(AluguelRelatorioLinha::id).toList());
+        }
+        try (Stream<AluguelRelatorioLinha> linhas =
+                     aluguelRepository.streamRelatorio(RETIRADA.plusDays(1), RETIRADA.plusDays(30))) {
+            assertEquals(0, linhas.count());
+        }
+    }
+
+    @Test
+    void deve_lerExportacaoDeAlugueis() {
+        try (Stream<AluguelExportacaoLinha> linhas = aluguelRepository.streamExportacao()) {
+            assertTrue(linhas.map(AluguelExportacaoLinha::id).toList().contains(aluguel.getId()));
+        }
+    }
+
+    @Test
+    void deve_lerExportacaoDeDevolucoes() {
+        try (Stream<DevolucaoExportacaoLinha> linhas = devolucaoRepository.streamExportacao()) {
+            DevolucaoExportacaoLinha lida = linhas
+                    .filter(linha -> linha.id().equals(devolucao.getId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(aluguel.getId(), lida.aluguelId());
+        }
+    }
+}
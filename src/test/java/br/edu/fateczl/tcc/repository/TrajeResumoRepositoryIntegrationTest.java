@@ -0,0 +1,132 @@
+package br.edu.fateczl.tcc.repository;
+
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
+import br.edu.fateczl.tcc.mapper.TrajeMapper;
+import br.edu.fateczl.tcc.specification.TrajeSpecification;
+import br.edu.fateczl.tcc.util.TrajeDataBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Página de 50 trajes com imagem pela projeção {@link TrajeResumo} comparada
+ * com o caminho anterior (entidades + {@code TrajeMapper.toResponse(Traje)}).
+ *
+ * Metade dos trajes tem upload (hash no storage) e metade ainda guarda a data
+ * URL legada em {@code imagem_url}, no tamanho máximo da coluna. O tamanho do
+ * JSON da página é determinístico e verificado; o tempo de consulta +
+ * mapeamento (mediana de {@value #RODADAS} rodadas, contexto de persistência
+ * limpo a cada uma) só é registrado no log, porque no H2 em memória não
+ * representa a latência do MySQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TrajeResumoRepositoryIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TrajeResumoRepositoryIntegrationTest.class);
+
+    private static final int TRAJES = 50;
+    private static final int RODADAS = 30;
+    private static final String PREFIXO_NOME = "Medição";
+    private static final String DATA_URL = "data:image/png;base64,"
+            + "A".repeat(500 - "data:image/png;base64,".length());
+
+    @Autowired
+    private TrajeRepository trajeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Pageable pagina = PageRequest.of(0, TRAJES, Sort.by("id"));
+    private final Specification<Traje> medidos = TrajeSpecification.comNomeOuDescricao(PREFIXO_NOME);
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < TRAJES; i++) {
+            Traje traje = TrajeDataBuilder.umTraje().comId(null).comNome(PREFIXO_NOME + " " + i).buildEntity();
+            if (i % 2 == 0) {
+                traje.setImagemHash(String.format("%064x", i));
+                traje.setImagemTipo("image/png");
+            } else {
+                traje.setImagemUrl(DATA_URL);
+            }
+            trajeRepository.save(traje);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void deve_reduzirPayloadDaPagina_quando_listarPelaProjecao() throws Exception {
+        List<TrajeResponse> porEntidade = porEntidade();
+        List<TrajeResponse> porProjecao = porProjecao();
+        assertEquals(TRAJES, porEntidade.size());
+        assertEquals(porEntidade.stream().map(TrajeResponse::id).toList(),
+                porProjecao.stream().map(TrajeResponse::id).toList());
+
+        int bytesEntidade = objectMapper.writeValueAsBytes(porEntidade).length;
+        int bytesProjecao = objectMapper.writeValueAsBytes(porProjecao).length;
+
+        long nanosEntidade = medianaNanos(this::porEntidade);
+        long nanosProjecao = medianaNanos(this::porProjecao);
+        log.info("Página de {} trajes com imagem: entidade {} bytes / {} µs; projeção {} bytes / {} µs",
+                TRAJES, bytesEntidade, nanosEntidade / 1_000, bytesProjecao, nanosProjecao / 1_000);
+
+        // Cada traje legado deixa de levar a data URL em imagemUrl e em
+        // imagemMiniaturaUrl: troca "<data URL>" por null.
+        int legados = TRAJES / 2;
+        int economiaMinima = 2 * legados * (DATA_URL.length() + 2 - "null".length());
+        assertTrue(bytesEntidade - bytesProjecao >= economiaMinima,
+                "entidade=" + bytesEntidade + " projeção=" + bytesProjecao);
+    }
+
+    // ===============================
+    // HELPERS
+    // ===============================
+    private List<TrajeResponse> porEntidade() {
+        return trajeRepository.findAll(medidos, pagina).map(TrajeMapper::toResponse).getContent();
+    }
+
+    private List<TrajeResponse> porProjecao() {
+        return trajeRepository.buscarResumos(medidos, pagina).map(TrajeMapper::toResponse).getContent();
+    }
+
+    private long medianaNanos(Callable<List<TrajeResponse>> consulta) throws Exception {
+        for (int i = 0; i < RODADAS; i++) {
+            entityManager.clear();
+            consulta.call();
+        }
+        long[] tempos = new long[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            entityManager.clear();
+            long inicio = System.nanoTime();
+            consulta.call();
+            tempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tempos);
+        return tempos[RODADAS / 2];
+    }
+}
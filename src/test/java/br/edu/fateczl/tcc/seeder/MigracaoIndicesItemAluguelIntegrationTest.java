@@ -0,0 +1,47 @@
+package br.edu.fateczl.tcc.seeder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Remoção do índice substituído contra o banco do perfil de teste. Sem
+ * {@code @Transactional}: DDL confirma a transação no H2 e no MySQL, e o
+ * teste deixa o esquema como o encontrou.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MigracaoIndicesItemAluguelIntegrationTest {
+
+    private static final String SUBSTITUIDO = "idx_item_aluguel_traje";
+
+    @Autowired
+    private MigracaoIndicesItemAluguel migracao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deve_removerIndiceSubstituido_quando_bancoAindaOTem() {
+        jdbcTemplate.execute("CREATE INDEX " + SUBSTITUIDO + " ON item_aluguel (id_traje, id_aluguel)");
+        assertTrue(migracao.existe(SUBSTITUIDO));
+
+        migracao.run();
+
+        assertFalse(migracao.existe(SUBSTITUIDO));
+        assertTrue(migracao.existe("idx_item_aluguel_conflito"));
+    }
+
+    @Test
+    void deve_ignorar_quando_indiceJaNaoExiste() {
+        assertFalse(migracao.existe(SUBSTITUIDO));
+
+        assertDoesNotThrow(() -> migracao.run());
+    }
+}
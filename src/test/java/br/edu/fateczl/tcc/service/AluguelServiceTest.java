@@ -5,6 +5,7 @@ import br.edu.fateczl.tcc.domain.Cliente;
 import br.edu.fateczl.tcc.domain.ItemAluguel;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelFiltroRequest;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelPaginaResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelRequest;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelResponse;
 import br.edu.fateczl.tcc.dto.aluguel.AluguelUpdateRequest;
@@ -14,13 +15,13 @@ import br.edu.fateczl.tcc.dto.devolucao.ItemDevolucaoRequest;
 import br.edu.fateczl.tcc.enums.CondicaoTraje;
 import br.edu.fateczl.tcc.enums.StatusAluguel;
 import br.edu.fateczl.tcc.enums.StatusTraje;
-import br.edu.fateczl.tcc.enums.TipoOcasiao;
 import br.edu.fateczl.tcc.exception.BusinessException;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
 import br.edu.fateczl.tcc.repository.AluguelRepository;
 import br.edu.fateczl.tcc.repository.ClienteRepository;
 import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
 import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.storage.CacheContratos;
 import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +29,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -37,16 +39,23 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static br.edu.fateczl.tcc.util.AlugueisDataBuilder.ALUGUEL_ID_DEFAULT;
 import static br.edu.fateczl.tcc.util.AlugueisDataBuilder.CLIENTE_ID_DEFAULT;
 import static br.edu.fateczl.tcc.util.AlugueisDataBuilder.TRAJE_ID_DEFAULT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -101,6 +110,8 @@ import static org.mockito.Mockito.when;
  *   CT10 — I5 isolada (traje ALUGADO)                         → BusinessException "não está disponível"
  *   CT11 — I6 isolada (período ocupado)                       → BusinessException "alugado nesse período"
  *   CT12 — I7 isolada na borda (desconto=total+0,01)          → BusinessException "negativo"
+ *   CT35 — I5+I6 em itens diferentes do mesmo pedido          → BusinessException citando cada traje
+ *   CT36 — reserva recusada pelo livro (pedido concorrente)   → BusinessException, índice não é alterado
  *
  * =========================================================================
  * MATRIZ (método atualizar) — acrescenta duas variáveis:
@@ -117,15 +128,17 @@ import static org.mockito.Mockito.when;
  *   CT25 — V7 borda no update: desconto=null                  → sucesso, total = soma dos itens
  *
  * =========================================================================
- * Operações de leitura/remoção (buscarPorId, listarTodos, deletar) possuem
- * uma única condição de entrada (existência do ID) e são tratadas com um
- * caso V e um caso I — CT19..CT24.
+ * Operações de leitura/remoção (buscarPorId, deletar) possuem uma única
+ * condição de entrada (existência do ID) e são tratadas com um caso V e um
+ * caso I — CT19, CT20, CT23 e CT24.
  *
  * =========================================================================
- * MATRIZ (listarComFiltros) — variáveis: combinação de filtros opcionais
- *   CT26 — V típico: todos os filtros preenchidos    → Specification composta, lista mapeada
- *   CT27 — V parcial: somente status                  → Specification composta, lista mapeada
- *   CT28 — V borda: filtro totalmente nulo            → Specification inerte, lista vazia
+ * MATRIZ (listarPagina) — variáveis: cursor, limite, registros além do limite
+ *   CT37 — V: sem cursor, há mais que o limite        → página cheia + cursor do último item
+ *   CT38 — V: cursor recebido, última página          → chave decodificada, sem próximo cursor
+ *   CT39 — V: contarTotal=true                        → total pelo count da mesma Specification
+ *   CT40 — I: cursor adulterado                       → BusinessException, sem consulta
+ *   CT41 — I: limite 0 / acima do máximo              → BusinessException, sem consulta
  *
  * MATRIZ (buscarAtivoByTrajeId) — variável: existência de item ATIVO
  *   CT29 — V: existe item ATIVO                       → AluguelResponse do aluguel pai
@@ -157,6 +170,18 @@ class AluguelServiceTest {
     @Mock
     private DevolucaoService devolucaoService;
 
+    @Mock
+    private CacheContratos cacheContratos;
+
+    @Mock
+    private DisponibilidadeTrajeService disponibilidade;
+
+    @Mock
+    private ReservaTrajeService reservas;
+
+    @Mock
+    private AtrasoAluguelService atrasos;
+
     @InjectMocks
     private AluguelService service;
 
@@ -171,10 +196,10 @@ class AluguelServiceTest {
 
     private void stubarCaminhoFelizCriar() {
         when(clienteRepository.findById(CLIENTE_ID_DEFAULT)).thenReturn(Optional.of(cliente));
-        when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
-        when(itemAluguelRepository.trajeIndisponivelNoPeriodo(
-                eq(TRAJE_ID_DEFAULT), any(LocalDate.class), any(LocalDate.class), eq(null)))
-                .thenReturn(false);
+        when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT))).thenReturn(List.of(traje));
+        when(disponibilidade.indisponiveis(
+                eq(List.of(TRAJE_ID_DEFAULT)), any(LocalDate.class), any(LocalDate.class), eq(null)))
+                .thenReturn(Set.of());
     }
 
     // =========================================================
@@ -197,6 +222,10 @@ class AluguelServiceTest {
             assertEquals(StatusAluguel.ATIVO, response.status());
             assertEquals(new BigDecimal("100.00"), response.valorTotal());
             verify(aluguelRepository).save(any(Aluguel.class));
+            verify(reservas).reservar(any(Aluguel.class));
+            // aluguel novo: nada a liberar antes de reservar
+            verify(reservas, never()).liberar(any());
+            verify(disponibilidade).registrar(any(Aluguel.class));
         }
 
         @Test
@@ -253,16 +282,18 @@ class AluguelServiceTest {
                     .buildRequest();
 
             when(clienteRepository.findById(CLIENTE_ID_DEFAULT)).thenReturn(Optional.of(cliente));
-            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
-            when(trajeRepository.findById(trajeId2)).thenReturn(Optional.of(traje2));
-            when(itemAluguelRepository.trajeIndisponivelNoPeriodo(
-                    any(Long.class), any(LocalDate.class), any(LocalDate.class), eq(null)))
-                    .thenReturn(false);
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT, trajeId2))).thenReturn(List.of(traje, traje2));
+            when(disponibilidade.indisponiveis(
+                    eq(List.of(TRAJE_ID_DEFAULT, trajeId2)), any(LocalDate.class), any(LocalDate.class), eq(null)))
+                    .thenReturn(Set.of());
 
             AluguelResponse response = service.criar(request);
 
             // 100.00 + 250.50 = 350.50
             assertEquals(0, response.valorTotal().compareTo(new BigDecimal("350.50")));
+            // uma consulta para todos os trajes e uma checagem de conflito para todos
+            verify(trajeRepository, never()).findById(any());
+            verify(disponibilidade).indisponiveis(any(), any(), any(), any());
         }
 
         @Test
@@ -308,7 +339,7 @@ class AluguelServiceTest {
         void ct9_deve_lancarResourceNotFound_quando_apenasTrajeInexistente() {
             AluguelRequest request = AlugueisDataBuilder.umAluguel().buildRequest();
             when(clienteRepository.findById(CLIENTE_ID_DEFAULT)).thenReturn(Optional.of(cliente));
-            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.empty());
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT))).thenReturn(List.of());
 
             assertThrows(ResourceNotFoundException.class, () -> service.criar(request));
             verify(aluguelRepository, never()).save(any(Aluguel.class));
@@ -321,7 +352,7 @@ class AluguelServiceTest {
             Traje indisponivel = AlugueisDataBuilder.umTrajeIndisponivel(TRAJE_ID_DEFAULT);
 
             when(clienteRepository.findById(CLIENTE_ID_DEFAULT)).thenReturn(Optional.of(cliente));
-            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(indisponivel));
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT))).thenReturn(List.of(indisponivel));
 
             BusinessException ex = assertThrows(BusinessException.class, () -> service.criar(request));
             assertEquals("Traje não está disponível", ex.getMessage());
@@ -333,10 +364,10 @@ class AluguelServiceTest {
         void ct11_deve_lancarBusinessException_quando_apenasTrajeOcupadoNoPeriodo() {
             AluguelRequest request = AlugueisDataBuilder.umAluguel().buildRequest();
             when(clienteRepository.findById(CLIENTE_ID_DEFAULT)).thenReturn(Optional.of(cliente));
-            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
-            when(itemAluguelRepository.trajeIndisponivelNoPeriodo(
-                    eq(TRAJE_ID_DEFAULT), any(LocalDate.class), any(LocalDate.class), eq(null)))
-                    .thenReturn(true);
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT))).thenReturn(List.of(traje));
+            when(disponibilidade.indisponiveis(
+                    eq(List.of(TRAJE_ID_DEFAULT)), any(LocalDate.class), any(LocalDate.class), eq(null)))
+                    .thenReturn(Set.of(TRAJE_ID_DEFAULT));
 
             BusinessException ex = assertThrows(BusinessException.class, () -> service.criar(request));
             assertEquals("Traje já está alugado nesse período", ex.getMessage());
@@ -355,6 +386,46 @@ class AluguelServiceTest {
             assertEquals("O valor com desconto não pode ser negativo", ex.getMessage());
             verify(aluguelRepository, never()).save(any(Aluguel.class));
         }
+
+        @Test
+        @DisplayName("CT35 — I5+I6: todos os itens indisponíveis são reportados juntos")
+        void ct35_deve_reportarTodosOsTrajesIndisponiveis_quando_variosItensFalham() {
+            Long alugadoId = 11L;
+            Long ocupadoId = 12L;
+            AluguelRequest request = AlugueisDataBuilder.umAluguel()
+                    .comItens(TRAJE_ID_DEFAULT, alugadoId, ocupadoId)
+                    .buildRequest();
+            when(clienteRepository.findById(CLIENTE_ID_DEFAULT)).thenReturn(Optional.of(cliente));
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT, alugadoId, ocupadoId))).thenReturn(List.of(
+                    traje,
+                    AlugueisDataBuilder.umTrajeIndisponivel(alugadoId),
+                    AlugueisDataBuilder.umTrajeDisponivel(ocupadoId)));
+            // só os trajes com status DISPONIVEL vão para a checagem de período
+            when(disponibilidade.indisponiveis(
+                    eq(List.of(TRAJE_ID_DEFAULT, ocupadoId)), any(LocalDate.class), any(LocalDate.class), eq(null)))
+                    .thenReturn(Set.of(ocupadoId));
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> service.criar(request));
+
+            assertTrue(ex.getMessage().contains("(id 11) não está disponível"), "msg=" + ex.getMessage());
+            assertTrue(ex.getMessage().contains("(id 12) já está alugado nesse período"), "msg=" + ex.getMessage());
+            assertFalse(ex.getMessage().contains("(id 10)"), "msg=" + ex.getMessage());
+            verify(aluguelRepository, never()).save(any(Aluguel.class));
+        }
+
+        @Test
+        @DisplayName("CT36 — livro de reservas recusa o período já gravado por outro pedido")
+        void ct36_deve_lancarBusinessException_quando_livroDeReservasRecusa() {
+            AluguelRequest request = AlugueisDataBuilder.umAluguel().buildRequest();
+            stubarCaminhoFelizCriar();
+            doThrow(new BusinessException("Traje já está alugado nesse período"))
+                    .when(reservas).reservar(any(Aluguel.class));
+
+            BusinessException ex = assertThrows(BusinessException.class, () -> service.criar(request));
+
+            assertTrue(ex.getMessage().contains("alugado nesse período"));
+            verify(disponibilidade, never()).registrar(any(Aluguel.class));
+        }
     }
 
     // =========================================================
@@ -375,10 +446,10 @@ class AluguelServiceTest {
 
         private void stubarCaminhoFelizAtualizar() {
             when(aluguelRepository.findById(ALUGUEL_ID_DEFAULT)).thenReturn(Optional.of(aluguelAtivo));
-            when(itemAluguelRepository.trajeIndisponivelNoPeriodo(
-                    eq(TRAJE_ID_DEFAULT), any(LocalDate.class), any(LocalDate.class), eq(ALUGUEL_ID_DEFAULT)))
-                    .thenReturn(false);
-            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT))).thenReturn(List.of(traje));
+            when(disponibilidade.indisponiveis(
+                    eq(List.of(TRAJE_ID_DEFAULT)), any(LocalDate.class), any(LocalDate.class), eq(ALUGUEL_ID_DEFAULT)))
+                    .thenReturn(Set.of());
         }
 
         @Test
@@ -413,6 +484,21 @@ class AluguelServiceTest {
             // setValorTotal precisa ter sido chamado: 100.00 - 20.00 = 80.00
             assertEquals(0, response.valorTotal().compareTo(new BigDecimal("80.00")));
             verify(aluguelRepository).save(any(Aluguel.class));
+            // contrato impresso antes da alteração deixa de ser servido
+            verify(cacheContratos).invalidar(ALUGUEL_ID_DEFAULT);
+            // itens novos levam a cópia do novo período
+            assertEquals(novaRetirada, aluguelAtivo.getItens().get(0).getDataRetirada());
+            assertEquals(novaDevolucao, aluguelAtivo.getItens().get(0).getDataDevolucao());
+            // livro de reservas e índice de disponibilidade passam a ter o novo período
+            InOrder livro = inOrder(reservas);
+            livro.verify(reservas).liberar(ALUGUEL_ID_DEFAULT);
+            livro.verify(reservas).reservar(aluguelAtivo);
+            verify(disponibilidade).registrar(aluguelAtivo);
+            // nova devolução: sai da lista de atrasados até o próximo cálculo
+            verify(atrasos).remover(ALUGUEL_ID_DEFAULT);
+            // conflito checado uma única vez, já com as novas datas
+            verify(disponibilidade).indisponiveis(
+                    List.of(TRAJE_ID_DEFAULT), novaRetirada, novaDevolucao, ALUGUEL_ID_DEFAULT);
         }
 
         @Test
@@ -459,9 +545,10 @@ class AluguelServiceTest {
         void ct17_deve_lancarBusinessException_quando_apenasTrajeOcupadoNoPeriodo() {
             AluguelUpdateRequest request = AlugueisDataBuilder.umAluguel().buildUpdateRequest();
             when(aluguelRepository.findById(ALUGUEL_ID_DEFAULT)).thenReturn(Optional.of(aluguelAtivo));
-            when(itemAluguelRepository.trajeIndisponivelNoPeriodo(
-                    eq(TRAJE_ID_DEFAULT), any(LocalDate.class), any(LocalDate.class), eq(ALUGUEL_ID_DEFAULT)))
-                    .thenReturn(true);
+            when(trajeRepository.findAllById(List.of(TRAJE_ID_DEFAULT))).thenReturn(List.of(traje));
+            when(disponibilidade.indisponiveis(
+                    eq(List.of(TRAJE_ID_DEFAULT)), any(LocalDate.class), any(LocalDate.class), eq(ALUGUEL_ID_DEFAULT)))
+                    .thenReturn(Set.of(TRAJE_ID_DEFAULT));
 
             BusinessException ex = assertThrows(BusinessException.class,
                     () -> service.atualizar(ALUGUEL_ID_DEFAULT, request));
@@ -509,7 +596,7 @@ class AluguelServiceTest {
         @DisplayName("CT19 — V: ID existe")
         void ct19_deve_retornar_quando_idExiste() {
             Aluguel aluguel = AlugueisDataBuilder.umAluguel().buildEntity(cliente);
-            when(aluguelRepository.findById(ALUGUEL_ID_DEFAULT)).thenReturn(Optional.of(aluguel));
+            when(aluguelRepository.findWithRelacionamentosById(ALUGUEL_ID_DEFAULT)).thenReturn(Optional.of(aluguel));
 
             AluguelResponse response = service.buscarPorId(ALUGUEL_ID_DEFAULT);
 
@@ -520,41 +607,12 @@ class AluguelServiceTest {
         @Test
         @DisplayName("CT20 — I: ID inexistente")
         void ct20_deve_lancarResourceNotFound_quando_idInexistente() {
-            when(aluguelRepository.findById(99L)).thenReturn(Optional.empty());
+            when(aluguelRepository.findWithRelacionamentosById(99L)).thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () -> service.buscarPorId(99L));
         }
     }
 
-    // =========================================================
-    // LISTAR TODOS — CT21, CT22
-    // =========================================================
-    @Nested
-    @DisplayName("Listar Todos — matriz TFS")
-    class ListarTodos {
-
-        @Test
-        @DisplayName("CT21 — V típico: existe pelo menos 1 aluguel")
-        void ct21_deve_retornarLista_quando_existemAlugueis() {
-            Aluguel aluguel = AlugueisDataBuilder.umAluguel().buildEntity(cliente);
-            when(aluguelRepository.findAll()).thenReturn(List.of(aluguel));
-
-            List<AluguelResponse> responses = service.listarTodos();
-
-            assertEquals(1, responses.size());
-        }
-
-        @Test
-        @DisplayName("CT22 — V borda inferior: nenhum aluguel cadastrado")
-        void ct22_deve_retornarListaVazia_quando_nenhumAluguel() {
-            when(aluguelRepository.findAll()).thenReturn(List.of());
-
-            List<AluguelResponse> responses = service.listarTodos();
-
-            assertTrue(responses.isEmpty());
-        }
-    }
-
     // =========================================================
     // DELETAR — CT23, CT24
     // =========================================================
@@ -571,6 +629,10 @@ class AluguelServiceTest {
             service.deletar(ALUGUEL_ID_DEFAULT);
 
             verify(aluguelRepository).delete(aluguel);
+            verify(cacheContratos).invalidar(ALUGUEL_ID_DEFAULT);
+            verify(reservas).liberar(ALUGUEL_ID_DEFAULT);
+            verify(disponibilidade).remover(ALUGUEL_ID_DEFAULT);
+            verify(atrasos).remover(ALUGUEL_ID_DEFAULT);
         }
 
         @Test
@@ -580,62 +642,93 @@ class AluguelServiceTest {
 
             assertThrows(ResourceNotFoundException.class, () -> service.deletar(99L));
             verify(aluguelRepository, never()).delete(any(Aluguel.class));
+            verify(cacheContratos, never()).invalidar(any());
+            verify(reservas, never()).liberar(any());
+            verify(disponibilidade, never()).remover(any());
+            verify(atrasos, never()).remover(any());
         }
     }
 
     // =========================================================
-    // LISTAR COM FILTROS — CT26..CT28
+    // LISTAR PÁGINA POR CURSOR — CT37..CT41
     // =========================================================
     @Nested
-    @DisplayName("Listar com filtros — matriz TFS")
-    class ListarComFiltros {
+    @DisplayName("Listar página por cursor — matriz TFS")
+    class ListarPagina {
+
+        private final AluguelFiltroRequest semFiltro = new AluguelFiltroRequest(null, null, null, null, null);
+        private final LocalDate retirada = LocalDate.of(2030, 4, 1);
+
+        private Aluguel aluguel(Long id) {
+            return AlugueisDataBuilder.umAluguel().comId(id).comDatas(retirada, retirada.plusDays(2)).buildEntity(cliente);
+        }
 
         @Test
-        @DisplayName("CT26 — V típico: todos os filtros preenchidos compõem Specification e retornam lista mapeada")
+        @DisplayName("CT37 — busca limite+1 e devolve o cursor do último item da página")
         @SuppressWarnings("unchecked")
-        void ct26_deve_listar_quando_todosFiltrosPreenchidos() {
-            AluguelFiltroRequest filtro = new AluguelFiltroRequest(
-                    StatusAluguel.ATIVO,
-                    "Maria",
-                    LocalDate.now(),
-                    LocalDate.now().plusDays(10),
-                    TipoOcasiao.CASAMENTO);
-            Aluguel a1 = AlugueisDataBuilder.umAluguel().comId(1L).buildEntity(cliente);
-            Aluguel a2 = AlugueisDataBuilder.umAluguel().comId(2L).buildEntity(cliente);
-            when(aluguelRepository.findAll(any(Specification.class))).thenReturn(List.of(a1, a2));
+        void ct37_deve_devolverProximoCursor_quando_haMaisQueOLimite() {
+            when(aluguelRepository.buscarIdsPaginaApos(any(Specification.class), isNull(), isNull(), eq(3)))
+                    .thenReturn(List.of(1L, 2L, 3L));
+            // o IN pode devolver em qualquer ordem e não inclui o registro extra
+            when(aluguelRepository.findWithRelacionamentosByIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(aluguel(2L), aluguel(1L)));
 
-            List<AluguelResponse> responses = service.listarComFiltros(filtro);
+            AluguelPaginaResponse pagina = service.listarPagina(semFiltro, null, 2, false);
 
-            // mata mutante linha 174 (return Collections.emptyList): emptyList tem size==0
-            assertEquals(2, responses.size());
-            assertEquals(1L, responses.get(0).id());
-            assertEquals(2L, responses.get(1).id());
+            assertEquals(2, pagina.itens().size());
+            assertEquals(1L, pagina.itens().get(0).id());
+            assertEquals(2L, pagina.itens().get(1).id());
+            assertEquals(new CursorAluguel(retirada, 2L), CursorAluguel.decodificar(pagina.proximoCursor()));
+            assertNull(pagina.total());
+            verify(aluguelRepository, never()).count(any(Specification.class));
         }
 
         @Test
-        @DisplayName("CT27 — V parcial: somente status preenchido")
+        @DisplayName("CT38 — cursor recebido vira a chave da busca; última página sem cursor")
         @SuppressWarnings("unchecked")
-        void ct27_deve_listar_quando_apenasStatus() {
-            AluguelFiltroRequest filtro = new AluguelFiltroRequest(
-                    StatusAluguel.ATIVO, null, null, null, null);
-            when(aluguelRepository.findAll(any(Specification.class)))
-                    .thenReturn(List.of(AlugueisDataBuilder.umAluguel().buildEntity(cliente)));
+        void ct38_deve_buscarAposChave_quando_cursorInformado() {
+            String cursor = new CursorAluguel(retirada, 2L).codificar();
+            when(aluguelRepository.buscarIdsPaginaApos(any(Specification.class), eq(retirada), eq(2L), eq(3)))
+                    .thenReturn(List.of(3L));
+            when(aluguelRepository.findWithRelacionamentosByIdIn(List.of(3L))).thenReturn(List.of(aluguel(3L)));
 
-            List<AluguelResponse> responses = service.listarComFiltros(filtro);
+            AluguelPaginaResponse pagina = service.listarPagina(semFiltro, cursor, 2, false);
 
-            assertEquals(1, responses.size());
+            assertEquals(1, pagina.itens().size());
+            assertNull(pagina.proximoCursor());
         }
 
         @Test
-        @DisplayName("CT28 — V borda: filtro totalmente nulo")
+        @DisplayName("CT39 — contarTotal faz o count com os mesmos filtros")
         @SuppressWarnings("unchecked")
-        void ct28_deve_listar_quando_filtroTodoNulo() {
-            AluguelFiltroRequest filtro = new AluguelFiltroRequest(null, null, null, null, null);
-            when(aluguelRepository.findAll(any(Specification.class))).thenReturn(List.of());
+        void ct39_deve_contarTotal_quando_pedido() {
+            when(aluguelRepository.buscarIdsPaginaApos(any(Specification.class), isNull(), isNull(), eq(21)))
+                    .thenReturn(List.of(1L));
+            when(aluguelRepository.findWithRelacionamentosByIdIn(List.of(1L))).thenReturn(List.of(aluguel(1L)));
+            when(aluguelRepository.count(any(Specification.class))).thenReturn(1L);
+
+            AluguelPaginaResponse pagina = service.listarPagina(semFiltro, null, 20, true);
+
+            assertEquals(1L, pagina.total());
+        }
 
-            List<AluguelResponse> responses = service.listarComFiltros(filtro);
+        @Test
+        @DisplayName("CT40 — cursor adulterado é recusado")
+        @SuppressWarnings("unchecked")
+        void ct40_deve_lancarBusinessException_quando_cursorInvalido() {
+            assertThrows(BusinessException.class, () -> service.listarPagina(semFiltro, "@@@", 20, false));
+            assertThrows(BusinessException.class, () -> service.listarPagina(semFiltro, "bm9wZQ", 20, false));
+            verify(aluguelRepository, never()).buscarIdsPaginaApos(any(Specification.class), any(), any(), anyInt());
+        }
 
-            assertTrue(responses.isEmpty());
+        @Test
+        @DisplayName("CT41 — limite fora de 1..100 é recusado")
+        @SuppressWarnings("unchecked")
+        void ct41_deve_lancarBusinessException_quando_limiteForaDoIntervalo() {
+            assertThrows(BusinessException.class, () -> service.listarPagina(semFiltro, null, 0, false));
+            assertThrows(BusinessException.class,
+                    () -> service.listarPagina(semFiltro, null, AluguelService.MAX_LIMITE_PAGINA + 1, false));
+            verify(aluguelRepository, never()).buscarIdsPaginaApos(any(Specification.class), any(), any(), anyInt());
         }
     }
 
@@ -691,7 +784,7 @@ class AluguelServiceTest {
         void setUpAtivo() {
             ativo = AlugueisDataBuilder.umAluguel()
                     .comStatus(StatusAluguel.ATIVO)
-                    .buildEntity(cliente);
+                    .buildEntityComItens(cliente, List.of(traje));
         }
 
         @Test
@@ -726,6 +819,13 @@ class AluguelServiceTest {
             ArgumentCaptor<Aluguel> aluguelCaptor = ArgumentCaptor.forClass(Aluguel.class);
             verify(aluguelRepository).save(aluguelCaptor.capture());
             assertEquals(StatusAluguel.CONCLUIDO, aluguelCaptor.getValue().getStatus());
+            // a cópia no item também, senão a checagem de conflito ainda o veria ATIVO
+            assertEquals(StatusAluguel.CONCLUIDO, ativo.getItens().get(0).getStatus());
+            // o período deixa de bloquear o traje
+            verify(reservas).liberar(ALUGUEL_ID_DEFAULT);
+            verify(disponibilidade).registrar(ativo);
+            // devolvido deixa de constar como atrasado
+            verify(atrasos).remover(ALUGUEL_ID_DEFAULT);
         }
 
         @Test
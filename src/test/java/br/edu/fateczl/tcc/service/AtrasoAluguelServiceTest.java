@@ -0,0 +1,172 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.AluguelAtrasado;
+import br.edu.fateczl.tcc.dto.aluguel.AtrasosNovosResponse;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.repository.AluguelAtrasadoRepository;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.AtrasoAluguel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — recalcular / novos
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)                    | Classes Inválidas (I)
+ *   --------------------------------|----------------------------------------|----------------------
+ *   C1: aluguel vencido hoje        | V1a já na tabela / V1b ainda não       | —
+ *   C2: linha na tabela             | V2a ainda vencido / V2b resolvido      | —
+ *   C3: limite do feed              | V3 1..500                              | I3a 0 / I3b 501
+ *   C4: novidades após o cursor     | V4a há / V4b não há                    | —
+ *
+ *   CT1 — V1b: vencido há 3 dias, tabela vazia       → grava 1 linha com diasAtraso=3
+ *   CT2 — V1a+V2a: continua vencido                  → só atualiza os dias, mantém detectadoEm
+ *   CT3 — V2b: linha de aluguel já resolvido         → apaga a linha
+ *   CT4 — V3+V4a: feed com novidades                 → cursor = id do último item
+ *   CT5 — V4b, desde=null: feed sem novidades        → cursor 0, lista vazia
+ *   CT6 — I3a/I3b: limite fora de 1..500             → BusinessException, sem consulta
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - AtrasoAluguelService (Teste Funcional Sistemático)")
+class AtrasoAluguelServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.now();
+    private static final LocalDateTime DETECTADO = LocalDateTime.of(2030, 1, 1, 0, 5);
+
+    @Mock
+    private AluguelRepository aluguelRepository;
+
+    @Mock
+    private AluguelAtrasadoRepository atrasadoRepository;
+
+    @InjectMocks
+    private AtrasoAluguelService service;
+
+    private static AtrasoAluguel atraso(Long aluguelId, int dias) {
+        return new AtrasoAluguel(aluguelId, 1L, "Maria", HOJE.minusDays(dias));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AluguelAtrasado> gravados() {
+        ArgumentCaptor<List<AluguelAtrasado>> captor = ArgumentCaptor.forClass(List.class);
+        verify(atrasadoRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AluguelAtrasado> apagados() {
+        ArgumentCaptor<Iterable<AluguelAtrasado>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(atrasadoRepository).deleteAllInBatch(captor.capture());
+        return List.copyOf((Collection<AluguelAtrasado>) captor.getValue());
+    }
+
+    @Test
+    @DisplayName("CT1 — aluguel vencido ainda fora da tabela entra com os dias de atraso")
+    void ct1_deve_gravarAtraso_quando_aluguelVencidoNovo() {
+        when(atrasadoRepository.findAll()).thenReturn(List.of());
+        when(aluguelRepository.findAtrasosEm(HOJE)).thenReturn(List.of(atraso(10L, 3)));
+
+        service.recalcular();
+
+        List<AluguelAtrasado> novos = gravados();
+        assertEquals(1, novos.size());
+        assertEquals(10L, novos.get(0).getAluguelId());
+        assertEquals(3, novos.get(0).getDiasAtraso());
+        assertEquals("Maria", novos.get(0).getNomeCliente());
+        assertTrue(apagados().isEmpty());
+    }
+
+    @Test
+    @DisplayName("CT2 — atraso que continua só tem os dias recalculados")
+    void ct2_deve_atualizarDias_quando_atrasoContinua() {
+        AluguelAtrasado anterior = new AluguelAtrasado(10L, 1L, "Maria", HOJE.minusDays(4), 3, DETECTADO);
+        when(atrasadoRepository.findAll()).thenReturn(List.of(anterior));
+        when(aluguelRepository.findAtrasosEm(HOJE)).thenReturn(List.of(atraso(10L, 4)));
+
+        service.recalcular();
+
+        assertEquals(4, anterior.getDiasAtraso());
+        assertEquals(DETECTADO, anterior.getDetectadoEm());
+        // não volta ao fim do feed de novidades
+        assertTrue(gravados().isEmpty());
+        assertTrue(apagados().isEmpty());
+    }
+
+    @Test
+    @DisplayName("CT3 — aluguel que deixou de estar vencido sai da tabela")
+    void ct3_deve_apagarLinha_quando_atrasoResolvido() {
+        AluguelAtrasado resolvido = new AluguelAtrasado(10L, 1L, "Maria", HOJE.minusDays(2), 1, DETECTADO);
+        when(atrasadoRepository.findAll()).thenReturn(List.of(resolvido));
+        when(aluguelRepository.findAtrasosEm(HOJE)).thenReturn(List.of());
+
+        service.recalcular();
+
+        List<AluguelAtrasado> apagados = apagados();
+        assertEquals(1, apagados.size());
+        assertSame(resolvido, apagados.get(0));
+        assertTrue(gravados().isEmpty());
+    }
+
+    @Test
+    @DisplayName("CT4 — feed com novidades devolve o id do último item como cursor")
+    void ct4_deve_avancarCursor_quando_haNovidades() {
+        AluguelAtrasado primeiro = mock(AluguelAtrasado.class);
+        AluguelAtrasado segundo = mock(AluguelAtrasado.class);
+        when(primeiro.getId()).thenReturn(6L);
+        when(segundo.getId()).thenReturn(9L);
+        when(atrasadoRepository.findByIdGreaterThanOrderByIdAsc(5L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(primeiro, segundo));
+
+        AtrasosNovosResponse response = service.novos(5L, 2);
+
+        assertEquals(2, response.itens().size());
+        assertEquals(9L, response.cursor());
+    }
+
+    @Test
+    @DisplayName("CT5 — feed sem novidades e sem cursor devolve cursor 0")
+    void ct5_deve_manterCursor_quando_semNovidades() {
+        when(atrasadoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(100)))
+                .thenReturn(List.of());
+
+        AtrasosNovosResponse response = service.novos(null, 100);
+
+        assertTrue(response.itens().isEmpty());
+        assertEquals(0L, response.cursor());
+    }
+
+    @Test
+    @DisplayName("CT6 — limite fora de 1..500 é recusado")
+    void ct6_deve_lancarBusinessException_quando_limiteForaDoIntervalo() {
+        assertThrows(BusinessException.class, () -> service.novos(0L, 0));
+        assertThrows(BusinessException.class,
+                () -> service.novos(0L, AtrasoAluguelService.MAX_LIMITE_NOVOS + 1));
+        verify(atrasadoRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+    }
+}
@@ -0,0 +1,253 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.dto.aluguel.ContratoJobResponse;
+import br.edu.fateczl.tcc.enums.StatusJobContrato;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ContratoJobNaoConcluidoException;
+import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.storage.CacheContratos;
+import br.edu.fateczl.tcc.storage.ContratoPdf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — enfileirar / consultar / baixar
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)               | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------------|----------------------
+ *   C1: aluguel                     | V1 existente                      | I1 inexistente
+ *   C2: renderização                | V2 concluída                      | I2 falha (dados incompletos)
+ *   C3: fila do executor            | V3 com vaga                       | I3 cheia
+ *   C4: job do mesmo aluguel        | V4a nenhum / V4b em andamento     | —
+ *   C5: contrato no cache           | V5 presente                       | I5 invalidado
+ *   C6: job consultado              | V6 registrado                     | I6 inexistente ou expirado
+ *
+ *   CT1 — I1: aluguel inexistente                 → ResourceNotFoundException, nada enfileirado
+ *   CT2 — V1+V2+V3: job processado                → Concluído, download com os bytes do cache
+ *   CT3 — I2: renderização falha                  → Falhou com a mensagem; download recusado com o job
+ *   CT4 — V4b: pedido repetido com job pendente   → mesmo job, uma única tarefa no executor
+ *   CT5 — I3: fila cheia                          → TaskRejectedException, job não fica registrado
+ *   CT6 — V4b: download antes de concluir         → ContratoJobNaoConcluidoException com status Pendente
+ *   CT7 — I5: cache invalidado após a geração     → BusinessException "não encontrado"
+ *   CT8 — I6: retenção vencida                    → job finalizado some no pedido seguinte
+ *   CT9 — I6: id desconhecido                     → BusinessException "não encontrado"
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - ContratoJobService (Teste Funcional Sistemático)")
+class ContratoJobServiceTest {
+
+    private static final Long ALUGUEL_ID = 100L;
+    private static final String VERSAO = "0123456789abcdef0123456789abcdef";
+    private static final byte[] PDF = "%PDF-1.4 contrato".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private AluguelRepository aluguelRepository;
+
+    @Mock
+    private ContratoPdfService contratoPdfService;
+
+    @Mock
+    private CacheContratos cacheContratos;
+
+    private List<Runnable> pendentes;
+
+    @BeforeEach
+    void setUp() {
+        pendentes = new ArrayList<>();
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private ContratoJobService servico(TaskExecutor executor) {
+        return servico(executor, Duration.ofMinutes(30));
+    }
+
+    private ContratoJobService servico(TaskExecutor executor, Duration retencao) {
+        return new ContratoJobService(aluguelRepository, contratoPdfService, cacheContratos, executor, retencao);
+    }
+
+    /** Guarda as tarefas sem executar, deixando os jobs pendentes. */
+    private TaskExecutor executorParado() {
+        return pendentes::add;
+    }
+
+    private void stubarAluguelExistente() {
+        when(aluguelRepository.existsById(ALUGUEL_ID)).thenReturn(true);
+    }
+
+    private void stubarRenderizacao() {
+        when(contratoPdfService.buscarContrato(ALUGUEL_ID))
+                .thenReturn(new ContratoPdf(ALUGUEL_ID, VERSAO, saida -> saida.write(PDF)));
+    }
+
+    private static byte[] escrever(ContratoPdf contrato) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        contrato.escreverEm(saida);
+        return saida.toByteArray();
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — I1: aluguel inexistente não entra na fila")
+    void ct1_deve_lancarResourceNotFound_quando_aluguelInexistente() {
+        ContratoJobService service = servico(executorParado());
+        when(aluguelRepository.existsById(ALUGUEL_ID)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.enfileirar(ALUGUEL_ID));
+        assertTrue(pendentes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("CT2 — V1+V2+V3: job concluído e download servido do cache")
+    void ct2_deve_concluirEServirDoCache_quando_renderizacaoOk() throws IOException {
+        ContratoJobService service = servico(new SyncTaskExecutor());
+        stubarAluguelExistente();
+        stubarRenderizacao();
+        when(cacheContratos.buscar(ALUGUEL_ID, VERSAO)).thenReturn(Optional.of(PDF));
+
+        ContratoJobResponse pedido = service.enfileirar(ALUGUEL_ID);
+        ContratoJobResponse consultado = service.consultar(pedido.id());
+        ContratoPdf contrato = service.baixar(pedido.id());
+
+        assertEquals(StatusJobContrato.CONCLUIDO, consultado.status());
+        assertNotNull(consultado.finalizadoEm());
+        assertEquals(VERSAO, contrato.versao());
+        assertArrayEquals(PDF, escrever(contrato));
+    }
+
+    @Test
+    @DisplayName("CT3 — I2: falha na renderização fica registrada no job")
+    void ct3_deve_registrarFalha_quando_renderizacaoFalha() {
+        ContratoJobService service = servico(new SyncTaskExecutor());
+        stubarAluguelExistente();
+        when(contratoPdfService.buscarContrato(ALUGUEL_ID))
+                .thenThrow(new IllegalStateException("Aluguel 100 não possui itens"));
+
+        String jobId = service.enfileirar(ALUGUEL_ID).id();
+        ContratoJobResponse consultado = service.consultar(jobId);
+
+        assertEquals(StatusJobContrato.FALHOU, consultado.status());
+        assertEquals("Aluguel 100 não possui itens", consultado.erro());
+        ContratoJobNaoConcluidoException ex =
+                assertThrows(ContratoJobNaoConcluidoException.class, () -> service.baixar(jobId));
+        assertTrue(ex.getMessage().contains("não possui itens"), "msg=" + ex.getMessage());
+        assertEquals(StatusJobContrato.FALHOU, ex.getJob().status());
+    }
+
+    @Test
+    @DisplayName("CT4 — V4b: pedir de novo com job pendente devolve o mesmo job")
+    void ct4_deve_reaproveitarJob_quando_aluguelJaEstaNaFila() {
+        ContratoJobService service = servico(executorParado());
+        stubarAluguelExistente();
+
+        ContratoJobResponse primeiro = service.enfileirar(ALUGUEL_ID);
+        ContratoJobResponse segundo = service.enfileirar(ALUGUEL_ID);
+
+        assertEquals(primeiro.id(), segundo.id());
+        assertEquals(StatusJobContrato.PENDENTE, segundo.status());
+        assertEquals(1, pendentes.size());
+    }
+
+    @Test
+    @DisplayName("CT5 — I3: fila cheia recusa o pedido sem deixar job registrado")
+    void ct5_deve_propagarRecusa_quando_filaCheia() {
+        ContratoJobService service = servico(tarefa -> {
+            throw new TaskRejectedException("fila cheia");
+        });
+        stubarAluguelExistente();
+
+        assertThrows(TaskRejectedException.class, () -> service.enfileirar(ALUGUEL_ID));
+
+        // O aluguel não fica preso a um job que nunca vai rodar.
+        assertThrows(TaskRejectedException.class, () -> service.enfileirar(ALUGUEL_ID));
+        verify(contratoPdfService, never()).buscarContrato(ALUGUEL_ID);
+    }
+
+    @Test
+    @DisplayName("CT6 — V4b: download antes de concluir é recusado")
+    void ct6_deve_recusarDownload_quando_jobPendente() {
+        ContratoJobService service = servico(executorParado());
+        stubarAluguelExistente();
+        String jobId = service.enfileirar(ALUGUEL_ID).id();
+
+        ContratoJobNaoConcluidoException ex =
+                assertThrows(ContratoJobNaoConcluidoException.class, () -> service.baixar(jobId));
+
+        assertTrue(ex.getMessage().contains("ainda não está pronto"), "msg=" + ex.getMessage());
+        assertEquals(StatusJobContrato.PENDENTE, ex.getJob().status());
+        verify(cacheContratos, never()).buscar(ALUGUEL_ID, VERSAO);
+    }
+
+    @Test
+    @DisplayName("CT7 — I5: contrato invalidado depois da geração")
+    void ct7_deve_lancarNaoEncontrado_quando_cacheInvalidado() {
+        ContratoJobService service = servico(new SyncTaskExecutor());
+        stubarAluguelExistente();
+        stubarRenderizacao();
+        when(cacheContratos.buscar(ALUGUEL_ID, VERSAO)).thenReturn(Optional.empty());
+        String jobId = service.enfileirar(ALUGUEL_ID).id();
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.baixar(jobId));
+
+        assertTrue(ex.getMessage().contains("não encontrado"), "msg=" + ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("CT8 — I6: job finalizado sai do registro depois da retenção")
+    void ct8_deve_descartarJobFinalizado_quando_retencaoVencida() {
+        ContratoJobService service = servico(new SyncTaskExecutor(), Duration.ZERO);
+        stubarAluguelExistente();
+        stubarRenderizacao();
+        String primeiro = service.enfileirar(ALUGUEL_ID).id();
+
+        String segundo = service.enfileirar(ALUGUEL_ID).id();
+
+        assertNotEquals(primeiro, segundo, "job finalizado não deveria ser reaproveitado");
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.consultar(primeiro));
+        assertTrue(ex.getMessage().contains("não encontrado"), "msg=" + ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("CT9 — I6: id desconhecido")
+    void ct9_deve_lancarNaoEncontrado_quando_jobDesconhecido() {
+        ContratoJobService service = servico(executorParado());
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.consultar("desconhecido"));
+
+        assertTrue(ex.getMessage().contains("não encontrado"), "msg=" + ex.getMessage());
+    }
+}
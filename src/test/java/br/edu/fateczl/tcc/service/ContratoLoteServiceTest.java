@@ -0,0 +1,245 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.dto.aluguel.AluguelFiltroRequest;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — exportar
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: aluguéis no filtro          | V1a nenhum / V1b > 1 lote   | —
+ *   C2: contrato de cada aluguel    | V2 gerado                   | I2 dados incompletos
+ *   C3: configuração                | V3 lote e concorrência ≥ 1  | I3 zero
+ *
+ *   CT1 — V1b+V2: 3 aluguéis em lotes de 2        → 3 PDFs, cursor avança pelo último id
+ *   CT2 — V1a: nenhum aluguel                     → ZIP vazio, sem carregar grafo
+ *   CT3 — I2: um contrato falha                   → demais no ZIP, falha listada em erros.txt
+ *   CT4 — V2: entradas                            → STORED, nome Contrato_Aluguel_<id>.pdf
+ *   CT5 — concorrência 2 com 5 aluguéis           → nunca mais de 2 renderizações simultâneas
+ *   CT6 — saída da resposta                       → não é fechada pelo serviço
+ *   CT7 — I3 borda: concorrência 0                → IllegalArgumentException
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - ContratoLoteService (Teste Funcional Sistemático)")
+class ContratoLoteServiceTest {
+
+    private static final AluguelFiltroRequest FILTRO =
+            new AluguelFiltroRequest(StatusAluguel.ATIVO, null, null, null, null);
+
+    @Mock
+    private AluguelRepository aluguelRepository;
+
+    @Mock
+    private ContratoPdfService contratoPdfService;
+
+    private ContratoLoteService service;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        service = new ContratoLoteService(aluguelRepository, contratoPdfService, 2, 2);
+        cliente = AlugueisDataBuilder.umClienteExistente(1L);
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private Aluguel aluguel(Long id) {
+        return AlugueisDataBuilder.umAluguel().comId(id).buildEntity(cliente);
+    }
+
+    /** Lotes de ids na ordem em que o repositório os devolve; o último lote vem incompleto. */
+    private void stubarLotes(List<List<Long>> lotes) {
+        Long ultimo = null;
+        for (List<Long> lote : lotes) {
+            if (ultimo == null) {
+                when(aluguelRepository.buscarIdsApos(any(), isNull(), eq(2))).thenReturn(lote);
+            } else {
+                when(aluguelRepository.buscarIdsApos(any(), eq(ultimo), eq(2))).thenReturn(lote);
+            }
+            when(aluguelRepository.findWithRelacionamentosByIdIn(lote))
+                    .thenReturn(lote.stream().map(this::aluguel).toList());
+            ultimo = lote.get(lote.size() - 1);
+        }
+    }
+
+    private void stubarRenderizacao() {
+        when(contratoPdfService.gerarContrato(any(Aluguel.class)))
+                .thenAnswer(invocacao -> pdf(invocacao.<Aluguel>getArgument(0).getId()));
+    }
+
+    private static byte[] pdf(Long id) {
+        return ("%PDF-" + id).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static Map<String, ZipEntry> entradas(byte[] zip, Map<String, byte[]> conteudos) throws IOException {
+        Map<String, ZipEntry> entradas = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entrada;
+            while ((entrada = in.getNextEntry()) != null) {
+                entradas.put(entrada.getName(), entrada);
+                conteudos.put(entrada.getName(), in.readAllBytes());
+            }
+        }
+        return entradas;
+    }
+
+    private byte[] exportar() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.exportar(FILTRO, saida);
+        return saida.toByteArray();
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — V1b+V2: 3 aluguéis em lotes de 2, todos no ZIP")
+    void ct1_deve_exportarTodos_quando_maisDeUmLote() throws IOException {
+        stubarLotes(List.of(List.of(1L, 2L), List.of(3L)));
+        stubarRenderizacao();
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        int escritos = service.exportar(FILTRO, saida);
+
+        Map<String, byte[]> conteudos = new HashMap<>();
+        Map<String, ZipEntry> entradas = entradas(saida.toByteArray(), conteudos);
+        assertEquals(3, escritos);
+        assertEquals(3, entradas.size());
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(new String(pdf(id), StandardCharsets.US_ASCII),
+                    new String(conteudos.get("Contrato_Aluguel_" + id + ".pdf"), StandardCharsets.US_ASCII));
+        }
+        // Último lote incompleto: não há uma terceira consulta de ids.
+        verify(aluguelRepository, never()).buscarIdsApos(any(), eq(3L), eq(2));
+    }
+
+    @Test
+    @DisplayName("CT2 — V1a: nenhum aluguel, ZIP vazio e sem carregar grafo")
+    void ct2_deve_gerarZipVazio_quando_nenhumAluguel() throws IOException {
+        when(aluguelRepository.buscarIdsApos(any(), isNull(), eq(2))).thenReturn(List.of());
+
+        byte[] zip = exportar();
+
+        assertTrue(entradas(zip, new HashMap<>()).isEmpty());
+        verify(aluguelRepository, never()).findWithRelacionamentosByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("CT3 — I2: contrato com dados incompletos vai para erros.txt sem interromper")
+    void ct3_deve_listarFalhaEmErros_quando_contratoNaoPodeSerGerado() throws IOException {
+        stubarLotes(List.of(List.of(1L, 2L), List.of(3L)));
+        when(contratoPdfService.gerarContrato(any(Aluguel.class))).thenAnswer(invocacao -> {
+            Long id = invocacao.<Aluguel>getArgument(0).getId();
+            if (id == 2L) {
+                throw new IllegalStateException("Aluguel 2 não possui itens");
+            }
+            return pdf(id);
+        });
+
+        Map<String, byte[]> conteudos = new HashMap<>();
+        Map<String, ZipEntry> entradas = entradas(exportar(), conteudos);
+
+        assertTrue(entradas.containsKey("Contrato_Aluguel_1.pdf"));
+        assertTrue(entradas.containsKey("Contrato_Aluguel_3.pdf"));
+        assertFalse(entradas.containsKey("Contrato_Aluguel_2.pdf"));
+        String erros = new String(conteudos.get(ContratoLoteService.ARQUIVO_ERROS), StandardCharsets.UTF_8);
+        assertTrue(erros.contains("Aluguel 2: Aluguel 2 não possui itens"), "erros=" + erros);
+    }
+
+    @Test
+    @DisplayName("CT4 — V2: PDFs gravados sem recompressão e com o nome do contrato")
+    void ct4_deve_gravarEntradasStored_quando_exportar() throws IOException {
+        stubarLotes(List.of(List.of(1L)));
+        stubarRenderizacao();
+
+        Map<String, ZipEntry> entradas = entradas(exportar(), new HashMap<>());
+
+        ZipEntry entrada = entradas.get("Contrato_Aluguel_1.pdf");
+        assertEquals(ZipEntry.STORED, entrada.getMethod());
+        assertEquals(pdf(1L).length, entrada.getSize());
+    }
+
+    @Test
+    @DisplayName("CT5 — concorrência 2: nunca mais de 2 contratos renderizando ao mesmo tempo")
+    void ct5_deve_limitarRenderizacoesSimultaneas_quando_muitosAlugueis() throws IOException {
+        stubarLotes(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)));
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        when(contratoPdfService.gerarContrato(any(Aluguel.class))).thenAnswer(invocacao -> {
+            maximo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            emAndamento.decrementAndGet();
+            return pdf(invocacao.<Aluguel>getArgument(0).getId());
+        });
+
+        Map<String, ZipEntry> entradas = entradas(exportar(), new HashMap<>());
+
+        assertEquals(5, entradas.size());
+        assertTrue(maximo.get() <= 2, "renderizações simultâneas=" + maximo.get());
+    }
+
+    @Test
+    @DisplayName("CT6 — saída da resposta não é fechada pelo serviço")
+    void ct6_naoDeve_fecharSaida_quando_exportar() throws IOException {
+        when(aluguelRepository.buscarIdsApos(any(), isNull(), eq(2))).thenReturn(List.of());
+        boolean[] fechada = { false };
+        OutputStream saida = new FilterOutputStream(new ByteArrayOutputStream()) {
+            @Override
+            public void close() {
+                fechada[0] = true;
+            }
+        };
+
+        service.exportar(FILTRO, saida);
+
+        assertFalse(fechada[0]);
+    }
+
+    @Test
+    @DisplayName("CT7 — I3 borda: concorrência 0 é recusada")
+    void ct7_deve_lancarIllegalArgument_quando_concorrenciaZero() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ContratoLoteService(aluguelRepository, contratoPdfService, 2, 0));
+    }
+}
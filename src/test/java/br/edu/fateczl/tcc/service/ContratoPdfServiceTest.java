@@ -7,40 +7,59 @@ import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.enums.SiglaEstados;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
 import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.storage.CacheContratos;
+import br.edu.fateczl.tcc.storage.ContratoPdf;
 import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
 import br.edu.fateczl.tcc.util.ClienteDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
 import com.lowagie.text.PageSize;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.contentstream.PDContentStream;
 import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.text.TextPosition;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -129,6 +148,24 @@ import static org.mockito.Mockito.when;
  *   CT20 — V13b observacoes null                                     → seção OBSERVAÇÕES ausente
  *   CT21 — V13c observacoes em branco                                → seção OBSERVAÇÕES ausente
  *   CT22 — V14 mesma data retirada/devolução                         → "Período: 0 dia(s)"
+ *
+ * CACHE DE CONTRATOS (buscarContrato):
+ *   CT47 — versão ausente no cache                                   → renderiza na saída; próxima impressão vem do cache
+ *   CT48 — versão presente no cache                                  → escreve os bytes guardados sem renderizar
+ *   CT49 — mesmos dados carregados duas vezes                        → mesma versão
+ *   CT50 — dado do cliente muda                                      → versão diferente
+ *   CT51 — valor de um traje muda                                    → versão diferente
+ *   CT52 — data do aluguel (impressa como emissão) muda              → versão diferente; o dia da impressão não entra
+ *   CT53 — aluguel inexistente                                       → ResourceNotFoundException, cache intocado
+ *   CT54 — renderização direto na saída                              → escrita em partes, saída não é fechada
+ *
+ * ALUGUEL JÁ CARREGADO (gerarContrato(Aluguel)):
+ *   CT55 — aluguel completo                                          → PDF sem consultar repositório nem cache
+ *   CT56 — aluguel sem cliente                                       → IllegalStateException ("não possui cliente associado")
+ *
+ * MODELO PRÉ-RENDERIZADO (cabeçalho e termos):
+ *   CT57 — contrato gerado                                           → cabeçalho e termos desenhados como XObject nas páginas 1 e 2
+ *   CT58 — vários contratos em sequência                             → mesmo texto fixo em todos, dados variáveis de cada um
  */
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TFS - ContratoPdfService (Teste Funcional Sistemático)")
@@ -141,6 +178,9 @@ class ContratoPdfServiceTest {
     @Mock
     private AluguelRepository aluguelRepository;
 
+    @Mock
+    private CacheContratos cacheContratos;
+
     @InjectMocks
     private ContratoPdfService service;
 
@@ -256,22 +296,48 @@ class ContratoPdfServiceTest {
 
     /**
      * Conta a frequência de cada operador no content stream da página
-     * informada (0-based). Usado para detectar mutantes que mudam a quantidade
-     * de operações de borda (S, B, b, B*, re) ou texto (Tj, TJ).
+     * informada (0-based), incluindo os formulários (XObjects) que ela desenha,
+     * como as páginas importadas do modelo. Usado para detectar mutantes que
+     * mudam a quantidade de operações de borda (S, B, b, B*, re) ou texto (Tj, TJ).
      */
     private static java.util.Map<String, Integer> contarOperadores(byte[] pdf, int pageIndex) throws IOException {
         java.util.Map<String, Integer> counts = new java.util.HashMap<>();
         try (PDDocument doc = Loader.loadPDF(pdf)) {
             PDPage page = doc.getPage(pageIndex);
-            PDFStreamParser parser = new PDFStreamParser(page);
-            Object token;
-            while ((token = parser.parseNextToken()) != null) {
-                if (token instanceof Operator op) {
-                    counts.merge(op.getName(), 1, Integer::sum);
+            contarOperadores(page, page.getResources(), counts);
+        }
+        return counts;
+    }
+
+    private static void contarOperadores(PDContentStream conteudo, PDResources recursos,
+                                         java.util.Map<String, Integer> counts) throws IOException {
+        PDFStreamParser parser = new PDFStreamParser(conteudo);
+        Object anterior = null;
+        Object token;
+        while ((token = parser.parseNextToken()) != null) {
+            if (token instanceof Operator op) {
+                counts.merge(op.getName(), 1, Integer::sum);
+                if ("Do".equals(op.getName()) && anterior instanceof COSName nome
+                        && recursos.getXObject(nome) instanceof PDFormXObject form) {
+                    contarOperadores(form, form.getResources() != null ? form.getResources() : recursos, counts);
                 }
             }
+            anterior = token;
         }
-        return counts;
+    }
+
+    /** Nomes dos formulários (XObjects) referenciados diretamente pela página (0-based). */
+    private static List<String> formulariosDaPagina(byte[] pdf, int pageIndex) throws IOException {
+        List<String> nomes = new ArrayList<>();
+        try (PDDocument doc = Loader.loadPDF(pdf)) {
+            PDResources recursos = doc.getPage(pageIndex).getResources();
+            for (COSName nome : recursos.getXObjectNames()) {
+                if (recursos.getXObject(nome) instanceof PDFormXObject) {
+                    nomes.add(nome.getName());
+                }
+            }
+        }
+        return nomes;
     }
 
     // =========================================================
@@ -422,7 +488,7 @@ class ContratoPdfServiceTest {
         @Test
         @DisplayName("CT46 — DocumentException durante escrita é envolvida em IllegalStateException")
         void ct46_deve_lancarIllegalState_quando_documentExceptionDuranteEscrita() {
-            ContratoPdfService serviceComDocFalho = new ContratoPdfService(aluguelRepository) {
+            ContratoPdfService serviceComDocFalho = new ContratoPdfService(aluguelRepository, cacheContratos) {
                 @Override
                 Document novoDocumento() {
                     return new Document(PageSize.A4, 60, 60, 60, 60) {
@@ -1033,4 +1099,212 @@ class ContratoPdfServiceTest {
                             + detalhe.x() + ", principal.x=" + principal.x() + ")");
         }
     }
+
+    @Nested
+    @DisplayName("Cache de contratos renderizados")
+    class CacheDeContratos {
+
+        private static final LocalDate EMISSAO = LocalDate.of(2026, 5, 1);
+
+        private String versao(Aluguel aluguel) {
+            aluguel.setDataAluguel(EMISSAO);
+            return service.calcularVersao(aluguel);
+        }
+
+        @TempDir
+        Path diretorioCache;
+
+        private byte[] escrever(ContratoPdf contrato) throws IOException {
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+            contrato.escreverEm(saida);
+            return saida.toByteArray();
+        }
+
+        @Test
+        @DisplayName("CT47 — versão ausente no cache: renderiza na saída e a próxima impressão vem do cache")
+        void ct47_deve_renderizarEGuardar_quando_versaoAusenteNoCache() throws IOException {
+            CacheContratos cacheReal = new CacheContratos(
+                    diretorioCache.toString(), DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+            ContratoPdfService serviceComCache = new ContratoPdfService(aluguelRepository, cacheReal);
+            when(aluguelRepository.findWithRelacionamentosById(ALUGUEL_ID))
+                    .thenAnswer(invocacao -> Optional.of(aluguelCompleto(clienteCompleto())));
+
+            ContratoPdf primeira = serviceComCache.buscarContrato(ALUGUEL_ID);
+            byte[] renderizado = escrever(primeira);
+            ContratoPdf segunda = serviceComCache.buscarContrato(ALUGUEL_ID);
+
+            assertEquals(ALUGUEL_ID, primeira.aluguelId());
+            assertTrue(ehPdfValido(renderizado), "Bytes não começam com header %PDF-");
+            assertTrue(primeira.etag().contains(primeira.versao()));
+            assertEquals(primeira.versao(), segunda.versao());
+            // PDFs carregam ID e data de criação próprios: bytes idênticos só se vieram do cache.
+            assertArrayEquals(renderizado, escrever(segunda));
+        }
+
+        @Test
+        @DisplayName("CT48 — versão presente no cache: escreve os bytes guardados sem renderizar")
+        void ct48_deve_escreverBytesDoCache_quando_versaoPresente() throws IOException {
+            ContratoPdfService serviceSemRenderizar = new ContratoPdfService(aluguelRepository, cacheContratos) {
+                @Override
+                Document novoDocumento() {
+                    throw new AssertionError("não deveria renderizar com o contrato em cache");
+                }
+            };
+            byte[] emCache = "%PDF-1.4 cache".getBytes();
+            stubarLookup(aluguelCompleto(clienteCompleto()));
+            when(cacheContratos.buscar(eq(ALUGUEL_ID), anyString())).thenReturn(Optional.of(emCache));
+
+            ContratoPdf contrato = serviceSemRenderizar.buscarContrato(ALUGUEL_ID);
+
+            assertArrayEquals(emCache, escrever(contrato));
+            verify(cacheContratos, never()).gravar(eq(ALUGUEL_ID), anyString());
+        }
+
+        @Test
+        @DisplayName("CT49 — mesmos dados carregados duas vezes: mesma versão")
+        void ct49_deve_calcularMesmaVersao_quando_mesmosDados() {
+            String primeira = versao(aluguelCompleto(clienteCompleto()));
+            String segunda = versao(aluguelCompleto(clienteCompleto()));
+
+            assertEquals(primeira, segunda);
+            assertEquals(32, primeira.length());
+        }
+
+        @Test
+        @DisplayName("CT50 — dado do cliente muda: versão diferente")
+        void ct50_deve_mudarVersao_quando_clienteMuda() {
+            Cliente alterado = clienteCompleto();
+            alterado.setCelular("11987654321");
+
+            assertNotEquals(
+                    versao(aluguelCompleto(clienteCompleto())),
+                    versao(aluguelCompleto(alterado)));
+        }
+
+        @Test
+        @DisplayName("CT51 — valor de um traje muda: versão diferente")
+        void ct51_deve_mudarVersao_quando_valorDoTrajeMuda() {
+            Aluguel alterado = aluguelCompleto(clienteCompleto());
+            alterado.getItens().get(0).getTraje().setValorItem(new BigDecimal("999.00"));
+
+            assertNotEquals(
+                    versao(aluguelCompleto(clienteCompleto())),
+                    versao(alterado));
+        }
+
+        @Test
+        @DisplayName("CT52 — data do aluguel (impressa como emissão) muda: versão diferente")
+        void ct52_deve_mudarVersao_quando_dataDoAluguelMuda() {
+            Aluguel aluguel = aluguelCompleto(clienteCompleto());
+            String original = versao(aluguel);
+
+            aluguel.setDataAluguel(EMISSAO.plusDays(1));
+
+            assertNotEquals(original, service.calcularVersao(aluguel));
+        }
+
+        @Test
+        @DisplayName("CT54 — renderização na saída: escrita em partes e sem fechar a saída")
+        void ct54_deve_escreverEmPartesSemFechar_quando_renderizaNaSaida() throws IOException {
+            CacheContratos cacheReal = new CacheContratos(
+                    diretorioCache.toString(), DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+            ContratoPdfService serviceComCache = new ContratoPdfService(aluguelRepository, cacheReal);
+            stubarLookup(aluguelCompleto(clienteCompleto()));
+            List<Integer> escritas = new ArrayList<>();
+            boolean[] fechada = { false };
+            ByteArrayOutputStream destino = new ByteArrayOutputStream();
+            OutputStream saida = new FilterOutputStream(destino) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    escritas.add(len);
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    fechada[0] = true;
+                }
+            };
+
+            serviceComCache.buscarContrato(ALUGUEL_ID).escreverEm(saida);
+
+            assertTrue(ehPdfValido(destino.toByteArray()), "Bytes não começam com header %PDF-");
+            assertTrue(extrairTexto(destino.toByteArray()).contains("TERMOS E CONDIÇÕES"));
+            assertTrue(escritas.size() > 1, "o documento deveria sair em partes, não num bloco único");
+            assertFalse(fechada[0], "a saída pertence ao chamador (resposta HTTP) e não pode ser fechada");
+        }
+
+        @Test
+        @DisplayName("CT53 — aluguel inexistente: ResourceNotFoundException e cache intocado")
+        void ct53_deve_lancarResourceNotFound_quando_aluguelInexistente() {
+            stubarLookupVazio();
+
+            assertThrows(ResourceNotFoundException.class, () -> service.buscarContrato(ALUGUEL_ID));
+            verifyNoInteractions(cacheContratos);
+        }
+    }
+
+    @Nested
+    @DisplayName("Aluguel já carregado (exportação em lote)")
+    class AluguelCarregado {
+
+        @Test
+        @DisplayName("CT55 — aluguel completo: gera PDF sem consultar o repositório nem o cache")
+        void ct55_deve_gerarPdfSemConsultas_quando_aluguelJaCarregado() throws IOException {
+            byte[] pdf = service.gerarContrato(aluguelCompleto(clienteCompleto()));
+
+            assertTrue(ehPdfValido(pdf), "Bytes não começam com header %PDF-");
+            assertTrue(extrairTexto(pdf).contains("Contrato Nº: " + ALUGUEL_ID));
+            verifyNoInteractions(aluguelRepository, cacheContratos);
+        }
+
+        @Test
+        @DisplayName("CT56 — aluguel sem cliente: mesma validação do fluxo por id")
+        void ct56_deve_lancarIllegalState_quando_aluguelCarregadoSemCliente() {
+            Aluguel aluguel = aluguelCompleto(clienteCompleto());
+            aluguel.setCliente(null);
+
+            IllegalStateException ex = assertThrows(IllegalStateException.class,
+                    () -> service.gerarContrato(aluguel));
+            assertTrue(ex.getMessage().contains("não possui cliente associado"));
+        }
+    }
+
+    // =========================================================
+    // Modelo pré-renderizado — CT57, CT58
+    // =========================================================
+    @Nested
+    @DisplayName("Modelo pré-renderizado")
+    class ModeloPreRenderizado {
+
+        @Test
+        @DisplayName("CT57 — cabeçalho e termos desenhados como XObject importado do modelo")
+        void ct57_deve_importarPartesFixas_quando_gerarContrato() throws IOException {
+            byte[] pdf = service.gerarContrato(aluguelCompleto(clienteCompleto()));
+
+            assertEquals(1, formulariosDaPagina(pdf, 0).size(), "página 1 deveria desenhar o cabeçalho do modelo");
+            assertEquals(1, formulariosDaPagina(pdf, 1).size(), "página 2 deveria desenhar os termos do modelo");
+            String texto = extrairTexto(pdf);
+            assertTrue(texto.contains("SISTEMA INTERNO"), "texto=" + texto);
+            assertTrue(texto.contains("TERMOS E CONDIÇÕES"), "texto=" + texto);
+            assertTrue(texto.contains("Este contrato é regido pelas leis brasileiras vigentes."), "texto=" + texto);
+        }
+
+        @Test
+        @DisplayName("CT58 — contratos em sequência reaproveitam o modelo sem misturar dados")
+        void ct58_deve_manterPartesFixasEDadosDeCadaContrato_quando_variosEmSequencia() throws IOException {
+            for (String nome : List.of("Ana Souza", "Bruno Lima", "Carla Dias")) {
+                Cliente cliente = ClienteDataBuilder.umCliente()
+                        .comNome(nome)
+                        .comEndereco(ClienteDataBuilder.enderecoDefault())
+                        .buildEntity();
+
+                String texto = extrairTexto(service.gerarContrato(aluguelCompleto(cliente)));
+
+                assertTrue(texto.contains("CONTRATO DE LOCAÇÃO"), "texto=" + texto);
+                assertTrue(texto.contains("TERMOS E CONDIÇÕES"), "texto=" + texto);
+                assertTrue(texto.contains("Nome: " + nome), "texto=" + texto);
+            }
+        }
+    }
 }
@@ -0,0 +1,265 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.dto.traje.PeriodoAlugadoResponse;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import br.edu.fateczl.tcc.repository.PeriodoAtivo;
+import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — indisponiveis / periodosAlugados / registrar / remover
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)               | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------------|----------------------
+ *   C1: índice                      | V1 carregado                      | I1 ainda não carregado
+ *   C2: período consultado          | V2a livre / V2b sobreposto        | —
+ *   C3: aluguel alterado            | V3a ATIVO / V3b CONCLUIDO / V3c removido | —
+ *   C4: transação                   | V4 confirmada                     | I4 revertida
+ *   C5: conferir-banco              | V5a desligado / V5b ligado        | —
+ *   C6: recarga periódica           | V6 índice divergente do banco     | —
+ *
+ *   CT1 — I1: índice não carregado               → resposta vem do banco
+ *   CT2 — V1+V2b: período sobreposto             → só o traje ocupado volta, sem consultar o banco
+ *   CT3 — V1+V2a: borda do dia seguinte          → disponível sem consultar o banco
+ *   CT4 — V3a: aluguel criado                    → bloqueia o traje, exceto para ele mesmo
+ *   CT5 — V3b: aluguel concluído                 → libera o traje
+ *   CT6 — V3c: aluguel removido                  → libera o traje
+ *   CT7 — I4: transação revertida                → índice não muda
+ *   CT8 — V5b: índice livre mas banco ocupado    → prevalece o banco
+ *   CT9 — V1 / I1: períodos do traje             → do índice em ordem, ou do banco antes da carga
+ *   CT10 — V6: recarga com o índice divergente   → fica só o que está no banco
+ *   CT11 — V4+V6: recarga antes do commit        → a própria transação consulta o banco e o commit entra depois
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - DisponibilidadeTrajeService (Teste Funcional Sistemático)")
+class DisponibilidadeTrajeServiceTest {
+
+    private static final Long TRAJE_ID = 10L;
+    private static final Long OUTRO_TRAJE_ID = 11L;
+    private static final LocalDate RETIRADA = LocalDate.of(2030, 3, 10);
+    private static final LocalDate DEVOLUCAO = LocalDate.of(2030, 3, 15);
+
+    @Mock
+    private ItemAluguelRepository itemAluguelRepository;
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private DisponibilidadeTrajeService carregado(boolean conferirBanco, PeriodoAtivo... periodos) {
+        DisponibilidadeTrajeService service = new DisponibilidadeTrajeService(itemAluguelRepository, conferirBanco);
+        when(itemAluguelRepository.findPeriodosAtivos()).thenReturn(List.of(periodos));
+        service.carregarIndice();
+        return service;
+    }
+
+    private static boolean ocupado(DisponibilidadeTrajeService service, Long trajeId,
+                                   LocalDate retirada, LocalDate devolucao, Long aluguelIgnorado) {
+        return service.indisponiveis(List.of(trajeId), retirada, devolucao, aluguelIgnorado).contains(trajeId);
+    }
+
+    private static Aluguel aluguel(Long id, StatusAluguel status, LocalDate retirada, LocalDate devolucao) {
+        Cliente cliente = AlugueisDataBuilder.umClienteExistente(1L);
+        return AlugueisDataBuilder.umAluguel()
+                .comId(id)
+                .comStatus(status)
+                .comDatas(retirada, devolucao)
+                .buildEntityComItens(cliente, List.of(AlugueisDataBuilder.umTrajeDisponivel(TRAJE_ID)));
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — I1: antes da carga a consulta vai ao banco")
+    void ct1_deve_consultarBanco_quando_indiceNaoCarregado() {
+        DisponibilidadeTrajeService service = new DisponibilidadeTrajeService(itemAluguelRepository, false);
+        when(itemAluguelRepository.findTrajesIndisponiveisNoPeriodo(List.of(TRAJE_ID), RETIRADA, DEVOLUCAO, null))
+                .thenReturn(List.of(TRAJE_ID));
+
+        assertTrue(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+    }
+
+    @Test
+    @DisplayName("CT2 — V1+V2b: período sobreposto responde pelo índice")
+    void ct2_deve_indicarIndisponivel_semConsultarBanco() {
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(1L, TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        assertTrue(ocupado(service, TRAJE_ID, DEVOLUCAO, DEVOLUCAO.plusDays(3), null));
+        assertFalse(ocupado(service, OUTRO_TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+        assertEquals(Set.of(TRAJE_ID),
+                service.indisponiveis(List.of(TRAJE_ID, OUTRO_TRAJE_ID), RETIRADA, DEVOLUCAO, null));
+        verify(itemAluguelRepository, never()).findTrajesIndisponiveisNoPeriodo(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("CT3 — V1+V2a: retirada no dia seguinte à devolução está livre")
+    void ct3_deve_indicarDisponivel_quando_periodoComecaDepoisDaDevolucao() {
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(1L, TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        assertFalse(ocupado(service, TRAJE_ID, DEVOLUCAO.plusDays(1), DEVOLUCAO.plusDays(4), null));
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA.minusDays(5), RETIRADA.minusDays(1), null));
+        verify(itemAluguelRepository, never()).findTrajesIndisponiveisNoPeriodo(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("CT4 — V3a: aluguel registrado bloqueia o traje, exceto na própria atualização")
+    void ct4_deve_bloquearTraje_quando_aluguelRegistrado() {
+        DisponibilidadeTrajeService service = carregado(false);
+
+        service.registrar(aluguel(5L, StatusAluguel.ATIVO, RETIRADA, DEVOLUCAO));
+
+        assertTrue(ocupado(service, TRAJE_ID, RETIRADA, RETIRADA, null));
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA, RETIRADA, 5L));
+
+        // Atualização com novas datas substitui o período anterior.
+        service.registrar(aluguel(5L, StatusAluguel.ATIVO, DEVOLUCAO.plusDays(10), DEVOLUCAO.plusDays(12)));
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+        assertTrue(ocupado(service, TRAJE_ID, DEVOLUCAO.plusDays(12), DEVOLUCAO.plusDays(20), null));
+    }
+
+    @Test
+    @DisplayName("CT5 — V3b: aluguel concluído libera o traje")
+    void ct5_deve_liberarTraje_quando_aluguelConcluido() {
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(5L, TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        service.registrar(aluguel(5L, StatusAluguel.CONCLUIDO, RETIRADA, DEVOLUCAO));
+
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+    }
+
+    @Test
+    @DisplayName("CT6 — V3c: aluguel removido libera o traje")
+    void ct6_deve_liberarTraje_quando_aluguelRemovido() {
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(5L, TRAJE_ID, RETIRADA, DEVOLUCAO),
+                new PeriodoAtivo(6L, OUTRO_TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        service.remover(5L);
+
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+        assertTrue(ocupado(service, OUTRO_TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+    }
+
+    @Test
+    @DisplayName("CT7 — I4: rollback não chega ao índice")
+    void ct7_deve_manterIndice_quando_transacaoRevertida() {
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(5L, TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.remover(5L);
+            service.registrar(aluguel(7L, StatusAluguel.ATIVO, DEVOLUCAO.plusDays(1), DEVOLUCAO.plusDays(2)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+        assertFalse(ocupado(service, TRAJE_ID, DEVOLUCAO.plusDays(1), DEVOLUCAO.plusDays(2), null));
+    }
+
+    @Test
+    @DisplayName("CT8 — V5b: com conferência ligada o banco confirma o período livre")
+    void ct8_deve_prevalecerBanco_quando_conferenciaLigada() {
+        DisponibilidadeTrajeService service = carregado(true);
+        when(itemAluguelRepository.findTrajesIndisponiveisNoPeriodo(List.of(TRAJE_ID), RETIRADA, DEVOLUCAO, null))
+                .thenReturn(List.of(TRAJE_ID));
+
+        assertTrue(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+    }
+
+    @Test
+    @DisplayName("CT9 — V1 / I1: períodos do traje vêm do índice, ou do banco antes da carga")
+    void ct9_deve_listarPeriodos_doIndiceOuDoBanco() {
+        DisponibilidadeTrajeService naoCarregado = new DisponibilidadeTrajeService(itemAluguelRepository, false);
+        List<Object[]> linhas = List.<Object[]>of(new Object[]{ RETIRADA, DEVOLUCAO });
+        when(itemAluguelRepository.findPeriodosAlugadosByTrajeId(TRAJE_ID)).thenReturn(linhas);
+
+        assertEquals(List.of(new PeriodoAlugadoResponse(RETIRADA, DEVOLUCAO)), naoCarregado.periodosAlugados(TRAJE_ID));
+
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(6L, TRAJE_ID, RETIRADA.plusMonths(1), DEVOLUCAO.plusMonths(1)),
+                new PeriodoAtivo(5L, TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        assertEquals(List.of(
+                        new PeriodoAlugadoResponse(RETIRADA, DEVOLUCAO),
+                        new PeriodoAlugadoResponse(RETIRADA.plusMonths(1), DEVOLUCAO.plusMonths(1))),
+                service.periodosAlugados(TRAJE_ID));
+    }
+
+    @Test
+    @DisplayName("CT10 — V6: recarga substitui o índice pelo que está no banco")
+    void ct10_deve_reconciliarComBanco_quando_indiceRecarregado() {
+        DisponibilidadeTrajeService service = carregado(false);
+        // registrado só em memória, por exemplo por uma transação que se perdeu
+        service.registrar(aluguel(1L, StatusAluguel.ATIVO, RETIRADA, DEVOLUCAO));
+        when(itemAluguelRepository.findPeriodosAtivos())
+                .thenReturn(List.of(new PeriodoAtivo(2L, OUTRO_TRAJE_ID, RETIRADA, DEVOLUCAO)));
+
+        service.carregarIndice();
+
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+        assertTrue(ocupado(service, OUTRO_TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+    }
+
+    @Test
+    @DisplayName("CT11 — V4+V6: alteração só entra no índice no commit, mesmo com recarga no meio")
+    void ct11_deve_aplicarAposCommit_quando_recargaAntesDoCommit() {
+        DisponibilidadeTrajeService service = carregado(false,
+                new PeriodoAtivo(5L, TRAJE_ID, RETIRADA, DEVOLUCAO));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.remover(5L);
+            service.registrar(aluguel(7L, StatusAluguel.ATIVO, DEVOLUCAO.plusDays(1), DEVOLUCAO.plusDays(2)));
+
+            // A própria transação enxerga as mudanças no banco, não no índice.
+            assertFalse(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+            verify(itemAluguelRepository).findTrajesIndisponiveisNoPeriodo(List.of(TRAJE_ID), RETIRADA, DEVOLUCAO, null);
+
+            // Recarga antes do commit ainda lê o estado anterior.
+            service.carregarIndice();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(ocupado(service, TRAJE_ID, RETIRADA, DEVOLUCAO, null));
+        assertTrue(ocupado(service, TRAJE_ID, DEVOLUCAO.plusDays(1), DEVOLUCAO.plusDays(2), null));
+    }
+}
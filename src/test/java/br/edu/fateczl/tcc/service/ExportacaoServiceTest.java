@@ -0,0 +1,229 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.config.JacksonConfig;
+import br.edu.fateczl.tcc.enums.FormatoExportacao;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.enums.TipoOcasiao;
+import br.edu.fateczl.tcc.repository.AluguelExportacaoLinha;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.DevolucaoExportacaoLinha;
+import br.edu.fateczl.tcc.repository.DevolucaoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — escreverAlugueis / escreverDevolucoes
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)                       | Classes Inválidas (I)
+ *   --------------------------------|-------------------------------------------|----------------------
+ *   C1: formato                     | V1a CSV / V1b NDJSON                      | —
+ *   C2: conteúdo dos campos         | V2a simples / V2b com ";", aspas, quebra / V2c nulo | —
+ *   C3: linhas do cursor            | V3a algumas / V3b nenhuma / V3c várias por bloco   | —
+ *   C4: início do campo             | V4a texto comum                           | I4 =, +, -, @, tab ou CR (fórmula)
+ *   C5: linhas por bloco            | V5 ≥ 1                                    | I5 zero ou negativo
+ *
+ *   CT1 — V1a+V2a: aluguéis em CSV         → BOM, cabeçalho, datas e valores pt-BR; cursor fechado
+ *   CT2 — V1a+V2b+V2c: devoluções em CSV   → campo entre aspas, aspas dobradas, nulo vazio
+ *   CT3 — V1b: aluguéis em NDJSON          → um objeto por linha, data ISO e valor numérico
+ *   CT4 — V3c: 5 linhas, bloco de 2        → flush a cada 2 linhas e no fim
+ *   CT5 — V3b: cursor vazio                → só o cabeçalho, 0 linhas
+ *   CT6 — I4: texto que viraria fórmula    → apóstrofo na frente, no CSV
+ *   CT7 — I4: mesmo texto em NDJSON        → sem alteração
+ *   CT8 — I5: linhas por bloco = 0         → IllegalArgumentException
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - ExportacaoService (Teste Funcional Sistemático)")
+class ExportacaoServiceTest {
+
+    private static final String BOM = "\uFEFF";
+
+    @Mock
+    private AluguelRepository aluguelRepository;
+
+    @Mock
+    private DevolucaoRepository devolucaoRepository;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private ExportacaoService service;
+    private AtomicBoolean cursorFechado;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportacaoService(aluguelRepository, devolucaoRepository, objectMapper, 100);
+        cursorFechado = new AtomicBoolean();
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    @SafeVarargs
+    private <T> Stream<T> cursor(T... linhas) {
+        return Stream.of(linhas).onClose(() -> cursorFechado.set(true));
+    }
+
+    private static AluguelExportacaoLinha aluguel(Long id) {
+        return new AluguelExportacaoLinha(id, 3L, "Maria Souza", LocalDate.of(2026, 5, 2),
+                LocalDate.of(2026, 5, 10), LocalDate.of(2026, 5, 12), StatusAluguel.CONCLUIDO,
+                TipoOcasiao.CASAMENTO, new BigDecimal("1234.5"), null);
+    }
+
+    private static String texto(ByteArrayOutputStream saida) {
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Conta os flushes que chegam até a saída da resposta. */
+    private static final class SaidaContandoFlush extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — V1a+V2a: aluguéis em CSV com BOM, cabeçalho e formato pt-BR")
+    void ct1_deve_exportarAlugueisEmCsv_quando_cursorComLinhas() throws Exception {
+        when(aluguelRepository.streamExportacao()).thenReturn(cursor(aluguel(42L)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int linhas = service.escreverAlugueis(FormatoExportacao.CSV, saida);
+
+        assertEquals(1, linhas);
+        assertEquals(BOM
+                + "Nº;Código do cliente;Cliente;Data do aluguel;Retirada;Devolução;Status;Ocasião;"
+                + "Valor total (R$);Desconto (R$)\r\n"
+                + "42;3;Maria Souza;02/05/2026;10/05/2026;12/05/2026;Concluído;Casamento;1.234,50;\r\n",
+                texto(saida));
+        assertTrue(cursorFechado.get(), "o cursor do banco deveria ser fechado");
+    }
+
+    @Test
+    @DisplayName("CT2 — V1a+V2b+V2c: separador, aspas e quebra de linha vão entre aspas; nulo fica vazio")
+    void ct2_deve_escaparCampos_quando_textoComSeparador() throws Exception {
+        when(devolucaoRepository.streamExportacao()).thenReturn(cursor(
+                new DevolucaoExportacaoLinha(7L, 42L, "Maria Souza", LocalDate.of(2026, 5, 12), null,
+                        "Barra \"descosturada\";\nmanga ok")));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.escreverDevolucoes(FormatoExportacao.CSV, saida);
+
+        String[] partes = texto(saida).split("\r\n");
+        assertEquals("7;42;Maria Souza;12/05/2026;;\"Barra \"\"descosturada\"\";\nmanga ok\"", partes[1]);
+        assertTrue(cursorFechado.get(), "o cursor do banco deveria ser fechado");
+    }
+
+    @Test
+    @DisplayName("CT3 — V1b: aluguéis em NDJSON, um objeto por linha")
+    void ct3_deve_exportarAlugueisEmNdjson_quando_formatoNdjson() throws Exception {
+        when(aluguelRepository.streamExportacao()).thenReturn(cursor(aluguel(42L), aluguel(43L)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int linhas = service.escreverAlugueis(FormatoExportacao.NDJSON, saida);
+
+        String[] partes = texto(saida).split("\n");
+        assertEquals(2, linhas);
+        assertEquals(2, partes.length);
+        JsonNode primeira = objectMapper.readTree(partes[0]);
+        assertEquals(42L, primeira.get("id").asLong());
+        assertEquals("2026-05-10", primeira.get("dataRetirada").asText());
+        assertEquals("Concluído", primeira.get("status").asText());
+        assertEquals(0, new BigDecimal("1234.5").compareTo(primeira.get("valorTotal").decimalValue()));
+        assertEquals(43L, objectMapper.readTree(partes[1]).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("CT4 — V3c: flush a cada bloco de linhas e no fim")
+    void ct4_deve_fazerFlushPorBloco_quando_maisLinhasQueOBloco() throws Exception {
+        service = new ExportacaoService(aluguelRepository, devolucaoRepository, objectMapper, 2);
+        when(aluguelRepository.streamExportacao())
+                .thenReturn(IntStream.rangeClosed(1, 5).mapToObj(i -> aluguel((long) i)));
+        SaidaContandoFlush saida = new SaidaContandoFlush();
+
+        int linhas = service.escreverAlugueis(FormatoExportacao.NDJSON, saida);
+
+        assertEquals(5, linhas);
+        // depois da 2ª e da 4ª linha, e o último no fim
+        assertEquals(3, saida.flushes);
+    }
+
+    @Test
+    @DisplayName("CT5 — V3b: cursor vazio gera só o cabeçalho")
+    void ct5_deve_escreverSoCabecalho_quando_cursorVazio() throws Exception {
+        when(devolucaoRepository.streamExportacao()).thenReturn(cursor());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int linhas = service.escreverDevolucoes(FormatoExportacao.CSV, saida);
+
+        assertEquals(0, linhas);
+        assertEquals(BOM + "Nº;Aluguel;Cliente;Data da devolução;Multa (R$);Observações\r\n", texto(saida));
+    }
+
+    @Test
+    @DisplayName("CT6 — I4: campo que o Excel leria como fórmula ganha apóstrofo")
+    void ct6_deve_neutralizarFormula_quando_campoComecaComCaractereDeFormula() throws Exception {
+        when(devolucaoRepository.streamExportacao()).thenReturn(cursor(
+                new DevolucaoExportacaoLinha(7L, 42L, "=HYPERLINK(\"http://x\")", LocalDate.of(2026, 5, 12), null,
+                        "@SUM(A1)"),
+                new DevolucaoExportacaoLinha(8L, 43L, "+5511999999999", LocalDate.of(2026, 5, 12), null,
+                        "\tcmd"),
+                new DevolucaoExportacaoLinha(9L, 44L, "-1", LocalDate.of(2026, 5, 12), null,
+                        "sem = no início")));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.escreverDevolucoes(FormatoExportacao.CSV, saida);
+
+        String[] partes = texto(saida).split("\r\n");
+        assertEquals("7;42;\"'=HYPERLINK(\"\"http://x\"\")\";12/05/2026;;'@SUM(A1)", partes[1]);
+        assertEquals("8;43;'+5511999999999;12/05/2026;;'\tcmd", partes[2]);
+        assertEquals("9;44;'-1;12/05/2026;;sem = no início", partes[3]);
+    }
+
+    @Test
+    @DisplayName("CT7 — I4: NDJSON não é aberto como planilha e fica sem alteração")
+    void ct7_naoDeveAlterarTexto_quando_formatoNdjson() throws Exception {
+        when(devolucaoRepository.streamExportacao()).thenReturn(cursor(
+                new DevolucaoExportacaoLinha(7L, 42L, "=Maria", LocalDate.of(2026, 5, 12), null, null)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.escreverDevolucoes(FormatoExportacao.NDJSON, saida);
+
+        assertEquals("=Maria", objectMapper.readTree(texto(saida)).get("nomeCliente").asText());
+    }
+
+    @Test
+    @DisplayName("CT8 — I5: linhas por bloco zero é recusado na construção")
+    void ct8_deve_lancarIllegalArgument_quando_linhasPorBlocoZero() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new ExportacaoService(aluguelRepository, devolucaoRepository, objectMapper, 0));
+
+        assertEquals("Linhas por bloco da exportação devem ser positivas", ex.getMessage());
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import br.edu.fateczl.tcc.dto.imagem.AnaliseImagem;
+import br.edu.fateczl.tcc.util.MedicaoAlocacao;
+
 import java.util.Base64;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -19,23 +22,23 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  * de teste é numerado como CTn e isola uma classe de equivalência por vez.
  *
  * =========================================================================
- * MATRIZ — validarImagem
+ * MATRIZ — validarImagem (sobre o resultado de analisar)
  * =========================================================================
  *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
  *   --------------------------------|-----------------------------|----------------------
- *   C1: imagemBase64 (entrada)      | V1 string com data URL      | I1 null/blank → retorna true (curto-circuito)
+ *   C1: imagemBase64 (entrada)      | V1 string com data URL      | I1 null/blank
  *   C2: tipoMime extraído           | V2 ALLOWED_FORMATS          | I2 fora de ALLOWED_FORMATS
  *   C3: decode base64               | V3 sucesso                  | I3 IllegalArgumentException
  *   C4: tamanho dos bytes           | V4 ≤ MAX_IMAGE_SIZE (5 MB)  | I4 > MAX_IMAGE_SIZE
  *
  * VALORES LIMITE RELEVANTES:
- *   - imagemBase64: null, "", "   " (whitespace puro) — todos no early-return.
+ *   - imagemBase64: null, "", "   " (whitespace puro) — nenhum é imagem válida.
  *   - tamanho dos bytes: exatamente MAX_IMAGE_SIZE (borda V4↑) e MAX_IMAGE_SIZE+1 (borda I4↓).
  *
  * CASOS DE TESTE DERIVADOS (validarImagem):
- *   CT1  — V borda: imagem null                                 → true
- *   CT2  — V borda: imagem ""                                   → true
- *   CT3  — V borda: imagem "   " (whitespace puro)              → true
+ *   CT1  — I1 borda: imagem null                                → false
+ *   CT2  — I1 borda: imagem ""                                  → false
+ *   CT3  — I1 borda: imagem "   " (whitespace puro)             → false
  *   CT4  — V típico: JPEG válido                                → true
  *   CT5  — V: PNG válido                                        → true
  *   CT6  — V: WEBP válido                                       → true
@@ -83,25 +86,55 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  *            o trecho interno entraria e devolveria substring(5, 7) = "FG")
  *
  * =========================================================================
- * MATRIZ — validarTamanho
+ * MATRIZ — validarArquivo (upload multipart, sem base64)
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: tipoMime                    | V1 ALLOWED_FORMATS          | I1 fora da lista / null
+ *   C2: tamanho                     | V2 [1, MAX_IMAGE_SIZE]      | I2a ≤ 0 / I2b > MAX_IMAGE_SIZE
+ *
+ *   CT34 — V típico: PNG de 1 KB                                → true
+ *   CT35 — V2 borda: tamanho exatamente MAX_IMAGE_SIZE          → true
+ *   CT36 — I2b borda: MAX_IMAGE_SIZE + 1                        → false
+ *   CT37 — I2a borda: arquivo vazio (0 bytes)                   → false
+ *   CT38 — I1 isolada: tipo não permitido / null                → false
+ *
+ * =========================================================================
+ * MATRIZ — detectarFormato (magic bytes)
  * =========================================================================
- *   Igual a validarImagem nas variáveis C1, C3, C4 (ignora formato).
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: assinatura                  | V1 JPEG/PNG/GIF/WEBP        | I1 desconhecida / RIFF sem WEBP
+ *   C2: bytes lidos                 | V2 ≥ tamanho da assinatura  | I2 < tamanho (arquivo curto)
  *
- *   CT23 — V borda: null                                        → true
- *   CT24 — V borda: ""                                          → true
- *   CT25 — V borda: "   " (whitespace puro)                     → true
- *   CT26 — I3: base64 inválido                                  → false
- *   CT27 — V4 borda: bytes exatos em MAX_IMAGE_SIZE             → true
- *   CT28 — I4 borda: bytes em MAX_IMAGE_SIZE + 1                → false
+ *   CT39 — V1: JPEG (FF D8 FF)                                  → "image/jpeg"
+ *   CT40 — V1: PNG (89 PNG \r\n 1A \n)                          → "image/png"
+ *   CT41 — V1: GIF ("GIF8")                                     → "image/gif"
+ *   CT42 — V1: WEBP ("RIFF" .... "WEBP")                        → "image/webp"
+ *   CT43 — I1: RIFF de outro tipo (WAVE)                        → null
+ *   CT44 — I1: BMP ("BM")                                       → null
+ *   CT45 — I2 borda: assinatura PNG truncada em 7 bytes          → null
+ *   CT46 — I2 borda: zero bytes lidos / null                    → null
  *
  * =========================================================================
- * MATRIZ — obterTamanho
+ * MATRIZ — analisar (passada única, sem decodificar o conteúdo inteiro)
  * =========================================================================
- *   CT29 — V borda: null                                        → 0
- *   CT30 — V borda: ""                                          → 0
- *   CT31 — V borda: "   " (whitespace puro)                     → 0
- *   CT32 — I3: base64 inválido                                  → 0
- *   CT33 — V típico: imagem válida                              → tamanho > 0 e bate com bytes decodificados
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: caracteres                  | V1 alfabeto base64          | I1 fora do alfabeto
+ *   C2: último bloco                | V2 2/3 chars, com ou sem =  | I2 1 char / padding errado / dado após =
+ *   C3: assinatura                  | V3 reconhecida              | V3b desconhecida (tipoDetectado null)
+ *   C4: tipo declarado x detectado  | V4 iguais / sem detecção    | I4 conflitantes
+ *
+ *   CT47 — V típico: PNG declarado e detectado                  → válido, tamanho e tipo batem
+ *   CT48 — V2: padding ausente, "=" e "==" no último bloco      → tamanho igual ao decoder do JDK
+ *   CT49 — I2: um único char no último bloco / "=" faltando     → base64Valido false, tamanho 0
+ *   CT50 — I2: caractere depois do padding                      → base64Valido false
+ *   CT51 — I1: caractere fora do alfabeto                       → base64Valido false
+ *   CT52 — V3b: conteúdo sem assinatura                         → tipoDetectado null, sem conflito
+ *   CT53 — I4: validarImagem com JPEG declarado como PNG        → false
+ *   CT54 — V: null                                              → inválido, tamanho 0
+ *   CT55 — V: imagem de 5 MB analisada sem alocar cópia do conteúdo
  */
 @DisplayName("TFS - ImagemService (Teste Funcional Sistemático)")
 class ImagemServiceTest {
@@ -109,6 +142,10 @@ class ImagemServiceTest {
     private final ImagemService service = new ImagemService();
     private static final int MAX_IMAGE_SIZE = 5 * 1024 * 1024;
 
+    private boolean valida(String imagemBase64) {
+        return service.validarImagem(service.analisar(imagemBase64));
+    }
+
     private static String dataUrlComBytes(int quantidade) {
         byte[] bytes = new byte[quantidade];
         return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes);
@@ -119,69 +156,69 @@ class ImagemServiceTest {
     class ValidarImagem {
 
         @Test
-        @DisplayName("CT1 — V borda: imagem null → true")
-        void ct1_deve_retornarTrue_quando_imagemNull() {
-            assertTrue(service.validarImagem(null));
+        @DisplayName("CT1 — I1 borda: imagem null → false")
+        void ct1_deve_retornarFalse_quando_imagemNull() {
+            assertFalse(valida(null));
         }
 
         @Test
-        @DisplayName("CT2 — V borda: imagem \"\" → true")
-        void ct2_deve_retornarTrue_quando_imagemVazia() {
-            assertTrue(service.validarImagem(""));
+        @DisplayName("CT2 — I1 borda: imagem \"\" → false")
+        void ct2_deve_retornarFalse_quando_imagemVazia() {
+            assertFalse(valida(""));
         }
 
         @Test
-        @DisplayName("CT3 — V borda: imagem \"   \" (whitespace puro) → true")
-        void ct3_deve_retornarTrue_quando_imagemWhitespace() {
-            assertTrue(service.validarImagem("   "));
+        @DisplayName("CT3 — I1 borda: imagem \"   \" (whitespace puro) → false")
+        void ct3_deve_retornarFalse_quando_imagemWhitespace() {
+            assertFalse(valida("   "));
         }
 
         @Test
         @DisplayName("CT4 — V típico: JPEG válido → true")
         void ct4_deve_retornarTrue_quando_jpegValido() {
-            assertTrue(service.validarImagem("data:image/jpeg;base64,/9j/4AAQSkZJRg=="));
+            assertTrue(valida("data:image/jpeg;base64,/9j/4AAQSkZJRg=="));
         }
 
         @Test
         @DisplayName("CT5 — V: PNG válido → true")
         void ct5_deve_retornarTrue_quando_pngValido() {
-            assertTrue(service.validarImagem("data:image/png;base64,iVBORw0KGgo="));
+            assertTrue(valida("data:image/png;base64,iVBORw0KGgo="));
         }
 
         @Test
         @DisplayName("CT6 — V: WEBP válido → true")
         void ct6_deve_retornarTrue_quando_webpValido() {
-            assertTrue(service.validarImagem("data:image/webp;base64,UklGRg=="));
+            assertTrue(valida("data:image/webp;base64,UklGRg=="));
         }
 
         @Test
         @DisplayName("CT7 — V: GIF válido → true")
         void ct7_deve_retornarTrue_quando_gifValido() {
-            assertTrue(service.validarImagem("data:image/gif;base64,R0lGOD=="));
+            assertTrue(valida("data:image/gif;base64,R0lGOD=="));
         }
 
         @Test
         @DisplayName("CT8 — I2 isolada: BMP fora de ALLOWED_FORMATS → false")
         void ct8_deve_retornarFalse_quando_formatoNaoPermitido() {
-            assertFalse(service.validarImagem("data:image/bmp;base64,AAAA"));
+            assertFalse(valida("data:image/bmp;base64,AAAA"));
         }
 
         @Test
         @DisplayName("CT9 — I3 isolada: base64 inválido → false")
         void ct9_deve_retornarFalse_quando_base64Invalido() {
-            assertFalse(service.validarImagem("data:image/jpeg;base64,!!!"));
+            assertFalse(valida("data:image/jpeg;base64,!!!"));
         }
 
         @Test
         @DisplayName("CT10 — V4 borda: bytes exatos em MAX_IMAGE_SIZE → true")
         void ct10_deve_retornarTrue_quando_tamanhoIgualAoMax() {
-            assertTrue(service.validarImagem(dataUrlComBytes(MAX_IMAGE_SIZE)));
+            assertTrue(valida(dataUrlComBytes(MAX_IMAGE_SIZE)));
         }
 
         @Test
         @DisplayName("CT11 — I4 borda: bytes em MAX_IMAGE_SIZE + 1 → false")
         void ct11_deve_retornarFalse_quando_tamanhoAcimaDoMax() {
-            assertFalse(service.validarImagem(dataUrlComBytes(MAX_IMAGE_SIZE + 1)));
+            assertFalse(valida(dataUrlComBytes(MAX_IMAGE_SIZE + 1)));
         }
     }
 
@@ -268,80 +305,200 @@ class ImagemServiceTest {
     }
 
     @Nested
-    @DisplayName("validarTamanho — CT23..CT28")
-    class ValidarTamanho {
+    @DisplayName("validarArquivo — CT34..CT38")
+    class ValidarArquivo {
+
+        @Test
+        @DisplayName("CT34 — V típico: PNG de 1 KB → true")
+        void ct34_deve_retornarTrue_quando_arquivoValido() {
+            assertTrue(service.validarArquivo("image/png", 1024));
+        }
+
+        @Test
+        @DisplayName("CT35 — V2 borda: tamanho exatamente MAX_IMAGE_SIZE → true")
+        void ct35_deve_retornarTrue_quando_tamanhoIgualAoMax() {
+            assertTrue(service.validarArquivo("image/jpeg", MAX_IMAGE_SIZE));
+        }
+
+        @Test
+        @DisplayName("CT36 — I2b borda: MAX_IMAGE_SIZE + 1 → false")
+        void ct36_deve_retornarFalse_quando_tamanhoAcimaDoMax() {
+            assertFalse(service.validarArquivo("image/jpeg", MAX_IMAGE_SIZE + 1L));
+        }
+
+        @Test
+        @DisplayName("CT37 — I2a borda: arquivo vazio → false")
+        void ct37_deve_retornarFalse_quando_arquivoVazio() {
+            assertFalse(service.validarArquivo("image/png", 0));
+        }
+
+        @Test
+        @DisplayName("CT38 — I1 isolada: tipo não permitido ou null → false")
+        void ct38_deve_retornarFalse_quando_tipoNaoPermitido() {
+            assertFalse(service.validarArquivo("image/bmp", 1024));
+            assertFalse(service.validarArquivo(null, 1024));
+        }
+    }
+
+    @Nested
+    @DisplayName("detectarFormato — CT39..CT46")
+    class DetectarFormato {
+
+        private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13 };
+
+        private String detectar(byte[] bytes) {
+            return service.detectarFormato(bytes, bytes.length);
+        }
+
+        @Test
+        @DisplayName("CT39 — V1: JPEG → image/jpeg")
+        void ct39_deve_detectarJpeg() {
+            assertEquals("image/jpeg", detectar(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+        }
+
+        @Test
+        @DisplayName("CT40 — V1: PNG → image/png")
+        void ct40_deve_detectarPng() {
+            assertEquals("image/png", detectar(PNG));
+        }
 
         @Test
-        @DisplayName("CT23 — V borda: null → true")
-        void ct23_deve_retornarTrue_quando_imagemNull() {
-            assertTrue(service.validarTamanho(null));
+        @DisplayName("CT41 — V1: GIF → image/gif")
+        void ct41_deve_detectarGif() {
+            assertEquals("image/gif", detectar("GIF89a".getBytes()));
         }
 
         @Test
-        @DisplayName("CT24 — V borda: \"\" → true")
-        void ct24_deve_retornarTrue_quando_imagemVazia() {
-            assertTrue(service.validarTamanho(""));
+        @DisplayName("CT42 — V1: WEBP → image/webp")
+        void ct42_deve_detectarWebp() {
+            assertEquals("image/webp", detectar("RIFF\0\0\0\0WEBPVP8 ".getBytes()));
         }
 
         @Test
-        @DisplayName("CT25 — V borda: \"   \" (whitespace puro) → true")
-        void ct25_deve_retornarTrue_quando_imagemWhitespace() {
-            assertTrue(service.validarTamanho("   "));
+        @DisplayName("CT43 — I1: RIFF que não é WEBP → null")
+        void ct43_deve_retornarNull_quando_riffNaoWebp() {
+            assertNull(detectar("RIFF\0\0\0\0WAVEfmt ".getBytes()));
         }
 
         @Test
-        @DisplayName("CT26 — I3: base64 inválido → false")
-        void ct26_deve_retornarFalse_quando_base64Invalido() {
-            assertFalse(service.validarTamanho("data:image/jpeg;base64,!!!"));
+        @DisplayName("CT44 — I1: BMP → null")
+        void ct44_deve_retornarNull_quando_bmp() {
+            assertNull(detectar("BM\0\0\0\0\0\0\0\0\0\0".getBytes()));
         }
 
         @Test
-        @DisplayName("CT27 — V4 borda: bytes exatos em MAX_IMAGE_SIZE → true")
-        void ct27_deve_retornarTrue_quando_tamanhoIgualAoMax() {
-            assertTrue(service.validarTamanho(dataUrlComBytes(MAX_IMAGE_SIZE)));
+        @DisplayName("CT45 — I2 borda: assinatura PNG truncada → null")
+        void ct45_deve_retornarNull_quando_assinaturaTruncada() {
+            assertNull(service.detectarFormato(PNG, 7));
         }
 
         @Test
-        @DisplayName("CT28 — I4 borda: bytes em MAX_IMAGE_SIZE + 1 → false")
-        void ct28_deve_retornarFalse_quando_tamanhoAcimaDoMax() {
-            assertFalse(service.validarTamanho(dataUrlComBytes(MAX_IMAGE_SIZE + 1)));
+        @DisplayName("CT46 — I2 borda: nada lido ou null → null")
+        void ct46_deve_retornarNull_quando_vazio() {
+            assertNull(service.detectarFormato(new byte[12], 0));
+            assertNull(service.detectarFormato(null, 0));
         }
     }
 
     @Nested
-    @DisplayName("obterTamanho — CT29..CT33")
-    class ObterTamanho {
+    @DisplayName("analisar — CT47..CT55")
+    class Analisar {
+
+        private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H' };
+
+        private String dataUrl(String tipo, byte[] bytes) {
+            return "data:" + tipo + ";base64," + Base64.getEncoder().encodeToString(bytes);
+        }
 
         @Test
-        @DisplayName("CT29 — V borda: null → 0")
-        void ct29_deve_retornar0_quando_imagemNull() {
-            assertEquals(0, service.obterTamanho(null));
+        @DisplayName("CT47 — V típico: PNG declarado e detectado → válido")
+        void ct47_deve_analisarPng() {
+            AnaliseImagem analise = service.analisar(dataUrl("image/png", PNG));
+
+            assertEquals("image/png", analise.tipoDeclarado());
+            assertTrue(analise.formatoPermitido());
+            assertEquals("image/png", analise.tipoDetectado());
+            assertTrue(analise.base64Valido());
+            assertEquals(PNG.length, analise.tamanho());
+            assertFalse(analise.tipoConflitante());
         }
 
         @Test
-        @DisplayName("CT30 — V borda: \"\" → 0")
-        void ct30_deve_retornar0_quando_imagemVazia() {
-            assertEquals(0, service.obterTamanho(""));
+        @DisplayName("CT48 — V2: último bloco com e sem padding → tamanho do decoder do JDK")
+        void ct48_deve_calcularTamanho_quando_paddingVariado() {
+            for (String base64 : new String[]{ "QUJD", "QUI=", "QUI", "QQ==", "QQ", "" }) {
+                AnaliseImagem analise = service.analisar(base64);
+                assertTrue(analise.base64Valido(), base64);
+                assertEquals(Base64.getDecoder().decode(base64).length, analise.tamanho(), base64);
+            }
         }
 
         @Test
-        @DisplayName("CT31 — V borda: \"   \" (whitespace puro) → 0")
-        void ct31_deve_retornar0_quando_imagemWhitespace() {
-            assertEquals(0, service.obterTamanho("   "));
+        @DisplayName("CT49 — I2: bloco final com um char ou padding incompleto → inválido")
+        void ct49_deve_invalidar_quando_blocoFinalIncompleto() {
+            for (String base64 : new String[]{ "QUJDR", "QQ=", "Q===", "====" }) {
+                AnaliseImagem analise = service.analisar(base64);
+                assertFalse(analise.base64Valido(), base64);
+                assertEquals(0, analise.tamanho(), base64);
+            }
         }
 
         @Test
-        @DisplayName("CT32 — I3: base64 inválido → 0")
-        void ct32_deve_retornar0_quando_base64Invalido() {
-            assertEquals(0, service.obterTamanho("!!!"));
+        @DisplayName("CT50 — I2: dado depois do padding → inválido")
+        void ct50_deve_invalidar_quando_dadoAposPadding() {
+            assertFalse(service.analisar("QUI=QUJD").base64Valido());
+            assertFalse(service.analisar("QQ==QQ==").base64Valido());
         }
 
         @Test
-        @DisplayName("CT33 — V típico: imagem válida → tamanho > 0 e bate com bytes decodificados")
-        void ct33_deve_retornarTamanhoCorreto_quando_imagemValida() {
-            byte[] bytes = new byte[123];
-            String imagem = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes);
-            assertEquals(123L, service.obterTamanho(imagem));
+        @DisplayName("CT51 — I1: caractere fora do alfabeto → inválido")
+        void ct51_deve_invalidar_quando_caractereForaDoAlfabeto() {
+            assertFalse(service.analisar("data:image/png;base64,QU JD").base64Valido());
+            assertFalse(service.analisar("QUJ\u00e7").base64Valido());
+        }
+
+        @Test
+        @DisplayName("CT52 — V3b: conteúdo sem assinatura → tipoDetectado null, sem conflito")
+        void ct52_deve_naoDetectar_quando_semAssinatura() {
+            AnaliseImagem analise = service.analisar(dataUrlComBytes(64));
+
+            assertNull(analise.tipoDetectado());
+            assertFalse(analise.tipoConflitante());
+        }
+
+        @Test
+        @DisplayName("CT53 — I4: JPEG declarado como PNG → validarImagem false")
+        void ct53_deve_recusar_quando_tipoConflitante() {
+            String jpegComoPng = dataUrl("image/png", new byte[]{ (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0 });
+
+            assertTrue(service.analisar(jpegComoPng).tipoConflitante());
+            assertFalse(valida(jpegComoPng));
+        }
+
+        @Test
+        @DisplayName("CT54 — V: null → inválido, tamanho 0")
+        void ct54_deve_retornarInvalido_quando_null() {
+            AnaliseImagem analise = service.analisar(null);
+
+            assertFalse(analise.base64Valido());
+            assertEquals(0, analise.tamanho());
+        }
+
+        @Test
+        @DisplayName("CT55 — V: imagem de 5 MB analisada sem alocar cópia do conteúdo")
+        void ct55_deve_analisarSemCopiarConteudo() throws Exception {
+            // Aquece com imagens pequenas para que compilação do JIT não entre na medição.
+            String pequena = dataUrlComBytes(1024);
+            for (int i = 0; i < 10_000; i++) {
+                service.analisar(pequena);
+            }
+            String imagem = dataUrlComBytes(MAX_IMAGE_SIZE);
+
+            long alocado = MedicaoAlocacao.bytesPorChamada(1, () -> service.analisar(imagem));
+
+            assertEquals(MAX_IMAGE_SIZE, service.analisar(imagem).tamanho());
+            // A decodificação completa alocaria pelo menos os 5 MB do resultado.
+            assertTrue(alocado < 64 * 1024, "alocado: " + alocado + " bytes");
         }
     }
 }
@@ -0,0 +1,239 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.storage.ImagemStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — gerarVariantes
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: original no storage         | V1 presente                 | I1 ausente
+ *   C2: leitor ImageIO              | V2 PNG/JPEG/GIF             | I2 sem leitor (ex.: WEBP)
+ *   C3: largura do original         | V3a > alvo / V3b ≤ alvo     | —
+ *   C4: variante já existente       | V4a não / V4b sim           | —
+ *
+ *   CT1 — V1+V2+V3a+V4a: 2000x1000 PNG → 3 variantes JPEG, PEQUENA com 160x80
+ *   CT2 — V3b borda: original 100x50   → variantes sem ampliar (100x50)
+ *   CT3 — V4b: PEQUENA já existe       → só MEDIA e GRANDE gravadas
+ *   CT4 — I1 isolada: original ausente → nada gravado
+ *   CT5 — I2 isolada: bytes sem leitor → nada gravado
+ *   CT6 — V1+V2: imagem decodificada também é indexada para similaridade visual
+ *
+ * =========================================================================
+ * MATRIZ — gerarPendentes (varredura)
+ * =========================================================================
+ *   CT7  — nenhuma imagem sem dHash           → storage não é consultado
+ *   CT8  — duas pendentes, a primeira falha   → a segunda ainda é gerada; falha contada só na primeira
+ *   CT9  — original ausente no storage        → falha contada (sai da varredura após as tentativas)
+ *   CT10 — lote cheio                         → próximo lote buscado depois do último hash; lote parcial encerra
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - ImagemVarianteService (Teste Funcional Sistemático)")
+class ImagemVarianteServiceTest {
+
+    private static final String HASH = "c".repeat(64);
+    private static final int MAX_FALHAS = 3;
+    private static final int LOTE = 2;
+
+    @Mock
+    private ImagemStorage imagemStorage;
+
+    @Mock
+    private SimilaridadeVisualService similaridadeVisualService;
+
+    @Mock
+    private TrajeRepository trajeRepository;
+
+    private ImagemVarianteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImagemVarianteService(imagemStorage, similaridadeVisualService, trajeRepository,
+                MAX_FALHAS, LOTE);
+    }
+
+    private static ByteArrayResource png(int largura, int altura) throws IOException {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+        return new ByteArrayResource(saida.toByteArray());
+    }
+
+    private static BufferedImage lerGravada(ArgumentCaptor<InputStream> captor) throws IOException {
+        try (InputStream in = captor.getValue()) {
+            return ImageIO.read(in);
+        }
+    }
+
+    @Nested
+    @DisplayName("gerarVariantes — CT1..CT6")
+    class GerarVariantes {
+
+        @Test
+        @DisplayName("CT1 — original grande → três variantes, proporção mantida")
+        void ct1_deveGerarTresVariantes_quando_originalGrande() throws IOException {
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.of(png(2000, 1000)));
+            ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+
+            int geradas = service.gerarVariantes(HASH);
+
+            assertEquals(3, geradas);
+            verify(imagemStorage).salvarVariante(eq(HASH), eq(VarianteImagem.PEQUENA), captor.capture());
+            BufferedImage pequena = lerGravada(captor);
+            assertNotNull(pequena);
+            assertEquals(160, pequena.getWidth());
+            assertEquals(80, pequena.getHeight());
+            verify(imagemStorage).salvarVariante(eq(HASH), eq(VarianteImagem.MEDIA), any());
+            verify(imagemStorage).salvarVariante(eq(HASH), eq(VarianteImagem.GRANDE), any());
+        }
+
+        @Test
+        @DisplayName("CT2 — V3b borda: original menor que o alvo → não amplia")
+        void ct2_naoDeveAmpliar_quando_originalPequeno() throws IOException {
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.of(png(100, 50)));
+            ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+
+            service.gerarVariantes(HASH);
+
+            verify(imagemStorage).salvarVariante(eq(HASH), eq(VarianteImagem.GRANDE), captor.capture());
+            BufferedImage grande = lerGravada(captor);
+            assertEquals(100, grande.getWidth());
+            assertEquals(50, grande.getHeight());
+        }
+
+        @Test
+        @DisplayName("CT3 — V4b: variante existente não é regerada")
+        void ct3_devePularVariante_quando_jaExiste() throws IOException {
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.of(png(600, 400)));
+            when(imagemStorage.existeVariante(HASH, VarianteImagem.PEQUENA)).thenReturn(true);
+
+            assertEquals(2, service.gerarVariantes(HASH));
+            verify(imagemStorage, never()).salvarVariante(eq(HASH), eq(VarianteImagem.PEQUENA), any());
+        }
+
+        @Test
+        @DisplayName("CT4 — I1: original ausente → nada gravado")
+        void ct4_naoDeveGravar_quando_originalAusente() {
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.empty());
+
+            assertEquals(0, service.gerarVariantes(HASH));
+            verify(imagemStorage, never()).salvarVariante(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("CT5 — I2: formato sem leitor ImageIO → nada gravado")
+        void ct5_naoDeveGravar_quando_semLeitor() {
+            byte[] webp = "RIFF\0\0\0\0WEBPVP8 ".getBytes();
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.of(new ByteArrayResource(webp)));
+
+            assertEquals(0, service.gerarVariantes(HASH));
+            verify(imagemStorage, times(0)).salvarVariante(any(), any(), any());
+            verify(similaridadeVisualService, never()).indexar(any(), any());
+        }
+
+        @Test
+        @DisplayName("CT6 — imagem decodificada é indexada para similaridade visual")
+        void ct6_deveIndexarImagem_quando_decodificada() throws IOException {
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.of(png(100, 50)));
+
+            service.gerarVariantes(HASH);
+
+            verify(similaridadeVisualService).indexar(eq(HASH), any(BufferedImage.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("gerarPendentes — CT7..CT10")
+    class GerarPendentes {
+
+        private static final String OUTRO_HASH = "d".repeat(64);
+        private static final String TERCEIRO_HASH = "e".repeat(64);
+
+        private void pendentesApos(String apos, String... hashes) {
+            when(trajeRepository.findImagemHashesSemDhash(eq(MAX_FALHAS), eq(apos), any())).thenReturn(List.of(hashes));
+        }
+
+        @Test
+        @DisplayName("CT7 — nada pendente → storage não é consultado")
+        void ct7_naoDeveCarregar_quando_semPendentes() {
+            pendentesApos("");
+
+            service.gerarPendentes();
+
+            verify(imagemStorage, never()).carregar(any());
+        }
+
+        @Test
+        @DisplayName("CT8 — falha numa imagem não interrompe a varredura")
+        void ct8_deveSeguirVarredura_quando_umaImagemFalha() throws IOException {
+            pendentesApos("", HASH, OUTRO_HASH);
+            pendentesApos(OUTRO_HASH);
+            when(imagemStorage.carregar(HASH)).thenThrow(new IllegalStateException("disco"));
+            when(imagemStorage.carregar(OUTRO_HASH)).thenReturn(Optional.of(png(100, 50)));
+
+            service.gerarPendentes();
+
+            verify(imagemStorage).salvarVariante(eq(OUTRO_HASH), eq(VarianteImagem.GRANDE), any());
+            verify(similaridadeVisualService).indexar(eq(OUTRO_HASH), any(BufferedImage.class));
+            verify(trajeRepository).registrarFalhaVariante(HASH);
+            verify(trajeRepository, never()).registrarFalhaVariante(OUTRO_HASH);
+        }
+
+        @Test
+        @DisplayName("CT9 — original ausente no storage → falha contada")
+        void ct9_deveContarFalha_quando_originalAusente() {
+            pendentesApos("", HASH);
+            when(imagemStorage.carregar(HASH)).thenReturn(Optional.empty());
+
+            service.gerarPendentes();
+
+            verify(trajeRepository).registrarFalhaVariante(HASH);
+            verify(similaridadeVisualService, never()).indexar(any(), any());
+        }
+
+        @Test
+        @DisplayName("CT10 — lote cheio → busca o seguinte depois do último hash; lote parcial encerra")
+        void ct10_deveLerEmLotes_quando_loteCheio() throws IOException {
+            pendentesApos("", HASH, OUTRO_HASH);
+            pendentesApos(OUTRO_HASH, TERCEIRO_HASH);
+            when(imagemStorage.carregar(any())).thenReturn(Optional.of(png(100, 50)));
+
+            service.gerarPendentes();
+
+            verify(similaridadeVisualService).indexar(eq(TERCEIRO_HASH), any(BufferedImage.class));
+            verify(trajeRepository, times(2)).findImagemHashesSemDhash(eq(MAX_FALHAS), any(), any());
+            verify(trajeRepository, never()).registrarFalhaVariante(any());
+        }
+    }
+}
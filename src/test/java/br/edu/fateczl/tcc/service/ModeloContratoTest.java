@@ -0,0 +1,199 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.util.MedicaoAlocacao;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — ModeloContrato
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)              | Classes Inválidas (I)
+ *   --------------------------------|----------------------------------|----------------------
+ *   C1: conteúdo após o cabeçalho   | V1 parágrafo                     | —
+ *   C2: conteúdo após os termos     | V2 tabela (assinaturas)          | —
+ *   C3: renderizações sequenciais   | V3 leitor devolvido e reusado    | —
+ *
+ *   CT1 — V1: parágrafo após o cabeçalho estampado   → mesma posição que após o cabeçalho diagramado
+ *   CT2 — V2: tabela após os termos estampados       → mesma posição que após os termos diagramados
+ *   CT3 — V3: leitor devolvido                       → reaproveitado no contrato seguinte
+ *   CT4 — alocação por contrato                      → estampar aloca menos que diagramar as partes fixas
+ *         (tempo de CPU por contrato, com e sem o modelo: ContratoPdfBenchmark em src/jmh)
+ */
+@DisplayName("TFS - ModeloContrato (Teste Funcional Sistemático)")
+class ModeloContratoTest {
+
+    private static final float TOLERANCIA = 0.5f;
+
+    private ModeloContrato modelo;
+
+    @BeforeEach
+    void setUp() {
+        modelo = novoModelo();
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private static ModeloContrato novoModelo() {
+        return ModeloContrato.preRenderizar(
+                () -> new Document(PageSize.A4, 60, 60, 60, 60),
+                ContratoPdfService::escreverCabecalho,
+                ContratoPdfService::escreverTermos);
+    }
+
+    @FunctionalInterface
+    private interface Conteudo {
+        void escrever(Document doc) throws DocumentException;
+    }
+
+    /** Partes fixas diagramadas a cada documento, como antes do modelo. */
+    private static byte[] diagramado(Conteudo aposCabecalho, Conteudo aposTermos) throws DocumentException {
+        Document doc = new Document(PageSize.A4, 60, 60, 60, 60);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter.getInstance(doc, baos);
+        doc.open();
+        ContratoPdfService.escreverCabecalho(doc);
+        aposCabecalho.escrever(doc);
+        doc.newPage();
+        ContratoPdfService.escreverTermos(doc);
+        aposTermos.escrever(doc);
+        doc.close();
+        return baos.toByteArray();
+    }
+
+    /** Partes fixas estampadas a partir do modelo, como em ContratoPdfService.renderizar. */
+    private byte[] estampado(Conteudo aposCabecalho, Conteudo aposTermos) throws DocumentException {
+        Document doc = new Document(PageSize.A4, 60, 60, 60, 60);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfReader leitor = modelo.emprestarLeitor();
+        PdfWriter writer = PdfWriter.getInstance(doc, baos);
+        modelo.reservarEspaco(doc, ModeloContrato.PAGINA_CABECALHO);
+        doc.open();
+        modelo.estampar(writer, leitor, doc, ModeloContrato.PAGINA_CABECALHO);
+        aposCabecalho.escrever(doc);
+        modelo.reservarEspaco(doc, ModeloContrato.PAGINA_TERMOS);
+        doc.newPage();
+        modelo.estampar(writer, leitor, doc, ModeloContrato.PAGINA_TERMOS);
+        aposTermos.escrever(doc);
+        doc.close();
+        modelo.devolverLeitor(leitor);
+        return baos.toByteArray();
+    }
+
+    private static void paragrafo(Document doc) throws DocumentException {
+        doc.add(new Paragraph("Contrato Nº: 1", FontFactory.getFont(FontFactory.HELVETICA, 10)));
+    }
+
+    private static void tabela(Document doc) throws DocumentException {
+        PdfPTable tabela = new PdfPTable(2);
+        tabela.setWidthPercentage(100);
+        tabela.addCell("Locador");
+        tabela.addCell("Locatário");
+        doc.add(tabela);
+    }
+
+    private static void nada(Document doc) {
+    }
+
+    /** Posição vertical da primeira linha que contém o trecho. */
+    private static float posicaoY(byte[] pdf, String trecho) throws IOException {
+        float[] y = { Float.NaN };
+        try (PDDocument doc = Loader.loadPDF(pdf)) {
+            PDFTextStripper stripper = new PDFTextStripper() {
+                @Override
+                protected void writeString(String text, List<TextPosition> textPositions) throws IOException {
+                    if (Float.isNaN(y[0]) && text.contains(trecho)) {
+                        y[0] = textPositions.get(0).getYDirAdj();
+                    }
+                    super.writeString(text, textPositions);
+                }
+            };
+            stripper.getText(doc);
+        }
+        assertTrue(!Float.isNaN(y[0]), "trecho não encontrado: " + trecho);
+        return y[0];
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — V1: parágrafo após o cabeçalho estampado fica onde ficaria após o diagramado")
+    void ct1_deve_manterPosicaoDoParagrafo_quando_cabecalhoEstampado() throws Exception {
+        float esperado = posicaoY(diagramado(ModeloContratoTest::paragrafo, ModeloContratoTest::nada), "Contrato Nº");
+        float obtido = posicaoY(estampado(ModeloContratoTest::paragrafo, ModeloContratoTest::nada), "Contrato Nº");
+
+        assertEquals(esperado, obtido, TOLERANCIA);
+    }
+
+    @Test
+    @DisplayName("CT2 — V2: tabela após os termos estampados fica onde ficaria após os diagramados")
+    void ct2_deve_manterPosicaoDaTabela_quando_termosEstampados() throws Exception {
+        float esperado = posicaoY(diagramado(ModeloContratoTest::nada, ModeloContratoTest::tabela), "Locador");
+        float obtido = posicaoY(estampado(ModeloContratoTest::nada, ModeloContratoTest::tabela), "Locador");
+
+        assertEquals(esperado, obtido, TOLERANCIA);
+    }
+
+    @Test
+    @DisplayName("CT3 — V3: leitor devolvido é reaproveitado no contrato seguinte")
+    void ct3_deve_reaproveitarLeitor_quando_devolvido() throws Exception {
+        estampado(ModeloContratoTest::nada, ModeloContratoTest::nada);
+        PdfReader primeiro = modelo.emprestarLeitor();
+        modelo.devolverLeitor(primeiro);
+
+        byte[] pdf = estampado(ModeloContratoTest::paragrafo, ModeloContratoTest::tabela);
+
+        assertTrue(primeiro == modelo.emprestarLeitor(), "o leitor devolvido deveria voltar ao uso");
+        try (PDDocument doc = Loader.loadPDF(pdf)) {
+            String texto = new PDFTextStripper().getText(doc);
+            assertTrue(texto.contains("SISTEMA INTERNO"), "texto=" + texto);
+            assertTrue(texto.contains("TERMOS E CONDIÇÕES"), "texto=" + texto);
+        }
+    }
+
+    @Test
+    @DisplayName("CT4 — estampar as partes fixas aloca menos que diagramá-las a cada contrato")
+    void ct4_deve_alocarMenos_quando_estampaModelo() throws Exception {
+        int repeticoes = 200;
+        // Aquece os dois caminhos para que a compilação do JIT não entre na medição.
+        for (int i = 0; i < repeticoes; i++) {
+            assertNotNull(diagramado(ModeloContratoTest::nada, ModeloContratoTest::nada));
+            assertNotNull(estampado(ModeloContratoTest::nada, ModeloContratoTest::nada));
+        }
+
+        long alocadoDiagramado = MedicaoAlocacao.bytesPorChamada(repeticoes,
+                () -> diagramado(ModeloContratoTest::nada, ModeloContratoTest::nada));
+        long alocadoEstampado = MedicaoAlocacao.bytesPorChamada(repeticoes,
+                () -> estampado(ModeloContratoTest::nada, ModeloContratoTest::nada));
+
+        assertTrue(alocadoEstampado < alocadoDiagramado,
+                "por contrato: diagramado %d bytes, estampado %d bytes".formatted(alocadoDiagramado, alocadoEstampado));
+    }
+}
@@ -0,0 +1,160 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.enums.CorTraje;
+import br.edu.fateczl.tcc.enums.SexoEnum;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.enums.StatusTraje;
+import br.edu.fateczl.tcc.enums.TamanhoTraje;
+import br.edu.fateczl.tcc.enums.TipoTraje;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.repository.AluguelRelatorioLinha;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.TrajeRelatorioLinha;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — escreverRelatorioTrajes / escreverRelatorioAlugueis
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)                  | Classes Inválidas (I)
+ *   --------------------------------|--------------------------------------|----------------------
+ *   C1: linhas do cursor            | V1 completas / V2 com campos nulos   | —
+ *   C2: período                     | V3 início ≤ fim                      | I3 início > fim
+ *
+ *   CT1 — V1: trajes        → valores formatados em pt-BR e nomes de exibição; cursor fechado
+ *   CT2 — V1+V3: aluguéis   → datas dd/MM/yyyy, cliente e período no subtítulo; cursor fechado
+ *   CT3 — V2: campos nulos  → célula vazia, sem NullPointerException
+ *   CT4 — I3: período invertido → BusinessException, sem consultar o banco
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - RelatorioPdfService (Teste Funcional Sistemático)")
+class RelatorioPdfServiceTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2026, 5, 1);
+    private static final LocalDate FIM = LocalDate.of(2026, 5, 31);
+
+    @Mock
+    private TrajeRepository trajeRepository;
+
+    @Mock
+    private AluguelRepository aluguelRepository;
+
+    private RelatorioPdfService service;
+    private AtomicBoolean cursorFechado;
+
+    @BeforeEach
+    void setUp() {
+        service = new RelatorioPdfService(trajeRepository, aluguelRepository, 100);
+        cursorFechado = new AtomicBoolean();
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    @SafeVarargs
+    private <T> Stream<T> cursor(T... linhas) {
+        return Stream.of(linhas).onClose(() -> cursorFechado.set(true));
+    }
+
+    private static String texto(ByteArrayOutputStream saida) throws IOException {
+        try (PDDocument doc = Loader.loadPDF(saida.toByteArray())) {
+            return new PDFTextStripper().getText(doc);
+        }
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — V1: relatório de trajes com valores em pt-BR e cursor fechado")
+    void ct1_deve_listarTrajes_quando_cursorComLinhas() throws Exception {
+        when(trajeRepository.streamRelatorio()).thenReturn(cursor(
+                new TrajeRelatorioLinha(7L, "Terno Slim", TipoTraje.TERNO, TamanhoTraje.M, CorTraje.PRETO,
+                        SexoEnum.MASCULINO, StatusTraje.DISPONIVEL, new BigDecimal("1234.5"))));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int linhas = service.escreverRelatorioTrajes(saida);
+
+        String texto = texto(saida);
+        assertEquals(1, linhas);
+        assertTrue(texto.contains("RELATÓRIO DE TRAJES"), "texto=" + texto);
+        assertTrue(texto.contains("Terno Slim"), "texto=" + texto);
+        assertTrue(texto.contains("Disponível"), "texto=" + texto);
+        assertTrue(texto.contains("1.234,50"), "texto=" + texto);
+        assertTrue(cursorFechado.get(), "o cursor do banco deveria ser fechado");
+    }
+
+    @Test
+    @DisplayName("CT2 — V1+V3: relatório de aluguéis com período no subtítulo e cursor fechado")
+    void ct2_deve_listarAlugueis_quando_periodoValido() throws Exception {
+        when(aluguelRepository.streamRelatorio(INICIO, FIM)).thenReturn(cursor(
+                new AluguelRelatorioLinha(42L, "Maria Souza", LocalDate.of(2026, 5, 10),
+                        LocalDate.of(2026, 5, 12), StatusAluguel.CONCLUIDO, new BigDecimal("350.00"))));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int linhas = service.escreverRelatorioAlugueis(INICIO, FIM, saida);
+
+        String texto = texto(saida);
+        assertEquals(1, linhas);
+        assertTrue(texto.contains("Retiradas de 01/05/2026 a 31/05/2026"), "texto=" + texto);
+        assertTrue(texto.contains("Maria Souza"), "texto=" + texto);
+        assertTrue(texto.contains("10/05/2026") && texto.contains("12/05/2026"), "texto=" + texto);
+        assertTrue(texto.contains("Concluído"), "texto=" + texto);
+        assertTrue(texto.contains("350,00"), "texto=" + texto);
+        assertTrue(cursorFechado.get(), "o cursor do banco deveria ser fechado");
+    }
+
+    @Test
+    @DisplayName("CT3 — V2: campos nulos viram células vazias")
+    void ct3_deve_deixarCelulaVazia_quando_campoNulo() throws Exception {
+        when(trajeRepository.streamRelatorio()).thenReturn(cursor(
+                new TrajeRelatorioLinha(8L, "Vestido", null, null, null, null, null, null)));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        int linhas = service.escreverRelatorioTrajes(saida);
+
+        assertEquals(1, linhas);
+        assertTrue(texto(saida).contains("Vestido"));
+    }
+
+    @Test
+    @DisplayName("CT4 — I3: período com início depois do fim")
+    void ct4_deve_lancarBusinessException_quando_periodoInvertido() {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> service.escreverRelatorioAlugueis(FIM, INICIO, saida));
+
+        assertTrue(ex.getMessage().contains("data inicial"), "msg=" + ex.getMessage());
+        assertEquals(0, saida.size());
+        verify(aluguelRepository, never()).streamRelatorio(any(), any());
+    }
+}
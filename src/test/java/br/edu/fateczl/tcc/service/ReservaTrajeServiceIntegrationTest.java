@@ -0,0 +1,193 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.ClienteRepository;
+import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import br.edu.fateczl.tcc.repository.ReservaTrajeRepository;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.seeder.MigracaoReservasTraje;
+import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
+import br.edu.fateczl.tcc.util.ClienteDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Livro de reservas com duas transações de verdade, em threads separadas e
+ * sem a transação de teste: cada pedido só enxerga o do outro pelo banco.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservaTrajeServiceIntegrationTest {
+
+    private static final LocalDate RETIRADA = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private ReservaTrajeService reservaTrajeService;
+
+    @Autowired
+    private ReservaTrajeRepository reservaTrajeRepository;
+
+    @Autowired
+    private ItemAluguelRepository itemAluguelRepository;
+
+    @Autowired
+    private AluguelRepository aluguelRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TrajeRepository trajeRepository;
+
+    @Autowired
+    private MigracaoReservasTraje migracaoReservasTraje;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private ExecutorService executor;
+    private Cliente cliente;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+        transacao = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(2);
+        cliente = clienteRepository.save(ClienteDataBuilder.umCliente().comId(null).buildEntity());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        limpar();
+    }
+
+    private void limpar() {
+        reservaTrajeRepository.deleteAll();
+        itemAluguelRepository.deleteAll();
+        aluguelRepository.deleteAll();
+        clienteRepository.deleteAll();
+        trajeRepository.deleteAll();
+    }
+
+    private Aluguel aluguelAtivo(Traje... trajes) {
+        return aluguelRepository.save(AlugueisDataBuilder.umAluguel()
+                .comId(null)
+                .comDatas(RETIRADA, RETIRADA.plusDays(2))
+                .buildEntityComItens(cliente, List.of(trajes)));
+    }
+
+    @Test
+    void deve_aceitarSoUmPedido_quando_doisReservamOMesmoTrajeAoMesmoTempo() throws Exception {
+        Traje traje = trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null));
+        Aluguel primeiro = aluguelAtivo(traje);
+        Aluguel segundo = aluguelAtivo(traje);
+        CountDownLatch primeiroGravou = new CountDownLatch(1);
+
+        // o primeiro grava e segura a transação aberta enquanto o segundo tenta
+        Future<?> pedido1 = executor.submit(() -> transacao.executeWithoutResult(status -> {
+            reservaTrajeService.reservar(primeiro);
+            primeiroGravou.countDown();
+            pausar(300);
+        }));
+        Future<?> pedido2 = executor.submit(() -> {
+            aguardar(primeiroGravou);
+            transacao.executeWithoutResult(status -> reservaTrajeService.reservar(segundo));
+        });
+
+        pedido1.get(10, TimeUnit.SECONDS);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> pedido2.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(BusinessException.class, ex.getCause());
+        assertEquals("Traje já está alugado nesse período", ex.getCause().getMessage());
+        assertEquals(3, reservaTrajeRepository.count());
+    }
+
+    @Test
+    void deve_aceitarOsDois_quando_pedidosConcorrentesSemTrajeEmComum() throws Exception {
+        Aluguel primeiro = aluguelAtivo(trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null)));
+        Aluguel segundo = aluguelAtivo(trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null)));
+        // os dois gravam antes de qualquer um fazer commit
+        CyclicBarrier ambosGravaram = new CyclicBarrier(2);
+
+        Future<?> pedido1 = executor.submit(() -> transacao.executeWithoutResult(status -> {
+            reservaTrajeService.reservar(primeiro);
+            aguardar(ambosGravaram);
+        }));
+        Future<?> pedido2 = executor.submit(() -> transacao.executeWithoutResult(status -> {
+            reservaTrajeService.reservar(segundo);
+            aguardar(ambosGravaram);
+        }));
+
+        pedido1.get(10, TimeUnit.SECONDS);
+        pedido2.get(10, TimeUnit.SECONDS);
+        assertEquals(6, reservaTrajeRepository.count());
+    }
+
+    @Test
+    void deve_preencherLivroUmaVez_quando_aluguelAtivoAntigoSemReservas() {
+        // gravados direto pelo repositório, como antes do livro existir
+        Traje traje = trajeRepository.save(AlugueisDataBuilder.umTrajeDisponivel(null));
+        aluguelAtivo(traje);
+        aluguelAtivo(traje);
+
+        migracaoReservasTraje.run();
+        migracaoReservasTraje.run();
+
+        // o segundo se sobrepõe ao primeiro e fica de fora; rodar de novo não duplica
+        assertEquals(3, reservaTrajeRepository.count());
+        assertEquals(1, reservaTrajeService.pendentes().size());
+    }
+
+    private static void pausar(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("o outro pedido não gravou a tempo");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void aguardar(CyclicBarrier barreira) {
+        try {
+            barreira.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("o outro pedido não gravou a tempo", e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Aluguel;
+import br.edu.fateczl.tcc.domain.Cliente;
+import br.edu.fateczl.tcc.domain.ReservaTraje;
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.repository.AluguelRepository;
+import br.edu.fateczl.tcc.repository.ReservaTrajeRepository;
+import br.edu.fateczl.tcc.util.AlugueisDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — reservar / liberar
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)               | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------------|----------------------
+ *   C1: status do aluguel           | V1a ATIVO / V1b CONCLUIDO         | —
+ *   C2: trajes dos itens            | V2a distintos / V2b repetidos     | —
+ *   C3: dias já reservados          | V3 livres                         | I3a outro aluguel gravou antes
+ *                                   |                                   | I3b trava disputada (timeout/deadlock)
+ *
+ *   CT1 — V1a+V2a: dois trajes, 3 dias           → 6 reservas em ordem de (traje, dia), sem DELETE
+ *   CT2 — V1a+V2b, borda retirada=devolução      → 1 reserva, traje repetido conta uma vez
+ *   CT3 — V1b: aluguel concluído                 → não grava nem apaga nada
+ *   CT4 — I3a: chave única violada               → BusinessException "alugado nesse período"
+ *   CT5 — liberar                                → apaga as reservas do aluguel
+ *   CT6 — I3b: trava não obtida                  → mesma BusinessException, não erro 500
+ *
+ * =========================================================================
+ * MATRIZ — pendentes / reconstruir (migração de aluguéis antigos)
+ * =========================================================================
+ *   CT7 — pendentes                              → ids ATIVOS sem reserva, do repositório
+ *   CT8 — reconstruir aluguel existente          → carrega com itens e reserva
+ *   CT9 — reconstruir aluguel que sumiu          → não grava nada
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - ReservaTrajeService (Teste Funcional Sistemático)")
+class ReservaTrajeServiceTest {
+
+    private static final Long ALUGUEL_ID = 100L;
+    private static final LocalDate RETIRADA = LocalDate.of(2030, 3, 10);
+
+    @Mock
+    private ReservaTrajeRepository repository;
+
+    @Mock
+    private AluguelRepository aluguelRepository;
+
+    @InjectMocks
+    private ReservaTrajeService service;
+
+    private static Aluguel aluguel(StatusAluguel status, LocalDate devolucao, Traje... trajes) {
+        Cliente cliente = AlugueisDataBuilder.umClienteExistente(1L);
+        return AlugueisDataBuilder.umAluguel()
+                .comId(ALUGUEL_ID)
+                .comStatus(status)
+                .comDatas(RETIRADA, devolucao)
+                .buildEntityComItens(cliente, List.of(trajes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ReservaTraje> reservasGravadas() {
+        ArgumentCaptor<List<ReservaTraje>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAllAndFlush(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("CT1 — V: um dia por traje entre retirada e devolução, em ordem de (traje, dia)")
+    void ct1_deve_gravarUmDiaPorTraje_quando_aluguelAtivo() {
+        Traje terno = AlugueisDataBuilder.umTrajeDisponivel(10L);
+        Traje vestido = AlugueisDataBuilder.umTrajeDisponivel(11L);
+
+        // itens fora de ordem no pedido
+        service.reservar(aluguel(StatusAluguel.ATIVO, RETIRADA.plusDays(2), vestido, terno));
+
+        // aluguel novo não tem o que apagar; o DELETE só travaria o índice à toa
+        verify(repository, never()).deleteByAluguelId(any());
+        List<ReservaTraje> reservas = reservasGravadas();
+        assertEquals(6, reservas.size());
+        assertEquals(List.of(terno, terno, terno, vestido, vestido, vestido),
+                reservas.stream().map(ReservaTraje::getTraje).toList());
+        assertEquals(List.of(RETIRADA, RETIRADA.plusDays(1), RETIRADA.plusDays(2)),
+                reservas.stream().filter(r -> r.getTraje() == vestido).map(ReservaTraje::getDia).toList());
+    }
+
+    @Test
+    @DisplayName("CT2 — AVL: retirada = devolução e traje repetido gravam uma reserva só")
+    void ct2_deve_gravarUmaReserva_quando_mesmoDiaETrajeRepetido() {
+        Traje terno = AlugueisDataBuilder.umTrajeDisponivel(10L);
+
+        service.reservar(aluguel(StatusAluguel.ATIVO, RETIRADA, terno, terno));
+
+        List<ReservaTraje> reservas = reservasGravadas();
+        assertEquals(1, reservas.size());
+        assertEquals(RETIRADA, reservas.get(0).getDia());
+    }
+
+    @Test
+    @DisplayName("CT3 — V: aluguel que não está ATIVO não reserva nada")
+    void ct3_deve_ignorar_quando_aluguelConcluido() {
+        service.reservar(aluguel(StatusAluguel.CONCLUIDO, RETIRADA.plusDays(2),
+                AlugueisDataBuilder.umTrajeDisponivel(10L)));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("CT4 — I: dia já gravado por outro aluguel vira erro de negócio")
+    void ct4_deve_lancarBusinessException_quando_chaveUnicaViolada() {
+        when(repository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("uk_reserva_traje_dia"));
+        Aluguel aluguel = aluguel(StatusAluguel.ATIVO, RETIRADA.plusDays(2), AlugueisDataBuilder.umTrajeDisponivel(10L));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.reservar(aluguel));
+
+        assertEquals("Traje já está alugado nesse período", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("CT5 — V: liberar apaga as reservas do aluguel")
+    void ct5_deve_apagarReservas_quando_liberar() {
+        service.liberar(ALUGUEL_ID);
+
+        verify(repository).deleteByAluguelId(ALUGUEL_ID);
+    }
+
+    @Test
+    @DisplayName("CT6 — I: trava disputada com outro pedido vira o mesmo erro de negócio")
+    void ct6_deve_lancarBusinessException_quando_travaNaoObtida() {
+        when(repository.saveAllAndFlush(anyList()))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+        Aluguel aluguel = aluguel(StatusAluguel.ATIVO, RETIRADA, AlugueisDataBuilder.umTrajeDisponivel(10L));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> service.reservar(aluguel));
+
+        assertEquals("Traje já está alugado nesse período", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("CT7 — V: pendentes são os aluguéis ATIVOS ainda fora do livro")
+    void ct7_deve_listarPendentes_quando_consultado() {
+        when(aluguelRepository.findIdsAtivosSemReserva()).thenReturn(List.of(1L, 2L));
+
+        assertEquals(List.of(1L, 2L), service.pendentes());
+    }
+
+    @Test
+    @DisplayName("CT8 — V: reconstruir carrega o aluguel com os itens e reserva")
+    void ct8_deve_reservar_quando_reconstruirAluguelExistente() {
+        Aluguel aluguel = aluguel(StatusAluguel.ATIVO, RETIRADA.plusDays(1), AlugueisDataBuilder.umTrajeDisponivel(10L));
+        when(aluguelRepository.findWithRelacionamentosById(ALUGUEL_ID)).thenReturn(Optional.of(aluguel));
+
+        service.reconstruir(ALUGUEL_ID);
+
+        assertEquals(2, reservasGravadas().size());
+    }
+
+    @Test
+    @DisplayName("CT9 — V: aluguel apagado entre a consulta e a reconstrução é ignorado")
+    void ct9_deve_ignorar_quando_reconstruirAluguelInexistente() {
+        when(aluguelRepository.findWithRelacionamentosById(ALUGUEL_ID)).thenReturn(Optional.empty());
+
+        service.reconstruir(ALUGUEL_ID);
+
+        verifyNoInteractions(repository);
+    }
+}
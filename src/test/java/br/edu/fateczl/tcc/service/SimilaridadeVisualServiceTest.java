@@ -0,0 +1,223 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.repository.ImagemDhash;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.util.IndiceHamming;
+import br.edu.fateczl.tcc.util.TrajeDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — calcularDhash
+ * =========================================================================
+ *   CT1 — gradiente crescente / decrescente      → todos os bits 1 / todos 0
+ *   CT2 — mesma imagem em outra resolução        → distância 0
+ *   CT3 — imagem com tons invertidos             → distância acima do limite
+ *
+ * =========================================================================
+ * MATRIZ — buscarSimilares
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: traje                       | V1 existe                   | I1 não existe
+ *   C2: imagem do traje             | V2 indexada                 | I2a sem imagem / I2b não indexada
+ *   C3: limite                      | V3 ≥ 1                      | I3 ≤ 0
+ *
+ *   CT4 — V1+V2+V3: parecidos por distância, sem o próprio traje, até o limite
+ *   CT5 — I2a: traje sem imagem                  → lista vazia, sem consultar trajes
+ *   CT6 — I2b: imagem ainda não indexada          → lista vazia
+ *   CT7 — I1: traje inexistente                  → ResourceNotFoundException
+ *   CT8 — I3 borda: limite 0                     → BusinessException
+ *
+ * =========================================================================
+ * MATRIZ — indexar / carregarIndice
+ * =========================================================================
+ *   CT9  — indexar grava o dHash nos trajes do conteúdo
+ *   CT10 — índice carregado do banco na inicialização responde às buscas
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - SimilaridadeVisualService (Teste Funcional Sistemático)")
+class SimilaridadeVisualServiceTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "c".repeat(64);
+
+    @Mock
+    private TrajeRepository trajeRepository;
+
+    private SimilaridadeVisualService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SimilaridadeVisualService(trajeRepository);
+    }
+
+    private static BufferedImage gradiente(boolean crescente) {
+        BufferedImage imagem = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < imagem.getHeight(); y++) {
+            for (int x = 0; x < imagem.getWidth(); x++) {
+                int v = x * 255 / (imagem.getWidth() - 1);
+                v = crescente ? v : 255 - v;
+                imagem.setRGB(x, y, (v << 16) | (v << 8) | v);
+            }
+        }
+        return imagem;
+    }
+
+    /** Padrão com variação nas duas direções, para que o dHash não seja trivial. */
+    private static BufferedImage padrao(int largura, int altura, boolean invertido) {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < altura; y++) {
+            for (int x = 0; x < largura; x++) {
+                double fx = (double) x / largura;
+                double fy = (double) y / altura;
+                int v = (int) (127 + 120 * Math.sin(fx * 9 + fy * 5) * Math.cos(fy * 7));
+                v = invertido ? 255 - v : v;
+                imagem.setRGB(x, y, (v << 16) | (v << 8) | v);
+            }
+        }
+        return imagem;
+    }
+
+    private void comTraje(Long id, String hash) {
+        when(trajeRepository.findById(id))
+                .thenReturn(Optional.of(TrajeDataBuilder.umTraje().comId(id).comImagemHash(hash).buildEntity()));
+    }
+
+    @Nested
+    @DisplayName("calcularDhash — CT1..CT3")
+    class CalcularDhash {
+
+        @Test
+        @DisplayName("CT1 — gradiente crescente → todos os bits 1; decrescente → todos 0")
+        void ct1_deveRefletirDirecaoDoGradiente() {
+            assertEquals(-1L, SimilaridadeVisualService.calcularDhash(gradiente(true)));
+            assertEquals(0L, SimilaridadeVisualService.calcularDhash(gradiente(false)));
+        }
+
+        @Test
+        @DisplayName("CT2 — mesma imagem em outra resolução → distância 0")
+        void ct2_deveIgnorarResolucao() {
+            long grande = SimilaridadeVisualService.calcularDhash(padrao(800, 600, false));
+            long pequena = SimilaridadeVisualService.calcularDhash(padrao(400, 300, false));
+
+            assertEquals(0, IndiceHamming.distancia(grande, pequena));
+        }
+
+        @Test
+        @DisplayName("CT3 — tons invertidos → distância acima do limite")
+        void ct3_deveDistanciar_quando_imagemInvertida() {
+            long original = SimilaridadeVisualService.calcularDhash(padrao(800, 600, false));
+            long invertida = SimilaridadeVisualService.calcularDhash(padrao(800, 600, true));
+
+            assertTrue(IndiceHamming.distancia(original, invertida) > SimilaridadeVisualService.DISTANCIA_MAXIMA);
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarSimilares — CT4..CT8")
+    class BuscarSimilares {
+
+        @Test
+        @DisplayName("CT4 — parecidos ordenados por distância, sem o próprio traje, até o limite")
+        void ct4_deveRetornarParecidos() {
+            service.indexar(HASH_A, padrao(800, 600, false));
+            service.indexar(HASH_B, padrao(400, 300, false));
+            service.indexar(HASH_C, padrao(800, 600, true));
+            comTraje(1L, HASH_A);
+            when(trajeRepository.buscarResumos(any())).thenReturn(List.of(
+                    TrajeDataBuilder.umTraje().comId(1L).comImagemHash(HASH_A).buildResumo(),
+                    TrajeDataBuilder.umTraje().comId(3L).comImagemHash(HASH_B).buildResumo(),
+                    TrajeDataBuilder.umTraje().comId(2L).comImagemHash(HASH_A).buildResumo(),
+                    TrajeDataBuilder.umTraje().comId(4L).comImagemHash(HASH_B).buildResumo()));
+
+            List<TrajeResponse> similares = service.buscarSimilares(1L, 2);
+
+            assertEquals(List.of(2L, 3L), similares.stream().map(TrajeResponse::id).toList());
+        }
+
+        @Test
+        @DisplayName("CT5 — I2a: traje sem imagem → lista vazia")
+        void ct5_deveRetornarVazio_quando_semImagem() {
+            comTraje(1L, null);
+
+            assertTrue(service.buscarSimilares(1L, 10).isEmpty());
+            verify(trajeRepository, never()).buscarResumos(any());
+        }
+
+        @Test
+        @DisplayName("CT6 — I2b: imagem ainda não indexada → lista vazia")
+        void ct6_deveRetornarVazio_quando_naoIndexada() {
+            comTraje(1L, HASH_A);
+
+            assertTrue(service.buscarSimilares(1L, 10).isEmpty());
+            verify(trajeRepository, never()).buscarResumos(any());
+        }
+
+        @Test
+        @DisplayName("CT7 — I1: traje inexistente → ResourceNotFoundException")
+        void ct7_deveLancarNotFound_quando_trajeInexistente() {
+            when(trajeRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThrows(ResourceNotFoundException.class, () -> service.buscarSimilares(99L, 10));
+        }
+
+        @Test
+        @DisplayName("CT8 — I3 borda: limite 0 → BusinessException")
+        void ct8_deveLancarBusiness_quando_limiteZero() {
+            assertThrows(BusinessException.class, () -> service.buscarSimilares(1L, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("indexar / carregarIndice — CT9, CT10")
+    class Indexar {
+
+        @Test
+        @DisplayName("CT9 — indexar grava o dHash nos trajes do conteúdo")
+        void ct9_deveGravarDhash() {
+            long dhash = service.indexar(HASH_A, gradiente(true));
+
+            assertEquals(-1L, dhash);
+            verify(trajeRepository).atualizarImagemDhash(HASH_A, -1L);
+        }
+
+        @Test
+        @DisplayName("CT10 — índice carregado do banco responde às buscas")
+        void ct10_deveCarregarIndiceDoBanco() {
+            when(trajeRepository.findImagemDhashes()).thenReturn(List.of(
+                    new ImagemDhash(HASH_A, 0b1111L), new ImagemDhash(HASH_B, 0b0111L)));
+            comTraje(1L, HASH_A);
+            when(trajeRepository.buscarResumos(any())).thenReturn(List.of(
+                    TrajeDataBuilder.umTraje().comId(2L).comImagemHash(HASH_B).buildResumo()));
+
+            service.carregarIndice();
+
+            assertEquals(1, service.buscarSimilares(1L, 10).size());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.service.TabelaRelatorioPdf.Coluna;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — TabelaRelatorioPdf
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)                     | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------------------|----------------------
+ *   C1: quantidade de linhas        | V1 menos que um bloco / V2 várias pág.  | I1 nenhuma
+ *   C2: volume                      | V3 100 mil linhas                       | —
+ *
+ *   CT1 — V1: poucas linhas               → uma página, todas as linhas e o total
+ *   CT2 — V2: várias páginas              → cabeçalho e número em todas; cada linha uma única vez, em ordem
+ *   CT3 — I1: nenhuma linha               → aviso de relatório vazio, sem cabeçalho de tabela
+ *   CT4 — V3: 100 mil linhas              → páginas chegam à saída antes da última linha ser lida
+ *   CT5 — bloco não positivo              → IllegalArgumentException
+ */
+@DisplayName("TFS - TabelaRelatorioPdf (Teste Funcional Sistemático)")
+class TabelaRelatorioPdfTest {
+
+    private static final int LINHAS_POR_BLOCO = 50;
+    private static final Pattern ITEM = Pattern.compile("Item (\\d+)");
+
+    private record Linha(int numero) { }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private static TabelaRelatorioPdf<Linha> tabela() {
+        return new TabelaRelatorioPdf<>("RELATÓRIO DE TESTE", List.of(
+                Coluna.numero("Número", 1f, linha -> String.valueOf(linha.numero())),
+                Coluna.texto("Descrição", 4f, linha -> "Item " + linha.numero())),
+                LINHAS_POR_BLOCO);
+    }
+
+    private static Iterator<Linha> linhas(int quantidade) {
+        return IntStream.rangeClosed(1, quantidade).mapToObj(Linha::new).iterator();
+    }
+
+    private static byte[] escrever(Iterator<Linha> linhas) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        tabela().escrever("Subtítulo", linhas, saida);
+        return saida.toByteArray();
+    }
+
+    private static List<String> textoPorPagina(byte[] pdf) throws IOException {
+        try (PDDocument doc = Loader.loadPDF(pdf)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            return IntStream.rangeClosed(1, doc.getNumberOfPages()).mapToObj(pagina -> {
+                stripper.setStartPage(pagina);
+                stripper.setEndPage(pagina);
+                try {
+                    return stripper.getText(doc);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+    }
+
+    /** Conta os bytes que chegaram à saída, sem guardá-los. */
+    private static final class ContadorSaida extends OutputStream {
+        private long escritos;
+
+        @Override
+        public void write(int b) {
+            escritos++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            escritos += len;
+        }
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("CT1 — V1: poucas linhas cabem numa página com o total no fim")
+    void ct1_deve_listarTodasAsLinhas_quando_menosQueUmBloco() throws Exception {
+        List<String> paginas = textoPorPagina(escrever(linhas(3)));
+
+        assertEquals(1, paginas.size());
+        String texto = paginas.get(0);
+        assertTrue(texto.contains("RELATÓRIO DE TESTE"), "texto=" + texto);
+        assertTrue(texto.contains("Item 1") && texto.contains("Item 3"), "texto=" + texto);
+        assertTrue(texto.contains("Total: 3 registro(s)"), "texto=" + texto);
+    }
+
+    @Test
+    @DisplayName("CT2 — V2: cabeçalho e número em todas as páginas, cada linha uma única vez")
+    void ct2_deve_repetirCabecalhoESemDuplicar_quando_variasPaginas() throws Exception {
+        int quantidade = 1_000;
+        List<String> paginas = textoPorPagina(escrever(linhas(quantidade)));
+
+        assertTrue(paginas.size() > 1, "esperava várias páginas");
+        int esperado = 1;
+        for (int i = 0; i < paginas.size(); i++) {
+            String texto = paginas.get(i);
+            assertTrue(texto.contains("Descrição"), "página " + (i + 1) + " sem cabeçalho");
+            assertTrue(texto.contains("Página " + (i + 1)), "página " + (i + 1) + " sem número");
+
+            Matcher item = ITEM.matcher(texto);
+            while (item.find()) {
+                assertEquals(esperado++, Integer.parseInt(item.group(1)));
+            }
+        }
+        assertEquals(quantidade + 1, esperado);
+        assertTrue(paginas.get(paginas.size() - 1).contains("Total: 1000 registro(s)"));
+    }
+
+    @Test
+    @DisplayName("CT3 — I1: relatório vazio avisa que não há registros")
+    void ct3_deve_avisarRelatorioVazio_quando_nenhumaLinha() throws Exception {
+        List<String> paginas = textoPorPagina(escrever(linhas(0)));
+
+        assertEquals(1, paginas.size());
+        String texto = paginas.get(0);
+        assertTrue(texto.contains("Nenhum registro encontrado."), "texto=" + texto);
+        assertFalse(texto.contains("Descrição"), "texto=" + texto);
+    }
+
+    @Test
+    @DisplayName("CT4 — V3: com 100 mil linhas as páginas vão para a saída enquanto as linhas são lidas")
+    void ct4_deve_escreverPaginasAosPoucos_quando_100MilLinhas() {
+        int quantidade = 100_000;
+        ContadorSaida saida = new ContadorSaida();
+        long[] escritosAntesDaUltima = { -1 };
+        Iterator<Linha> origem = linhas(quantidade);
+        Iterator<Linha> linhas = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return origem.hasNext();
+            }
+
+            @Override
+            public Linha next() {
+                Linha linha = origem.next();
+                if (linha.numero() == quantidade) {
+                    escritosAntesDaUltima[0] = saida.escritos;
+                }
+                return linha;
+            }
+        };
+
+        int escritas = tabela().escrever("Subtítulo", linhas, saida);
+
+        assertEquals(quantidade, escritas);
+        assertFalse(origem.hasNext());
+        // Depois da última linha sobram só o último bloco e o fechamento do documento
+        // (árvore de páginas e xref); um documento montado em memória escreveria tudo aqui.
+        assertTrue(escritosAntesDaUltima[0] > saida.escritos / 2,
+                "antes da última linha: " + escritosAntesDaUltima[0] + " de " + saida.escritos + " bytes");
+    }
+
+    @Test
+    @DisplayName("CT5 — bloco sem linhas é recusado na construção")
+    void ct5_deve_recusar_quando_blocoNaoPositivo() {
+        List<Coluna<Linha>> colunas = List.of(Coluna.texto("Descrição", 1f, linha -> "Item"));
+
+        assertThrows(IllegalArgumentException.class, () -> new TabelaRelatorioPdf<>("T", colunas, 0));
+    }
+}
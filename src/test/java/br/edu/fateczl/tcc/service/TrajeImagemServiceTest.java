@@ -0,0 +1,614 @@
+package br.edu.fateczl.tcc.service;
+
+import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import br.edu.fateczl.tcc.exception.BusinessException;
+import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
+import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.storage.CacheImagens;
+import br.edu.fateczl.tcc.storage.ImagemArmazenada;
+import br.edu.fateczl.tcc.storage.ImagemArmazenadaEvent;
+import br.edu.fateczl.tcc.storage.ImagemConteudo;
+import br.edu.fateczl.tcc.storage.ImagemStorage;
+import br.edu.fateczl.tcc.util.TrajeDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static br.edu.fateczl.tcc.util.TrajeDataBuilder.TRAJE_ID_DEFAULT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * TFS — Teste Funcional Sistemático (PCE + AVL).
+ *
+ * =========================================================================
+ * MATRIZ — salvarImagem / removerImagem
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C1: trajeId                     | V1 existe                   | I1 não existe
+ *   C2: imagem anterior             | V2a nenhuma / V2b outra     | —
+ *   C3: hash anterior compartilhado | V3a órfão / V3b em uso      | —
+ *
+ *   CT1 — salvar V1+V2a: traje sem imagem          → hash/tipo gravados, url externa limpa, link devolvido
+ *   CT2 — salvar V1+V2b+V3a: troca de imagem        → arquivo anterior removido
+ *   CT3 — salvar V1+V2b+V3b: anterior compartilhado → arquivo anterior mantido
+ *   CT4 — salvar I1                                 → ResourceNotFoundException, storage intocado
+ *   CT5 — remover V1+V3a                            → campos limpos e arquivo removido
+ *
+ * =========================================================================
+ * MATRIZ — salvarImagem (leitura do upload em stream)
+ * =========================================================================
+ *   Variável                        | Classes Válidas (V)         | Classes Inválidas (I)
+ *   --------------------------------|-----------------------------|----------------------
+ *   C4: assinatura (magic bytes)    | V4 JPEG/PNG/WEBP/GIF        | I4 desconhecida / vazio
+ *   C5: bytes recebidos             | V5 ≤ 5 MB                   | I5 > 5 MB
+ *
+ *   CT11 — V4: tipo vem do conteúdo, não do cliente; bytes repassados íntegros
+ *   CT12 — I4: assinatura desconhecida → BusinessException, storage intocado
+ *   CT13 — I4 borda: upload vazio      → BusinessException
+ *   CT14 — I5 borda: 5 MB + 1 byte     → BusinessException durante a leitura, traje intocado
+ *
+ * =========================================================================
+ * MATRIZ — variantes
+ * =========================================================================
+ *   CT15 — salvar: publica ImagemArmazenadaEvent com o hash novo (gera variantes após o commit)
+ *   CT16 — buscar PEQUENA já gerada         → variante em image/jpeg
+ *   CT17 — buscar PEQUENA ainda não gerada  → cai no original
+ *   CT18 — buscar ORIGINAL                  → não consulta variantes
+ *
+ * =========================================================================
+ * MATRIZ — buscarImagemPorHash (URL imutável, sem banco)
+ * =========================================================================
+ *   CT19 — original existente   → tipo detectado pelos bytes, repositório não consultado
+ *   CT20 — variante existente   → variante informada no conteúdo (ETag distinto do original)
+ *   CT21 — hash ausente         → Optional vazio
+ *   CT6 — buscar V1 sem imagem                      → Optional vazio
+ *   CT7 — buscar V1 com imagem                      → conteúdo do storage com tipo do traje
+ *
+ * =========================================================================
+ * MATRIZ — migrarImagemLegada
+ * =========================================================================
+ *   CT8  — data URL base64 válida                   → migrada, imagemUrl limpa
+ *   CT9  — URL externa (não data:)                  → false, nada gravado
+ *   CT10 — data URL com base64 inválido             → false, traje mantido
+ *   CT30 — data URL acima de 5 MB                   → false, nada decodificado nem gravado
+ *   CT31 — JPEG declarado como PNG                  → false, nada gravado
+ *
+ * =========================================================================
+ * MATRIZ — cache de imagens
+ * =========================================================================
+ *   CT22 — traje e imagem em cache   → nem banco nem storage consultados
+ *   CT23 — cache vazio               → lê do storage, guarda no cache e associa traje → hash
+ *   CT24 — salvar/remover imagem     → vínculo do traje invalidado
+ *   CT25 — arquivo órfão descartado  → conteúdo do hash invalidado
+ *
+ * =========================================================================
+ * MATRIZ — arquivo sem dono (rollback e corrida com upload deduplicado)
+ * =========================================================================
+ *   CT26 — rollback, arquivo criado pelo upload       → arquivo removido
+ *   CT27 — rollback, conteúdo já existia (deduplicado) → arquivo mantido
+ *   CT28 — órfã descartada com upload do mesmo hash sem commit → arquivo mantido
+ *   CT29 — hash voltou a ser usado antes de apagar    → arquivo mantido
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TFS - TrajeImagemService (Teste Funcional Sistemático)")
+class TrajeImagemServiceTest {
+
+    private static final String HASH_NOVO = "a".repeat(64);
+    private static final String HASH_ANTIGO = "b".repeat(64);
+
+    @Mock
+    private TrajeRepository trajeRepository;
+
+    @Mock
+    private ImagemStorage imagemStorage;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheImagens cacheImagens;
+
+    private TrajeImagemService service;
+
+    private Traje traje;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrajeImagemService(trajeRepository, imagemStorage, new ImagemService(), eventPublisher, cacheImagens);
+        traje = TrajeDataBuilder.umTraje().buildEntity();
+    }
+
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R' };
+
+    private static ByteArrayInputStream conteudo() {
+        return new ByteArrayInputStream(PNG);
+    }
+
+    /** Simula o storage consumindo o stream inteiro, como a implementação real faz. */
+    private static ImagemArmazenada consumir(InputStream in) throws IOException {
+        long tamanho = in.transferTo(OutputStream.nullOutputStream());
+        return new ImagemArmazenada(HASH_NOVO, tamanho, false);
+    }
+
+    @Nested
+    @DisplayName("salvarImagem / removerImagem — CT1..CT5")
+    class SalvarRemover {
+
+        @Test
+        @DisplayName("CT1 — V1+V2a: traje sem imagem → grava hash e devolve link")
+        void ct1_deve_gravarHash_quando_trajeSemImagem() {
+            traje.setImagemUrl("https://exemplo.com/antiga.jpg");
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+
+            String url = service.salvarImagem(TRAJE_ID_DEFAULT, conteudo());
+
+            assertEquals("/trajes/imagem/" + HASH_NOVO, url);
+            assertEquals(HASH_NOVO, traje.getImagemHash());
+            assertEquals("image/png", traje.getImagemTipo());
+            assertNull(traje.getImagemUrl());
+            verify(trajeRepository).save(traje);
+            verify(imagemStorage, never()).remover(any());
+        }
+
+        @Test
+        @DisplayName("CT2 — V2b+V3a: troca de imagem com anterior órfã → remove arquivo anterior")
+        void ct2_deve_removerAnterior_quando_orfa() {
+            traje.setImagemHash(HASH_ANTIGO);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+            when(trajeRepository.existsByImagemHash(HASH_ANTIGO)).thenReturn(false);
+
+            service.salvarImagem(TRAJE_ID_DEFAULT, conteudo());
+
+            verify(imagemStorage).remover(HASH_ANTIGO);
+        }
+
+        @Test
+        @DisplayName("CT3 — V2b+V3b: anterior compartilhada com outro traje → mantém arquivo")
+        void ct3_deve_manterAnterior_quando_compartilhada() {
+            traje.setImagemHash(HASH_ANTIGO);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+            when(trajeRepository.existsByImagemHash(HASH_ANTIGO)).thenReturn(true);
+
+            service.salvarImagem(TRAJE_ID_DEFAULT, conteudo());
+
+            verify(imagemStorage, never()).remover(any());
+        }
+
+        @Test
+        @DisplayName("CT4 — I1 isolada: traje inexistente → ResourceNotFoundException")
+        void ct4_deve_lancarNotFound_quando_trajeInexistente() {
+            when(trajeRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThrows(ResourceNotFoundException.class,
+                    () -> service.salvarImagem(99L, conteudo()));
+            verify(imagemStorage, never()).salvar(any());
+        }
+
+        @Test
+        @DisplayName("CT5 — remover V1+V3a: limpa campos e remove arquivo órfão")
+        void ct5_deve_limparCampos_quando_remover() {
+            traje.setImagemHash(HASH_ANTIGO);
+            traje.setImagemTipo("image/png");
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(trajeRepository.existsByImagemHash(HASH_ANTIGO)).thenReturn(false);
+
+            service.removerImagem(TRAJE_ID_DEFAULT);
+
+            assertNull(traje.getImagemHash());
+            assertNull(traje.getImagemTipo());
+            verify(imagemStorage).remover(HASH_ANTIGO);
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarImagem — CT6, CT7")
+    class Buscar {
+
+        @Test
+        @DisplayName("CT6 — V1 sem imagem → Optional vazio")
+        void ct6_deve_retornarVazio_quando_semImagem() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertTrue(service.buscarImagem(TRAJE_ID_DEFAULT).isEmpty());
+            verify(imagemStorage, never()).carregar(any());
+        }
+
+        @Test
+        @DisplayName("CT7 — V1 com imagem → conteúdo do storage com tipo do traje")
+        void ct7_deve_retornarConteudo_quando_comImagem() {
+            traje.setImagemHash(HASH_NOVO);
+            traje.setImagemTipo("image/jpeg");
+            ByteArrayResource recurso = new ByteArrayResource(new byte[]{1, 2, 3});
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.carregar(HASH_NOVO)).thenReturn(Optional.of(recurso));
+
+            ImagemConteudo imagem = service.buscarImagem(TRAJE_ID_DEFAULT).orElseThrow();
+
+            assertEquals(HASH_NOVO, imagem.hash());
+            assertEquals("image/jpeg", imagem.tipoMime());
+            assertEquals(recurso, imagem.recurso());
+        }
+    }
+
+    @Nested
+    @DisplayName("migrarImagemLegada — CT8..CT10, CT30, CT31")
+    class MigrarLegada {
+
+        @Test
+        @DisplayName("CT8 — data URL válida → migrada e imagemUrl limpa")
+        void ct8_deve_migrar_quando_dataUrlValida() {
+            String dataUrl = "data:image/gif;base64," + Base64.getEncoder().encodeToString(new byte[]{7, 7, 7});
+            traje.setImagemUrl(dataUrl);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 3, false));
+
+            assertTrue(service.migrarImagemLegada(TRAJE_ID_DEFAULT));
+
+            assertEquals(HASH_NOVO, traje.getImagemHash());
+            assertEquals("image/gif", traje.getImagemTipo());
+            assertNull(traje.getImagemUrl());
+        }
+
+        @Test
+        @DisplayName("CT9 — URL externa → não migra")
+        void ct9_naoDeveMigrar_quando_urlExterna() {
+            traje.setImagemUrl("https://exemplo.com/x.jpg");
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertFalse(service.migrarImagemLegada(TRAJE_ID_DEFAULT));
+            verify(imagemStorage, never()).salvar(any());
+        }
+
+        @Test
+        @DisplayName("CT10 — base64 inválido → não migra e mantém o traje")
+        void ct10_naoDeveMigrar_quando_base64Invalido() {
+            traje.setImagemUrl("data:image/png;base64,!!!");
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertFalse(service.migrarImagemLegada(TRAJE_ID_DEFAULT));
+            assertEquals("data:image/png;base64,!!!", traje.getImagemUrl());
+            verify(trajeRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("CT30 — acima de 5 MB → não migra e não grava no storage")
+        void ct30_naoDeveMigrar_quando_acimaDoTamanhoMaximo() {
+            byte[] bytes = new byte[5 * 1024 * 1024 + 1];
+            String dataUrl = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes);
+            traje.setImagemUrl(dataUrl);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertFalse(service.migrarImagemLegada(TRAJE_ID_DEFAULT));
+            assertEquals(dataUrl, traje.getImagemUrl());
+            verify(imagemStorage, never()).salvar(any());
+        }
+
+        @Test
+        @DisplayName("CT31 — JPEG declarado como PNG → não migra")
+        void ct31_naoDeveMigrar_quando_tipoConflitante() {
+            byte[] jpeg = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0 };
+            traje.setImagemUrl("data:image/png;base64," + Base64.getEncoder().encodeToString(jpeg));
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertFalse(service.migrarImagemLegada(TRAJE_ID_DEFAULT));
+            verify(imagemStorage, never()).salvar(any());
+            verify(trajeRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("salvarImagem em stream — CT11..CT14")
+    class SalvarStream {
+
+        @Test
+        @DisplayName("CT11 — V4: tipo detectado pelos magic bytes e bytes repassados sem perda")
+        void ct11_deve_detectarTipo_e_repassarBytes() {
+            byte[] gif = "GIF89a-conteudo".getBytes();
+            byte[][] recebido = new byte[1][];
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenAnswer(inv -> {
+                recebido[0] = inv.getArgument(0, InputStream.class).readAllBytes();
+                return new ImagemArmazenada(HASH_NOVO, recebido[0].length, false);
+            });
+
+            service.salvarImagem(TRAJE_ID_DEFAULT, new ByteArrayInputStream(gif));
+
+            assertEquals("image/gif", traje.getImagemTipo());
+            assertTrue(Arrays.equals(gif, recebido[0]));
+        }
+
+        @Test
+        @DisplayName("CT12 — I4: assinatura desconhecida → BusinessException")
+        void ct12_deve_lancarBusiness_quando_formatoDesconhecido() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertThrows(BusinessException.class, () -> service.salvarImagem(TRAJE_ID_DEFAULT,
+                    new ByteArrayInputStream("BM-bitmap-nao-aceito".getBytes())));
+            verify(imagemStorage, never()).salvar(any());
+        }
+
+        @Test
+        @DisplayName("CT13 — I4 borda: upload vazio → BusinessException")
+        void ct13_deve_lancarBusiness_quando_vazio() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+
+            assertThrows(BusinessException.class,
+                    () -> service.salvarImagem(TRAJE_ID_DEFAULT, new ByteArrayInputStream(new byte[0])));
+        }
+
+        @Test
+        @DisplayName("CT14 — I5 borda: 5 MB + 1 byte → BusinessException e traje intocado")
+        void ct14_deve_lancarBusiness_quando_acimaDoLimite() {
+            byte[] grande = new byte[5 * 1024 * 1024 + 1];
+            System.arraycopy(PNG, 0, grande, 0, PNG.length);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenAnswer(inv -> consumir(inv.getArgument(0, InputStream.class)));
+
+            assertThrows(BusinessException.class,
+                    () -> service.salvarImagem(TRAJE_ID_DEFAULT, new ByteArrayInputStream(grande)));
+            assertNull(traje.getImagemHash());
+            verify(trajeRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Variantes — CT15..CT18")
+    class Variantes {
+
+        @Test
+        @DisplayName("CT15 — salvar publica o evento para gerar as variantes")
+        void ct15_devePublicarEvento_quando_salvar() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+
+            service.salvarImagem(TRAJE_ID_DEFAULT, conteudo());
+
+            verify(eventPublisher).publishEvent(new ImagemArmazenadaEvent(HASH_NOVO));
+        }
+
+        @Test
+        @DisplayName("CT16 — variante gerada → devolve a variante em JPEG")
+        void ct16_deveDevolverVariante_quando_gerada() {
+            traje.setImagemHash(HASH_NOVO);
+            traje.setImagemTipo("image/png");
+            ByteArrayResource miniatura = new ByteArrayResource(new byte[]{9});
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.carregarVariante(HASH_NOVO, VarianteImagem.PEQUENA)).thenReturn(Optional.of(miniatura));
+
+            ImagemConteudo imagem = service.buscarImagem(TRAJE_ID_DEFAULT, VarianteImagem.PEQUENA).orElseThrow();
+
+            assertEquals("image/jpeg", imagem.tipoMime());
+            assertEquals(miniatura, imagem.recurso());
+            verify(imagemStorage, never()).carregar(any());
+        }
+
+        @Test
+        @DisplayName("CT17 — variante ainda não gerada → devolve o original")
+        void ct17_deveDevolverOriginal_quando_varianteAusente() {
+            traje.setImagemHash(HASH_NOVO);
+            traje.setImagemTipo("image/png");
+            ByteArrayResource original = new ByteArrayResource(new byte[]{1});
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.carregarVariante(HASH_NOVO, VarianteImagem.PEQUENA)).thenReturn(Optional.empty());
+            when(imagemStorage.carregar(HASH_NOVO)).thenReturn(Optional.of(original));
+
+            ImagemConteudo imagem = service.buscarImagem(TRAJE_ID_DEFAULT, VarianteImagem.PEQUENA).orElseThrow();
+
+            assertEquals("image/png", imagem.tipoMime());
+            assertEquals(original, imagem.recurso());
+        }
+
+        @Test
+        @DisplayName("CT18 — ORIGINAL não consulta variantes")
+        void ct18_naoDeveConsultarVariantes_quando_original() {
+            traje.setImagemHash(HASH_NOVO);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.carregar(HASH_NOVO)).thenReturn(Optional.of(new ByteArrayResource(new byte[]{1})));
+
+            service.buscarImagem(TRAJE_ID_DEFAULT, VarianteImagem.ORIGINAL);
+
+            verify(imagemStorage, never()).carregarVariante(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("buscarImagemPorHash — CT19..CT21")
+    class BuscarPorHash {
+
+        @Test
+        @DisplayName("CT19 — original: tipo pelos magic bytes, sem consultar o banco")
+        void ct19_deveDetectarTipo_semConsultarBanco() {
+            when(imagemStorage.carregar(HASH_NOVO)).thenReturn(Optional.of(new ByteArrayResource(PNG)));
+
+            ImagemConteudo imagem = service.buscarImagemPorHash(HASH_NOVO, null).orElseThrow();
+
+            assertEquals("image/png", imagem.tipoMime());
+            assertEquals(VarianteImagem.ORIGINAL, imagem.variante());
+            assertEquals("\"" + HASH_NOVO + "\"", imagem.etag());
+            verifyNoInteractions(trajeRepository);
+        }
+
+        @Test
+        @DisplayName("CT20 — variante existente: ETag próprio da variante")
+        void ct20_deveDevolverVariante_comEtagPropria() {
+            when(imagemStorage.carregarVariante(HASH_NOVO, VarianteImagem.MEDIA))
+                    .thenReturn(Optional.of(new ByteArrayResource(new byte[]{1})));
+
+            ImagemConteudo imagem = service.buscarImagemPorHash(HASH_NOVO, VarianteImagem.MEDIA).orElseThrow();
+
+            assertEquals(VarianteImagem.MEDIA, imagem.variante());
+            assertEquals("\"" + HASH_NOVO + "-media\"", imagem.etag());
+        }
+
+        @Test
+        @DisplayName("CT21 — hash sem arquivo → Optional vazio")
+        void ct21_deveRetornarVazio_quando_hashAusente() {
+            when(imagemStorage.carregar(HASH_NOVO)).thenReturn(Optional.empty());
+
+            assertTrue(service.buscarImagemPorHash(HASH_NOVO, null).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("cache de imagens — CT22..CT25")
+    class Cache {
+
+        @Test
+        @DisplayName("CT22 — traje e imagem em cache → sem banco e sem storage")
+        void ct22_deveServirDoCache_semBancoNemStorage() {
+            ImagemConteudo emCache = new ImagemConteudo(HASH_NOVO, VarianteImagem.ORIGINAL, "image/png",
+                    new ByteArrayResource(PNG));
+            when(cacheImagens.hashDoTraje(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(HASH_NOVO));
+            when(cacheImagens.buscar(HASH_NOVO, VarianteImagem.ORIGINAL)).thenReturn(Optional.of(emCache));
+
+            ImagemConteudo imagem = service.buscarImagem(TRAJE_ID_DEFAULT).orElseThrow();
+
+            assertEquals(emCache, imagem);
+            verifyNoInteractions(trajeRepository, imagemStorage);
+        }
+
+        @Test
+        @DisplayName("CT23 — cache vazio → lê do storage, guarda e associa traje ao hash")
+        void ct23_deveGuardarNoCache_quando_ausente() {
+            traje.setImagemHash(HASH_NOVO);
+            traje.setImagemTipo("image/png");
+            ByteArrayResource recurso = new ByteArrayResource(PNG);
+            when(cacheImagens.geracao()).thenReturn(7L);
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.carregar(HASH_NOVO)).thenReturn(Optional.of(recurso));
+
+            service.buscarImagem(TRAJE_ID_DEFAULT);
+
+            verify(cacheImagens).associar(TRAJE_ID_DEFAULT, HASH_NOVO, 7L);
+            verify(cacheImagens).guardar(
+                    new ImagemConteudo(HASH_NOVO, VarianteImagem.ORIGINAL, "image/png", recurso), 7L);
+        }
+
+        @Test
+        @DisplayName("CT24 — salvar e remover imagem invalidam o vínculo do traje")
+        void ct24_deveInvalidarTraje_quando_imagemAlterada() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+
+            service.salvarImagem(TRAJE_ID_DEFAULT, conteudo());
+            service.removerImagem(TRAJE_ID_DEFAULT);
+
+            verify(cacheImagens, atLeast(2)).invalidarTraje(TRAJE_ID_DEFAULT);
+        }
+
+        @Test
+        @DisplayName("CT25 — arquivo órfão descartado → conteúdo do hash sai do cache")
+        void ct25_deveInvalidarHash_quando_orfaDescartada() {
+            when(trajeRepository.existsByImagemHash(HASH_ANTIGO)).thenReturn(false);
+
+            service.descartarSeOrfa(HASH_ANTIGO);
+
+            verify(imagemStorage).remover(HASH_ANTIGO);
+            verify(cacheImagens).invalidarHash(HASH_ANTIGO);
+        }
+    }
+
+    @Nested
+    @DisplayName("arquivo sem dono — CT26..CT29")
+    class ArquivoSemDono {
+
+        /** Roda {@code acao} como uma transação e a encerra com {@code status}. */
+        private void emTransacao(Runnable acao, int status) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                acao.run();
+                List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+                }
+                sincronizacoes.forEach(sync -> sync.afterCompletion(status));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("CT26 — rollback de upload que criou o arquivo → arquivo removido")
+        void ct26_deveRemoverArquivoNovo_quando_transacaoRevertida() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, true));
+            when(trajeRepository.existsByImagemHash(HASH_NOVO)).thenReturn(false);
+
+            emTransacao(() -> service.salvarImagem(TRAJE_ID_DEFAULT, conteudo()),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            verify(imagemStorage).remover(HASH_NOVO);
+            verify(cacheImagens).invalidarHash(HASH_NOVO);
+        }
+
+        @Test
+        @DisplayName("CT27 — rollback de upload deduplicado → arquivo de outro traje mantido")
+        void ct27_deveManterArquivo_quando_rollbackDeConteudoExistente() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+
+            emTransacao(() -> service.salvarImagem(TRAJE_ID_DEFAULT, conteudo()),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            verify(imagemStorage, never()).remover(any());
+        }
+
+        @Test
+        @DisplayName("CT28 — órfã descartada enquanto um upload do mesmo conteúdo não fez commit → mantida")
+        void ct28_deveManterArquivo_quando_uploadDoMesmoHashPendente() {
+            when(trajeRepository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
+            when(imagemStorage.salvar(any())).thenReturn(new ImagemArmazenada(HASH_NOVO, 5, false));
+            when(trajeRepository.existsByImagemHash(HASH_NOVO)).thenReturn(false);
+
+            // o upload deduplicado ainda não terminou quando o descarte roda após o commit
+            emTransacao(() -> {
+                service.descartarSeOrfa(HASH_NOVO);
+                service.salvarImagem(TRAJE_ID_DEFAULT, conteudo());
+            }, TransactionSynchronization.STATUS_COMMITTED);
+
+            verify(imagemStorage, never()).remover(any());
+        }
+
+        @Test
+        @DisplayName("CT29 — hash volta a ser referenciado antes do commit → arquivo mantido")
+        void ct29_deveManterArquivo_quando_referenciadoNaHoraDeApagar() {
+            when(trajeRepository.existsByImagemHash(HASH_ANTIGO)).thenReturn(false, true);
+
+            emTransacao(() -> service.descartarSeOrfa(HASH_ANTIGO), TransactionSynchronization.STATUS_COMMITTED);
+
+            verify(imagemStorage, never()).remover(any());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package br.edu.fateczl.tcc.service;
 
 import br.edu.fateczl.tcc.domain.Traje;
+import br.edu.fateczl.tcc.dto.traje.CalendarioOcupacaoResponse;
+import br.edu.fateczl.tcc.dto.traje.OcupacaoTrajeResponse;
 import br.edu.fateczl.tcc.dto.traje.PeriodoAlugadoResponse;
 import br.edu.fateczl.tcc.dto.traje.TrajeRequest;
 import br.edu.fateczl.tcc.dto.traje.TrajeResponse;
@@ -8,9 +10,12 @@ import br.edu.fateczl.tcc.enums.SexoEnum;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import br.edu.fateczl.tcc.exception.BusinessException;
 import br.edu.fateczl.tcc.exception.ResourceNotFoundException;
 import br.edu.fateczl.tcc.repository.ItemAluguelRepository;
+import br.edu.fateczl.tcc.repository.PeriodoAtivo;
 import br.edu.fateczl.tcc.repository.TrajeRepository;
+import br.edu.fateczl.tcc.repository.TrajeResumo;
 import br.edu.fateczl.tcc.util.SpecificationTestUtils;
 import br.edu.fateczl.tcc.util.SpecificationTestUtils.CapturedSpec;
 import br.edu.fateczl.tcc.util.TrajeDataBuilder;
@@ -32,6 +37,8 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +49,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -110,14 +118,14 @@ import static org.mockito.Mockito.when;
  *   CT8  — buscarPorId I5: id inexistente                           → ResourceNotFoundException
  *   CT9  — listarPaginado V: página com 1+                          → Page com elementos
  *   CT10 — listarPaginado AVL: página vazia                         → Page vazia
- *   CT11 — buscar(sem pageable) V6a: todos filtros null             → findAll(spec) retorna lista
- *   CT12 — buscar(sem pageable) V6b: cada filtro isolado            → findAll(spec) retorna lista
- *   CT13 — buscar(sem pageable) V6c: todos os filtros combinados    → findAll(spec) retorna lista
- *   CT14 — buscar(pageable sem busca) V6a: sem filtros              → findAll(spec, pageable)
- *   CT15 — buscar(pageable sem busca) V6c: com todos os filtros     → findAll(spec, pageable)
- *   CT16 — buscar(pageable com busca) V7a: busca preenchida         → findAll(spec com OR, pageable)
- *   CT17 — buscar(pageable com busca) V7b: busca vazia              → findAll sem OR
- *   CT18 — buscar(pageable com busca) V7c: busca null               → findAll sem OR
+ *   CT11 — buscar(sem pageable) V6a: todos filtros null             → buscarResumos(spec) retorna lista
+ *   CT12 — buscar(sem pageable) V6b: cada filtro isolado            → buscarResumos(spec) retorna lista
+ *   CT13 — buscar(sem pageable) V6c: todos os filtros combinados    → buscarResumos(spec) retorna lista
+ *   CT14 — buscar(pageable sem busca) V6a: sem filtros              → buscarResumos(spec, pageable)
+ *   CT15 — buscar(pageable sem busca) V6c: com todos os filtros     → buscarResumos(spec, pageable)
+ *   CT16 — buscar(pageable com busca) V7a: busca preenchida         → buscarResumos(spec com OR, pageable)
+ *   CT17 — buscar(pageable com busca) V7b: busca vazia              → buscarResumos sem OR
+ *   CT18 — buscar(pageable com busca) V7c: busca null               → buscarResumos sem OR
  *   CT19 — buscarPorNomeOuDescricao V: termo com matches            → Lista com elementos
  *   CT20 — buscarPorNomeOuDescricao AVL: termo sem matches          → Lista vazia
  *   CT21 — buscarPorFaixaPreco V: faixa com matches                 → Lista com elementos
@@ -126,9 +134,15 @@ import static org.mockito.Mockito.when;
  *   CT24 — atualizar I5: id inexistente                             → ResourceNotFoundException, save nunca chamado
  *   CT25 — deletar V5: id existente                                 → repository.delete chamado
  *   CT26 — deletar I5: id inexistente                               → ResourceNotFoundException, delete nunca chamado
- *   CT27 — buscarPeriodosAlugados V5+V: id existente, repositório retorna 2 períodos → Lista mapeada com 2 elementos
- *   CT28 — buscarPeriodosAlugados V5+AVL: id existente, repositório retorna lista vazia → Lista vazia
- *   CT29 — buscarPeriodosAlugados I5: id inexistente                → ResourceNotFoundException, repositório de itens nunca consultado
+ *   CT27 — buscarPeriodosAlugados V5+V: id existente, índice retorna 2 períodos → Lista com 2 elementos
+ *   CT28 — buscarPeriodosAlugados V5+AVL: id existente, índice retorna lista vazia → Lista vazia
+ *   CT29 — buscarPeriodosAlugados I5: id inexistente                → ResourceNotFoundException, índice de disponibilidade nunca consultado
+ *   CT30 — buscarOcupacao V: períodos cortados nas bordas do intervalo → bits só dentro do intervalo, traje livre vazio
+ *   CT31 — buscarOcupacao I: fim antes do início                     → BusinessException, nada consultado
+ *   CT32 — buscarOcupacao AVL: 366 dias aceito, 367 recusado         → BusinessException só acima do limite
+ *   CT33 — buscar(com período) V: retirada e devolução informadas   → buscarResumos(spec, pageable) com o filtro de período
+ *   CT34 — buscar(com período) I: só uma das datas informada         → BusinessException, repository não consultado
+ *   CT35 — buscar(com período) I: devolução antes da retirada        → BusinessException, repository não consultado
  */
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TFS - TrajeService (Teste Funcional Sistemático)")
@@ -138,7 +152,10 @@ class TrajeServiceTest {
     private TrajeRepository repository;
 
     @Mock
-    private ImagemService imagemService;
+    private TrajeImagemService trajeImagemService;
+
+    @Mock
+    private DisponibilidadeTrajeService disponibilidade;
 
     @Mock
     private ItemAluguelRepository itemAluguelRepository;
@@ -148,9 +165,12 @@ class TrajeServiceTest {
 
     private Traje traje;
 
+    private TrajeResumo resumo;
+
     @BeforeEach
     void setUp() {
         traje = TrajeDataBuilder.umTraje().buildEntity();
+        resumo = TrajeDataBuilder.umTraje().buildResumo();
     }
 
     private void stubarCaminhoFelizCriar() {
@@ -308,8 +328,8 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT9 — V típico: página com 1+ trajes")
         void ct9_deve_retornarPagina_quando_existemTrajes() {
-            Page<Traje> page = new PageImpl<>(List.of(traje));
-            when(repository.findAll(any(Pageable.class))).thenReturn(page);
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(isNull(), any(Pageable.class))).thenReturn(page);
 
             Page<TrajeResponse> result = service.listarPaginado(0, 10);
 
@@ -320,7 +340,7 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT10 — AVL: página vazia")
         void ct10_deve_retornarPaginaVazia_quando_semTrajes() {
-            when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+            when(repository.buscarResumos(isNull(), any(Pageable.class))).thenReturn(Page.empty());
 
             Page<TrajeResponse> result = service.listarPaginado(0, 10);
 
@@ -343,13 +363,13 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT11 — V6a: buscar(sem pageable) com todos os filtros nulos — Specification não adiciona filtros")
         void ct11_deve_retornarLista_quando_filtrosTodosNulos() {
-            when(repository.findAll(any(Specification.class))).thenReturn(List.of(traje));
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of(resumo));
 
             List<TrajeResponse> result = service.buscar(null, null, null, null);
 
             assertEquals(1, result.size());
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture());
+            verify(repository).buscarResumos(captor.capture());
 
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
             verifyNoInteractions(captured.cb());
@@ -358,7 +378,7 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT12 — V6b: buscar(sem pageable) com cada filtro isolado — adiciona exatamente o cb.equal correspondente")
         void ct12_deve_retornarLista_quando_filtroIsolado() {
-            when(repository.findAll(any(Specification.class))).thenReturn(List.of(traje));
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of(resumo));
 
             assertEquals(1, service.buscar(StatusTraje.DISPONIVEL, null, null, null).size());
             assertEquals(1, service.buscar(null, SexoEnum.MASCULINO, null, null).size());
@@ -366,7 +386,7 @@ class TrajeServiceTest {
             assertEquals(1, service.buscar(null, null, null, TamanhoTraje.M).size());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository, times(4)).findAll(captor.capture());
+            verify(repository, times(4)).buscarResumos(captor.capture());
             List<Specification<Traje>> specs = captor.getAllValues();
 
             verificarFiltroIsolado(specs.get(0), "status", StatusTraje.DISPONIVEL);
@@ -388,7 +408,7 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT13 — V6c: buscar(sem pageable) com todos os filtros combinados — 4 cb.equal e cada root.get")
         void ct13_deve_retornarLista_quando_filtrosCombinados() {
-            when(repository.findAll(any(Specification.class))).thenReturn(List.of(traje));
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of(resumo));
 
             List<TrajeResponse> result = service.buscar(
                     StatusTraje.DISPONIVEL, SexoEnum.MASCULINO, TipoTraje.TERNO, TamanhoTraje.M);
@@ -396,7 +416,7 @@ class TrajeServiceTest {
             assertEquals(1, result.size());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture());
+            verify(repository).buscarResumos(captor.capture());
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
 
             verify(captured.cb(), times(4)).equal(any(Expression.class), any(Object.class));
@@ -417,15 +437,15 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT14 — V6a: buscar(com pageable, sem busca) sem filtros — Specification não adiciona filtros")
         void ct14_deve_retornarPagina_quando_pageableSemFiltros() {
-            Page<Traje> page = new PageImpl<>(List.of(traje));
-            when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
             Page<TrajeResponse> result = service.buscar(null, null, null, null, Pageable.ofSize(10));
 
             assertEquals(1, result.getTotalElements());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture(), any(Pageable.class));
+            verify(repository).buscarResumos(captor.capture(), any(Pageable.class));
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
             verifyNoInteractions(captured.cb());
         }
@@ -433,8 +453,8 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT15 — V6c: buscar(com pageable, sem busca) com todos os filtros — 4 cb.equal")
         void ct15_deve_retornarPagina_quando_pageableComFiltros() {
-            Page<Traje> page = new PageImpl<>(List.of(traje));
-            when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
             Page<TrajeResponse> result = service.buscar(
                     StatusTraje.DISPONIVEL, SexoEnum.MASCULINO, TipoTraje.TERNO, TamanhoTraje.M,
@@ -443,7 +463,7 @@ class TrajeServiceTest {
             assertEquals(1, result.getTotalElements());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture(), any(Pageable.class));
+            verify(repository).buscarResumos(captor.capture(), any(Pageable.class));
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
             verify(captured.cb(), times(4)).equal(any(Expression.class), any(Object.class));
             // 4 lambdas non-null >>> 3 cb.and; mata "replaced return value with null" nas linhas 103-112.
@@ -454,8 +474,8 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT16 — V7a: buscar(com pageable, com busca) com todos os enums + busca preenchida — 4 cb.equal + OR de 3 likes")
         void ct16_deve_retornarPagina_quando_buscaPreenchida() {
-            Page<Traje> page = new PageImpl<>(List.of(traje));
-            when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
             Page<TrajeResponse> result = service.buscar(
                     StatusTraje.DISPONIVEL, SexoEnum.MASCULINO, TipoTraje.TERNO, TamanhoTraje.M,
@@ -464,7 +484,7 @@ class TrajeServiceTest {
             assertEquals(1, result.getTotalElements());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture(), any(Pageable.class));
+            verify(repository).buscarResumos(captor.capture(), any(Pageable.class));
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
 
             verify(captured.cb(), times(4)).equal(any(Expression.class), any(Object.class));
@@ -486,8 +506,8 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT17 — V7b: buscar(com pageable, com busca) com busca vazia — não aplica OR/like")
         void ct17_deve_retornarPagina_quando_buscaVazia() {
-            Page<Traje> page = new PageImpl<>(List.of(traje));
-            when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
             Page<TrajeResponse> result = service.buscar(
                     null, null, null, null, "", Pageable.ofSize(10));
@@ -495,7 +515,7 @@ class TrajeServiceTest {
             assertEquals(1, result.getTotalElements());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture(), any(Pageable.class));
+            verify(repository).buscarResumos(captor.capture(), any(Pageable.class));
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
 
             verifyNoInteractions(captured.cb());
@@ -504,8 +524,8 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT18 — V7c: buscar(com pageable, com busca) com busca null — Specification não adiciona filtros")
         void ct18_deve_retornarPagina_quando_buscaNula() {
-            Page<Traje> page = new PageImpl<>(List.of(traje));
-            when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
             Page<TrajeResponse> result = service.buscar(
                     null, null, null, null, null, Pageable.ofSize(10));
@@ -513,7 +533,7 @@ class TrajeServiceTest {
             assertEquals(1, result.getTotalElements());
 
             ArgumentCaptor<Specification<Traje>> captor = specCaptor();
-            verify(repository).findAll(captor.capture(), any(Pageable.class));
+            verify(repository).buscarResumos(captor.capture(), any(Pageable.class));
             CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
 
             verifyNoInteractions(captured.cb());
@@ -525,23 +545,29 @@ class TrajeServiceTest {
     // =========================================================
     @Nested
     @DisplayName("Buscar por nome/descrição — matriz TFS")
+    @SuppressWarnings("unchecked")
     class BuscarPorNomeOuDescricao {
 
         @Test
         @DisplayName("CT19 — V: termo com matches")
         void ct19_deve_retornarLista_quando_termoComMatches() {
-            when(repository.buscarPorNomeOuDescricao("terno")).thenReturn(List.of(traje));
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of(resumo));
 
             List<TrajeResponse> result = service.buscarPorNomeOuDescricao("terno");
 
             assertEquals(1, result.size());
-            verify(repository).buscarPorNomeOuDescricao("terno");
+            ArgumentCaptor<Specification<Traje>> captor = ArgumentCaptor.forClass(Specification.class);
+            verify(repository).buscarResumos(captor.capture());
+            CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
+            verify(captured.cb(), times(2)).like(any(Expression.class), eq("%terno%"));
+            verify(captured.root()).get("nome");
+            verify(captured.root()).get("descricao");
         }
 
         @Test
         @DisplayName("CT20 — AVL: termo sem matches")
         void ct20_deve_retornarListaVazia_quando_termoSemMatches() {
-            when(repository.buscarPorNomeOuDescricao("xpto")).thenReturn(List.of());
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of());
 
             List<TrajeResponse> result = service.buscarPorNomeOuDescricao("xpto");
 
@@ -554,6 +580,7 @@ class TrajeServiceTest {
     // =========================================================
     @Nested
     @DisplayName("Buscar por faixa de preço — matriz TFS")
+    @SuppressWarnings("unchecked")
     class BuscarPorFaixaPreco {
 
         @Test
@@ -561,12 +588,16 @@ class TrajeServiceTest {
         void ct21_deve_retornarLista_quando_faixaComMatches() {
             BigDecimal min = new BigDecimal("100.00");
             BigDecimal max = new BigDecimal("500.00");
-            when(repository.findByFaixaDePreco(min, max)).thenReturn(List.of(traje));
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of(resumo));
 
             List<TrajeResponse> result = service.buscarPorFaixaPreco(min, max);
 
             assertEquals(1, result.size());
-            verify(repository).findByFaixaDePreco(min, max);
+            ArgumentCaptor<Specification<Traje>> captor = ArgumentCaptor.forClass(Specification.class);
+            verify(repository).buscarResumos(captor.capture());
+            CapturedSpec<Traje> captured = SpecificationTestUtils.invoke(captor.getValue());
+            verify(captured.cb()).between(any(Expression.class), eq(min), eq(max));
+            verify(captured.root()).get("valorItem");
         }
 
         @Test
@@ -574,7 +605,7 @@ class TrajeServiceTest {
         void ct22_deve_retornarListaVazia_quando_faixaSemMatches() {
             BigDecimal min = new BigDecimal("1000.00");
             BigDecimal max = new BigDecimal("2000.00");
-            when(repository.findByFaixaDePreco(min, max)).thenReturn(List.of());
+            when(repository.buscarResumos(any(Specification.class))).thenReturn(List.of());
 
             List<TrajeResponse> result = service.buscarPorFaixaPreco(min, max);
 
@@ -634,6 +665,7 @@ class TrajeServiceTest {
             service.deletar(TRAJE_ID_DEFAULT);
 
             verify(repository).delete(traje);
+            verify(trajeImagemService).descartarSeOrfa(traje.getImagemHash());
         }
 
         @Test
@@ -655,24 +687,22 @@ class TrajeServiceTest {
     class BuscarPeriodosAlugados {
 
         @Test
-        @DisplayName("CT27 — V: id existente, repositório retorna 2 períodos")
+        @DisplayName("CT27 — V: id existente, índice retorna 2 períodos")
         void ct27_deve_retornarPeriodos_quando_idExistenteEHaPeriodos() {
             LocalDate r1 = LocalDate.of(2026, 1, 10);
             LocalDate d1 = LocalDate.of(2026, 1, 15);
             LocalDate r2 = LocalDate.of(2026, 2, 1);
             LocalDate d2 = LocalDate.of(2026, 2, 5);
-            List<Object[]> linhas = List.of(
-                    new Object[]{r1, d1},
-                    new Object[]{r2, d2});
-            when(repository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
-            when(itemAluguelRepository.findPeriodosAlugadosByTrajeId(TRAJE_ID_DEFAULT))
-                    .thenReturn(linhas);
+            List<PeriodoAlugadoResponse> periodos = List.of(
+                    new PeriodoAlugadoResponse(r1, d1),
+                    new PeriodoAlugadoResponse(r2, d2));
+            when(repository.existsById(TRAJE_ID_DEFAULT)).thenReturn(true);
+            when(disponibilidade.periodosAlugados(TRAJE_ID_DEFAULT)).thenReturn(periodos);
 
             List<PeriodoAlugadoResponse> response = service.buscarPeriodosAlugados(TRAJE_ID_DEFAULT);
 
-            // mata mutante linha 163 (Collections.emptyList): verifica tamanho > 0
+            // mata mutante (Collections.emptyList): verifica tamanho > 0
             assertEquals(2, response.size());
-            // mata mutante linha 164 (lambda → null): verifica que cada PeriodoAlugadoResponse foi mapeado
             assertNotNull(response.get(0));
             assertEquals(r1, response.get(0).dataRetirada());
             assertEquals(d1, response.get(0).dataDevolucao());
@@ -684,9 +714,8 @@ class TrajeServiceTest {
         @Test
         @DisplayName("CT28 — AVL: id existente mas sem períodos cadastrados")
         void ct28_deve_retornarListaVazia_quando_naoHaPeriodos() {
-            when(repository.findById(TRAJE_ID_DEFAULT)).thenReturn(Optional.of(traje));
-            when(itemAluguelRepository.findPeriodosAlugadosByTrajeId(TRAJE_ID_DEFAULT))
-                    .thenReturn(List.of());
+            when(repository.existsById(TRAJE_ID_DEFAULT)).thenReturn(true);
+            when(disponibilidade.periodosAlugados(TRAJE_ID_DEFAULT)).thenReturn(List.of());
 
             List<PeriodoAlugadoResponse> response = service.buscarPeriodosAlugados(TRAJE_ID_DEFAULT);
 
@@ -694,13 +723,117 @@ class TrajeServiceTest {
         }
 
         @Test
-        @DisplayName("CT29 — I5: id inexistente → ResourceNotFoundException, repositório de itens nunca consultado")
+        @DisplayName("CT29 — I5: id inexistente → ResourceNotFoundException, índice de disponibilidade nunca consultado")
         void ct29_deve_lancarResourceNotFound_quando_idInexistente() {
-            when(repository.findById(99L)).thenReturn(Optional.empty());
+            when(repository.existsById(99L)).thenReturn(false);
 
             assertThrows(ResourceNotFoundException.class,
                     () -> service.buscarPeriodosAlugados(99L));
-            verifyNoInteractions(itemAluguelRepository);
+            verifyNoInteractions(disponibilidade);
+        }
+    }
+
+    // =========================================================
+    // BUSCAR OCUPAÇÃO — CT30..CT32
+    // =========================================================
+    @Nested
+    @DisplayName("Buscar ocupação — matriz TFS")
+    class BuscarOcupacao {
+
+        private final LocalDate inicio = LocalDate.of(2030, 5, 1);
+        private final LocalDate fim = LocalDate.of(2030, 5, 31);
+
+        private BitSet decodificar(OcupacaoTrajeResponse ocupacao) {
+            return BitSet.valueOf(Base64.getDecoder().decode(ocupacao.ocupacao()));
+        }
+
+        @Test
+        @DisplayName("CT30 — V: cada traje recebe os dias ocupados dentro do intervalo")
+        void ct30_deve_marcarDiasOcupados_quando_periodosCruzamOIntervalo() {
+            TrajeResumo alugado = TrajeDataBuilder.umTraje().comId(1L).buildResumo();
+            TrajeResumo livre = TrajeDataBuilder.umTraje().comId(2L).buildResumo();
+            when(repository.buscarResumos(any())).thenReturn(List.of(alugado, livre));
+            when(itemAluguelRepository.findPeriodosAtivosEntre(inicio, fim)).thenReturn(List.of(
+                    new PeriodoAtivo(10L, 1L, inicio.minusDays(3), inicio.plusDays(1)),
+                    new PeriodoAtivo(11L, 1L, inicio.plusDays(9), inicio.plusDays(9)),
+                    new PeriodoAtivo(12L, 1L, fim.minusDays(1), fim.plusDays(5)),
+                    // traje fora do filtro: ignorado
+                    new PeriodoAtivo(13L, 3L, inicio, fim)));
+
+            CalendarioOcupacaoResponse response = service.buscarOcupacao(
+                    inicio, fim, SexoEnum.MASCULINO, TipoTraje.TERNO, null);
+
+            assertEquals(31, response.dias());
+            assertEquals(2, response.trajes().size());
+            BitSet bits = decodificar(response.trajes().get(0));
+            assertEquals(1L, response.trajes().get(0).trajeId());
+            assertEquals(BitSet.valueOf(new long[]{ 0b11L | 1L << 9 | 1L << 29 | 1L << 30 }), bits);
+            assertEquals("", response.trajes().get(1).ocupacao());
+        }
+
+        @Test
+        @DisplayName("CT31 — I: fim antes do início")
+        void ct31_deve_lancarBusinessException_quando_fimAntesDoInicio() {
+            BusinessException ex = assertThrows(BusinessException.class,
+                    () -> service.buscarOcupacao(fim, inicio, null, null, null));
+
+            assertTrue(ex.getMessage().contains("data inicial"), "msg=" + ex.getMessage());
+            verifyNoInteractions(repository, itemAluguelRepository);
+        }
+
+        @Test
+        @DisplayName("CT32 — AVL: intervalo de 366 dias aceito e de 367 recusado")
+        void ct32_deve_limitarTamanhoDoIntervalo() {
+            when(repository.buscarResumos(any())).thenReturn(List.of());
+
+            assertEquals(366, service.buscarOcupacao(inicio, inicio.plusDays(365), null, null, null).dias());
+            assertThrows(BusinessException.class,
+                    () -> service.buscarOcupacao(inicio, inicio.plusDays(366), null, null, null));
+        }
+    }
+
+    // =========================================================
+    // BUSCAR COM PERÍODO — CT33..CT35
+    // =========================================================
+    @Nested
+    @DisplayName("Buscar com período — matriz TFS")
+    class BuscarComPeriodo {
+
+        private final LocalDate retirada = LocalDate.of(2030, 5, 10);
+        private final LocalDate devolucao = LocalDate.of(2030, 5, 12);
+
+        @Test
+        @DisplayName("CT33 — V: retirada e devolução informadas — consulta paginada única")
+        void ct33_deve_retornarPagina_quando_periodoInformado() {
+            Page<TrajeResumo> page = new PageImpl<>(List.of(resumo));
+            when(repository.buscarResumos(any(Specification.class), any(Pageable.class))).thenReturn(page);
+
+            Page<TrajeResponse> result = service.buscar(
+                    null, null, null, null, null, retirada, devolucao, Pageable.ofSize(10));
+
+            assertEquals(1, result.getTotalElements());
+            verify(repository).buscarResumos(any(Specification.class), any(Pageable.class));
+            verifyNoInteractions(disponibilidade, itemAluguelRepository);
+        }
+
+        @Test
+        @DisplayName("CT34 — I: só uma das datas informada")
+        void ct34_deve_lancarBusinessException_quando_periodoIncompleto() {
+            Pageable pageable = Pageable.ofSize(10);
+
+            assertThrows(BusinessException.class, () -> service.buscar(
+                    null, null, null, null, null, retirada, null, pageable));
+            assertThrows(BusinessException.class, () -> service.buscar(
+                    null, null, null, null, null, null, devolucao, pageable));
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("CT35 — I: devolução antes da retirada")
+        void ct35_deve_lancarBusinessException_quando_periodoInvertido() {
+            assertThrows(BusinessException.class, () -> service.buscar(
+                    null, null, null, null, null, devolucao, retirada, Pageable.ofSize(10)));
+            verifyNoInteractions(repository);
         }
     }
 }
@@ -1,14 +1,18 @@
 package br.edu.fateczl.tcc.specification;
 
+import br.edu.fateczl.tcc.domain.ItemAluguel;
 import br.edu.fateczl.tcc.domain.Traje;
 import br.edu.fateczl.tcc.enums.SexoEnum;
+import br.edu.fateczl.tcc.enums.StatusAluguel;
 import br.edu.fateczl.tcc.enums.StatusTraje;
 import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -17,9 +21,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -138,4 +153,126 @@ class TrajeSpecificationTest {
             assertNotNull(result);
         }
     }
+
+    @Nested
+    @DisplayName("comBusca")
+    class ComBuscaTest {
+
+        @Test
+        void deveRetornarNullQuandoBuscaForVaziaOuNull() {
+            assertNull(TrajeSpecification.comBusca(null).toPredicate(root, null, cb));
+            assertNull(TrajeSpecification.comBusca("").toPredicate(root, null, cb));
+        }
+
+        @Test
+        void deveCombinarNomeDescricaoECorQuandoBuscaForInformada() {
+            when(cb.or(any(Predicate[].class))).thenReturn(mock(Predicate.class));
+
+            Predicate result = TrajeSpecification.comBusca("Terno").toPredicate(root, null, cb);
+
+            assertNotNull(result);
+            verify(cb, times(3)).like(any(), eq("%terno%"));
+        }
+    }
+
+    @Nested
+    @DisplayName("comNomeOuDescricao")
+    class ComNomeOuDescricaoTest {
+
+        @Test
+        void deveRetornarNullQuandoTermoForVazio() {
+            assertNull(TrajeSpecification.comNomeOuDescricao("").toPredicate(root, null, cb));
+        }
+
+        @Test
+        void deveCombinarNomeEDescricaoQuandoTermoForInformado() {
+            when(cb.or(any(Predicate[].class))).thenReturn(mock(Predicate.class));
+
+            Predicate result = TrajeSpecification.comNomeOuDescricao("Gala").toPredicate(root, null, cb);
+
+            assertNotNull(result);
+            verify(cb, times(2)).like(any(), eq("%gala%"));
+        }
+    }
+
+    @Nested
+    @DisplayName("comValorEntre")
+    class ComValorEntreTest {
+
+        @Test
+        void deveRetornarNullQuandoAlgumLimiteForNull() {
+            assertNull(TrajeSpecification.comValorEntre(null, BigDecimal.TEN).toPredicate(root, null, cb));
+            assertNull(TrajeSpecification.comValorEntre(BigDecimal.ONE, null).toPredicate(root, null, cb));
+        }
+
+        @Test
+        void deveRetornarPredicateQuandoFaixaForInformada() {
+            when(cb.between(any(), eq(BigDecimal.ONE), eq(BigDecimal.TEN))).thenReturn(mock(Predicate.class));
+
+            Predicate result = TrajeSpecification.comValorEntre(BigDecimal.ONE, BigDecimal.TEN)
+                    .toPredicate(root, null, cb);
+
+            assertNotNull(result);
+        }
+    }
+
+    @Nested
+    @DisplayName("comImagemHashEm")
+    class ComImagemHashEmTest {
+
+        @Test
+        void deveRetornarNullQuandoListaForVaziaOuNull() {
+            assertNull(TrajeSpecification.comImagemHashEm(null).toPredicate(root, null, cb));
+            assertNull(TrajeSpecification.comImagemHashEm(List.of()).toPredicate(root, null, cb));
+        }
+
+        @Test
+        void deveFiltrarPorHashesQuandoInformados() {
+            List<String> hashes = List.of("a".repeat(64));
+            when(root.get("imagemHash")).thenReturn(path);
+            when(path.in(hashes)).thenReturn(mock(Predicate.class));
+
+            Predicate result = TrajeSpecification.comImagemHashEm(hashes).toPredicate(root, null, cb);
+
+            assertNotNull(result);
+        }
+    }
+
+    @Nested
+    @DisplayName("livreNoPeriodo")
+    class LivreNoPeriodoTest {
+
+        private final LocalDate retirada = LocalDate.of(2030, 5, 10);
+        private final LocalDate devolucao = LocalDate.of(2030, 5, 12);
+
+        @Test
+        void deveRetornarNullQuandoAlgumaDataForNull() {
+            assertNull(TrajeSpecification.livreNoPeriodo(null, devolucao).toPredicate(root, null, cb));
+            assertNull(TrajeSpecification.livreNoPeriodo(retirada, null).toPredicate(root, null, cb));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void deveNegarExistenciaDeAluguelAtivoNoPeriodo() {
+            CriteriaQuery<?> query = mock(CriteriaQuery.class);
+            Subquery<Long> ocupado = mock(Subquery.class, RETURNS_SELF);
+            Root<ItemAluguel> item = mock(Root.class);
+            Predicate existe = mock(Predicate.class);
+            Predicate naoExiste = mock(Predicate.class);
+            when(query.subquery(Long.class)).thenReturn(ocupado);
+            when(ocupado.from(ItemAluguel.class)).thenReturn(item);
+            when(item.get(anyString())).thenReturn(path);
+            when(path.get("id")).thenReturn(path);
+            when(root.get("id")).thenReturn(path);
+            when(cb.exists(ocupado)).thenReturn(existe);
+            when(cb.not(existe)).thenReturn(naoExiste);
+
+            Predicate result = TrajeSpecification.livreNoPeriodo(retirada, devolucao).toPredicate(root, query, cb);
+
+            assertSame(naoExiste, result);
+            verify(cb).equal(path, StatusAluguel.ATIVO);
+            verify(cb).lessThanOrEqualTo(any(), eq(devolucao));
+            verify(cb).greaterThanOrEqualTo(any(), eq(retirada));
+        }
+    }
 }
@@ -0,0 +1,195 @@
+package br.edu.fateczl.tcc.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CacheContratos - memória na frente do disco")
+class CacheContratosTest {
+
+    private static final Long ALUGUEL_ID = 7L;
+    private static final String VERSAO_A = "a".repeat(32);
+    private static final String VERSAO_B = "b".repeat(32);
+
+    @TempDir
+    Path raiz;
+
+    private SimpleMeterRegistry registry;
+    private CacheContratos cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Capacidade de 400 bytes: cada contrato pode ter até 100 em memória.
+        cache = novoCache();
+    }
+
+    private CacheContratos novoCache() {
+        return new CacheContratos(raiz.toString(), DataSize.ofBytes(400), registry);
+    }
+
+    private static byte[] pdf(int tamanho, char marca) {
+        byte[] bytes = new byte[tamanho];
+        bytes[0] = (byte) marca;
+        return bytes;
+    }
+
+    private Path arquivo(Long aluguelId, String versao) {
+        return raiz.resolve(aluguelId.toString()).resolve(versao + ".pdf");
+    }
+
+    private double contador(String nome, String resultado) {
+        return registry.get(nome).tag("result", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve servir da memória os mesmos bytes guardados")
+    void deve_servirDaMemoria() {
+        byte[] original = pdf(80, 'A');
+        cache.guardar(ALUGUEL_ID, VERSAO_A, original);
+
+        assertArrayEquals(original, cache.buscar(ALUGUEL_ID, VERSAO_A).orElseThrow());
+        assertEquals(1, cache.quantidade());
+        assertEquals(80, cache.ocupado());
+        assertEquals(1, contador("cache.gets", "hit"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar em disco e servir de lá depois de um reinício")
+    void deve_servirDoDisco_quando_memoriaVazia() {
+        byte[] original = pdf(80, 'A');
+        cache.guardar(ALUGUEL_ID, VERSAO_A, original);
+        assertTrue(Files.isRegularFile(arquivo(ALUGUEL_ID, VERSAO_A)));
+
+        CacheContratos reiniciado = novoCache();
+
+        assertArrayEquals(original, reiniciado.buscar(ALUGUEL_ID, VERSAO_A).orElseThrow());
+        assertEquals(1, reiniciado.quantidade(), "o que vem do disco deveria ser promovido para a memória");
+        assertEquals(1, registry.get("contratos.cache.disco").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve tratar como falha uma versão que não foi guardada")
+    void deve_retornarVazio_quando_versaoDiferente() {
+        cache.guardar(ALUGUEL_ID, VERSAO_A, pdf(80, 'A'));
+
+        assertTrue(cache.buscar(ALUGUEL_ID, VERSAO_B).isEmpty());
+        assertTrue(cache.buscar(8L, VERSAO_A).isEmpty());
+        assertEquals(2, contador("cache.gets", "miss"));
+    }
+
+    @Test
+    @DisplayName("Deve manter só a versão mais recente de cada aluguel")
+    void deve_descartarVersaoAnterior_quando_guardarNova() {
+        cache.guardar(ALUGUEL_ID, VERSAO_A, pdf(80, 'A'));
+        cache.guardar(ALUGUEL_ID, VERSAO_B, pdf(60, 'B'));
+
+        assertEquals(1, cache.quantidade());
+        assertEquals(60, cache.ocupado());
+        assertFalse(Files.exists(arquivo(ALUGUEL_ID, VERSAO_A)));
+        assertTrue(Files.exists(arquivo(ALUGUEL_ID, VERSAO_B)));
+    }
+
+    @Test
+    @DisplayName("Deve remover da memória o contrato menos usado recentemente, mantendo-o em disco")
+    void deve_removerMenosUsadoDaMemoria_quando_cheio() {
+        for (long id = 1; id <= 4; id++) {
+            cache.guardar(id, VERSAO_A, pdf(100, 'A'));
+        }
+        cache.buscar(1L, VERSAO_A);
+
+        cache.guardar(5L, VERSAO_A, pdf(100, 'A'));
+
+        assertEquals(4, cache.quantidade());
+        assertEquals(400, cache.ocupado());
+        // O 2 saiu da memória, mas continua disponível no disco.
+        assertTrue(cache.buscar(2L, VERSAO_A).isPresent());
+        assertEquals(1, registry.get("contratos.cache.disco").counter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar em memória contrato maior que um quarto da capacidade")
+    void naoDeve_guardarEmMemoria_quando_contratoGrande() {
+        cache.guardar(ALUGUEL_ID, VERSAO_A, pdf(101, 'A'));
+
+        assertEquals(0, cache.quantidade());
+        assertTrue(Files.exists(arquivo(ALUGUEL_ID, VERSAO_A)));
+    }
+
+    @Test
+    @DisplayName("Deve publicar em disco a cópia espelhada só depois de concluída")
+    void deve_publicarCopiaEspelhada_quando_concluir() throws IOException {
+        byte[] original = pdf(80, 'A');
+        ByteArrayOutputStream resposta = new ByteArrayOutputStream();
+
+        try (CacheContratos.Gravacao gravacao = cache.gravar(ALUGUEL_ID, VERSAO_A)) {
+            OutputStream saida = gravacao.espelhando(resposta);
+            saida.write(original, 0, 40);
+            saida.write(original, 40, 40);
+            assertFalse(Files.exists(arquivo(ALUGUEL_ID, VERSAO_A)), "arquivo incompleto não pode ser visível");
+            gravacao.concluir();
+        }
+
+        assertArrayEquals(original, resposta.toByteArray());
+        assertArrayEquals(original, Files.readAllBytes(arquivo(ALUGUEL_ID, VERSAO_A)));
+        assertArrayEquals(original, cache.buscar(ALUGUEL_ID, VERSAO_A).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a cópia espelhada quando fechada sem concluir")
+    void deve_descartarCopia_quando_fecharSemConcluir() throws IOException {
+        try (CacheContratos.Gravacao gravacao = cache.gravar(ALUGUEL_ID, VERSAO_A)) {
+            gravacao.espelhando(new ByteArrayOutputStream()).write(pdf(80, 'A'));
+        }
+
+        assertTrue(cache.buscar(ALUGUEL_ID, VERSAO_A).isEmpty());
+        try (var temporarios = Files.list(raiz.resolve("tmp"))) {
+            assertEquals(0, temporarios.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve descartar memória e disco ao invalidar o aluguel")
+    void deve_descartarTudo_quando_invalidar() {
+        cache.guardar(ALUGUEL_ID, VERSAO_A, pdf(80, 'A'));
+        cache.guardar(8L, VERSAO_A, pdf(80, 'B'));
+
+        cache.invalidar(ALUGUEL_ID);
+
+        assertTrue(cache.buscar(ALUGUEL_ID, VERSAO_A).isEmpty());
+        assertFalse(Files.exists(raiz.resolve(ALUGUEL_ID.toString())));
+        assertTrue(cache.buscar(8L, VERSAO_A).isPresent(), "outros aluguéis não são afetados");
+        assertEquals(80, cache.ocupado());
+    }
+
+    @Test
+    @DisplayName("Não deve deixar arquivos temporários para trás")
+    void naoDeve_deixarTemporarios() throws IOException {
+        cache.guardar(ALUGUEL_ID, VERSAO_A, pdf(80, 'A'));
+
+        try (var temporarios = Files.list(raiz.resolve("tmp"))) {
+            assertEquals(0, temporarios.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar versão fora do formato hexadecimal")
+    void deve_recusarVersaoInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> cache.buscar(ALUGUEL_ID, "../../etc"));
+    }
+}
@@ -0,0 +1,143 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CacheImagens - LRU fora do heap")
+class CacheImagensTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "c".repeat(64);
+
+    private SimpleMeterRegistry registry;
+    private CacheImagens cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Capacidade de 400 bytes: cada entrada pode ter até 100.
+        cache = new CacheImagens(DataSize.ofBytes(400), registry);
+    }
+
+    private static ImagemConteudo imagem(String hash, int tamanho) {
+        byte[] bytes = new byte[tamanho];
+        bytes[0] = (byte) hash.charAt(0);
+        return new ImagemConteudo(hash, VarianteImagem.ORIGINAL, "image/png", new ByteArrayResource(bytes));
+    }
+
+    private static byte[] ler(ImagemConteudo conteudo) throws IOException {
+        try (InputStream in = conteudo.recurso().getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private double contador(String nome, String resultado) {
+        return registry.get(nome).tag("result", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve servir do cache os mesmos bytes guardados, em leituras repetidas")
+    void deve_servirBytesGuardados() throws IOException {
+        ImagemConteudo original = imagem(HASH_A, 80);
+        cache.guardar(original, cache.geracao());
+
+        ImagemConteudo emCache = cache.buscar(HASH_A, null).orElseThrow();
+
+        assertEquals("image/png", emCache.tipoMime());
+        assertEquals(80, emCache.recurso().contentLength());
+        assertArrayEquals(ler(original), ler(emCache));
+        assertArrayEquals(ler(original), ler(emCache));
+    }
+
+    @Test
+    @DisplayName("Deve contar acertos e falhas")
+    void deve_contarAcertosEFalhas() {
+        cache.buscar(HASH_A, VarianteImagem.ORIGINAL);
+        cache.guardar(imagem(HASH_A, 80), cache.geracao());
+        cache.buscar(HASH_A, VarianteImagem.ORIGINAL);
+        cache.buscar(HASH_A, VarianteImagem.PEQUENA);
+
+        assertEquals(1, contador("cache.gets", "hit"));
+        assertEquals(2, contador("cache.gets", "miss"));
+    }
+
+    @Test
+    @DisplayName("Deve remover a imagem menos usada recentemente quando exceder a capacidade")
+    void deve_removerMenosUsada_quando_cheio() {
+        cache.guardar(imagem(HASH_A, 100), cache.geracao());
+        cache.guardar(imagem(HASH_B, 100), cache.geracao());
+        cache.guardar(imagem(HASH_C, 100), cache.geracao());
+        cache.buscar(HASH_A, null);
+
+        cache.guardar(imagem("d".repeat(64), 100), cache.geracao());
+        cache.guardar(imagem("e".repeat(64), 100), cache.geracao());
+
+        assertTrue(cache.buscar(HASH_A, null).isPresent());
+        assertTrue(cache.buscar(HASH_B, null).isEmpty());
+        assertEquals(400, cache.ocupado());
+        assertEquals(1, registry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar imagem maior que um quarto da capacidade")
+    void naoDeve_guardarImagemGrande() {
+        Optional<ImagemConteudo> guardada = cache.guardar(imagem(HASH_A, 101), cache.geracao());
+
+        assertTrue(guardada.isEmpty());
+        assertEquals(0, cache.quantidade());
+    }
+
+    @Test
+    @DisplayName("Não deve repovoar o cache com leitura anterior a uma invalidação")
+    void naoDeve_guardar_quando_invalidadoDuranteLeitura() {
+        long geracao = cache.geracao();
+        cache.invalidarTraje(1L);
+
+        cache.associar(1L, HASH_A, geracao);
+        cache.guardar(imagem(HASH_A, 80), geracao);
+
+        assertTrue(cache.hashDoTraje(1L).isEmpty());
+        assertEquals(0, cache.quantidade());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o vínculo do traje sem descartar o conteúdo")
+    void deve_invalidarTraje() {
+        cache.associar(1L, HASH_A, cache.geracao());
+        cache.guardar(imagem(HASH_A, 80), cache.geracao());
+
+        cache.invalidarTraje(1L);
+
+        assertTrue(cache.hashDoTraje(1L).isEmpty());
+        assertTrue(cache.buscar(HASH_A, null).isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o hash com variantes e trajes que apontam para ele")
+    void deve_invalidarHash() {
+        cache.associar(1L, HASH_A, cache.geracao());
+        cache.guardar(imagem(HASH_A, 80), cache.geracao());
+        cache.guardar(new ImagemConteudo(HASH_A, VarianteImagem.PEQUENA, "image/jpeg",
+                new ByteArrayResource(new byte[10])), cache.geracao());
+
+        cache.invalidarHash(HASH_A);
+
+        assertTrue(cache.hashDoTraje(1L).isEmpty());
+        assertEquals(0, cache.quantidade());
+        assertEquals(0, cache.ocupado());
+    }
+}
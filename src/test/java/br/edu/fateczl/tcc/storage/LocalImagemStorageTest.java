@@ -0,0 +1,124 @@
+package br.edu.fateczl.tcc.storage;
+
+import br.edu.fateczl.tcc.enums.VarianteImagem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("LocalImagemStorage - armazenamento endereçado por conteúdo")
+class LocalImagemStorageTest {
+
+    // SHA-256 de "abc"
+    private static final String HASH_ABC = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    @TempDir
+    Path diretorio;
+
+    private LocalImagemStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalImagemStorage(diretorio.toString());
+    }
+
+    private ImagemArmazenada salvar(String conteudo) {
+        return storage.salvar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Deve usar o SHA-256 do conteúdo como chave")
+    void deve_usarSha256_comoChave() {
+        ImagemArmazenada imagem = salvar("abc");
+
+        assertEquals(HASH_ABC, imagem.hash());
+        assertEquals(3, imagem.tamanho());
+        assertTrue(storage.existe(HASH_ABC));
+    }
+
+    @Test
+    @DisplayName("Deve gravar conteúdo idêntico uma única vez")
+    void deve_deduplicar_conteudoIdentico() throws IOException {
+        ImagemArmazenada primeira = salvar("abc");
+        ImagemArmazenada segunda = salvar("abc");
+
+        assertTrue(primeira.nova());
+        assertFalse(segunda.nova());
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            long quantidade = arquivos
+                    .filter(Files::isRegularFile)
+                    .count();
+            assertEquals(1, quantidade);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve devolver os mesmos bytes gravados")
+    void deve_carregarMesmosBytes() throws IOException {
+        salvar("abc");
+
+        Resource recurso = storage.carregar(HASH_ABC).orElseThrow();
+
+        try (var in = recurso.getInputStream()) {
+            assertArrayEquals("abc".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve remover o arquivo da chave")
+    void deve_remover() {
+        salvar("abc");
+
+        storage.remover(HASH_ABC);
+
+        assertFalse(storage.existe(HASH_ABC));
+        assertTrue(storage.carregar(HASH_ABC).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar chave fora do formato SHA-256 (evita path traversal)")
+    void deve_rejeitarHashInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> storage.carregar("../../etc/passwd"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar e carregar variantes ao lado do original")
+    void deve_gravarVariante() throws IOException {
+        salvar("abc");
+
+        storage.salvarVariante(HASH_ABC, VarianteImagem.PEQUENA,
+                new ByteArrayInputStream("mini".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(storage.existeVariante(HASH_ABC, VarianteImagem.PEQUENA));
+        assertFalse(storage.existeVariante(HASH_ABC, VarianteImagem.MEDIA));
+        try (var in = storage.carregarVariante(HASH_ABC, VarianteImagem.PEQUENA).orElseThrow().getInputStream()) {
+            assertArrayEquals("mini".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve remover as variantes junto com o original")
+    void deve_removerVariantes_junto_com_original() {
+        salvar("abc");
+        storage.salvarVariante(HASH_ABC, VarianteImagem.GRANDE,
+                new ByteArrayInputStream("grande".getBytes(StandardCharsets.UTF_8)));
+
+        storage.remover(HASH_ABC);
+
+        assertFalse(storage.existeVariante(HASH_ABC, VarianteImagem.GRANDE));
+    }
+}
@@ -0,0 +1,236 @@
+package br.edu.fateczl.tcc.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("FormatacaoBr - formatação pt-BR sem estado compartilhado")
+class FormatacaoBrTest {
+
+    private static final Locale LOCALE_BR = Locale.of("pt", "BR");
+
+    // =========================================================
+    // Referências: a implementação anterior do ContratoPdfService
+    // =========================================================
+
+    private static DecimalFormat decimalFormat() {
+        return new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(LOCALE_BR));
+    }
+
+    private static String cpfCnpjComRegex(String valor) {
+        String d = valor.replaceAll("\\D", "");
+        if (d.length() == 11) {
+            return "%s.%s.%s-%s".formatted(d.substring(0, 3), d.substring(3, 6), d.substring(6, 9), d.substring(9));
+        }
+        if (d.length() == 14) {
+            return "%s.%s.%s/%s-%s".formatted(d.substring(0, 2), d.substring(2, 5), d.substring(5, 8),
+                    d.substring(8, 12), d.substring(12));
+        }
+        return valor;
+    }
+
+    private static String telefoneComRegex(String valor) {
+        String d = valor.replaceAll("\\D", "");
+        if (d.length() == 11) {
+            return "(%s) %s-%s".formatted(d.substring(0, 2), d.substring(2, 7), d.substring(7));
+        }
+        if (d.length() == 10) {
+            return "(%s) %s-%s".formatted(d.substring(0, 2), d.substring(2, 6), d.substring(6));
+        }
+        return valor;
+    }
+
+    private static String cepComRegex(String cep) {
+        String d = cep.replaceAll("\\D", "");
+        if (d.length() == 8) {
+            return d.substring(0, 5) + "-" + d.substring(5);
+        }
+        return cep;
+    }
+
+    // =========================================================
+    // Geradores
+    // =========================================================
+
+    /** Valores com 0 a 4 casas decimais, inclusive negativos e empates de arredondamento. */
+    private static BigDecimal valorAleatorio(Random random) {
+        long unscaled = switch (random.nextInt(4)) {
+            case 0 -> random.nextInt(1000);
+            case 1 -> random.nextInt(1_000_000);
+            case 2 -> random.nextLong() % 1_000_000_000_000L;
+            default -> random.nextInt(100) * 10L + 5;
+        };
+        return BigDecimal.valueOf(unscaled, random.nextInt(5));
+    }
+
+    /** Dígitos com pontuação e espaços no meio, em tamanhos próximos dos formatos válidos. */
+    private static String documentoAleatorio(Random random) {
+        int digitos = 7 + random.nextInt(9);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < digitos; i++) {
+            if (random.nextInt(4) == 0) {
+                sb.append(".-/ ()".charAt(random.nextInt(6)));
+            }
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static String esperado(String tipo, String valor) {
+        return switch (tipo) {
+            case "cpfCnpj" -> cpfCnpjComRegex(valor);
+            case "telefone" -> telefoneComRegex(valor);
+            default -> cepComRegex(valor);
+        };
+    }
+
+    private static String obtido(String tipo, String valor) {
+        return switch (tipo) {
+            case "cpfCnpj" -> FormatacaoBr.cpfCnpj(valor);
+            case "telefone" -> FormatacaoBr.telefone(valor);
+            default -> FormatacaoBr.cep(valor);
+        };
+    }
+
+    // =========================================================
+    // Casos de teste
+    // =========================================================
+
+    @Test
+    @DisplayName("Deve formatar valores com milhar, vírgula decimal e arredondamento HALF_EVEN")
+    void deve_formatarMoeda() {
+        assertEquals("0,00", FormatacaoBr.moeda(BigDecimal.ZERO));
+        assertEquals("150,00", FormatacaoBr.moeda(new BigDecimal("150")));
+        assertEquals("1.234.567,89", FormatacaoBr.moeda(new BigDecimal("1234567.891")));
+        assertEquals("0,02", FormatacaoBr.moeda(new BigDecimal("0.015")));
+        assertEquals("0,02", FormatacaoBr.moeda(new BigDecimal("0.025")));
+        assertEquals("1.000,00", FormatacaoBr.moeda(new BigDecimal("999.995")));
+        assertEquals("-1.234,50", FormatacaoBr.moeda(new BigDecimal("-1234.5")));
+        assertNull(FormatacaoBr.moeda(null));
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo texto que o DecimalFormat pt-BR")
+    void deve_equivalerAoDecimalFormat() {
+        Random random = new Random(7);
+        DecimalFormat referencia = decimalFormat();
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal valor = valorAleatorio(random);
+            assertEquals(referencia.format(valor), FormatacaoBr.moeda(valor), "valor=" + valor);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve formatar CPF, CNPJ, telefone e CEP e devolver tamanhos desconhecidos como vieram")
+    void deve_formatarDocumentos() {
+        assertEquals("123.456.789-01", FormatacaoBr.cpfCnpj("12345678901"));
+        assertEquals("123.456.789-01", FormatacaoBr.cpfCnpj("123.456.789-01"));
+        assertEquals("12.345.678/0001-90", FormatacaoBr.cpfCnpj("12345678000190"));
+        assertEquals("123456789", FormatacaoBr.cpfCnpj("123456789"));
+        assertEquals("(11) 91234-5678", FormatacaoBr.telefone("11912345678"));
+        assertEquals("(11) 3123-4567", FormatacaoBr.telefone("1131234567"));
+        assertEquals("1234567", FormatacaoBr.telefone("1234567"));
+        assertEquals("01001-000", FormatacaoBr.cep("01001000"));
+        assertEquals("12345", FormatacaoBr.cep("12345"));
+        assertNull(FormatacaoBr.cpfCnpj(null));
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo texto que a versão com regex para entradas pontuadas")
+    void deve_equivalerAVersaoComRegex() {
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            String valor = documentoAleatorio(random);
+            for (String tipo : List.of("cpfCnpj", "telefone", "cep")) {
+                assertEquals(esperado(tipo, valor), obtido(tipo, valor), tipo + "(" + valor + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve devolver a própria string quando ela já só tem dígitos")
+    void deve_evitarCopia_quando_somenteDigitos() {
+        String limpo = "12345678901";
+
+        assertSame(limpo, FormatacaoBr.somenteDigitos(limpo));
+        assertEquals("12345678901", FormatacaoBr.somenteDigitos("123.456.789-01"));
+        assertEquals("", FormatacaoBr.somenteDigitos("(-)"));
+    }
+
+    @Test
+    @DisplayName("Deve manter os resultados corretos com várias threads formatando ao mesmo tempo")
+    void deve_serCorreta_quando_usadaPorVariasThreads() throws Exception {
+        int threads = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                long semente = t;
+                resultados.add(executor.submit(() -> {
+                    Random random = new Random(semente);
+                    // Referência própria de cada thread: o DecimalFormat não pode ser compartilhado.
+                    DecimalFormat referencia = decimalFormat();
+                    largada.await();
+                    int divergencias = 0;
+                    for (int i = 0; i < 20_000; i++) {
+                        BigDecimal valor = valorAleatorio(random);
+                        String documento = documentoAleatorio(random);
+                        if (!referencia.format(valor).equals(FormatacaoBr.moeda(valor))
+                                || !cpfCnpjComRegex(documento).equals(FormatacaoBr.cpfCnpj(documento))
+                                || !telefoneComRegex(documento).equals(FormatacaoBr.telefone(documento))) {
+                            divergencias++;
+                        }
+                    }
+                    return divergencias;
+                }));
+            }
+            largada.countDown();
+
+            for (Future<Integer> resultado : resultados) {
+                assertEquals(0, resultado.get());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve alocar menos que um DecimalFormat por chamada e que a versão com regex")
+    void deve_alocarMenos_queAlternativasThreadSafe() throws Exception {
+        BigDecimal valor = new BigDecimal("1234567.89");
+        String cpf = "123.456.789-01";
+        // Aquece todos os caminhos para que a compilação do JIT não entre na medição.
+        for (int i = 0; i < 20_000; i++) {
+            decimalFormat().format(valor);
+            FormatacaoBr.moeda(valor);
+            cpfCnpjComRegex(cpf);
+            FormatacaoBr.cpfCnpj(cpf);
+        }
+
+        int chamadas = 10_000;
+        long moedaNova = MedicaoAlocacao.bytesPorChamada(chamadas, () -> FormatacaoBr.moeda(valor));
+        long moedaAntiga = MedicaoAlocacao.bytesPorChamada(chamadas, () -> decimalFormat().format(valor));
+        long cpfNovo = MedicaoAlocacao.bytesPorChamada(chamadas, () -> FormatacaoBr.cpfCnpj(cpf));
+        long cpfAntigo = MedicaoAlocacao.bytesPorChamada(chamadas, () -> cpfCnpjComRegex(cpf));
+
+        assertTrue(moedaNova * 4 < moedaAntiga,
+                "moeda: FormatacaoBr " + moedaNova + " bytes/chamada, DecimalFormat por chamada " + moedaAntiga);
+        assertTrue(cpfNovo * 4 < cpfAntigo,
+                "cpf: FormatacaoBr " + cpfNovo + " bytes/chamada, regex " + cpfAntigo);
+    }
+}
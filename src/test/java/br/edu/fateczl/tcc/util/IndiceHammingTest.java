@@ -0,0 +1,90 @@
+package br.edu.fateczl.tcc.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("IndiceHamming - busca por distância de Hamming")
+class IndiceHammingTest {
+
+    @Test
+    @DisplayName("Deve encontrar exatamente os mesmos itens que a comparação um a um")
+    void deve_equivalerABuscaExaustiva() {
+        Random random = new Random(42);
+        IndiceHamming<Integer> indice = new IndiceHamming<>(10);
+        long[] hashes = new long[5000];
+        for (int i = 0; i < hashes.length; i++) {
+            // Metade dos hashes perto do anterior, para haver vizinhos dentro do raio.
+            hashes[i] = i % 2 == 0 ? random.nextLong() : hashes[i - 1] ^ (1L << random.nextInt(64));
+            indice.adicionar(hashes[i], i);
+        }
+
+        for (int consulta = 0; consulta < 50; consulta++) {
+            long alvo = hashes[random.nextInt(hashes.length)] ^ (random.nextLong() & 0x3FFL);
+            for (int raio : new int[]{ 0, 4, 10 }) {
+                List<Integer> esperados = new ArrayList<>();
+                for (int i = 0; i < hashes.length; i++) {
+                    if (IndiceHamming.distancia(hashes[i], alvo) <= raio) {
+                        esperados.add(i);
+                    }
+                }
+                List<Integer> encontrados = indice.buscar(alvo, raio).stream()
+                        .map(IndiceHamming.Resultado::item)
+                        .sorted()
+                        .toList();
+
+                assertEquals(esperados, encontrados);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve guardar vários itens no mesmo hash sem duplicar")
+    void deve_agruparItensNoMesmoHash() {
+        IndiceHamming<String> indice = new IndiceHamming<>(10);
+
+        assertTrue(indice.adicionar(7L, "a"));
+        assertTrue(indice.adicionar(7L, "b"));
+        assertFalse(indice.adicionar(7L, "a"));
+
+        assertEquals(2, indice.tamanho());
+        assertEquals(2, indice.buscar(7L, 0).size());
+    }
+
+    @Test
+    @DisplayName("Deve informar a distância de cada item encontrado")
+    void deve_informarDistancia() {
+        IndiceHamming<String> indice = new IndiceHamming<>(10);
+        indice.adicionar(0b0000L, "zero");
+        indice.adicionar(0b0111L, "tres");
+
+        List<IndiceHamming.Resultado<String>> resultado = indice.buscar(0b0001L, 2);
+
+        assertEquals(List.of(new IndiceHamming.Resultado<>("tres", 2), new IndiceHamming.Resultado<>("zero", 1)),
+                resultado.stream().sorted(Comparator.comparing(IndiceHamming.Resultado::item)).toList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar raio maior que o do índice")
+    void deve_recusarRaioMaiorQueOIndice() {
+        IndiceHamming<String> indice = new IndiceHamming<>(10);
+
+        assertThrows(IllegalArgumentException.class, () -> indice.buscar(0L, 11));
+        assertThrows(IllegalArgumentException.class, () -> new IndiceHamming<String>(2));
+    }
+
+    @Test
+    @DisplayName("Índice vazio não encontra nada")
+    void deve_retornarVazio_quando_indiceVazio() {
+        assertTrue(new IndiceHamming<String>(10).buscar(0L, 10).isEmpty());
+    }
+}
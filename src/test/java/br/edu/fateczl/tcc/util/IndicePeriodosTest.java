@@ -0,0 +1,132 @@
+package br.edu.fateczl.tcc.util;
+
+import br.edu.fateczl.tcc.util.IndicePeriodos.Reserva;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("IndicePeriodos - conflito de datas por traje")
+class IndicePeriodosTest {
+
+    /** Mesma regra da consulta do repositório: as duas pontas são inclusivas. */
+    private static boolean sobrepoe(Reserva reserva, int inicio, int fim) {
+        return inicio <= reserva.fim() && fim >= reserva.inicio();
+    }
+
+    @Test
+    @DisplayName("Deve encontrar os mesmos conflitos que a comparação um a um")
+    void deve_equivalerAComparacaoExaustiva() {
+        Random random = new Random(42);
+        IndicePeriodos indice = new IndicePeriodos();
+        List<Reserva> todas = new ArrayList<>();
+        for (long aluguel = 1; aluguel <= 3000; aluguel++) {
+            int inicio = random.nextInt(2000);
+            // Alguns períodos longos, para que o maior fim acumulado faça diferença.
+            int duracao = random.nextInt(10) == 0 ? random.nextInt(200) : random.nextInt(7);
+            for (int item = 0, itens = 1 + random.nextInt(3); item < itens; item++) {
+                Reserva reserva = new Reserva(random.nextInt(40), aluguel, inicio, inicio + duracao);
+                indice.adicionar(reserva);
+                todas.add(reserva);
+            }
+        }
+        // Remove parte dos aluguéis para exercitar a compactação das agendas.
+        for (long aluguel = 1; aluguel <= 3000; aluguel += 5) {
+            long removido = aluguel;
+            todas.removeIf(reserva -> reserva.aluguelId() == removido);
+            indice.removerAluguel(aluguel);
+        }
+        assertEquals(todas.size(), indice.tamanho());
+
+        for (int consulta = 0; consulta < 20_000; consulta++) {
+            long traje = random.nextInt(42);
+            int inicio = random.nextInt(2100) - 50;
+            int fim = inicio + random.nextInt(10);
+            Long ignorado = random.nextBoolean() ? null : (long) (1 + random.nextInt(3000));
+
+            boolean esperado = todas.stream().anyMatch(reserva -> reserva.trajeId() == traje
+                    && (ignorado == null || reserva.aluguelId() != ignorado)
+                    && sobrepoe(reserva, inicio, fim));
+
+            assertEquals(esperado, indice.conflita(traje, inicio, fim, ignorado),
+                    "traje=" + traje + " [" + inicio + ", " + fim + "] ignorado=" + ignorado);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve considerar conflito quando os períodos só se tocam na borda")
+    void deve_conflitar_quando_periodosSeTocamNaBorda() {
+        IndicePeriodos indice = new IndicePeriodos();
+        indice.adicionar(new Reserva(1, 10, 100, 105));
+
+        assertTrue(indice.conflita(1, 105, 110, null));
+        assertTrue(indice.conflita(1, 90, 100, null));
+        assertFalse(indice.conflita(1, 106, 110, null));
+        assertFalse(indice.conflita(1, 90, 99, null));
+        assertFalse(indice.conflita(2, 100, 105, null));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar só os períodos do aluguel informado")
+    void deve_ignorarProprioAluguel() {
+        IndicePeriodos indice = new IndicePeriodos();
+        indice.adicionar(new Reserva(1, 10, 100, 105));
+
+        assertFalse(indice.conflita(1, 100, 105, 10L));
+
+        indice.adicionar(new Reserva(1, 11, 103, 104));
+        assertTrue(indice.conflita(1, 100, 105, 10L));
+    }
+
+    @Test
+    @DisplayName("Deve remover todos os períodos do aluguel e devolvê-los para restauração")
+    void deve_removerAluguelDeTodosOsTrajes() {
+        IndicePeriodos indice = new IndicePeriodos();
+        indice.adicionar(new Reserva(1, 10, 100, 105));
+        indice.adicionar(new Reserva(2, 10, 100, 105));
+        indice.adicionar(new Reserva(2, 11, 200, 201));
+
+        List<Reserva> removidas = indice.removerAluguel(10);
+
+        assertEquals(2, removidas.size());
+        assertEquals(1, indice.tamanho());
+        assertFalse(indice.conflita(1, 100, 105, null));
+        assertFalse(indice.conflita(2, 100, 105, null));
+        assertTrue(indice.conflita(2, 200, 200, null));
+        assertTrue(indice.removerAluguel(10).isEmpty());
+
+        removidas.forEach(indice::adicionar);
+        assertTrue(indice.conflita(1, 100, 105, null));
+        assertEquals(3, indice.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve listar as reservas do traje em ordem de início")
+    void deve_listarReservasEmOrdem() {
+        IndicePeriodos indice = new IndicePeriodos();
+        indice.adicionar(new Reserva(1, 12, 300, 301));
+        indice.adicionar(new Reserva(1, 10, 100, 105));
+        indice.adicionar(new Reserva(1, 11, 200, 202));
+
+        List<Integer> inicios = indice.reservas(1).stream().map(Reserva::inicio).toList();
+
+        assertEquals(List.of(100, 200, 300), inicios);
+        assertTrue(indice.reservas(2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve recusar período com fim antes do início")
+    void deve_recusarPeriodoInvertido() {
+        IndicePeriodos indice = new IndicePeriodos();
+
+        assertThrows(IllegalArgumentException.class, () -> indice.adicionar(new Reserva(1, 10, 105, 100)));
+        assertEquals(0, indice.tamanho());
+    }
+}
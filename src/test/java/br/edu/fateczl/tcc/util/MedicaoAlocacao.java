@@ -0,0 +1,42 @@
+package br.edu.fateczl.tcc.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes alocados pela thread corrente, medidos pelo ThreadMXBean do HotSpot.
+ * Em JVMs sem essa medição o teste que a usa é pulado. Tempo de CPU não entra
+ * aqui: varia com a máquina e fica nos benchmarks JMH ({@code src/jmh}).
+ */
+public final class MedicaoAlocacao {
+
+    /** Guarda o resultado de cada chamada para o JIT não eliminar o trabalho medido. */
+    private static volatile Object sumidouro;
+
+    private MedicaoAlocacao() {
+    }
+
+    /**
+     * Média de bytes alocados por chamada em {@code chamadas} execuções
+     * seguidas. O aquecimento (JIT) fica a cargo de quem chama.
+     */
+    public static long bytesPorChamada(int chamadas, Callable<?> acao) throws Exception {
+        com.sun.management.ThreadMXBean threads = threads();
+        long thread = Thread.currentThread().threadId();
+        long antes = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < chamadas; i++) {
+            sumidouro = acao.call();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - antes) / chamadas;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads;
+    }
+}
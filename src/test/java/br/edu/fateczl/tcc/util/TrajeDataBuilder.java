@@ -12,6 +12,7 @@ import br.edu.fateczl.tcc.enums.TamanhoTraje;
 import br.edu.fateczl.tcc.enums.TecidoTraje;
 import br.edu.fateczl.tcc.enums.TexturaTraje;
 import br.edu.fateczl.tcc.enums.TipoTraje;
+import br.edu.fateczl.tcc.repository.TrajeResumo;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -50,6 +51,7 @@ public class TrajeDataBuilder {
     private TexturaTraje textura = TexturaTraje.LISO;
     private CondicaoTraje condicao = CondicaoTraje.NOVO;
     private String imagemUrl = null;
+    private String imagemHash = null;
     private LocalDateTime dataCadastro = LocalDateTime.now();
 
     private TrajeDataBuilder() {
@@ -133,6 +135,11 @@ public class TrajeDataBuilder {
         return this;
     }
 
+    public TrajeDataBuilder comImagemHash(String imagemHash) {
+        this.imagemHash = imagemHash;
+        return this;
+    }
+
     public TrajeDataBuilder comDataCadastro(LocalDateTime dataCadastro) {
         this.dataCadastro = dataCadastro;
         return this;
@@ -257,6 +264,29 @@ public class TrajeDataBuilder {
                 textura,
                 condicao,
                 imagemUrl,
+                imagemUrl,
+                imagemUrl != null,
+                dataCadastro
+        );
+    }
+
+    public TrajeResumo buildResumo() {
+        return new TrajeResumo(
+                id,
+                descricao,
+                tamanho,
+                cor,
+                tipo,
+                genero,
+                valorItem,
+                status,
+                nome,
+                tecido,
+                estampa,
+                textura,
+                condicao,
+                imagemUrl,
+                imagemHash,
                 dataCadastro
         );
     }
@@ -278,6 +308,7 @@ public class TrajeDataBuilder {
                 .condicao(condicao)
                 .imagemUrl(imagemUrl)
                 .build();
+        traje.setImagemHash(imagemHash);
         traje.setDataCadastro(dataCadastro);
         return traje;
     }